@@ -1246,6 +1246,11 @@ DEFAULT_LANG = {
     'tfc.commands.clear_world.done': 'Cleared %d Block(s).',
     'tfc.commands.countblock.done': 'Found %d %s',
     'tfc.commands.countblock.invalid_block': 'Not a block or block tag: %s',
+    'tfc.commands.tracker.query': 'Queued block updates: %s landslide(s), %s collapse(s), %s isolated block(s). Last tick processed %s in %s ms.',
+    'tfc.commands.devices.chunk': 'Chunk [%s, %s]: %s sleeping, %s awake device(s)',
+    'tfc.commands.devices.total': 'Found %s sleeping and %s awake device(s) in %s chunk(s). %s device(s) are sleeping in this level.',
+    'tfc.commands.recipes.query': '%s: %s recipe(s), %s wildcard(s), %s key(s). %s lookup(s), %s candidate(s) and %s ns per lookup.',
+    'tfc.commands.recipes.reset': 'Reset recipe lookup metrics.',
     'tfc.commands.player.query_hunger': 'Hunger is %s / 20',
     'tfc.commands.player.query_saturation': 'Saturation is %s / 20',
     'tfc.commands.player.query_water': 'Water is %s / 100',
@@ -1257,6 +1262,11 @@ DEFAULT_LANG = {
     'tfc.commands.locate.invalid_biome_source': 'This world does not have a compatible biome source',
     'tfc.commands.locate.not_found': 'Could not find a biome of type \"%s\" within reasonable distance',
     'tfc.commands.locate.volcano_not_found': 'Could not find a volcano within reasonable distance',
+    'tfc.commands.locate.searching': 'Searching for %s...',
+    'tfc.commands.locate.cancelled': 'Cancelled the search for %s',
+    'tfc.commands.locate.timed_out': 'Gave up searching for %s, as it took too long',
+    'tfc.commands.locate.not_searching': 'There is no search in progress',
+    'tfc.commands.locate.error': 'An error occurred while searching for %s, see the server log for details',
     'tfc.commands.propick.found_blocks': 'The propick scan found %s %s',
     'tfc.commands.propick.cleared': 'Cleared %s blocks, Found %s prospectable blocks',
     'tfc.commands.particle.no_fluid': 'Unknown Fluid: %s',
@@ -73,9 +73,11 @@ import net.minecraft.world.level.chunk.ChunkStatus;
 import net.minecraft.world.level.chunk.EmptyLevelChunk;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.chunk.ProtoChunk;
+import net.minecraft.world.level.dimension.DimensionType;
 import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.level.material.FluidState;
 import net.minecraft.world.level.material.Material;
+import net.minecraft.world.level.storage.LevelResource;
 import net.minecraft.world.level.storage.ServerLevelData;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.HitResult;
@@ -174,7 +176,9 @@ import net.dries007.tfc.network.EffectExpirePacket;
 import net.dries007.tfc.network.PacketHandler;
 import net.dries007.tfc.network.PlayerDrinkPacket;
 import net.dries007.tfc.network.UpdateClimateModelPacket;
+import net.dries007.tfc.util.AlloyEngine;
 import net.dries007.tfc.util.AxeLoggingHelper;
+import net.dries007.tfc.util.BlockTagFlags;
 import net.dries007.tfc.util.Drinkable;
 import net.dries007.tfc.util.EntityDamageResistance;
 import net.dries007.tfc.util.Fertilizer;
@@ -195,11 +199,16 @@ import net.dries007.tfc.util.climate.ClimateModel;
 import net.dries007.tfc.util.climate.ClimateRange;
 import net.dries007.tfc.util.climate.OverworldClimateModel;
 import net.dries007.tfc.util.collections.IndirectHashCollection;
+import net.dries007.tfc.util.collections.ItemDefinitionIndex;
 import net.dries007.tfc.util.events.LoggingEvent;
 import net.dries007.tfc.util.events.SelectClimateModelEvent;
 import net.dries007.tfc.util.events.StartFireEvent;
+import net.dries007.tfc.util.tracker.DeviceScheduler;
 import net.dries007.tfc.util.tracker.WeatherHelpers;
 import net.dries007.tfc.util.tracker.WorldTracker;
+import net.dries007.tfc.util.tracker.HydrationCache;
+import net.dries007.tfc.util.tracker.StructureWatch;
+import net.dries007.tfc.util.tracker.SupportCache;
 import net.dries007.tfc.util.tracker.WorldTrackerCapability;
 import net.dries007.tfc.world.NoopClimateSampler;
 import net.dries007.tfc.world.biome.BiomeSourceExtension;
@@ -208,6 +217,7 @@ import net.dries007.tfc.world.chunkdata.ChunkData;
 import net.dries007.tfc.world.chunkdata.ChunkDataCache;
 import net.dries007.tfc.world.chunkdata.ChunkDataCapability;
 import net.dries007.tfc.world.chunkdata.ChunkGeneratorExtension;
+import net.dries007.tfc.world.feature.tree.CompiledTreeTemplate;
 import net.dries007.tfc.world.settings.RockLayerSettings;
 
 public final class ForgeEventHandler
@@ -239,6 +249,7 @@ public final class ForgeEventHandler
         bus.addListener(ForgeEventHandler::onExplosionDetonate);
         bus.addListener(ForgeEventHandler::onWorldTick);
         bus.addListener(ForgeEventHandler::onWorldLoad);
+        bus.addListener(ForgeEventHandler::onWorldUnload);
         bus.addListener(ForgeEventHandler::onCreateNetherPortal);
         bus.addListener(ForgeEventHandler::onFluidPlaceBlock);
         bus.addListener(ForgeEventHandler::onFluidCreateSource);
@@ -445,6 +456,7 @@ public final class ForgeEventHandler
 
     public static void onChunkLoad(ChunkEvent.Load event)
     {
+        invalidateLevelCaches(event);
         if (!Helpers.isClientSide(event.getWorld()) && !(event.getChunk() instanceof EmptyLevelChunk))
         {
             ChunkPos pos = event.getChunk().getPos();
@@ -457,6 +469,8 @@ public final class ForgeEventHandler
 
     public static void onChunkUnload(ChunkEvent.Unload event)
     {
+        invalidateLevelCaches(event);
+
         // Clear server side chunk data cache
         if (!Helpers.isClientSide(event.getWorld()) && !(event.getChunk() instanceof EmptyLevelChunk))
         {
@@ -464,6 +478,21 @@ public final class ForgeEventHandler
         }
     }
 
+    /**
+     * Full chunks are loaded (or replaced, on client) and unloaded on the level's thread, which is the only thread the cache is accessed from.
+     */
+    private static void invalidateLevelCaches(ChunkEvent event)
+    {
+        if (event.getChunk() instanceof LevelChunk chunk && !(chunk instanceof EmptyLevelChunk))
+        {
+            final ChunkPos pos = chunk.getPos();
+            chunk.getLevel().getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(cap -> {
+                cap.getHydrationCache().onChunkChanged(pos.x, pos.z);
+                cap.getSupportCache().onChunkChanged(pos.x, pos.z);
+            });
+        }
+    }
+
     /**
      * Serialize chunk data on chunk primers, before the chunk data capability is present.
      * - This saves the effort of re-generating the same data for proto chunks
@@ -505,7 +534,7 @@ public final class ForgeEventHandler
         final BlockPos pos = event.getPos();
         final BlockState state = levelAccess.getBlockState(pos);
 
-        if (Helpers.isBlock(state, TFCTags.Blocks.CAN_TRIGGER_COLLAPSE) && levelAccess instanceof Level level)
+        if (BlockTagFlags.is(state, BlockTagFlags.CAN_TRIGGER_COLLAPSE) && levelAccess instanceof Level level)
         {
             CollapseRecipe.tryTriggerCollapse(level, pos);
             return;
@@ -527,14 +556,19 @@ public final class ForgeEventHandler
             final BlockPos pos = event.getPos();
             final BlockState state = event.getState();
 
-            if (Helpers.isBlock(state, TFCTags.Blocks.CAN_LANDSLIDE))
+            final WorldTracker tracker = WorldTracker.get(world);
+            if (tracker != null)
             {
-                world.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(cap -> cap.addLandslidePos(pos));
-            }
+                final int flags = BlockTagFlags.get(state);
+                if ((flags & BlockTagFlags.CAN_LANDSLIDE) != 0)
+                {
+                    tracker.addLandslidePos(pos);
+                }
 
-            if (Helpers.isBlock(state, TFCTags.Blocks.BREAKS_WHEN_ISOLATED))
-            {
-                world.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(cap -> cap.addIsolatedPos(pos));
+                if ((flags & BlockTagFlags.BREAKS_WHEN_ISOLATED) != 0)
+                {
+                    tracker.addIsolatedPos(pos);
+                }
             }
         }
     }
@@ -553,20 +587,27 @@ public final class ForgeEventHandler
     {
         if (event.getWorld() instanceof final ServerLevel level)
         {
+            final WorldTracker tracker = WorldTracker.get(level);
+            if (tracker == null)
+            {
+                return;
+            }
+
+            final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
             for (Direction direction : event.getNotifiedSides())
             {
                 // Check each notified block for a potential gravity block
-                final BlockPos pos = event.getPos().relative(direction);
-                final BlockState state = level.getBlockState(pos);
+                cursor.setWithOffset(event.getPos(), direction);
+                final int flags = BlockTagFlags.get(level.getBlockState(cursor));
 
-                if (Helpers.isBlock(state, TFCTags.Blocks.CAN_LANDSLIDE))
+                if ((flags & BlockTagFlags.CAN_LANDSLIDE) != 0)
                 {
-                    level.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(cap -> cap.addLandslidePos(pos));
+                    tracker.addLandslidePos(cursor.asLong());
                 }
 
-                if (Helpers.isBlock(state.getBlock(), TFCTags.Blocks.BREAKS_WHEN_ISOLATED))
+                if ((flags & BlockTagFlags.BREAKS_WHEN_ISOLATED) != 0)
                 {
-                    level.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(cap -> cap.addIsolatedPos(pos));
+                    tracker.addIsolatedPos(cursor.asLong());
                 }
             }
         }
@@ -613,6 +654,23 @@ public final class ForgeEventHandler
                 ItemSizeManager.applyItemStackSizeOverrides();
                 SelfTests.runServerSelfTests();
             }
+
+            if (TFCConfig.COMMON.enableChunkDataStore.get() && level.getChunkSource().getGenerator() instanceof ChunkGeneratorExtension ex)
+            {
+                ex.getChunkDataProvider().openStore(DimensionType.getStorageFolder(level.dimension(), server.getWorldPath(LevelResource.ROOT)).resolve("data/tfc_chunk_data"));
+            }
+        }
+    }
+
+    public static void onWorldUnload(WorldEvent.Unload event)
+    {
+        if (event.getWorld() instanceof final ServerLevel level)
+        {
+            WorldTracker.onLevelUnload(level);
+        }
+        if (event.getWorld() instanceof final ServerLevel level && level.getChunkSource().getGenerator() instanceof ChunkGeneratorExtension ex)
+        {
+            ex.getChunkDataProvider().closeStore();
         }
     }
 
@@ -932,6 +990,7 @@ public final class ForgeEventHandler
      * Applies multiple effect for entities joining the world:
      * <p>
      * - Set a very short lifespan to item entities that are cool-able. This causes ItemExpireEvent to fire at regular intervals
+     * - Wakes sleeping devices near new item entities, so they can gather them
      * - Causes lightning bolts to strip nearby logs
      * - Prevents skeleton trap horses from spawning (see {@link ServerLevel#tickChunk(LevelChunk, int)}
      * - Prevents some categories of mobs from spawning. Some can't be done in {@link LivingSpawnEvent.CheckSpawn} because Forge does not always fire it.
@@ -947,6 +1006,10 @@ public final class ForgeEventHandler
         final Level level = event.getWorld();
 
         Entity entity = event.getEntity();
+        if (entity instanceof ItemEntity && level instanceof ServerLevel serverLevel)
+        {
+            DeviceScheduler.onItemAdded(serverLevel, entity.blockPosition());
+        }
         if (entity instanceof ItemEntity itemEntity && !level.isClientSide && TFCConfig.SERVER.coolHotItemEntities.get())
         {
             final ItemStack item = itemEntity.getItem();
@@ -1372,6 +1435,13 @@ public final class ForgeEventHandler
         // First, reload all caches
         final RecipeManager manager = Helpers.getUnsafeRecipeManager();
         IndirectHashCollection.reloadAllCaches(manager);
+        ItemDefinitionIndex.reloadAll();
+        AlloyEngine.reload(manager);
+        BlockTagFlags.reload();
+        CompiledTreeTemplate.clearCache();
+        HydrationCache.invalidateAll();
+        SupportCache.invalidateAll();
+        StructureWatch.invalidateAll();
 
         // Then apply post reload actions which may query the cache
         Support.updateMaximumSupportRange();
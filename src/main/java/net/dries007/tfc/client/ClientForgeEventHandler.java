@@ -315,6 +315,8 @@ public class ClientForgeEventHandler
             colorCaches.putIfAbsent(TFCColors.FRESH_WATER, new BlockTintCache(TFCColors::getWaterColor));
             colorCaches.putIfAbsent(TFCColors.SALT_WATER, new BlockTintCache(TFCColors::getWaterColor));
 
+            ClimateTintCache.INSTANCE.clear();
+
         }
     }
 
@@ -342,6 +344,7 @@ public class ClientForgeEventHandler
         {
             Calendars.CLIENT.onClientTick();
             ClimateRenderCache.INSTANCE.onClientTick();
+            ClimateTintCache.INSTANCE.onClientTick();
         }
     }
 
@@ -0,0 +1,163 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.client;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelHeightAccessor;
+
+import net.dries007.tfc.util.calendar.Calendars;
+import net.dries007.tfc.util.climate.Climate;
+import net.dries007.tfc.world.FastConcurrentCache;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+
+/**
+ * Per-section tables of climate colormap indices, used for block tints (grass and foliage) during chunk meshing.
+ * <p>
+ * Block tints are queried for every tinted block vertex, on mesh worker threads. Rather than querying the climate each time, each section has a 16x16 table of colormap indices (see {@link TFCColors#getClimateColorIndex(float, float)}), sampled at the vertical center of the section. A single table serves every colormap, as they all share the same temperature and rainfall axes.
+ * <p>
+ * Tables are built lazily, and are discarded when chunk data arrives for a chunk, when the climate model is synced, and at the start of each month (which includes the start of each season). In between, they do not follow the daily temperature cycle, so sections rebuilt at different times of day have consistent tints.
+ * Tables are immutable once built, and are published through a {@link FastConcurrentCache}, so they are safe to read from any thread.
+ */
+public final class ClimateTintCache
+{
+    public static final ClimateTintCache INSTANCE = new ClimateTintCache(ClimateTintCache::sampleClientLevel);
+
+    private static final int CACHE_SIZE = 2048;
+
+    /**
+     * Samples the climate of the client level, using the current calendar time.
+     */
+    private static boolean sampleClientLevel(int chunkX, int sectionY, int chunkZ, float[] temperatures, float[] rainfalls)
+    {
+        final Level level = ClientHelpers.getLevel();
+        if (level == null)
+        {
+            return false;
+        }
+
+        final BlockPos[] positions = new BlockPos[16 * 16];
+        final int minX = SectionPos.sectionToBlockCoord(chunkX), minZ = SectionPos.sectionToBlockCoord(chunkZ), y = SectionPos.sectionToBlockCoord(sectionY, 8);
+        for (int i = 0; i < positions.length; i++)
+        {
+            positions[i] = new BlockPos(minX + (i & 15), y, minZ + (i >> 4));
+        }
+
+        Climate.getTemperatures(level, positions, temperatures);
+        Climate.getRainfalls(level, positions, rainfalls);
+
+        // Don't keep tables built before the chunk data has been received, it will be replaced shortly
+        return ChunkData.get(level, new ChunkPos(chunkX, chunkZ)).getStatus() != ChunkData.Status.EMPTY;
+    }
+
+    private final SectionSampler sampler;
+    private volatile FastConcurrentCache<ChunkTints> cache;
+    private long lastMonth;
+
+    public ClimateTintCache(SectionSampler sampler)
+    {
+        this.sampler = sampler;
+        this.cache = new FastConcurrentCache<>(CACHE_SIZE);
+        this.lastMonth = Long.MIN_VALUE;
+    }
+
+    /**
+     * @return The index into a climate colormap for the given position.
+     */
+    public int getColorIndex(LevelHeightAccessor level, BlockPos pos)
+    {
+        final int sectionY = SectionPos.blockToSectionCoord(pos.getY());
+        final int sectionIndex = sectionY - level.getMinSection();
+        final int sectionCount = level.getSectionsCount();
+        final int chunkX = SectionPos.blockToSectionCoord(pos.getX()), chunkZ = SectionPos.blockToSectionCoord(pos.getZ());
+        final int index = (pos.getX() & 15) | ((pos.getZ() & 15) << 4);
+
+        if (sectionIndex < 0 || sectionIndex >= sectionCount)
+        {
+            // Outside the level, so don't cache the result
+            return sample(chunkX, sectionY, chunkZ).indices[index];
+        }
+
+        final FastConcurrentCache<ChunkTints> cache = this.cache;
+        ChunkTints chunk = cache.getIfPresent(chunkX, chunkZ);
+        if (chunk == null || chunk.sections.length != sectionCount)
+        {
+            chunk = new ChunkTints(new SectionTints[sectionCount]);
+            cache.set(chunkX, chunkZ, chunk);
+        }
+
+        SectionTints section = chunk.sections[sectionIndex];
+        if (section == null)
+        {
+            section = sample(chunkX, sectionY, chunkZ);
+            if (section.complete)
+            {
+                // This may race with another thread building the same section, but both will be equivalent
+                chunk.sections[sectionIndex] = section;
+            }
+        }
+        return section.indices[index];
+    }
+
+    /**
+     * Called on client tick, discards all tables at the start of each month.
+     */
+    public void onClientTick()
+    {
+        final long month = Calendars.CLIENT.getTotalCalendarMonths();
+        if (month != lastMonth)
+        {
+            lastMonth = month;
+            clear();
+        }
+    }
+
+    /**
+     * Discards the tables for a single chunk, i.e. when it's chunk data has been updated.
+     */
+    public void invalidate(int chunkX, int chunkZ)
+    {
+        cache.set(chunkX, chunkZ, null);
+    }
+
+    /**
+     * Discards all tables, i.e. when the level or climate model changes.
+     */
+    public void clear()
+    {
+        cache = new FastConcurrentCache<>(CACHE_SIZE);
+    }
+
+    private SectionTints sample(int chunkX, int sectionY, int chunkZ)
+    {
+        final float[] temperatures = new float[16 * 16], rainfalls = new float[16 * 16];
+        final boolean complete = sampler.sample(chunkX, sectionY, chunkZ, temperatures, rainfalls);
+        final char[] indices = new char[16 * 16];
+        for (int i = 0; i < indices.length; i++)
+        {
+            indices[i] = (char) TFCColors.getClimateColorIndex(temperatures[i], rainfalls[i]);
+        }
+        return new SectionTints(indices, complete);
+    }
+
+    @FunctionalInterface
+    public interface SectionSampler
+    {
+        /**
+         * Samples the temperature and rainfall of each column of a section, indexed by {@code x | (z << 4)}.
+         *
+         * @return {@code true} if the result is final and can be cached.
+         */
+        boolean sample(int chunkX, int sectionY, int chunkZ, float[] temperatures, float[] rainfalls);
+    }
+
+    private record ChunkTints(SectionTints[] sections) {}
+
+    private record SectionTints(char[] indices, boolean complete) {}
+}
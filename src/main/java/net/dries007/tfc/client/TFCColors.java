@@ -133,12 +133,12 @@ public final class TFCColors
             {
                 case SPRING:
                 case SUMMER:
-                    return getClimateColor(FOLIAGE_COLORS_CACHE, pos);
+                    return getTintColor(FOLIAGE_COLORS_CACHE, pos);
                 case FALL:
                     int index = Helpers.hash(91273491823412341L, pos);
                     return FOLIAGE_FALL_COLORS_CACHE[index & COLORMAP_MASK];
                 case WINTER:
-                    return getClimateColor(FOLIAGE_WINTER_COLORS_CACHE, pos);
+                    return getTintColor(FOLIAGE_WINTER_COLORS_CACHE, pos);
             }
         }
         return -1;
@@ -150,7 +150,7 @@ public final class TFCColors
         {
             if (pos != null)
             {
-                return getClimateColor(FOLIAGE_COLORS_CACHE, pos);
+                return getTintColor(FOLIAGE_COLORS_CACHE, pos);
             }
             return getClimateColor(FOLIAGE_COLORS_CACHE, 10f, 250f); // Default values
         }
@@ -163,7 +163,7 @@ public final class TFCColors
         {
             if (pos != null)
             {
-                return getClimateColor(GRASS_COLORS_CACHE, pos);
+                return getTintColor(GRASS_COLORS_CACHE, pos);
             }
             return getClimateColor(GRASS_COLORS_CACHE, 10f, 250f); // Default values
         }
@@ -176,7 +176,7 @@ public final class TFCColors
         {
             if (pos != null)
             {
-                return getClimateColor(TALL_GRASS_COLORS_CACHE, pos);
+                return getTintColor(TALL_GRASS_COLORS_CACHE, pos);
             }
             return getClimateColor(TALL_GRASS_COLORS_CACHE, 10f, 250f); // Default values
         }
@@ -225,14 +225,35 @@ public final class TFCColors
         return 0;
     }
 
+    /**
+     * Queries a color map for a block tint, using the precomputed climate of the section, see {@link ClimateTintCache}.
+     */
+    private static int getTintColor(int[] colorCache, BlockPos pos)
+    {
+        final Level level = ClientHelpers.getLevel();
+        if (level != null)
+        {
+            return colorCache[ClimateTintCache.INSTANCE.getColorIndex(level, pos)];
+        }
+        return 0;
+    }
+
     /**
      * Queries a color map based on temperature and rainfall parameters. Temperature is horizontal, left is high. Rainfall is vertical, up is high.
      */
     private static int getClimateColor(int[] colorCache, float temperature, float rainfall)
+    {
+        return colorCache[getClimateColorIndex(temperature, rainfall)];
+    }
+
+    /**
+     * @return The index into a color map for the given temperature and rainfall.
+     */
+    public static int getClimateColorIndex(float temperature, float rainfall)
     {
         final int temperatureIndex = 255 - Mth.clamp((int) ((temperature + 30f) * 255f / 60f), 0, 255);
         final int rainfallIndex = 255 - Mth.clamp((int) (rainfall * 255f / 500f), 0, 255);
-        return colorCache[temperatureIndex | (rainfallIndex << 8)];
+        return temperatureIndex | (rainfallIndex << 8);
     }
 
     private static ColorResolver waterColorResolver(ToIntFunction<BlockPos> colorAccessor)
@@ -28,9 +28,11 @@ import net.minecraftforge.items.IItemHandlerModifiable;
 import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.blocks.devices.FirepitBlock;
 import net.dries007.tfc.common.capabilities.heat.HeatCapability;
+import net.dries007.tfc.common.capabilities.heat.HeatTimeline;
 import net.dries007.tfc.util.Fuel;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.IntArrayBuilder;
+import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.calendar.ICalendarTickable;
 
 public abstract class AbstractFirepitBlockEntity<C extends IItemHandlerModifiable & INBTSerializable<CompoundTag>> extends TickableInventoryBlockEntity<C> implements ICalendarTickable, MenuProvider
@@ -100,6 +102,11 @@ public abstract class AbstractFirepitBlockEntity<C extends IItemHandlerModifiabl
         {
             firepit.cascadeFuelSlots();
         }
+        if (!state.getValue(FirepitBlock.LIT) && firepit.isIdle())
+        {
+            // Cold firepits only need to tick again once they are lit, or are changed
+            firepit.sleepUntil(Long.MAX_VALUE);
+        }
     }
 
     protected final ContainerData syncableData;
@@ -159,22 +166,35 @@ public abstract class AbstractFirepitBlockEntity<C extends IItemHandlerModifiabl
         updateCachedRecipe();
     }
 
+    @Override
+    public boolean canGatherItems()
+    {
+        return true;
+    }
+
     @Override
     public void onCalendarUpdate(long ticks)
     {
         assert level != null;
-        if (level.getBlockState(worldPosition).getValue(FirepitBlock.LIT))
+        dirtiness = Mth.clamp(dirtiness * (float) Math.pow(0.99, ticks / 20d), 0f, 1f); // As in updateSmokeLevel(), which is called every 20 ticks
+        final BlockState state = level.getBlockState(worldPosition);
+        final boolean lit = state.getValue(FirepitBlock.LIT);
+        if (lit || temperature > 0)
         {
-            final HeatCapability.Remainder remainder = HeatCapability.consumeFuelForTicks(ticks, inventory, burnTicks, burnTemperature, SLOT_FUEL_CONSUME, SLOT_FUEL_INPUT);
-
-            burnTicks = remainder.burnTicks();
-            burnTemperature = remainder.burnTemperature();
-            needsSlotUpdate = true;
-            if (remainder.ticks() > 0) // Consumed all fuel, so extinguish and cool instantly
+            final HeatTimeline timeline = HeatTimeline.burn(HeatTimeline.Rates.fromConfig(), ticks, new HeatTimeline.Fire(temperature, lit, burnTicks, burnTemperature, airTicks), level.isRainingAt(worldPosition), 1, true, HeatTimeline.fuels(Helpers.iterate(inventory, SLOT_FUEL_CONSUME, 1 + SLOT_FUEL_INPUT), fuel -> dirtiness += 1f - fuel.getPurity()));
+            final HeatTimeline.Fire fire = timeline.getFire();
+            if (lit && !fire.lit())
             {
-                extinguish(level.getBlockState(worldPosition));
-                coolInstantly();
+                extinguish(state);
             }
+
+            temperature = fire.temperature();
+            burnTicks = fire.burnTicks();
+            burnTemperature = fire.burnTemperature();
+            airTicks = fire.airTicks();
+            heatContents(timeline, Calendars.SERVER.getTicks() - ticks - 1);
+            needsSlotUpdate = true;
+            markForSync();
         }
     }
 
@@ -192,6 +212,14 @@ public abstract class AbstractFirepitBlockEntity<C extends IItemHandlerModifiabl
         lastPlayerTick = tick;
     }
 
+    /**
+     * @return {@code true} if the firepit is cold, and nothing is pending which would need it to tick.
+     */
+    protected boolean isIdle()
+    {
+        return temperature <= 0 && burnTemperature <= 0 && airTicks == 0 && !needsSlotUpdate && !needsRecipeUpdate;
+    }
+
     public void updateSmokeLevel(BlockState state)
     {
         assert level != null;
@@ -324,9 +352,11 @@ public abstract class AbstractFirepitBlockEntity<C extends IItemHandlerModifiabl
     protected abstract void handleCooking();
 
     /**
-     * Cools all contents of the firepit instantly.
+     * Heats the contents of the firepit over a number of ticks, following the firepit's temperature.
+     *
+     * @param startTick The calendar tick the timeline starts after.
      */
-    protected abstract void coolInstantly();
+    protected abstract void heatContents(HeatTimeline timeline, long startTick);
 
     /**
      * Updates cached recipes due to an inventory or other change.
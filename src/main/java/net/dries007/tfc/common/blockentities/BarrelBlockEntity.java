@@ -22,7 +22,6 @@ import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.crafting.RecipeManager;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
@@ -49,8 +48,9 @@ import net.dries007.tfc.common.capabilities.size.Weight;
 import net.dries007.tfc.common.container.BarrelContainer;
 import net.dries007.tfc.common.fluids.FluidHelpers;
 import net.dries007.tfc.common.recipes.BarrelRecipe;
+import net.dries007.tfc.common.recipes.InstantBarrelRecipe;
+import net.dries007.tfc.common.recipes.InstantFluidBarrelRecipe;
 import net.dries007.tfc.common.recipes.SealedBarrelRecipe;
-import net.dries007.tfc.common.recipes.TFCRecipeTypes;
 import net.dries007.tfc.common.recipes.inventory.EmptyInventory;
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.Helpers;
@@ -128,10 +128,8 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
             barrel.needsInstantRecipeUpdate = false;
             if (barrel.inventory.excess.isEmpty()) // Excess must be empty for instant recipes to apply
             {
-                final RecipeManager recipeManager = level.getRecipeManager();
-                Optional.<BarrelRecipe>empty() // For type erasure
-                    .or(() -> recipeManager.getRecipeFor(TFCRecipeTypes.BARREL_INSTANT.get(), barrel.inventory, level))
-                    .or(() -> recipeManager.getRecipeFor(TFCRecipeTypes.BARREL_INSTANT_FLUID.get(), barrel.inventory, level))
+                Optional.<BarrelRecipe>ofNullable(InstantBarrelRecipe.get(level, barrel.inventory))
+                    .or(() -> Optional.ofNullable(InstantFluidBarrelRecipe.get(level, barrel.inventory)))
                     .ifPresent(instantRecipe -> {
                         instantRecipe.assembleOutputs(barrel.inventory);
                         if (barrel.soundCooldownTicks == 0)
@@ -161,6 +159,13 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
             barrel.inventory.fill(new FluidStack(Fluids.WATER, 1), IFluidHandler.FluidAction.EXECUTE);
             barrel.markForSync();
         }
+
+        if (sealed && barrel.isIdle())
+        {
+            // Sealed barrels only need to tick again once their recipe completes, or if they are changed (i.e. unsealed)
+            final SealedBarrelRecipe currentRecipe = barrel.recipe;
+            barrel.sleepUntil(currentRecipe != null && !currentRecipe.isInfinite() ? barrel.recipeTick + currentRecipe.getDuration() + 1 : Long.MAX_VALUE);
+        }
     }
 
 
@@ -229,6 +234,7 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
         needsInstantRecipeUpdate = true;
         updateRecipe();
         setChanged();
+        wake();
     }
 
     @Override
@@ -358,6 +364,14 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
         inventory.excess.stream().filter(item -> !item.isEmpty()).forEach(item -> Helpers.spawnItem(level, worldPosition, item));
     }
 
+    /**
+     * @return {@code true} if nothing is pending which would need the barrel to tick, other than its recipe.
+     */
+    private boolean isIdle()
+    {
+        return recipeName == null && !needsInstantRecipeUpdate && soundCooldownTicks == 0 && inventory.excess.isEmpty() && inventory.getStackInSlot(SLOT_FLUID_CONTAINER_IN).isEmpty();
+    }
+
     public void tickPouring(Level level, BlockPos pos, boolean sealed, Direction facing)
     {
         if (level.getGameTime() % 20 == 0)
@@ -465,7 +479,7 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
         if (inventory.excess.isEmpty())
         {
             // Will only work on a recipe as long as the 'excess' is empty
-            recipe = level.getRecipeManager().getRecipeFor(TFCRecipeTypes.BARREL_SEALED.get(), inventory, level).orElse(null);
+            recipe = SealedBarrelRecipe.get(level, inventory);
             if (recipe != null && oldRecipe != recipe && (oldRecipe == null || !oldRecipe.getId().equals(recipe.getId())))
             {
                 // The recipe has changed to a new one, so update the recipe ticks
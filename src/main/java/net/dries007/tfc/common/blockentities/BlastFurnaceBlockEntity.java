@@ -44,6 +44,7 @@ import net.dries007.tfc.common.capabilities.DelegateFluidHandler;
 import net.dries007.tfc.common.capabilities.PartialFluidHandler;
 import net.dries007.tfc.common.capabilities.SidedHandler;
 import net.dries007.tfc.common.capabilities.heat.HeatCapability;
+import net.dries007.tfc.common.capabilities.heat.HeatTimeline;
 import net.dries007.tfc.common.container.BlastFurnaceContainer;
 import net.dries007.tfc.common.fluids.FluidHelpers;
 import net.dries007.tfc.common.recipes.BlastFurnaceRecipe;
@@ -53,7 +54,9 @@ import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.Fuel;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.IntArrayBuilder;
+import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.calendar.ICalendarTickable;
+import net.dries007.tfc.util.tracker.StructureWatch;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -234,6 +237,9 @@ public class BlastFurnaceBlockEntity extends TickableInventoryBlockEntity<BlastF
     private int airTicks; // Ticks of air provided by bellows
     private long lastPlayerTick = Integer.MIN_VALUE; // Last player tick this device was ticked (for purposes of catching up)
     private int lastKnownCapacity; // Last calculation of capacity (happens every 20 ticks), used by the gui
+    private int chimneyLevels; // Last calculation of the chimney height, which is only re-checked when a block in the structure changes
+    private int chimneyMaxHeight; // The maximum chimney height the structure was watched with
+    @Nullable private StructureWatch.Handle structure;
 
     public BlastFurnaceBlockEntity(BlockPos pos, BlockState state)
     {
@@ -362,19 +368,28 @@ public class BlastFurnaceBlockEntity extends TickableInventoryBlockEntity<BlastF
     {
         assert level != null;
 
-        final HeatCapability.Remainder remainder = HeatCapability.consumeFuelForTicks(ticks, burnTicks, burnTemperature, fuelStacks);
+        final BlockState state = getBlockState();
+        final boolean lit = state.getValue(BlastFurnaceBlock.LIT);
+        if (lit || temperature > 0)
+        {
+            final HeatTimeline timeline = HeatTimeline.burn(HeatTimeline.Rates.fromConfig(), ticks, new HeatTimeline.Fire(temperature, lit, burnTicks, burnTemperature, airTicks), false, TFCConfig.SERVER.blastFurnaceFuelConsumptionMultiplier.get(), false, HeatTimeline.fuels(fuelStacks));
+            final HeatTimeline.Fire fire = timeline.getFire();
+            if (lit && !fire.lit())
+            {
+                extinguish(state);
+            }
 
-        burnTicks = remainder.burnTicks();
-        burnTemperature = remainder.burnTemperature();
+            temperature = fire.temperature();
+            burnTicks = fire.burnTicks();
+            burnTemperature = fire.burnTemperature();
+            airTicks = fire.airTicks();
 
-        if (remainder.ticks() > 0)
-        {
-            // Consumed all fuel, so extinguish and cool instantly
-            extinguish(getBlockState());
+            final long startTick = Calendars.SERVER.getTicks() - ticks - 1;
             for (ItemStack stack : inputStacks)
             {
-                stack.getCapability(HeatCapability.CAPABILITY).ifPresent(cap -> cap.setTemperature(0f));
+                stack.getCapability(HeatCapability.CAPABILITY).ifPresent(cap -> timeline.heat(cap, startTick, HeatTimeline.Heating.WHEN_COOLER));
             }
+            markForSync();
         }
     }
 
@@ -423,6 +438,17 @@ public class BlastFurnaceBlockEntity extends TickableInventoryBlockEntity<BlastF
         sidedFluidInventory.invalidate();
     }
 
+    @Override
+    public void setRemoved()
+    {
+        super.setRemoved();
+        if (level != null)
+        {
+            StructureWatch.release(level, structure);
+        }
+        structure = null;
+    }
+
     @Override
     public void ejectInventory()
     {
@@ -556,7 +582,7 @@ public class BlastFurnaceBlockEntity extends TickableInventoryBlockEntity<BlastF
         // Next, we need to check for item entities and try and add as many as we can.
         // If we don't have a recipe, we'll find the first recipe which matches one of the inputs, and assign that.
         // Then, assuming we do have a recipe, we'll re-check the inputs for any that can be added, and add up to an equal amount of both.
-        final List<ItemEntity> items = level.getEntitiesOfClass(ItemEntity.class, new AABB(worldPosition, worldPosition.offset(1, BlastFurnaceBlock.getChimneyLevels(level, worldPosition) + 2, 1)), EntitySelector.ENTITY_STILL_ALIVE);
+        final List<ItemEntity> items = level.getEntitiesOfClass(ItemEntity.class, new AABB(worldPosition, worldPosition.offset(1, chimneyLevels + 2, 1)), EntitySelector.ENTITY_STILL_ALIVE);
 
         if (cachedRecipe == null)
         {
@@ -641,7 +667,14 @@ public class BlastFurnaceBlockEntity extends TickableInventoryBlockEntity<BlastF
     private int calculateCapacity()
     {
         assert level != null;
-        return lastKnownCapacity = BlastFurnaceBlock.getChimneyLevels(level, worldPosition) * TFCConfig.SERVER.blastFurnaceCapacity.get();
+        final int maxHeight = TFCConfig.SERVER.blastFurnaceMaxChimneyHeight.get();
+        if (structure == null || structure.isChanged() || chimneyMaxHeight != maxHeight)
+        {
+            chimneyLevels = BlastFurnaceBlock.getChimneyLevels(level, worldPosition);
+            chimneyMaxHeight = maxHeight;
+            structure = StructureWatch.watch(level, structure, BlastFurnaceBlock.getChimneyFootprint(worldPosition));
+        }
+        return lastKnownCapacity = chimneyLevels * TFCConfig.SERVER.blastFurnaceCapacity.get();
     }
 
     private void updateCachedRecipe()
@@ -41,6 +41,7 @@ import net.dries007.tfc.util.Metal;
 import net.dries007.tfc.util.calendar.CalendarTransaction;
 import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.calendar.ICalendarTickable;
+import net.dries007.tfc.util.tracker.StructureWatch;
 import org.jetbrains.annotations.Nullable;
 
 import static net.dries007.tfc.TerraFirmaCraft.MOD_ID;
@@ -111,6 +112,9 @@ public class BloomeryBlockEntity extends TickableInventoryBlockEntity<BloomeryBl
     private long lastPlayerTick = Integer.MIN_VALUE;
     private long litTick;
     @Nullable protected BloomeryRecipe cachedRecipe;
+    private int chimneyLevels; // Last calculation of the chimney height, or zero if not formed, which is only re-checked when a block in the structure changes
+    private int chimneyMaxHeight; // The maximum chimney height the structure was watched with
+    @Nullable private StructureWatch.Handle structure;
 
     public BloomeryBlockEntity(BlockPos pos, BlockState state)
     {
@@ -140,6 +144,17 @@ public class BloomeryBlockEntity extends TickableInventoryBlockEntity<BloomeryBl
         super.saveAdditional(nbt);
     }
 
+    @Override
+    public void setRemoved()
+    {
+        super.setRemoved();
+        if (level != null)
+        {
+            StructureWatch.release(level, structure);
+        }
+        structure = null;
+    }
+
     public long getRemainingTicks()
     {
         if (cachedRecipe == null)
@@ -308,7 +323,7 @@ public class BloomeryBlockEntity extends TickableInventoryBlockEntity<BloomeryBl
         // If we don't have a recipe, we'll find the first recipe which matches one of the inputs, and assign that.
         // Then, assuming we do have a recipe, we'll re-check the inputs for any that can be added, and add up to an equal amount of both.
         final BlockPos internalPos = getInternalBlockPos();
-        final List<ItemEntity> items = level.getEntitiesOfClass(ItemEntity.class, new AABB(internalPos, internalPos.offset(1, BloomeryBlock.getChimneyLevels(level, internalPos) + 1, 1)), EntitySelector.ENTITY_STILL_ALIVE);
+        final List<ItemEntity> items = level.getEntitiesOfClass(ItemEntity.class, new AABB(internalPos, internalPos.offset(1, chimneyLevels + 1, 1)), EntitySelector.ENTITY_STILL_ALIVE);
 
         if (cachedRecipe == null)
         {
@@ -379,13 +394,16 @@ public class BloomeryBlockEntity extends TickableInventoryBlockEntity<BloomeryBl
     {
         assert level != null;
 
-        final BlockPos pos = getInternalBlockPos();
-        final Direction direction = getBlockState().getValue(BloomeryBlock.FACING);
-        if (BloomeryBlock.isFormed(level, pos, direction))
+        final int maxHeight = TFCConfig.SERVER.bloomeryMaxChimneyHeight.get();
+        if (structure == null || structure.isChanged() || chimneyMaxHeight != maxHeight)
         {
-            return BloomeryBlock.getChimneyLevels(level, pos) * TFCConfig.SERVER.bloomeryCapacity.get();
+            final BlockPos pos = getInternalBlockPos();
+            final Direction direction = getBlockState().getValue(BloomeryBlock.FACING);
+            chimneyLevels = BloomeryBlock.isFormed(level, pos, direction) ? BloomeryBlock.getChimneyLevels(level, pos) : 0;
+            chimneyMaxHeight = maxHeight;
+            structure = StructureWatch.watch(level, structure, BloomeryBlock.getStructureFootprint(pos, direction));
         }
-        return 0;
+        return chimneyLevels * TFCConfig.SERVER.bloomeryCapacity.get();
     }
 
     private void completeRecipe()
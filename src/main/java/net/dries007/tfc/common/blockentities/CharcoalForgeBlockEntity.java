@@ -35,6 +35,7 @@ import net.dries007.tfc.common.capabilities.food.FoodCapability;
 import net.dries007.tfc.common.capabilities.food.FoodTraits;
 import net.dries007.tfc.common.capabilities.heat.Heat;
 import net.dries007.tfc.common.capabilities.heat.HeatCapability;
+import net.dries007.tfc.common.capabilities.heat.HeatTimeline;
 import net.dries007.tfc.common.container.CharcoalForgeContainer;
 import net.dries007.tfc.common.recipes.HeatingRecipe;
 import net.dries007.tfc.common.recipes.inventory.ItemStackInventory;
@@ -42,7 +43,9 @@ import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.Fuel;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.IntArrayBuilder;
+import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.calendar.ICalendarTickable;
+import net.dries007.tfc.util.tracker.StructureWatch;
 import org.jetbrains.annotations.Nullable;
 
 import static net.dries007.tfc.TerraFirmaCraft.MOD_ID;
@@ -146,6 +149,11 @@ public class CharcoalForgeBlockEntity extends TickableInventoryBlockEntity<ItemS
         {
             forge.cascadeFuelSlots();
         }
+        if (state.getValue(CharcoalForgeBlock.HEAT) == 0 && forge.isIdle())
+        {
+            // Cold forges only need to tick again once they are lit, or are changed
+            forge.sleepUntil(Long.MAX_VALUE);
+        }
     }
 
     protected final ContainerData syncableData;
@@ -157,6 +165,8 @@ public class CharcoalForgeBlockEntity extends TickableInventoryBlockEntity<ItemS
     private int airTicks; // Ticks of air provided by bellows
     private long lastPlayerTick; // Last player tick this forge was ticked (for purposes of catching up)
     private boolean needsRecipeUpdate; // Set to indicate on tick, the cached recipes need to be re-updated
+    private boolean structureValid; // Last check of the forge structure, which is only re-checked when a block in the structure changes
+    @Nullable private StructureWatch.Handle structure;
 
     public CharcoalForgeBlockEntity(BlockPos pos, BlockState state)
     {
@@ -194,24 +204,28 @@ public class CharcoalForgeBlockEntity extends TickableInventoryBlockEntity<ItemS
     {
         assert level != null;
         final BlockState state = level.getBlockState(worldPosition);
-        if (state.getValue(CharcoalForgeBlock.HEAT) != 0)
+        final boolean lit = state.getValue(CharcoalForgeBlock.HEAT) != 0;
+        if (lit || temperature > 0)
         {
-            HeatCapability.Remainder remainder = HeatCapability.consumeFuelForTicks(ticks, inventory, burnTicks, burnTemperature, SLOT_FUEL_MIN, SLOT_FUEL_MAX);
+            final HeatTimeline timeline = HeatTimeline.burn(HeatTimeline.Rates.fromConfig(), ticks, new HeatTimeline.Fire(temperature, lit, burnTicks, burnTemperature, airTicks), level.isRainingAt(worldPosition), 1, false, HeatTimeline.fuels(Helpers.iterate(inventory, SLOT_FUEL_MIN, 1 + SLOT_FUEL_MAX)));
+            final HeatTimeline.Fire fire = timeline.getFire();
+            if (lit && !fire.lit())
+            {
+                extinguish(state);
+            }
 
-            burnTicks = remainder.burnTicks();
-            burnTemperature = remainder.burnTemperature();
-            needsSlotUpdate = true;
+            temperature = fire.temperature();
+            burnTicks = fire.burnTicks();
+            burnTemperature = fire.burnTemperature();
+            airTicks = fire.airTicks();
 
-            if (remainder.ticks() > 0)
+            final long startTick = Calendars.SERVER.getTicks() - ticks - 1;
+            for (int i = SLOT_INPUT_MIN; i <= SLOT_INPUT_MAX; i++)
             {
-                // Consumed all fuel, so extinguish and cool instantly
-                extinguish(state);
-                for (int i = SLOT_INPUT_MIN; i <= SLOT_INPUT_MAX; i++)
-                {
-                    ItemStack stack = inventory.getStackInSlot(i);
-                    stack.getCapability(HeatCapability.CAPABILITY).ifPresent(cap -> cap.setTemperature(0f));
-                }
+                inventory.getStackInSlot(i).getCapability(HeatCapability.CAPABILITY).ifPresent(cap -> timeline.heat(cap, startTick, HeatTimeline.Heating.WHEN_COOLER));
             }
+            needsSlotUpdate = true;
+            markForSync();
         }
     }
 
@@ -244,6 +258,20 @@ public class CharcoalForgeBlockEntity extends TickableInventoryBlockEntity<ItemS
         return airTicks;
     }
 
+    /**
+     * @return {@code true} if the forge structure is valid, which is cached until a block in the structure changes, and the forge has a chimney, which is always checked.
+     */
+    public boolean isValid()
+    {
+        assert level != null;
+        if (structure == null || structure.isChanged())
+        {
+            structureValid = CharcoalForgeBlock.isStructureValid(level, worldPosition);
+            structure = StructureWatch.watch(level, structure, CharcoalForgeBlock.getStructureFootprint(worldPosition));
+        }
+        return structureValid && CharcoalForgeBlock.hasChimney(level, worldPosition);
+    }
+
     public void onFirstCreation()
     {
         burnTicks = 200;
@@ -280,6 +308,25 @@ public class CharcoalForgeBlockEntity extends TickableInventoryBlockEntity<ItemS
         super.saveAdditional(nbt);
     }
 
+    /**
+     * @return {@code true} if the forge is cold, and nothing is pending which would need it to tick.
+     */
+    private boolean isIdle()
+    {
+        return temperature <= 0 && burnTemperature <= 0 && airTicks == 0 && !needsSlotUpdate && !needsRecipeUpdate;
+    }
+
+    @Override
+    public void setRemoved()
+    {
+        super.setRemoved();
+        if (level != null)
+        {
+            StructureWatch.release(level, structure);
+        }
+        structure = null;
+    }
+
     @Override
     public void setAndUpdateSlots(int slot)
     {
@@ -28,6 +28,7 @@ import net.dries007.tfc.common.capabilities.*;
 import net.dries007.tfc.common.capabilities.food.FoodCapability;
 import net.dries007.tfc.common.capabilities.food.FoodTraits;
 import net.dries007.tfc.common.capabilities.heat.HeatCapability;
+import net.dries007.tfc.common.capabilities.heat.HeatTimeline;
 import net.dries007.tfc.common.capabilities.heat.IHeatBlock;
 import net.dries007.tfc.common.container.CrucibleContainer;
 import net.dries007.tfc.common.fluids.FluidHelpers;
@@ -35,6 +36,7 @@ import net.dries007.tfc.common.recipes.HeatingRecipe;
 import net.dries007.tfc.common.recipes.inventory.ItemStackInventory;
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.*;
+import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.calendar.ICalendarTickable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -153,6 +155,12 @@ public class CrucibleBlockEntity extends TickableInventoryBlockEntity<CrucibleBl
             }
             crucible.markForSync();
         }
+
+        if (crucible.isIdle())
+        {
+            // Cold crucibles only need to tick again once they are heated, or are changed
+            crucible.sleepUntil(Long.MAX_VALUE);
+        }
     }
 
     private final SidedHandler.Builder<IFluidHandler> sidedFluidInventory;
@@ -240,8 +248,17 @@ public class CrucibleBlockEntity extends TickableInventoryBlockEntity<CrucibleBl
         assert level != null;
 
         // Crucible has no fuel to consume, but it does drop the internal target and temperature over time.
-        targetTemperature = HeatCapability.adjustTempTowards(targetTemperature, 0, ticks);
-        temperature = HeatCapability.adjustTempTowards(temperature, targetTemperature, ticks);
+        final HeatTimeline timeline = HeatTimeline.crucible(HeatTimeline.Rates.fromConfig(), ticks, temperature, targetTemperature, targetTemperatureStabilityTicks);
+        temperature = timeline.getTemperature();
+        targetTemperature = timeline.getTargetTemperature();
+        targetTemperatureStabilityTicks = timeline.getStabilityTicks();
+
+        final long startTick = Calendars.SERVER.getTicks() - ticks - 1;
+        for (int i = SLOT_INPUT_START; i <= SLOT_INPUT_END; i++)
+        {
+            inventory.getStackInSlot(i).getCapability(HeatCapability.CAPABILITY).ifPresent(cap -> timeline.heat(cap, startTick, HeatTimeline.Heating.WHEN_COOLER, 2, 0.0025f));
+        }
+        markForSync();
     }
 
     @Override
@@ -308,6 +325,26 @@ public class CrucibleBlockEntity extends TickableInventoryBlockEntity<CrucibleBl
         return super.getCapability(cap, side);
     }
 
+    /**
+     * @return {@code true} if the crucible and all its inputs are cold, and nothing is pending which would need it to tick.
+     */
+    private boolean isIdle()
+    {
+        if (temperature > 0 || targetTemperature > 0 || targetTemperatureStabilityTicks > 0 || lastFillTicks > 0 || needsRecipeUpdate)
+        {
+            return false;
+        }
+        for (int i = SLOT_INPUT_START; i <= SLOT_INPUT_END; i++)
+        {
+            // Hot inputs may still melt, or drain into the crucible
+            if (inventory.getStackInSlot(i).getCapability(HeatCapability.CAPABILITY).map(cap -> cap.getTemperature() > 0).orElse(false))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void setAndUpdateSlots(int slot)
     {
@@ -349,7 +386,7 @@ public class CrucibleBlockEntity extends TickableInventoryBlockEntity<CrucibleBl
         public boolean isMolten()
         {
             assert crucible.level != null;
-            return crucible.temperature > alloy.getResult(crucible.level).getMeltTemperature();
+            return crucible.temperature > alloy.getResult().getMeltTemperature();
         }
 
         @Override
@@ -411,7 +448,7 @@ public class CrucibleBlockEntity extends TickableInventoryBlockEntity<CrucibleBl
             if (isMolten())
             {
                 assert crucible.level != null;
-                final Metal result = alloy.getResult(crucible.level);
+                final Metal result = alloy.getResult();
                 final int amount = alloy.removeAlloy(maxDrain, action.simulate());
                 if (action.execute())
                 {
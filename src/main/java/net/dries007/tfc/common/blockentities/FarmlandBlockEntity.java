@@ -85,6 +85,16 @@ public class FarmlandBlockEntity extends TFCBlockEntity implements IFarmland
         markForSync();
     }
 
+    @Override
+    public void setNutrients(float nitrogen, float phosphorous, float potassium)
+    {
+        // Override to not send three sync packets
+        setNutrientWithoutSync(NITROGEN, nitrogen);
+        setNutrientWithoutSync(PHOSPHOROUS, phosphorous);
+        setNutrientWithoutSync(POTASSIUM, potassium);
+        markForSync();
+    }
+
     @Override
     public void addNutrients(Fertilizer fertilizer)
     {
@@ -21,6 +21,7 @@ import org.jetbrains.annotations.Nullable;
 
 import net.dries007.tfc.common.capabilities.PartialItemHandler;
 import net.dries007.tfc.common.capabilities.heat.HeatCapability;
+import net.dries007.tfc.common.capabilities.heat.HeatTimeline;
 import net.dries007.tfc.common.container.FirepitContainer;
 import net.dries007.tfc.common.recipes.HeatingRecipe;
 import net.dries007.tfc.common.recipes.inventory.ItemStackInventory;
@@ -85,9 +86,9 @@ public class FirepitBlockEntity extends AbstractFirepitBlockEntity<ItemStackHand
     }
 
     @Override
-    protected void coolInstantly()
+    protected void heatContents(HeatTimeline timeline, long startTick)
     {
-        inventory.getStackInSlot(SLOT_ITEM_INPUT).getCapability(HeatCapability.CAPABILITY).ifPresent(cap -> cap.setTemperature(0f));
+        inventory.getStackInSlot(SLOT_ITEM_INPUT).getCapability(HeatCapability.CAPABILITY).ifPresent(cap -> timeline.heat(cap, startTick, HeatTimeline.Heating.WHILE_HOT));
     }
 
     @Override
@@ -23,6 +23,7 @@ import net.dries007.tfc.common.capabilities.PartialItemHandler;
 import net.dries007.tfc.common.capabilities.food.FoodCapability;
 import net.dries007.tfc.common.capabilities.food.FoodTraits;
 import net.dries007.tfc.common.capabilities.heat.HeatCapability;
+import net.dries007.tfc.common.capabilities.heat.HeatTimeline;
 import net.dries007.tfc.common.container.GrillContainer;
 import net.dries007.tfc.common.recipes.HeatingRecipe;
 import net.dries007.tfc.common.recipes.inventory.ItemStackInventory;
@@ -99,11 +100,11 @@ public class GrillBlockEntity extends AbstractFirepitBlockEntity<ItemStackHandle
     }
 
     @Override
-    protected void coolInstantly()
+    protected void heatContents(HeatTimeline timeline, long startTick)
     {
-        for (ItemStack stack : Helpers.iterate(inventory))
+        for (int slot = SLOT_EXTRA_INPUT_START; slot <= SLOT_EXTRA_INPUT_END; slot++)
         {
-            stack.getCapability(HeatCapability.CAPABILITY).ifPresent(cap -> cap.setTemperature(0));
+            inventory.getStackInSlot(slot).getCapability(HeatCapability.CAPABILITY).ifPresent(cap -> timeline.heat(cap, startTick, HeatTimeline.Heating.ALWAYS));
         }
     }
 
@@ -55,6 +55,16 @@ public interface IFarmland
      */
     void setNutrient(NutrientType type, float value);
 
+    /**
+     * Sets all nutrients at once. Implementations should clamp each value on a range [0, 1]
+     */
+    default void setNutrients(float nitrogen, float phosphorous, float potassium)
+    {
+        setNutrient(NITROGEN, nitrogen);
+        setNutrient(PHOSPHOROUS, phosphorous);
+        setNutrient(POTASSIUM, potassium);
+    }
+
     default void addNutrient(NutrientType type, float value)
     {
         setNutrient(type, getNutrient(type) + value);
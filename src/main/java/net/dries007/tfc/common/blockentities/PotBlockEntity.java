@@ -27,10 +27,10 @@ import net.minecraftforge.items.ItemStackHandler;
 
 import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.capabilities.*;
+import net.dries007.tfc.common.capabilities.heat.HeatTimeline;
 import net.dries007.tfc.common.container.PotContainer;
 import net.dries007.tfc.common.fluids.FluidHelpers;
 import net.dries007.tfc.common.recipes.PotRecipe;
-import net.dries007.tfc.common.recipes.TFCRecipeTypes;
 import net.dries007.tfc.common.recipes.inventory.EmptyInventory;
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.Fuel;
@@ -154,17 +154,20 @@ public class PotBlockEntity extends AbstractFirepitBlockEntity<PotBlockEntity.Po
     }
 
     @Override
-    protected void coolInstantly()
+    protected void heatContents(HeatTimeline timeline, long startTick)
     {
-        boilingTicks = 0;
-        markForSync();
+        if (!timeline.getFire().lit())
+        {
+            boilingTicks = 0;
+            markForSync();
+        }
     }
 
     @Override
     protected void updateCachedRecipe()
     {
         assert level != null;
-        cachedRecipe = level.getRecipeManager().getRecipeFor(TFCRecipeTypes.POT.get(), inventory, level).orElse(null);
+        cachedRecipe = PotRecipe.get(level, inventory);
     }
 
     public boolean isBoiling()
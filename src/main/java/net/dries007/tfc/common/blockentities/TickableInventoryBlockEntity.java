@@ -14,11 +14,30 @@ import net.minecraft.world.level.block.state.BlockState;
 import net.minecraftforge.common.util.INBTSerializable;
 import net.minecraftforge.items.IItemHandlerModifiable;
 
+import net.dries007.tfc.mixin.accessor.LevelChunkAccessor;
+import net.dries007.tfc.util.calendar.Calendars;
+import net.dries007.tfc.util.calendar.ICalendarTickable;
+import net.dries007.tfc.util.tracker.DeviceScheduler;
+
+/**
+ * A block entity with an inventory, which ticks on the server, and batches client syncs and dirty marks to once per tick.
+ * <p>
+ * Devices which are idle can sleep (see {@link #sleepUntil(long)}), which removes them from the level's block entity tickers. A sleeping device is woken at its wake tick, or earlier by any change which would affect it: a changed slot, a sync or dirty mark from outside of its tick, a changed block state, or (if {@link #canGatherItems()}) an item dropped nearby. When woken from a timed sleep, the device's {@link ICalendarTickable#onCalendarUpdate(long)} is responsible for the interval it slept through. When woken from an indefinite sleep, nothing happened while it slept, so that interval is skipped instead - the change which woke it (i.e. being lit) must not be applied to it.
+ */
 public abstract class TickableInventoryBlockEntity<C extends IItemHandlerModifiable & INBTSerializable<CompoundTag>> extends InventoryBlockEntity<C>
 {
+    /**
+     * The minimum number of ticks a device stays awake for, after it is loaded or woken. This gives devices time to gather items that were thrown at them, as they only check for items periodically.
+     */
+    public static final int MIN_AWAKE_TICKS = 100;
+
     protected boolean needsClientUpdate;
     protected boolean isDirty;
 
+    private boolean sleeping;
+    private long wakeTick; // The calendar tick this device is sleeping until, if sleeping
+    private long awakeUntil = Long.MIN_VALUE; // The game tick this device may sleep at, or Long.MIN_VALUE if it has not ticked since being loaded
+
     public TickableInventoryBlockEntity(BlockEntityType<?> type, BlockPos pos, BlockState state, InventoryFactory<C> inventory, Component defaultName)
     {
         super(type, pos, state, inventory, defaultName);
@@ -43,11 +62,93 @@ public abstract class TickableInventoryBlockEntity<C extends IItemHandlerModifia
     public void markForSync()
     {
         needsClientUpdate = true;
+        wake();
     }
 
     @Override
     public void markDirty()
     {
         isDirty = true;
+        wake();
+    }
+
+    @Override
+    public void setAndUpdateSlots(int slot)
+    {
+        super.setAndUpdateSlots(slot);
+        wake();
+    }
+
+    @Override
+    public void setBlockState(BlockState state)
+    {
+        super.setBlockState(state);
+        wake();
+    }
+
+    @Override
+    public void setRemoved()
+    {
+        super.setRemoved();
+        if (sleeping && level != null)
+        {
+            DeviceScheduler.release(level, worldPosition);
+        }
+        sleeping = false;
+    }
+
+    public boolean isSleeping()
+    {
+        return sleeping;
+    }
+
+    /**
+     * @return {@code true} if this device gathers items from the world, and so should be woken when an item is dropped nearby.
+     */
+    public boolean canGatherItems()
+    {
+        return false;
+    }
+
+    /**
+     * Wakes this device if it is sleeping, re-adding it to the level's block entity tickers.
+     */
+    @SuppressWarnings("deprecation")
+    public void wake()
+    {
+        if (sleeping && level != null && !isRemoved())
+        {
+            sleeping = false;
+            if (wakeTick == Long.MAX_VALUE && this instanceof ICalendarTickable tickable)
+            {
+                // Idle devices do not change while asleep, so resume from the previous tick, rather than replaying the sleep with the state they were woken with
+                tickable.setLastUpdateTick(Calendars.SERVER.getTicks() - 1);
+            }
+            awakeUntil = level.getGameTime() + MIN_AWAKE_TICKS;
+            DeviceScheduler.release(level, worldPosition);
+            ((LevelChunkAccessor) level.getChunkAt(worldPosition)).invoke$updateBlockEntityTicker(this);
+        }
+    }
+
+    /**
+     * Puts this device to sleep, if it has been awake for at least {@link #MIN_AWAKE_TICKS}. Must only be called at the end of the device's server tick, once it is idle - that is, further ticks would not change it until either {@code wakeTick}, or an external change.
+     *
+     * @param wakeTick A calendar tick, as in {@link ICalendarTickable}, at which to wake, or {@link Long#MAX_VALUE} to sleep until woken by an external change.
+     */
+    protected void sleepUntil(long wakeTick)
+    {
+        assert level != null;
+        final long gameTime = level.getGameTime();
+        if (awakeUntil == Long.MIN_VALUE)
+        {
+            awakeUntil = gameTime + MIN_AWAKE_TICKS;
+        }
+        if (!sleeping && gameTime >= awakeUntil && DeviceScheduler.sleep(level, worldPosition, wakeTick))
+        {
+            checkForLastTickSync(); // Flush, as this would otherwise happen on the next tick
+            sleeping = true;
+            this.wakeTick = wakeTick;
+            ((LevelChunkAccessor) level.getChunkAt(worldPosition)).invoke$removeBlockEntityTicker(worldPosition);
+        }
     }
 }
@@ -25,8 +25,8 @@ import net.minecraft.world.level.material.FluidState;
 import net.minecraft.world.phys.HitResult;
 import org.jetbrains.annotations.Nullable;
 
-import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.blockentities.TFCBlockEntities;
+import net.dries007.tfc.util.BlockTagFlags;
 import net.dries007.tfc.util.EnvironmentHelpers;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.climate.Climate;
@@ -44,7 +44,7 @@ public class SnowPileBlock extends SnowLayerBlock implements IForgeBlockExtensio
      */
     public static boolean canPlaceSnowPile(LevelAccessor level, BlockPos pos, BlockState state)
     {
-        return Helpers.isBlock(state.getBlock(), TFCTags.Blocks.CAN_BE_SNOW_PILED) && TFCBlocks.SNOW_PILE.get().defaultBlockState().canSurvive(level, pos);
+        return BlockTagFlags.is(state, BlockTagFlags.CAN_BE_SNOW_PILED) && TFCBlocks.SNOW_PILE.get().defaultBlockState().canSurvive(level, pos);
     }
 
     /**
@@ -55,7 +55,7 @@ public class SnowPileBlock extends SnowLayerBlock implements IForgeBlockExtensio
         // Create a snow pile block, accounting for double piles.
         final BlockPos posAbove = pos.above();
         final BlockState aboveState = level.getBlockState(posAbove);
-        final BlockState savedAboveState = Helpers.isBlock(aboveState.getBlock(), TFCTags.Blocks.CAN_BE_SNOW_PILED) ? aboveState : null;
+        final BlockState savedAboveState = BlockTagFlags.is(aboveState, BlockTagFlags.CAN_BE_SNOW_PILED) ? aboveState : null;
         final BlockState snowPile = TFCBlocks.SNOW_PILE.get().defaultBlockState();
 
         level.setBlock(pos, snowPile, Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE);
@@ -17,6 +17,7 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
 
+import it.unimi.dsi.fastutil.longs.Long2FloatFunction;
 import net.dries007.tfc.client.TFCSounds;
 import net.dries007.tfc.common.blockentities.CropBlockEntity;
 import net.dries007.tfc.common.blockentities.FarmlandBlockEntity;
@@ -30,6 +31,7 @@ import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.calendar.ICalendar;
 import net.dries007.tfc.util.climate.Climate;
 import net.dries007.tfc.util.climate.ClimateRange;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Common growth logic for crop blocks
@@ -53,63 +55,118 @@ public final class CropHelpers
     }
 
     /**
+     * Catches up on all growth since the crop was last updated, in {@link #UPDATE_INTERVAL} steps.
+     * <p>
+     * The level is not modified between steps, so everything which depends on it (hydration, the growth limit, and the farmland) is queried once, rather than once per step. Temperatures are computed once per step boundary, and shared between adjacent steps. Nutrients are consumed from a copy, which is written back to the farmland once at the end. The result is identical to calling {@link #growthTickStep(Level, BlockPos, BlockState, Random, long, long, CropBlockEntity)} for each step.
+     *
      * @return {@code true} if the crop survived.
      */
     public static boolean growthTick(Level level, BlockPos pos, BlockState state, CropBlockEntity crop)
     {
         final long firstTick = crop.getLastGrowthTick(), thisTick = Calendars.SERVER.getTicks();
-        long tick = firstTick + CropHelpers.UPDATE_INTERVAL, lastTick = firstTick;
-        for (; tick < thisTick; tick += CropHelpers.UPDATE_INTERVAL)
+        return growthTick(level, pos, state, level.getRandom(), firstTick, thisTick, crop, false);
+    }
+
+    public static boolean growthTickStep(Level level, BlockPos pos, BlockState state, Random random, long fromTick, long toTick, CropBlockEntity crop)
+    {
+        return growthTick(level, pos, state, random, fromTick, toTick, crop, true);
+    }
+
+    private static boolean growthTick(Level level, BlockPos pos, BlockState state, Random random, long fromTick, long toTick, CropBlockEntity crop, boolean singleStep)
+    {
+        // Calculate invariants
+        final ICalendar calendar = Calendars.get(level);
+        final BlockPos sourcePos = pos.below();
+        final ICropBlock cropBlock = (ICropBlock) state.getBlock();
+        final GrowthConditions conditions = new GrowthConditions(
+            cropBlock.getClimateRange(),
+            FarmlandBlock.getHydration(level, sourcePos),
+            cropBlock.getGrowthLimit(level, pos, state),
+            cropBlock.getPrimaryNutrient(),
+            TFCConfig.SERVER.cropGrowthModifier.get().floatValue(),
+            TFCConfig.SERVER.cropExpiryModifier.get().floatValue()
+        );
+
+        final IFarmland farmland = level.getBlockEntity(sourcePos) instanceof IFarmland f ? f : null;
+        final GrowthState growth = new GrowthState(crop.getGrowth(), crop.getYield(), crop.getExpiry(), farmland);
+
+        final Long2FloatFunction temperature = tick -> Climate.getTemperature(level, pos, calendar, Calendars.SERVER.ticksToCalendarTicks(tick));
+        final boolean survived = singleStep ?
+            simulateGrowthStep(conditions, growth, random, toTick - fromTick, temperature.get(fromTick), temperature.get(toTick)) :
+            simulateGrowth(conditions, growth, random, fromTick, toTick, temperature);
+
+        // Nutrients are consumed regardless of if the crop survives
+        if (farmland != null && growth.nutrients != null)
+        {
+            farmland.setNutrients(growth.nutrients[0], growth.nutrients[1], growth.nutrients[2]);
+        }
+
+        if (!survived)
+        {
+            // Lenient here - instead of assuming it expired at the start of the duration, we assume at the end. Including growth during this period.
+            cropBlock.die(level, pos, state, growth.growth >= 1);
+            return false;
+        }
+
+        crop.setGrowth(growth.growth);
+        crop.setYield(growth.yield);
+        crop.setExpiry(growth.expiry);
+        crop.setLastGrowthTick(calendar.getTicks());
+        return true;
+    }
+
+    /**
+     * Simulates growth from {@code fromTick} to {@code toTick}, in steps of {@link #UPDATE_INTERVAL}, with a final partial step.
+     *
+     * @param temperature The temperature at a given tick.
+     * @return {@code true} if the crop survived. If {@code false}, {@code state} contains the state at the step the crop died.
+     */
+    public static boolean simulateGrowth(GrowthConditions conditions, GrowthState state, Random random, long fromTick, long toTick, Long2FloatFunction temperature)
+    {
+        long lastTick = fromTick;
+        float lastTemperature = temperature.get(fromTick);
+        for (long tick = fromTick + UPDATE_INTERVAL; tick < toTick; tick += UPDATE_INTERVAL)
         {
-            if (!CropHelpers.growthTickStep(level, pos, state, level.getRandom(), lastTick, tick, crop))
+            final float nextTemperature = temperature.get(tick);
+            if (!simulateGrowthStep(conditions, state, random, tick - lastTick, lastTemperature, nextTemperature))
             {
                 return false;
             }
             lastTick = tick;
+            lastTemperature = nextTemperature;
         }
-        return lastTick >= thisTick || CropHelpers.growthTickStep(level, pos, state, level.getRandom(), lastTick, thisTick, crop);
+        return lastTick >= toTick || simulateGrowthStep(conditions, state, random, toTick - lastTick, lastTemperature, temperature.get(toTick));
     }
 
-    public static boolean growthTickStep(Level level, BlockPos pos, BlockState state, Random random, long fromTick, long toTick, CropBlockEntity crop)
+    private static boolean simulateGrowthStep(GrowthConditions conditions, GrowthState state, Random random, long tickDelta, float startTemperature, float endTemperature)
     {
-        // Calculate invariants
-        final ICalendar calendar = Calendars.get(level);
-        final BlockPos sourcePos = pos.below();
-        final int hydration = FarmlandBlock.getHydration(level, sourcePos);
-        final float startTemperature = Climate.getTemperature(level, pos, calendar, Calendars.SERVER.ticksToCalendarTicks(fromTick));
-        final float endTemperature = Climate.getTemperature(level, pos, calendar, Calendars.SERVER.ticksToCalendarTicks(toTick));
-        final long tickDelta = toTick - fromTick;
-
-        final ICropBlock cropBlock = (ICropBlock) state.getBlock();
-        final ClimateRange range = cropBlock.getClimateRange();
-        final boolean growing = checkClimate(range, hydration, startTemperature, endTemperature, false);
-        final boolean healthy = growing || checkClimate(range, hydration, startTemperature, endTemperature, true);
+        final boolean growing = checkClimate(conditions.range, conditions.hydration, startTemperature, endTemperature, false);
+        final boolean healthy = growing || checkClimate(conditions.range, conditions.hydration, startTemperature, endTemperature, true);
 
         // Nutrients are consumed first, since they are independent of growth or health.
         // As long as the crop exists it consumes nutrients.
 
-        final FarmlandBlockEntity.NutrientType primaryNutrient = cropBlock.getPrimaryNutrient();
         float nutrientsAvailable = 0, nutrientsRequired = NUTRIENT_CONSUMPTION * tickDelta, nutrientsConsumed = 0;
-        if (level.getBlockEntity(sourcePos) instanceof IFarmland farmland)
+        if (state.hasFarmland())
         {
-            nutrientsAvailable = farmland.getNutrient(primaryNutrient);
-            nutrientsConsumed = farmland.consumeNutrientAndResupplyOthers(primaryNutrient, nutrientsRequired);
+            nutrientsAvailable = state.getNutrient(conditions.primaryNutrient);
+            nutrientsConsumed = state.consumeNutrientAndResupplyOthers(conditions.primaryNutrient, nutrientsRequired);
         }
 
-        final float growthModifier = TFCConfig.SERVER.cropGrowthModifier.get().floatValue(); // Higher = Slower growth
-        final float expiryModifier = TFCConfig.SERVER.cropExpiryModifier.get().floatValue(); // Higher = Slower expiry
+        final float growthModifier = conditions.growthModifier; // Higher = Slower growth
+        final float expiryModifier = conditions.expiryModifier; // Higher = Slower expiry
         final float localExpiryLimit = EXPIRY_LIMIT * expiryModifier * (1f / growthModifier);
 
         // Total growth is based on the ticks and the nutrients consumed. It is then allocated to actual growth or expiry based on other factors.
         final float totalGrowthDelta = (1f / growthModifier) * Helpers.uniform(random, 0.9f, 1.1f) * tickDelta * CropHelpers.GROWTH_FACTOR + nutrientsConsumed * NUTRIENT_GROWTH_FACTOR;
-        final float initialGrowth = crop.getGrowth();
+        final float initialGrowth = state.growth;
         float remainingGrowthDelta = totalGrowthDelta;
-        float growth = initialGrowth, expiry = crop.getExpiry(), actualYield = crop.getYield();
+        float growth = initialGrowth, expiry = state.expiry, actualYield = state.yield;
 
         // Re-scale expiry to within our imaginary limits
         expiry *= localExpiryLimit / EXPIRY_LIMIT;
 
-        final float growthLimit = cropBlock.getGrowthLimit(level, pos, state);
+        final float growthLimit = conditions.growthLimit;
         if (remainingGrowthDelta > 0 && growing && growth < growthLimit)
         {
             // Allocate to growth
@@ -143,19 +200,16 @@ public final class CropHelpers
         // Check if the crop should've expired.
         if (expiry >= localExpiryLimit || !healthy)
         {
-            // Lenient here - instead of assuming it expired at the start of the duration, we assume at the end. Including growth during this period.
-            cropBlock.die(level, pos, state, growth >= 1);
+            state.growth = growth;
             return false;
         }
 
         // Re-scale expiry to constant values to maintain invariance if the config value is updated
         expiry *= EXPIRY_LIMIT / localExpiryLimit;
 
-        crop.setGrowth(growth);
-        crop.setYield(actualYield);
-        crop.setExpiry(expiry);
-        crop.setLastGrowthTick(calendar.getTicks());
-
+        state.growth = growth;
+        state.yield = actualYield;
+        state.expiry = expiry;
         return true;
     }
 
@@ -226,4 +280,81 @@ public final class CropHelpers
         }
         return prevValue;
     }
+
+    /**
+     * Everything which affects the growth of a crop that is constant for the duration of a growth tick.
+     */
+    public record GrowthConditions(ClimateRange range, int hydration, float growthLimit, FarmlandBlockEntity.NutrientType primaryNutrient, float growthModifier, float expiryModifier) {}
+
+    /**
+     * The mutable state of a crop, and its farmland (if present), during a growth tick.
+     * For the stock {@link FarmlandBlockEntity}, nutrients are consumed from a copy, which is written back once after the growth tick. Any other farmland may override how nutrients are consumed, so it is used directly.
+     */
+    public static final class GrowthState
+    {
+        public float growth, yield, expiry;
+        @Nullable public final float[] nutrients;
+        @Nullable private final IFarmland farmland;
+
+        public GrowthState(float growth, float yield, float expiry, @Nullable IFarmland farmland)
+        {
+            this(growth, yield, expiry, farmland, farmland != null && farmland.getClass() == FarmlandBlockEntity.class);
+        }
+
+        /**
+         * @param copyNutrients If {@code true}, nutrients are consumed from a copy of the farmland's nutrients, which must be written back by the caller. This must only be used if the farmland does not override {@link IFarmland#consumeNutrientAndResupplyOthers(FarmlandBlockEntity.NutrientType, float)}.
+         */
+        public GrowthState(float growth, float yield, float expiry, @Nullable IFarmland farmland, boolean copyNutrients)
+        {
+            this.growth = growth;
+            this.yield = yield;
+            this.expiry = expiry;
+            this.nutrients = farmland == null || !copyNutrients ? null : new float[] {
+                farmland.getNutrient(FarmlandBlockEntity.NutrientType.NITROGEN),
+                farmland.getNutrient(FarmlandBlockEntity.NutrientType.PHOSPHOROUS),
+                farmland.getNutrient(FarmlandBlockEntity.NutrientType.POTASSIUM)
+            };
+            this.farmland = copyNutrients ? null : farmland;
+        }
+
+        boolean hasFarmland()
+        {
+            return nutrients != null || farmland != null;
+        }
+
+        float getNutrient(FarmlandBlockEntity.NutrientType type)
+        {
+            if (nutrients != null)
+            {
+                return nutrients[type.ordinal()];
+            }
+            assert farmland != null;
+            return farmland.getNutrient(type);
+        }
+
+        /**
+         * @see IFarmland#consumeNutrientAndResupplyOthers(FarmlandBlockEntity.NutrientType, float)
+         */
+        float consumeNutrientAndResupplyOthers(FarmlandBlockEntity.NutrientType type, float amount)
+        {
+            if (nutrients == null)
+            {
+                assert farmland != null;
+                return farmland.consumeNutrientAndResupplyOthers(type, amount);
+            }
+
+            final float startValue = nutrients[type.ordinal()];
+            final float consumed = Math.min(startValue, amount);
+
+            nutrients[type.ordinal()] = Mth.clamp(startValue - consumed, 0, 1);
+            for (FarmlandBlockEntity.NutrientType other : FarmlandBlockEntity.NutrientType.VALUES)
+            {
+                if (other != type)
+                {
+                    nutrients[other.ordinal()] = Mth.clamp(nutrients[other.ordinal()] + consumed * 1 / 6f, 0, 1);
+                }
+            }
+            return consumed;
+        }
+    }
 }
@@ -26,6 +26,8 @@ import net.minecraft.world.level.block.state.properties.BlockStateProperties;
 import net.minecraft.world.level.block.state.properties.BooleanProperty;
 import net.minecraft.world.phys.BlockHitResult;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.blockentities.BlastFurnaceBlockEntity;
 import net.dries007.tfc.common.blockentities.SheetPileBlockEntity;
@@ -34,6 +36,7 @@ import net.dries007.tfc.common.blocks.DirectionPropertyBlock;
 import net.dries007.tfc.common.blocks.ExtendedProperties;
 import net.dries007.tfc.common.blocks.TFCBlocks;
 import net.dries007.tfc.config.TFCConfig;
+import net.dries007.tfc.util.CompiledMultiBlock;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.Metal;
 import net.dries007.tfc.util.MultiBlock;
@@ -42,7 +45,7 @@ public class BlastFurnaceBlock extends DeviceBlock implements IBellowsConsumer
 {
     public static final BooleanProperty LIT = BlockStateProperties.LIT;
 
-    private static final MultiBlock BLAST_FURNACE_CHIMNEY;
+    private static final CompiledMultiBlock BLAST_FURNACE_CHIMNEY;
 
     static
     {
@@ -59,7 +62,8 @@ public class BlastFurnaceBlock extends DeviceBlock implements IBellowsConsumer
             .match(new BlockPos(-1, 0, -1), matchSheet(Direction.SOUTH, Direction.EAST))
             .match(new BlockPos(1, 0, -1), matchSheet(Direction.SOUTH, Direction.WEST))
             .match(new BlockPos(-1, 0, 1), matchSheet(Direction.NORTH, Direction.EAST))
-            .match(new BlockPos(1, 0, 1), matchSheet(Direction.NORTH, Direction.WEST));
+            .match(new BlockPos(1, 0, 1), matchSheet(Direction.NORTH, Direction.WEST))
+            .compile();
     }
 
     public static boolean isBlastFurnaceInsulationBlock(BlockState state)
@@ -85,6 +89,21 @@ public class BlastFurnaceBlock extends DeviceBlock implements IBellowsConsumer
         return maxHeight;
     }
 
+    /**
+     * @param pos The position of the blast furnace.
+     * @return Every position that {@link #getChimneyLevels(Level, BlockPos)} may depend on, up to the maximum chimney height.
+     */
+    public static LongSet getChimneyFootprint(BlockPos pos)
+    {
+        final LongSet footprint = new LongOpenHashSet();
+        final int maxHeight = TFCConfig.SERVER.blastFurnaceMaxChimneyHeight.get();
+        for (int i = 0; i < maxHeight; i++)
+        {
+            BLAST_FURNACE_CHIMNEY.addFootprint(pos.above(i + 1), footprint);
+        }
+        return footprint;
+    }
+
     private static BiPredicate<LevelAccessor, BlockPos> matchSheet(Direction face)
     {
         return (level, pos) -> {
@@ -8,13 +8,13 @@ package net.dries007.tfc.common.blocks.devices;
 
 import java.util.EnumMap;
 import java.util.Random;
-import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.sounds.SoundEvents;
 import net.minecraft.sounds.SoundSource;
+import net.minecraft.tags.TagKey;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
 import net.minecraft.world.entity.player.Player;
@@ -37,12 +37,15 @@ import net.minecraft.world.phys.shapes.Shapes;
 import net.minecraft.world.phys.shapes.VoxelShape;
 import org.jetbrains.annotations.Nullable;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.dries007.tfc.client.TFCSounds;
 import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.blocks.EntityBlockExtension;
 import net.dries007.tfc.common.blocks.ExtendedProperties;
 import net.dries007.tfc.common.blocks.TFCBlocks;
 import net.dries007.tfc.config.TFCConfig;
+import net.dries007.tfc.util.CompiledMultiBlock;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.MultiBlock;
 
@@ -90,15 +93,15 @@ public class BloomeryBlock extends DeviceBlock implements EntityBlockExtension
     public static final VoxelShape CLOSED_WEST_SHAPE = box(0D, 0D, 0D, 2D, 16D, 16D);
     public static final VoxelShape CLOSED_EAST_SHAPE = box(14D, 0D, 0D, 16D, 16D, 16D);
 
-    private static final MultiBlock BLOOMERY_CHIMNEY; // Helper for determining how high the chimney is
-    private static final EnumMap<Direction, MultiBlock> BASE_MULTIBLOCKS; // If one of those is true, bloomery is formed and can operate (has at least one chimney)
-    private static final MultiBlock GATE_Z, GATE_X; // Determines if the gate can stay in place
+    private static final CompiledMultiBlock BLOOMERY_CHIMNEY; // Helper for determining how high the chimney is
+    private static final EnumMap<Direction, CompiledMultiBlock> BASE_MULTIBLOCKS; // If one of those is true, bloomery is formed and can operate (has at least one chimney)
+    private static final CompiledMultiBlock GATE_Z, GATE_X; // Determines if the gate can stay in place
     private static final Direction[] NORTH_SOUTH_DOWN = new Direction[] {Direction.NORTH, Direction.SOUTH, Direction.DOWN};
     private static final Direction[] EAST_WEST_DOWN = new Direction[] {Direction.EAST, Direction.WEST, Direction.DOWN};
 
     static
     {
-        BiPredicate<LevelAccessor, BlockPos> stoneMatcher = (level, pos) -> isBloomeryInsulationBlock(level.getBlockState(pos));
+        TagKey<Block> insulation = TFCTags.Blocks.BLOOMERY_INSULATION;
         Predicate<BlockState> insideChimney = state -> state.getBlock() == TFCBlocks.MOLTEN.get() || state.isAir();
         Predicate<BlockState> center = state -> state.is(TFCBlocks.MOLTEN.get()) || state.is(TFCBlocks.BLOOM.get()) || state.isAir();
         BlockPos origin = BlockPos.ZERO;
@@ -107,29 +110,33 @@ public class BloomeryBlock extends DeviceBlock implements EntityBlockExtension
         BASE_MULTIBLOCKS = new EnumMap<>(Direction.class);
         final MultiBlock commonMultiblock = new MultiBlock()
             .match(origin, center)
-            .match(origin.below(), stoneMatcher);
+            .match(origin.below(), insulation);
 
         for (Direction d : Direction.Plane.HORIZONTAL)
         {
             BASE_MULTIBLOCKS.put(d, commonMultiblock.copy()
                 .match(origin.relative(d), state -> Helpers.isBlock(state, TFCBlocks.BLOOMERY.get()))
-                .matchEachDirection(origin, stoneMatcher, Direction.Plane.HORIZONTAL.stream().filter(direction -> direction != d).toArray(Direction[]::new), 1)
-                .matchEachDirection(origin.relative(d), stoneMatcher, d.getAxis() == Direction.Axis.Z ? EAST_WEST_DOWN : NORTH_SOUTH_DOWN, 1)
-                .matchHorizontal(origin.above(), stoneMatcher, 1));
+                .matchEachDirection(origin, insulation, Direction.Plane.HORIZONTAL.stream().filter(direction -> direction != d).toArray(Direction[]::new), 1)
+                .matchEachDirection(origin.relative(d), insulation, d.getAxis() == Direction.Axis.Z ? EAST_WEST_DOWN : NORTH_SOUTH_DOWN, 1)
+                .matchHorizontal(origin.above(), insulation, 1)
+                .compile());
         }
 
         BLOOMERY_CHIMNEY = new MultiBlock()
             .match(origin, insideChimney)
-            .matchHorizontal(origin, stoneMatcher, 1);
+            .matchHorizontal(origin, insulation, 1)
+            .compile();
 
         // Gate center is the bloomery gate block
         GATE_Z = new MultiBlock()
             .match(origin, state -> state.is(TFCBlocks.BLOOMERY.get()) || state.isAir())
-            .matchEachDirection(origin, stoneMatcher, new Direction[] {Direction.WEST, Direction.EAST, Direction.UP, Direction.DOWN}, 1);
+            .matchEachDirection(origin, insulation, new Direction[] {Direction.WEST, Direction.EAST, Direction.UP, Direction.DOWN}, 1)
+            .compile();
 
         GATE_X = new MultiBlock()
             .match(origin, state -> state.is(TFCBlocks.BLOOMERY.get()) || state.isAir())
-            .matchEachDirection(origin, stoneMatcher, new Direction[] {Direction.NORTH, Direction.SOUTH, Direction.UP, Direction.DOWN}, 1);
+            .matchEachDirection(origin, insulation, new Direction[] {Direction.NORTH, Direction.SOUTH, Direction.UP, Direction.DOWN}, 1)
+            .compile();
     }
 
     public static boolean isBloomeryInsulationBlock(BlockState state)
@@ -170,6 +177,24 @@ public class BloomeryBlock extends DeviceBlock implements EntityBlockExtension
         return facing.getAxis() != Direction.Axis.Y && BASE_MULTIBLOCKS.get(facing).test(level, centerPos);
     }
 
+    /**
+     * @param centerPos should be the internal block of the bloomery
+     * @return Every position that {@link #isFormed(Level, BlockPos, Direction)} and {@link #getChimneyLevels(Level, BlockPos)} may depend on, up to the maximum chimney height.
+     */
+    public static LongSet getStructureFootprint(BlockPos centerPos, Direction facing)
+    {
+        final LongSet footprint = new LongOpenHashSet();
+        if (facing.getAxis() != Direction.Axis.Y)
+        {
+            BASE_MULTIBLOCKS.get(facing).addFootprint(centerPos, footprint);
+        }
+        for (int i = 1; i < 1 + TFCConfig.SERVER.bloomeryMaxChimneyHeight.get(); i++)
+        {
+            BLOOMERY_CHIMNEY.addFootprint(centerPos.above(i), footprint);
+        }
+        return footprint;
+    }
+
     public BloomeryBlock(ExtendedProperties properties)
     {
         super(properties, InventoryRemoveBehavior.DROP);
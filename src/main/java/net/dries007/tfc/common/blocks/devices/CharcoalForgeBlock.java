@@ -34,12 +34,14 @@ import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.shapes.CollisionContext;
 import net.minecraft.world.phys.shapes.VoxelShape;
 
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.blockentities.CharcoalForgeBlockEntity;
 import net.dries007.tfc.common.blockentities.TFCBlockEntities;
 import net.dries007.tfc.common.blocks.CharcoalPileBlock;
 import net.dries007.tfc.common.blocks.ExtendedProperties;
 import net.dries007.tfc.common.blocks.TFCBlockStateProperties;
+import net.dries007.tfc.util.CompiledMultiBlock;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.MultiBlock;
 
@@ -47,29 +49,59 @@ public class CharcoalForgeBlock extends DeviceBlock implements IBellowsConsumer
 {
     public static final IntegerProperty HEAT = TFCBlockStateProperties.HEAT_LEVEL;
 
-    private static final MultiBlock FORGE_MULTIBLOCK;
+    private static final CompiledMultiBlock FORGE_STRUCTURE; // The blocks around the forge, which only change when a block in the footprint changes
+    private static final CompiledMultiBlock FORGE_CHIMNEY; // Sky access above the forge, which can change without any block in the footprint changing
 
     static
     {
         BiPredicate<LevelAccessor, BlockPos> skyMatcher = LevelAccessor::canSeeSky;
-        BiPredicate<LevelAccessor, BlockPos> isValidSide = (level, pos) -> isForgeInsulationBlock(level.getBlockState(pos));
         BlockPos origin = BlockPos.ZERO;
-        FORGE_MULTIBLOCK = new MultiBlock()
+        FORGE_STRUCTURE = new MultiBlock()
             // Top block
             .match(origin.above(), state -> state.isAir() || Helpers.isBlock(state, TFCTags.Blocks.FORGE_INVISIBLE_WHITELIST))
-            // Chimney
+            // Underneath
+            .matchEachDirection(origin, TFCTags.Blocks.FORGE_INSULATION, new Direction[] {Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST, Direction.DOWN}, 1)
+            .compile();
+        FORGE_CHIMNEY = new MultiBlock()
             .matchOneOf(origin.above(), new MultiBlock()
                 .match(origin, skyMatcher)
                 .matchHorizontal(origin, skyMatcher, 1)
                 .matchHorizontal(origin, skyMatcher, 2)
             )
-            // Underneath
-            .matchEachDirection(origin, isValidSide, new Direction[] {Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST, Direction.DOWN}, 1);
+            .compile();
     }
 
     public static boolean isValid(LevelAccessor world, BlockPos pos)
     {
-        return FORGE_MULTIBLOCK.test(world, pos);
+        return FORGE_STRUCTURE.test(world, pos) && FORGE_CHIMNEY.test(world, pos);
+    }
+
+    public static boolean isStructureValid(LevelAccessor level, BlockPos pos)
+    {
+        return FORGE_STRUCTURE.test(level, pos);
+    }
+
+    public static boolean hasChimney(LevelAccessor level, BlockPos pos)
+    {
+        return FORGE_CHIMNEY.test(level, pos);
+    }
+
+    /**
+     * @return Every position that {@link #isStructureValid(LevelAccessor, BlockPos)} depends on.
+     */
+    public static LongSet getStructureFootprint(BlockPos pos)
+    {
+        return FORGE_STRUCTURE.getFootprint(pos);
+    }
+
+    /**
+     * Checks the forge structure, using the cached structure of the forge at {@code pos} if there is one.
+     */
+    private static boolean isValidForge(LevelAccessor level, BlockPos pos)
+    {
+        return level.getBlockEntity(pos, TFCBlockEntities.CHARCOAL_FORGE.get())
+            .map(CharcoalForgeBlockEntity::isValid)
+            .orElseGet(() -> isValid(level, pos));
     }
 
     public static boolean isForgeInsulationBlock(BlockState state)
@@ -135,7 +167,7 @@ public class CharcoalForgeBlock extends DeviceBlock implements IBellowsConsumer
     @SuppressWarnings("deprecation")
     public BlockState updateShape(BlockState state, Direction facing, BlockState facingState, LevelAccessor world, BlockPos currentPos, BlockPos facingPos)
     {
-        return state.getValue(HEAT) > 0 && !isValid(world, currentPos) ? state.setValue(HEAT, 0) : state;
+        return state.getValue(HEAT) > 0 && !isValidForge(world, currentPos) ? state.setValue(HEAT, 0) : state;
     }
 
     @Override
@@ -167,7 +199,7 @@ public class CharcoalForgeBlock extends DeviceBlock implements IBellowsConsumer
     {
         if (state.getValue(HEAT) > 0)
         {
-            if (isValid(level, pos))
+            if (isValidForge(level, pos))
             {
                 Helpers.fireSpreaderTick(level, pos, rand, 3);
             }
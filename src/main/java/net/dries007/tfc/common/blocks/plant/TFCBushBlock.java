@@ -12,10 +12,9 @@ import net.minecraft.world.level.block.BushBlock;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.BlockGetter;
 
-import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.blocks.ExtendedProperties;
 import net.dries007.tfc.common.blocks.IForgeBlockExtension;
-import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.BlockTagFlags;
 
 public class TFCBushBlock extends BushBlock implements IForgeBlockExtension
 {
@@ -43,6 +42,6 @@ public class TFCBushBlock extends BushBlock implements IForgeBlockExtension
     @Override
     protected boolean mayPlaceOn(BlockState state, BlockGetter level, BlockPos pos)
     {
-        return Helpers.isBlock(state.getBlock(), TFCTags.Blocks.BUSH_PLANTABLE_ON);
+        return BlockTagFlags.is(state, BlockTagFlags.BUSH_PLANTABLE_ON);
     }
 }
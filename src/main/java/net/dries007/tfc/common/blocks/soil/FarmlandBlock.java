@@ -43,6 +43,8 @@ import net.dries007.tfc.util.climate.Climate;
 import net.dries007.tfc.util.climate.ClimateModel;
 import net.dries007.tfc.util.climate.ClimateRange;
 import net.dries007.tfc.util.registry.RegistrySoilVariant;
+import net.dries007.tfc.util.tracker.HydrationCache;
+import net.dries007.tfc.util.tracker.WorldTrackerCapability;
 import net.dries007.tfc.world.chunkdata.ChunkData;
 
 public class FarmlandBlock extends Block implements ISoilBlock, HoeOverlayBlock, IForgeBlockExtension, EntityBlockExtension
@@ -102,9 +104,25 @@ public class FarmlandBlock extends Block implements ISoilBlock, HoeOverlayBlock,
     }
 
     /**
-     * @return A value in [1, 5]
+     * @return A value in [0, 5]
      */
     private static int findMinCostWater(LevelAccessor level, BlockPos pos)
+    {
+        if (level instanceof Level realLevel)
+        {
+            // Query the cached field, if the nearby chunks are loaded
+            final int cost = realLevel.getCapability(WorldTrackerCapability.CAPABILITY)
+                .map(cap -> cap.getHydrationCache().getMinCostWater(pos.getX(), pos.getY(), pos.getZ()))
+                .orElse(HydrationCache.UNKNOWN);
+            if (cost != HydrationCache.UNKNOWN)
+            {
+                return cost;
+            }
+        }
+        return scanMinCostWater(level, pos);
+    }
+
+    private static int scanMinCostWater(LevelAccessor level, BlockPos pos)
     {
         final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
 
@@ -24,6 +24,12 @@ public interface DelegateHeatHandler extends IHeat
         return getHeatHandler().getTemperature();
     }
 
+    @Override
+    default float getTemperatureAt(long tick)
+    {
+        return getHeatHandler().getTemperatureAt(tick);
+    }
+
     @Override
     default void setTemperature(float temperature)
     {
@@ -6,24 +6,19 @@
 
 package net.dries007.tfc.common.capabilities.heat;
 
-import java.util.Iterator;
-
 import net.minecraft.core.BlockPos;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.CapabilityToken;
-import net.minecraftforge.items.IItemHandlerModifiable;
 
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.network.DataManagerSyncPacket;
 import net.dries007.tfc.util.DataManager;
-import net.dries007.tfc.util.Fuel;
 import net.dries007.tfc.util.Helpers;
-import net.dries007.tfc.util.collections.IndirectHashCollection;
+import net.dries007.tfc.util.collections.ItemDefinitionIndex;
 import org.jetbrains.annotations.Nullable;
 
 import static net.dries007.tfc.TerraFirmaCraft.MOD_ID;
@@ -39,21 +34,14 @@ public final class HeatCapability
     public static final ResourceLocation BLOCK_KEY = new ResourceLocation(MOD_ID, "block_heat");
 
     public static final DataManager<HeatDefinition> MANAGER = new DataManager<>(Helpers.identifier("item_heats"), "item heat", HeatDefinition::new, HeatDefinition::new, HeatDefinition::encode, Packet::new);
-    public static final IndirectHashCollection<Item, HeatDefinition> CACHE = IndirectHashCollection.create(HeatDefinition::getValidItems, MANAGER::getValues);
+    public static final ItemDefinitionIndex<HeatDefinition> CACHE = ItemDefinitionIndex.create(MANAGER::getValues);
 
     public static final float POTTERY_HEAT_CAPACITY = 1.2f;
 
     @Nullable
     public static HeatDefinition get(ItemStack stack)
     {
-        for (HeatDefinition def : CACHE.getAll(stack.getItem()))
-        {
-            if (def.matches(stack))
-            {
-                return def;
-            }
-        }
-        return null;
+        return CACHE.get(stack);
     }
 
     public static float adjustTempTowards(float temp, float target)
@@ -168,67 +156,6 @@ public final class HeatCapability
         instance.setTemperature(temp);
     }
 
-    /**
-     * Common logic for block entities to consume fuel during larger time skips.
-     *
-     * @param ticks           Ticks since the last calendar update. This is decremented as the method checks different fuel consumption options.
-     * @param inventory       Inventory to be modified (this should contain the fuel)
-     * @param burnTicks       Remaining burn ticks of the fuel being burned
-     * @param burnTemperature Current burning temperature of the TE (this is the fuel's target temperature)
-     * @param slotStart       Index of the first fuel slot
-     * @param slotEnd         Index of the last fuel slot
-     * @return The remainder after consuming fuel, along with an amount (possibly > 0) of ticks that haven't been accounted for.
-     */
-    public static Remainder consumeFuelForTicks(long ticks, IItemHandlerModifiable inventory, int burnTicks, float burnTemperature, int slotStart, int slotEnd)
-    {
-        return consumeFuelForTicks(ticks, burnTicks, burnTemperature, Helpers.iterate(inventory, slotStart, 1 + slotEnd));
-    }
-
-    /**
-     * Common logic for block entities to consume fuel during larger time skips.
-     *
-     * @param ticks           Ticks since the last calendar update. This is decremented as the method checks different fuel consumption options.
-     * @param burnTicks       Remaining burn ticks of the fuel being burned
-     * @param burnTemperature Current burning temperature of the TE (this is the fuel's target temperature)
-     * @param fuelStacks      An iterator of fuel stacks which supports removal (to indicate fuel is consumed).
-     * @return The remainder after consuming fuel, along with an amount (possibly > 0) of ticks that haven't been accounted for.
-     */
-    public static Remainder consumeFuelForTicks(long ticks, int burnTicks, float burnTemperature, Iterable<ItemStack> fuelStacks)
-    {
-        if (burnTicks > ticks)
-        {
-            burnTicks -= ticks;
-            return new Remainder(burnTicks, burnTemperature, 0L);
-        }
-        else
-        {
-            ticks -= burnTicks;
-            burnTicks = 0;
-        }
-
-        final Iterator<ItemStack> iterator = fuelStacks.iterator();
-        while (iterator.hasNext())
-        {
-            final ItemStack fuelStack = iterator.next();
-            final Fuel fuel = Fuel.get(fuelStack);
-            if (fuel != null)
-            {
-                iterator.remove(); // Consume fuel item stack
-                if (fuel.getDuration() > ticks)
-                {
-                    burnTicks = (int) (fuel.getDuration() - ticks);
-                    burnTemperature = fuel.getTemperature();
-                    return new Remainder(burnTicks, burnTemperature, 0L);
-                }
-                else
-                {
-                    ticks -= fuel.getDuration();
-                }
-            }
-        }
-        return new Remainder(burnTicks, burnTemperature, ticks);
-    }
-
     public static void provideHeatTo(Level level, BlockPos pos, float temperature)
     {
         final BlockEntity entity = level.getBlockEntity(pos);
@@ -238,7 +165,5 @@ public final class HeatCapability
         }
     }
 
-    public record Remainder(int burnTicks, float burnTemperature, long ticks) {}
-
     public static class Packet extends DataManagerSyncPacket<HeatDefinition> {}
 }
\ No newline at end of file
@@ -56,6 +56,12 @@ public class HeatHandler implements ICapabilitySerializable<CompoundTag>, IHeat
         return HeatCapability.adjustTemp(temperature, getHeatCapacity(), Calendars.get().getTicks() - lastUpdateTick);
     }
 
+    @Override
+    public float getTemperatureAt(long tick)
+    {
+        return HeatCapability.adjustTemp(temperature, getHeatCapacity(), tick - lastUpdateTick);
+    }
+
     /**
      * Update the temperature, and save the timestamp of when it was updated
      *
@@ -0,0 +1,611 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.capabilities.heat;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import net.minecraft.world.item.ItemStack;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.dries007.tfc.config.TFCConfig;
+import net.dries007.tfc.util.Fuel;
+
+/**
+ * The temperature of a device, and the items inside it, over a number of ticks, computed in closed form. This is used by devices to catch up after a calendar skip (see {@link net.dries007.tfc.util.calendar.ICalendarTickable#onCalendarUpdate(long)}) in a single step, rather than one tick at a time.
+ * <ul>
+ *     <li>The device temperature is built as a sequence of linear segments, one (or a few) per fuel consumed, by following the same rules as the device's server tick: fuel burns down, the next fuel is consumed when it runs out, and the temperature moves towards the current target (see {@link HeatCapability#adjustDeviceTemp(float, float, int, boolean)}).</li>
+ *     <li>Items are then advanced over each segment (see {@link HeatCapability#addTemp(IHeat, float, float)}). Within a segment, the gap between the device and item temperature only depends on the previous gap, so it can be advanced in phases: the item is heating towards the device, has caught up and is following it, or is cooling down towards it.</li>
+ * </ul>
+ * This matches stepping the device one tick at a time, up to floating point error, with a few exceptions:
+ * <ul>
+ *     <li>Weather is assumed not to change over the skipped ticks.</li>
+ *     <li>Bellows air only lasts a limited number of ticks, so it is stepped one tick at a time.</li>
+ *     <li>Recipes are not completed during the skip, only on the next tick, if the item is still hot enough.</li>
+ *     <li>Heat provided to other devices, i.e. a forge heating a crucible, is not simulated.</li>
+ * </ul>
+ */
+public final class HeatTimeline
+{
+    /**
+     * Simulates a device which burns fuel, i.e. a firepit, charcoal forge or blast furnace.
+     *
+     * @param ticks                The number of ticks to simulate.
+     * @param isRaining            If the device is in the rain, which doubles fuel consumption and lowers the target temperature.
+     * @param burnRate             The number of burn ticks consumed each tick. This is doubled with air, or in the rain.
+     * @param resetAirOnExtinguish If the device's air ticks are reset when it runs out of fuel.
+     * @param fuel                 The next fuel to be consumed, or {@code null} if there is none left. See {@link #fuels(Iterable)}
+     */
+    public static HeatTimeline burn(Rates rates, long ticks, Fire fire, boolean isRaining, int burnRate, boolean resetAirOnExtinguish, Supplier<Burn> fuel)
+    {
+        final HeatTimeline timeline = new HeatTimeline(rates, fire.temperature());
+        final double delta = rates.device();
+
+        boolean lit = fire.lit();
+        int burnTicks = lit ? fire.burnTicks() : 0;
+        float burnTemperature = lit ? fire.burnTemperature() : 0; // An unlit device with a burn temperature extinguishes on its next tick
+        int airTicks = fire.airTicks();
+        long remaining = ticks;
+
+        // Air runs out after a limited number of ticks, and changes the target every tick, so step through it
+        while (remaining > 0 && airTicks > 0)
+        {
+            if (lit)
+            {
+                if (burnTicks > 0)
+                {
+                    burnTicks -= 2 * burnRate;
+                }
+                if (burnTicks <= 0)
+                {
+                    final Burn next = fuel.get();
+                    if (next != null)
+                    {
+                        burnTicks += next.duration();
+                        burnTemperature = next.temperature();
+                    }
+                    if (burnTicks <= 0)
+                    {
+                        lit = false;
+                        burnTicks = 0;
+                        burnTemperature = 0;
+                        if (resetAirOnExtinguish)
+                        {
+                            airTicks = 0;
+                        }
+                    }
+                }
+            }
+            if (airTicks > 0)
+            {
+                airTicks--;
+            }
+            if (timeline.device > 0 || burnTemperature > 0)
+            {
+                final double target = HeatCapability.targetDeviceTemp(burnTemperature, airTicks, isRaining);
+                timeline.step(airTicks > 0 ? towards(timeline.device, target, 2 * delta, 0.5 * delta) : towards(timeline.device, target, delta, delta));
+            }
+            else
+            {
+                timeline.segment(1, 0);
+            }
+            remaining--;
+        }
+
+        // Without air, the target is constant until the current fuel runs out
+        final int consumption = isRaining ? 2 * burnRate : burnRate;
+        while (remaining > 0)
+        {
+            final double target = HeatCapability.targetDeviceTemp(burnTemperature, 0, isRaining);
+            if (!lit)
+            {
+                timeline.move(target, remaining, delta, delta);
+                break;
+            }
+
+            // The tick on which burn ticks run out, which is also when the next fuel is consumed
+            final long consumedTick = burnTicks > 0 ? (burnTicks + consumption - 1) / consumption : 1;
+            if (consumedTick > remaining)
+            {
+                burnTicks -= (int) (remaining * consumption);
+                timeline.move(target, remaining, delta, delta);
+                break;
+            }
+
+            timeline.move(target, consumedTick - 1, delta, delta);
+            remaining -= consumedTick;
+            if (burnTicks > 0)
+            {
+                burnTicks -= (int) (consumedTick * consumption);
+            }
+
+            final Burn next = fuel.get();
+            if (next != null)
+            {
+                burnTicks += next.duration();
+                burnTemperature = next.temperature();
+            }
+            if (burnTicks <= 0)
+            {
+                lit = false;
+                burnTicks = 0;
+                burnTemperature = 0;
+            }
+            timeline.move(HeatCapability.targetDeviceTemp(burnTemperature, 0, isRaining), 1, delta, delta);
+        }
+
+        timeline.fire = new Fire((float) timeline.device, lit, burnTicks, burnTemperature, airTicks);
+        return timeline;
+    }
+
+    /**
+     * Simulates a crucible, which has no fuel of its own. It heats towards a target temperature, which is held for a number of stability ticks, and then decays.
+     */
+    public static HeatTimeline crucible(Rates rates, long ticks, float temperature, float targetTemperature, int stabilityTicks)
+    {
+        final HeatTimeline timeline = new HeatTimeline(rates, temperature);
+        final double delta = rates.device();
+
+        // The target starts to decay on the tick the stability ticks run out, and the temperature on each tick moves towards the target of the previous tick
+        final long steady = Math.max(stabilityTicks, 1);
+        timeline.move(targetTemperature, Math.min(ticks, steady), delta, delta);
+
+        long remaining = ticks - steady;
+        if (remaining > 0)
+        {
+            // The target decays as fast as the temperature can change, so the temperature only rises until it meets the target, after which both fall together
+            long decayed = 0;
+            if (timeline.device < targetTemperature - delta)
+            {
+                decayed = Math.min(remaining, Math.max(0, (long) Math.ceil((targetTemperature - timeline.device) / (2 * delta)) - 1));
+                timeline.segment(decayed, delta);
+                remaining -= decayed;
+            }
+            if (remaining > 0)
+            {
+                timeline.step(towards(timeline.device, Math.max(targetTemperature - delta * (decayed + 1), 0), delta, delta));
+                timeline.move(0, remaining - 1, delta, delta);
+            }
+        }
+
+        timeline.targetTemperature = (float) Math.max(targetTemperature - delta * Math.max(0, ticks - steady + 1), 0);
+        timeline.stabilityTicks = (int) Math.max(stabilityTicks - Math.max(ticks, 0), 0);
+        return timeline;
+    }
+
+    /**
+     * Consumes fuel from a sequence of item stacks, in order, skipping empty stacks. Stacks which are not a fuel are consumed as {@link Burn#NONE}, as the device would.
+     *
+     * @param stacks An iterable which supports removal, to consume the stack.
+     */
+    public static Supplier<Burn> fuels(Iterable<ItemStack> stacks)
+    {
+        return fuels(stacks, fuel -> {});
+    }
+
+    /**
+     * As {@link #fuels(Iterable)}, but also reports each fuel as it is consumed, for devices which track more than the burn itself.
+     *
+     * @param stacks    An iterable which supports removal, to consume the stack.
+     * @param onConsume Called with each fuel consumed, in order.
+     */
+    public static Supplier<Burn> fuels(Iterable<ItemStack> stacks, Consumer<Fuel> onConsume)
+    {
+        final Iterator<ItemStack> iterator = stacks.iterator();
+        return () -> {
+            while (iterator.hasNext())
+            {
+                final ItemStack stack = iterator.next();
+                if (!stack.isEmpty())
+                {
+                    iterator.remove();
+                    final Fuel fuel = Fuel.get(stack);
+                    if (fuel == null)
+                    {
+                        return Burn.NONE;
+                    }
+                    onConsume.accept(fuel);
+                    return new Burn(fuel.getDuration(), fuel.getTemperature());
+                }
+            }
+            return null;
+        };
+    }
+
+    private static double towards(double temperature, double target, double deltaPositive, double deltaNegative)
+    {
+        if (temperature < target)
+        {
+            return Math.min(temperature + deltaPositive, target);
+        }
+        else if (temperature > target)
+        {
+            return Math.max(temperature - deltaNegative, target);
+        }
+        return target;
+    }
+
+    /**
+     * @return The first {@code m} in {@code [1, limit]} where {@code c0 + c1 * m + c2 * m * (m + 1) / 2 <= 0}, or {@link Long#MAX_VALUE} if there is none.
+     */
+    private static long firstNonPositive(double c0, double c1, double c2, long limit)
+    {
+        if (limit < 1)
+        {
+            return Long.MAX_VALUE;
+        }
+        if (quadratic(c0, c1, c2, 1) <= 0)
+        {
+            return 1;
+        }
+        // The difference between consecutive values is c1 + c2 * m, so the function has at most one turning point
+        final long min, max;
+        if (c2 == 0)
+        {
+            if (c1 >= 0)
+            {
+                return Long.MAX_VALUE;
+            }
+            final double first = Math.ceil(c0 / -c1);
+            return first <= limit ? Math.max(1, (long) first) : Long.MAX_VALUE;
+        }
+        else if (c2 > 0)
+        {
+            // Falling, then rising
+            final double turn = Math.floor(-c1 / c2);
+            if (turn < 1)
+            {
+                return Long.MAX_VALUE;
+            }
+            min = 1;
+            max = (long) Math.min(turn, limit);
+        }
+        else
+        {
+            // Rising, then falling
+            final double turn = Math.ceil(-c1 / c2) - 1;
+            if (turn > limit)
+            {
+                return Long.MAX_VALUE;
+            }
+            min = (long) Math.max(turn, 1);
+            max = limit;
+        }
+
+        // Non-increasing on [min, max]
+        if (quadratic(c0, c1, c2, max) > 0)
+        {
+            return Long.MAX_VALUE;
+        }
+        long low = min, high = max;
+        while (low < high)
+        {
+            final long mid = low + (high - low) / 2;
+            if (quadratic(c0, c1, c2, mid) <= 0)
+            {
+                high = mid;
+            }
+            else
+            {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static double quadratic(double c0, double c1, double c2, long m)
+    {
+        return c0 + c1 * m + c2 * ((double) m * (m + 1) / 2);
+    }
+
+    private final Rates rates;
+    private final LongArrayList lengths;
+    private final DoubleArrayList starts, slopes, ends;
+
+    private double device;
+    private Fire fire;
+    private float targetTemperature;
+    private int stabilityTicks;
+
+    private HeatTimeline(Rates rates, float temperature)
+    {
+        this.rates = rates;
+        this.lengths = new LongArrayList();
+        this.starts = new DoubleArrayList();
+        this.slopes = new DoubleArrayList();
+        this.ends = new DoubleArrayList();
+        this.device = temperature;
+    }
+
+    /**
+     * @return The device temperature at the end of the timeline.
+     */
+    public float getTemperature()
+    {
+        return (float) device;
+    }
+
+    /**
+     * @return The state of the fire at the end of the timeline, for timelines created with {@link #burn}.
+     */
+    public Fire getFire()
+    {
+        return fire;
+    }
+
+    /**
+     * @return The target temperature at the end of the timeline, for timelines created with {@link #crucible}.
+     */
+    public float getTargetTemperature()
+    {
+        return targetTemperature;
+    }
+
+    /**
+     * @return The stability ticks left at the end of the timeline, for timelines created with {@link #crucible}.
+     */
+    public int getStabilityTicks()
+    {
+        return stabilityTicks;
+    }
+
+    /**
+     * @return The number of linear segments the device temperature is made of.
+     */
+    public int getSegments()
+    {
+        return lengths.size();
+    }
+
+    /**
+     * Heats an item over the timeline, as by {@link HeatCapability#addTemp(IHeat, float)}, and sets its temperature.
+     *
+     * @param startTick The calendar tick the timeline starts after, at which the item was last updated.
+     */
+    public void heat(IHeat heat, long startTick, Heating heating)
+    {
+        heat(heat, startTick, heating, 3, 0);
+    }
+
+    /**
+     * Heats an item over the timeline, as by {@link HeatCapability#addTemp(IHeat, float, float)}, and sets its temperature.
+     *
+     * @param startTick         The calendar tick the timeline starts after, at which the item was last updated.
+     * @param modifier          The heating modifier.
+     * @param modifierPerDegree An additional heating modifier per degree of the device temperature.
+     */
+    public void heat(IHeat heat, long startTick, Heating heating, float modifier, float modifierPerDegree)
+    {
+        heat.setTemperature((float) heat(heat.getTemperatureAt(startTick), heat.getHeatCapacity(), heating, modifier, modifierPerDegree));
+    }
+
+    /**
+     * @return The temperature of an item at the end of the timeline.
+     */
+    public double heat(double temperature, float heatCapacity, Heating heating, float modifier, float modifierPerDegree)
+    {
+        final double cooling = rates.itemCooling() / heatCapacity;
+        final double base = (rates.itemCooling() - 1 + modifier * rates.itemHeating()) / heatCapacity;
+        final double perDegree = modifierPerDegree * rates.itemHeating() / heatCapacity;
+        final Item item = new Item(temperature, cooling, base, perDegree);
+        for (int i = 0; i < lengths.size(); i++)
+        {
+            final long length = lengths.getLong(i);
+            final double start = starts.getDouble(i), slope = slopes.getDouble(i), end = ends.getDouble(i);
+            switch (heating)
+            {
+                case ALWAYS -> item.advance(length, start, slope, end, false);
+                case WHILE_HOT -> {
+                    if (start == 0 && slope == 0)
+                    {
+                        item.cool(length);
+                    }
+                    else if (end == 0 && slope < 0)
+                    {
+                        // The device reaches zero on the last tick, which does not heat
+                        item.advance(length - 1, start, slope, start + (length - 1) * slope, false);
+                        item.cool(1);
+                    }
+                    else
+                    {
+                        item.advance(length, start, slope, end, false);
+                    }
+                }
+                case WHEN_COOLER -> item.advance(length, start, slope, end, true);
+            }
+        }
+        return item.temperature;
+    }
+
+    private void segment(long length, double slope)
+    {
+        if (length > 0)
+        {
+            lengths.add(length);
+            starts.add(device);
+            slopes.add(slope);
+            device += length * slope;
+            ends.add(device);
+        }
+    }
+
+    private void step(double next)
+    {
+        lengths.add(1);
+        starts.add(device);
+        slopes.add(next - device);
+        ends.add(next);
+        device = next;
+    }
+
+    /**
+     * Moves the device temperature towards a constant target, by up to a fixed amount each tick.
+     */
+    private void move(double target, long length, double deltaPositive, double deltaNegative)
+    {
+        if (length <= 0)
+        {
+            return;
+        }
+        if (device != target)
+        {
+            final double slope = device < target ? deltaPositive : -deltaNegative;
+            final long full = (long) Math.min(length, Math.ceil((target - device) / slope) - 1); // Steps which do not reach the target
+            segment(full, slope);
+            length -= full;
+            if (length > 0)
+            {
+                step(target);
+                length--;
+            }
+        }
+        segment(length, 0);
+    }
+
+    /**
+     * How an item in a device is heated, each tick.
+     */
+    public enum Heating
+    {
+        /**
+         * Heated towards the device temperature, or cooled down to it, if hotter. Used by the grill.
+         */
+        ALWAYS,
+        /**
+         * As {@link #ALWAYS}, but only while the device temperature is above zero. Used by the firepit.
+         */
+        WHILE_HOT,
+        /**
+         * Heated towards the device temperature, only while cooler than it. Used by the forge, blast furnace and crucible.
+         */
+        WHEN_COOLER
+    }
+
+    /**
+     * Rates which would otherwise be read from the server config each tick.
+     *
+     * @param device      The device heating modifier.
+     * @param itemCooling The item cooling modifier.
+     * @param itemHeating The item heating modifier.
+     */
+    public record Rates(double device, double itemCooling, double itemHeating)
+    {
+        public static Rates fromConfig()
+        {
+            return new Rates(TFCConfig.SERVER.deviceHeatingModifier.get(), TFCConfig.SERVER.itemCoolingModifier.get(), TFCConfig.SERVER.itemHeatingModifier.get());
+        }
+    }
+
+    /**
+     * The state of a device which burns fuel.
+     */
+    public record Fire(float temperature, boolean lit, int burnTicks, float burnTemperature, int airTicks) {}
+
+    /**
+     * A piece of fuel, when it is consumed.
+     */
+    public record Burn(int duration, float temperature)
+    {
+        public static final Burn NONE = new Burn(0, 0);
+    }
+
+    /**
+     * An item being advanced over the segments of a timeline. Each tick, with the device temperature after that tick {@code D}, and the item temperature {@code T}:
+     * <ul>
+     *     <li>The item cools, to {@code T' = max(T - cooling, 0)}</li>
+     *     <li>If heated, the item then becomes {@code min(T' + heating(D), D)}, where {@code heating(D) = base + perDegree * D}</li>
+     * </ul>
+     * When not clamped at zero, the next gap {@code D - T} only depends on the previous gap, and the change in {@code D}.
+     */
+    private static final class Item
+    {
+        private final double cooling, base, perDegree;
+        private double temperature;
+
+        Item(double temperature, double cooling, double base, double perDegree)
+        {
+            this.temperature = temperature;
+            this.cooling = cooling;
+            this.base = base;
+            this.perDegree = perDegree;
+        }
+
+        void cool(long ticks)
+        {
+            temperature = Math.max(temperature - ticks * cooling, 0);
+        }
+
+        void advance(long length, double start, double slope, double end, boolean whenCooler)
+        {
+            long tick = 0;
+            while (tick < length)
+            {
+                final double device = start + tick * slope;
+                final double next = tick + 1 == length ? end : device + slope;
+                if (temperature < cooling)
+                {
+                    // Cooling is clamped at zero, so step through single ticks, until the item is warm enough or stops changing
+                    final double stepped = step(next, whenCooler);
+                    tick++;
+                    if (slope == 0 && stepped == temperature)
+                    {
+                        return;
+                    }
+                    temperature = stepped;
+                    continue;
+                }
+
+                final double gap = device - temperature;
+                final double rise = base - cooling + perDegree * device; // How much the item would rise, before the change in device temperature is included
+                if (gap + slope > rise + perDegree * slope)
+                {
+                    // Heating, without reaching the device. After m ticks, the gap is gap + m * (slope - rise) - perDegree * slope * m * (m + 1) / 2
+                    final long limit = length - tick;
+                    final long reached = firstNonPositive(gap, slope - rise, -perDegree * slope, limit);
+                    final long tooCold = firstNonPositive(temperature - cooling, rise, perDegree * slope, limit);
+                    final long steps = Math.max(1, Math.min(Math.min(reached == Long.MAX_VALUE ? limit : reached - 1, tooCold), limit));
+                    temperature += steps * rise + perDegree * slope * ((double) steps * (steps + 1) / 2);
+                    tick += steps;
+                }
+                else if (whenCooler && gap + slope < -cooling)
+                {
+                    // Hotter than the device, so only cooling. The gap changes by slope + cooling each tick
+                    final double closing = slope + cooling;
+                    final long untilReached = closing <= 0 ? Long.MAX_VALUE : Math.max(1, (long) Math.ceil(-gap / closing) - 1);
+                    final long untilTooCold = Math.max(1, (long) Math.floor(temperature / cooling));
+                    final long steps = Math.min(Math.min(untilReached, untilTooCold), length - tick);
+                    temperature -= steps * cooling;
+                    tick += steps;
+                }
+                else
+                {
+                    // Caught up with the device. It keeps following as long as the device doesn't move faster than the item can
+                    temperature = next;
+                    tick++;
+                    final double lowest = Math.min(next + slope, end);
+                    if ((!whenCooler || slope >= -cooling) && slope <= base - cooling + perDegree * lowest && (base >= cooling || Math.min(next, end) >= cooling))
+                    {
+                        temperature = end;
+                        return;
+                    }
+                }
+            }
+        }
+
+        double step(double next, boolean whenCooler)
+        {
+            final double cooled = Math.max(temperature - cooling, 0);
+            if (whenCooler && next <= cooled)
+            {
+                return cooled;
+            }
+            return Math.min(cooled + base + perDegree * next, next);
+        }
+    }
+}
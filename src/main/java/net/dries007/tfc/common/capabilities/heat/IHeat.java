@@ -32,6 +32,17 @@ public interface IHeat extends INBTSerializable<CompoundTag>
      */
     float getTemperature();
 
+    /**
+     * Gets the temperature at a past calendar tick, assuming the item has only been cooling since. Used by devices which catch up a number of ticks at once.
+     *
+     * @param tick A calendar tick, no later than the current tick.
+     * @return the temperature at that tick.
+     */
+    default float getTemperatureAt(long tick)
+    {
+        return getTemperature();
+    }
+
     /**
      * Sets the temperature. Used for anything that modifies the temperature.
      *
@@ -20,13 +20,13 @@ import net.dries007.tfc.mixin.accessor.ItemAccessor;
 import net.dries007.tfc.network.DataManagerSyncPacket;
 import net.dries007.tfc.util.DataManager;
 import net.dries007.tfc.util.Helpers;
-import net.dries007.tfc.util.collections.IndirectHashCollection;
+import net.dries007.tfc.util.collections.ItemDefinitionIndex;
 import org.slf4j.Logger;
 
 public final class ItemSizeManager
 {
     public static final DataManager<ItemSizeDefinition> MANAGER = new DataManager<>(Helpers.identifier("item_sizes"), "item size", ItemSizeDefinition::new, ItemSizeDefinition::new, ItemSizeDefinition::encode, Packet::new);
-    public static final IndirectHashCollection<Item, ItemSizeDefinition> CACHE = IndirectHashCollection.create(ItemSizeDefinition::getValidItems, MANAGER::getValues);
+    public static final ItemDefinitionIndex<ItemSizeDefinition> CACHE = ItemDefinitionIndex.create(MANAGER::getValues);
 
     private static final Logger LOGGER = LogUtils.getLogger();
     private static final List<Item> MODIFIABLE_ITEMS = new ArrayList<>();
@@ -87,12 +87,10 @@ public final class ItemSizeManager
         }
 
         // Definitions
-        for (ItemSizeDefinition def : CACHE.getAll(stack.getItem()))
+        final ItemSizeDefinition def = CACHE.get(stack);
+        if (def != null)
         {
-            if (def.matches(stack))
-            {
-                return def;
-            }
+            return def;
         }
 
         // Default rules
@@ -0,0 +1,85 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.commands;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import net.dries007.tfc.common.blockentities.TickableInventoryBlockEntity;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.tracker.WorldTracker;
+
+public final class DeviceCommand
+{
+    private static final String CHUNK = "tfc.commands.devices.chunk";
+    private static final String TOTAL = "tfc.commands.devices.total";
+
+    public static LiteralArgumentBuilder<CommandSourceStack> create()
+    {
+        return Commands.literal("devices")
+            .requires(source -> source.hasPermission(2))
+            .then(Commands.argument("radius", IntegerArgumentType.integer(0, 16))
+                .executes(context -> listDevices(context.getSource(), IntegerArgumentType.getInteger(context, "radius")))
+            )
+            .executes(context -> listDevices(context.getSource(), 2));
+    }
+
+    /**
+     * Lists the sleeping and awake devices in each loaded chunk within {@code radius} chunks of the source.
+     */
+    private static int listDevices(CommandSourceStack source, int radius)
+    {
+        final ServerLevel level = source.getLevel();
+        final ChunkPos center = new ChunkPos(new BlockPos(source.getPosition()));
+
+        int totalSleeping = 0, totalAwake = 0, chunks = 0;
+        for (int x = center.x - radius; x <= center.x + radius; x++)
+        {
+            for (int z = center.z - radius; z <= center.z + radius; z++)
+            {
+                final LevelChunk chunk = level.getChunkSource().getChunkNow(x, z);
+                if (chunk != null)
+                {
+                    int sleeping = 0, awake = 0;
+                    for (BlockEntity blockEntity : chunk.getBlockEntities().values())
+                    {
+                        if (blockEntity instanceof TickableInventoryBlockEntity<?> device)
+                        {
+                            if (device.isSleeping())
+                            {
+                                sleeping++;
+                            }
+                            else
+                            {
+                                awake++;
+                            }
+                        }
+                    }
+                    if (sleeping + awake > 0)
+                    {
+                        source.sendSuccess(Helpers.translatable(CHUNK, x, z, sleeping, awake), false);
+                        totalSleeping += sleeping;
+                        totalAwake += awake;
+                        chunks++;
+                    }
+                }
+            }
+        }
+
+        final WorldTracker tracker = WorldTracker.get(level);
+        source.sendSuccess(Helpers.translatable(TOTAL, totalSleeping, totalAwake, chunks, tracker != null ? tracker.getDeviceScheduler().size() : 0), false);
+        return Command.SINGLE_SUCCESS;
+    }
+}
@@ -7,9 +7,13 @@
 package net.dries007.tfc.common.commands;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.mojang.brigadier.arguments.ArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
@@ -24,6 +28,7 @@ import net.minecraft.core.QuartPos;
 import net.minecraft.core.Registry;
 import net.minecraft.network.chat.*;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.biome.Biome;
@@ -39,18 +44,28 @@ import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
 import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
 import com.mojang.datafixers.util.Pair;
+import com.mojang.logging.LogUtils;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.world.biome.BiomeExtension;
 import net.dries007.tfc.world.biome.BiomeSourceExtension;
+import net.dries007.tfc.world.biome.TFCBiomeSource;
 import net.dries007.tfc.world.biome.TFCBiomes;
 import net.dries007.tfc.world.biome.VolcanoNoise;
 import net.dries007.tfc.world.feature.vein.Vein;
 import net.dries007.tfc.world.feature.vein.VeinConfig;
 import net.dries007.tfc.world.feature.vein.VeinFeature;
-import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
 
 public class LocateCommand
 {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final long SEARCH_TIME_BUDGET = TimeUnit.SECONDS.toNanos(30);
+
+    /**
+     * Searches which are currently running, by the name of the source which started them. Each source may only have one search running at a time.
+     */
+    private static final Map<String, LocateSearch> SEARCHES = new ConcurrentHashMap<>();
+
     private static final DynamicCommandExceptionType ERROR_INVALID_BIOME = new DynamicCommandExceptionType(id -> Helpers.translatable("tfc.commands.locate.invalid_biome", id));
     private static final SimpleCommandExceptionType ERROR_INVALID_BIOME_SOURCE = new SimpleCommandExceptionType(Helpers.translatable("tfc.commands.locate.invalid_biome_source"));
     private static final DynamicCommandExceptionType ERROR_NOT_FOUND = new DynamicCommandExceptionType(id -> Helpers.translatable("tfc.commands.locate.not_found", id));
@@ -77,6 +92,9 @@ public class LocateCommand
                         .executes(context -> locateVein(context, context.getArgument("vein", ResourceLocation.class), IntegerArgumentType.getInteger(context, "max_y")))
                     )
                 )
+            )
+            .then(Commands.literal("cancel")
+                .executes(context -> cancel(context.getSource()))
             );
     }
 
@@ -95,20 +113,14 @@ public class LocateCommand
         }
 
         final BlockPos center = new BlockPos(source.getPosition());
-        final BlockPos result = radialSearch(QuartPos.fromBlock(center.getX()), QuartPos.fromBlock(center.getZ()), 1024, 16, (x, z) -> {
+        return search(source, id.toString(), center, QuartPos.fromBlock(center.getX()), QuartPos.fromBlock(center.getZ()), 1024, 16, false, (x, z) -> {
             final BiomeExtension found = biomeSourceExtension.getNoiseBiomeVariants(x, z);
             if (found == variants)
             {
                 return new BlockPos(QuartPos.fromSection(x), 0, QuartPos.fromSection(z));
             }
             return null;
-        });
-
-        if (result == null)
-        {
-            throw ERROR_NOT_FOUND.create(id);
-        }
-        return showLocateResult(source, id.toString(), center, result, "commands.locate.success");
+        }, () -> ERROR_NOT_FOUND.create(id));
     }
 
     private static int locateVolcano(CommandSourceStack source) throws CommandSyntaxException
@@ -121,7 +133,7 @@ public class LocateCommand
 
         final VolcanoNoise volcanoNoise = new VolcanoNoise(source.getLevel().getSeed());
         final BlockPos center = new BlockPos(source.getPosition());
-        final BlockPos result = radialSearch(center.getX(), center.getZ(), 1024, 16, (x, z) -> {
+        return search(source, "volcano", center, center.getX(), center.getZ(), 1024, 16, false, (x, z) -> {
             final BlockPos volcanoPos = volcanoNoise.calculateCenter(x, 0, z, 1); // Sample with rarity 1 first, to always include the cell
             if (volcanoPos != null)
             {
@@ -134,13 +146,7 @@ public class LocateCommand
                 }
             }
             return null;
-        });
-
-        if (result == null)
-        {
-            throw ERROR_VOLCANO_NOT_FOUND.create();
-        }
-        return showLocateResult(source, "volcano", center, result, "commands.locate.success");
+        }, ERROR_VOLCANO_NOT_FOUND::create);
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
@@ -169,29 +175,83 @@ public class LocateCommand
 
         final ConfiguredFeature<?, ? extends VeinFeature<?, ?>> vein = optionalVeinFeature.get();
 
-        final ArrayList<? extends Vein> veins = new ArrayList<>();
+        final VeinFeature feature = vein.feature();
+        final VeinConfig config = (VeinConfig) vein.config();
         final BiomeSource source = level.getChunkSource().getGenerator().getBiomeSource();
         final Climate.Sampler sampler = level.getChunkSource().getGenerator().climateSampler();
         final BiomeManager biomeManager = level.getBiomeManager().withDifferentSource((x, y, z) -> source.getNoiseBiome(x, y, z, sampler));
         final WorldGenerationContext generationContext = new WorldGenerationContext(level.getChunkSource().getGenerator(), level);
         final Function<BlockPos, Holder<Biome>> biomeQuery = biomeManager::getBiome;
 
-        final @Nullable BlockPos foundPos = radialSearch(pos.x, pos.z, 16, 1, (x, z) -> {
-            ((VeinFeature) vein.feature()).getVeinsAtChunk(level, generationContext, x, z, veins, (VeinConfig) vein.config(), biomeQuery);
-            veins.removeIf(v -> v.getPos().getY() > maxY);
-            if (!veins.isEmpty())
+        return search(context.getSource(), id.toString(), sourcePos, pos.x, pos.z, 16, 1, true, (x, z) -> {
+            final List<Vein> veins = new ArrayList<>();
+            feature.getVeinsAtChunk(level, generationContext, x, z, veins, config, biomeQuery);
+            for (Vein found : veins)
             {
-                return veins.get(0).getPos();
+                if (found.getPos().getY() <= maxY)
+                {
+                    return found.getPos();
+                }
             }
             return null;
-        });
+        }, () -> ERROR_VEIN_NOT_FOUND.create(id.toString()));
+    }
 
-        if (foundPos != null)
+    private static int cancel(CommandSourceStack source)
+    {
+        final LocateSearch search = SEARCHES.remove(source.getTextName());
+        if (search != null)
         {
-            return showLocateResultIn3D(context.getSource(), id.toString(), sourcePos, veins.get(0).getPos(), "commands.locate.success");
+            search.cancel();
+            return 1;
         }
+        source.sendFailure(Helpers.translatable("tfc.commands.locate.not_searching"));
+        return 0;
+    }
 
-        throw ERROR_VEIN_NOT_FOUND.create(id.toString());
+    /**
+     * Starts a search off the server thread, and reports the result to the source once it completes. Any search previously started by the same source is cancelled.
+     */
+    private static int search(CommandSourceStack source, String nameOfThing, BlockPos center, int x, int z, int radius, int step, boolean in3D, LocateSearch.SearchFunction function, Supplier<CommandSyntaxException> notFound)
+    {
+        final String key = source.getTextName();
+        final LocateSearch search = LocateSearch.start(x, z, radius, step, function, TFCBiomeSource.SEARCH_POOL, SEARCH_TIME_BUDGET);
+        final LocateSearch previous = SEARCHES.put(key, search);
+        if (previous != null)
+        {
+            previous.cancel();
+        }
+
+        source.sendSuccess(Helpers.translatable("tfc.commands.locate.searching", nameOfThing), false);
+        final MinecraftServer server = source.getServer();
+        search.future().whenComplete((result, error) -> server.execute(() -> {
+            // Report back on the server thread, the search completes on a worker thread
+            SEARCHES.remove(key, search);
+            if (error != null)
+            {
+                LOGGER.error("Error searching for {}", nameOfThing, error);
+                source.sendFailure(Helpers.translatable("tfc.commands.locate.error", nameOfThing));
+                return;
+            }
+            switch (result.status())
+            {
+                case FOUND -> {
+                    assert result.pos() != null;
+                    if (in3D)
+                    {
+                        showLocateResultIn3D(source, nameOfThing, center, result.pos(), "commands.locate.success");
+                    }
+                    else
+                    {
+                        showLocateResult(source, nameOfThing, center, result.pos(), "commands.locate.success");
+                    }
+                }
+                case NOT_FOUND -> source.sendFailure(ComponentUtils.fromMessage(notFound.get().getRawMessage()));
+                case CANCELLED -> source.sendFailure(Helpers.translatable("tfc.commands.locate.cancelled", nameOfThing));
+                case TIMED_OUT -> source.sendFailure(Helpers.translatable("tfc.commands.locate.timed_out", nameOfThing));
+            }
+        }));
+        return 1;
     }
 
     private static int showLocateResult(CommandSourceStack context, String nameOfThing, BlockPos source, BlockPos dest, String translationKey)
@@ -217,54 +277,4 @@ public class LocateCommand
         context.sendSuccess(Helpers.translatable(translationKey, nameOfThing, text, distance), false);
         return distance;
     }
-
-    @Nullable
-    private static BlockPos radialSearch(int x, int z, int radius, int step, SearchFunction function)
-    {
-        // r = [1, radius)
-        // d = [0, 2r)
-        // Example at r = 2 (d = [0, 3]):
-        // a a a a b  +x ->
-        // c . . . b  +z
-        // c . x . b   |
-        // c . . . b   v
-        // c d d d d
-
-        BlockPos pos;
-        for (int r = 1; r < radius; r++)
-        {
-            for (int d = 0; d < 2 * r; d++)
-            {
-                // a, b, c, d
-                pos = function.find(x + step * (d - r), z + step * -r);
-                if (pos != null)
-                {
-                    return pos;
-                }
-                pos = function.find(x + step * r, z + step * (d - r));
-                if (pos != null)
-                {
-                    return pos;
-                }
-                pos = function.find(x + step * -r, z + step * (d + 1 - r));
-                if (pos != null)
-                {
-                    return pos;
-                }
-                pos = function.find(x + step * (d + 1 - r), z + step * r);
-                if (pos != null)
-                {
-                    return pos;
-                }
-            }
-        }
-        return null;
-    }
-
-    @FunctionalInterface
-    interface SearchFunction
-    {
-        @Nullable
-        BlockPos find(int x, int z);
-    }
 }
@@ -0,0 +1,245 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.commands;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+import net.minecraft.core.BlockPos;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A square spiral search outwards from a center position, as used by {@link LocateCommand}, which evaluates candidate positions in parallel.
+ * <p>
+ * Candidates are numbered in the order that a serial search visits them: ring by ring outwards, and within each ring alternating between the four sides. The search runs in waves of tiles, where each tile is a contiguous range of candidates evaluated by a single worker. The result is the lowest numbered candidate that was found, so it is identical to the serial search (see {@link #findSerial(int, int, int, int, SearchFunction)}) regardless of how tiles are scheduled. Tiles stop early once a lower numbered candidate has been found by another tile.
+ * <p>
+ * A search can be cancelled, and is limited to a time budget, after which it reports {@link Status#TIMED_OUT} rather than a partial result.
+ */
+public final class LocateSearch
+{
+    static final int TILE_SIZE = 256;
+
+    /**
+     * Starts a new search on the given pool.
+     *
+     * @param radius The number of rings to search, see {@link #findSerial(int, int, int, int, SearchFunction)}.
+     * @param function The function to evaluate at each candidate. This will be called concurrently from multiple threads.
+     * @param timeBudgetNanos The maximum time to spend searching.
+     */
+    public static LocateSearch start(int x, int z, int radius, int step, SearchFunction function, ForkJoinPool pool, long timeBudgetNanos)
+    {
+        final LocateSearch search = new LocateSearch(x, z, radius, step, function, pool, System.nanoTime() + timeBudgetNanos);
+        search.future.completeAsync(search::run, pool);
+        return search;
+    }
+
+    /**
+     * The original serial search. Rings are searched from {@code r = 1} to {@code r = radius - 1}, with candidates spaced {@code step} apart.
+     * <pre>
+     * Example at r = 2 (d = [0, 3]):
+     * a a a a b  +x ->
+     * c . . . b  +z
+     * c . x . b   |
+     * c . . . b   v
+     * c d d d d
+     * </pre>
+     */
+    @Nullable
+    public static BlockPos findSerial(int x, int z, int radius, int step, SearchFunction function)
+    {
+        final int total = candidates(radius);
+        for (int index = 0; index < total; index++)
+        {
+            final BlockPos pos = find(x, z, step, index, function);
+            if (pos != null)
+            {
+                return pos;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The total number of candidates in a search of the given radius.
+     */
+    static int candidates(int radius)
+    {
+        return radius <= 1 ? 0 : 4 * radius * (radius - 1);
+    }
+
+    /**
+     * @return The ring {@code r} containing the candidate, where ring {@code r} contains candidates {@code [4r(r - 1), 4r(r + 1))}.
+     */
+    static int ring(int index)
+    {
+        int r = (int) ((1 + Math.sqrt(1 + (double) index)) / 2);
+        while (4L * r * (r - 1) > index) r--;
+        while (4L * r * (r + 1) <= index) r++;
+        return r;
+    }
+
+    @Nullable
+    private static BlockPos find(int x, int z, int step, int index, SearchFunction function)
+    {
+        final int r = ring(index);
+        final int k = index - 4 * r * (r - 1);
+        final int d = k >> 2;
+        return switch (k & 3)
+            {
+                case 0 -> function.find(x + step * (d - r), z + step * -r);
+                case 1 -> function.find(x + step * r, z + step * (d - r));
+                case 2 -> function.find(x + step * -r, z + step * (d + 1 - r));
+                default -> function.find(x + step * (d + 1 - r), z + step * r);
+            };
+    }
+
+    private final int x, z, radius, step;
+    private final SearchFunction function;
+    private final ForkJoinPool pool;
+    private final long deadline;
+    private final CompletableFuture<Result> future;
+    private final AtomicReference<Hit> best;
+    private volatile boolean cancelled, timedOut;
+
+    private LocateSearch(int x, int z, int radius, int step, SearchFunction function, ForkJoinPool pool, long deadline)
+    {
+        this.x = x;
+        this.z = z;
+        this.radius = radius;
+        this.step = step;
+        this.function = function;
+        this.pool = pool;
+        this.deadline = deadline;
+        this.future = new CompletableFuture<>();
+        this.best = new AtomicReference<>();
+    }
+
+    /**
+     * @return A future which is completed with the result of this search, on a worker thread.
+     */
+    public CompletableFuture<Result> future()
+    {
+        return future;
+    }
+
+    /**
+     * Requests that this search stop. Tiles which are already running will finish early, and the search completes with {@link Status#CANCELLED}.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    private Result run()
+    {
+        final int total = candidates(radius);
+        final int tilesPerWave = 4 * Math.max(1, pool.getParallelism());
+        for (int waveStart = 0; waveStart < total; waveStart += tilesPerWave * TILE_SIZE)
+        {
+            if (cancelled)
+            {
+                return new Result(Status.CANCELLED, null);
+            }
+            if (System.nanoTime() - deadline > 0)
+            {
+                return new Result(Status.TIMED_OUT, null);
+            }
+
+            final int waveEnd = (int) Math.min(total, (long) waveStart + (long) tilesPerWave * TILE_SIZE);
+            final int tileCount = (waveEnd - waveStart + TILE_SIZE - 1) / TILE_SIZE;
+            final ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[tileCount];
+            for (int tile = 0; tile < tileCount; tile++)
+            {
+                final int tileStart = waveStart + tile * TILE_SIZE, tileEnd = Math.min(waveEnd, tileStart + TILE_SIZE);
+                final Runnable task = () -> searchTile(tileStart, tileEnd);
+                tasks[tile] = tile > 0 ? pool.submit(task) : ForkJoinTask.adapt(task);
+            }
+
+            tasks[0].invoke(); // Search the first tile on this thread
+            for (ForkJoinTask<?> task : tasks)
+            {
+                task.join();
+            }
+
+            if (cancelled)
+            {
+                return new Result(Status.CANCELLED, null);
+            }
+            if (timedOut)
+            {
+                // Some tiles in this wave did not finish, so any hit found may not be the first
+                return new Result(Status.TIMED_OUT, null);
+            }
+
+            // Every candidate before this wave has been searched, and within this wave, the lowest index wins, so this is the same result as the serial search.
+            final Hit hit = best.get();
+            if (hit != null)
+            {
+                return new Result(Status.FOUND, hit.pos);
+            }
+        }
+        return new Result(Status.NOT_FOUND, null);
+    }
+
+    private void searchTile(int start, int end)
+    {
+        for (int index = start; index < end && !cancelled; index++)
+        {
+            final Hit current = best.get();
+            if (current != null && current.index < index)
+            {
+                return; // A lower indexed candidate was already found
+            }
+            if (System.nanoTime() - deadline > 0)
+            {
+                timedOut = true;
+                return;
+            }
+            final BlockPos pos = find(x, z, step, index, function);
+            if (pos != null)
+            {
+                offer(new Hit(index, pos));
+                return; // Any later candidates in this tile have a higher index
+            }
+        }
+    }
+
+    private void offer(Hit hit)
+    {
+        Hit current;
+        do
+        {
+            current = best.get();
+            if (current != null && current.index < hit.index)
+            {
+                return;
+            }
+        } while (!best.compareAndSet(current, hit));
+    }
+
+    public enum Status
+    {
+        FOUND, NOT_FOUND, CANCELLED, TIMED_OUT
+    }
+
+    /**
+     * @param pos The position found, if {@code status} is {@link Status#FOUND}, otherwise {@code null}.
+     */
+    public record Result(Status status, @Nullable BlockPos pos) {}
+
+    private record Hit(int index, BlockPos pos) {}
+
+    @FunctionalInterface
+    public interface SearchFunction
+    {
+        @Nullable
+        BlockPos find(int x, int z);
+    }
+}
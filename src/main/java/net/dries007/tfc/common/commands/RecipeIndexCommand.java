@@ -0,0 +1,56 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.commands;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.collections.RecipeIndex;
+
+public final class RecipeIndexCommand
+{
+    private static final String QUERY = "tfc.commands.recipes.query";
+    private static final String RESET = "tfc.commands.recipes.reset";
+
+    public static LiteralArgumentBuilder<CommandSourceStack> create()
+    {
+        return Commands.literal("recipes")
+            .requires(source -> source.hasPermission(2))
+            .then(Commands.literal("reset")
+                .executes(context -> reset(context.getSource()))
+            )
+            .executes(context -> query(context.getSource()));
+    }
+
+    private static int query(CommandSourceStack source)
+    {
+        for (RecipeIndex<?, ?> index : RecipeIndex.getAll())
+        {
+            final long lookups = index.getLookups();
+            source.sendSuccess(Helpers.translatable(QUERY,
+                index.getName(),
+                index.getRecipeCount(),
+                index.getWildcardCount(),
+                index.getKeyCount(),
+                lookups,
+                String.format("%.1f", lookups == 0 ? 0 : (double) index.getCandidatesTested() / lookups),
+                lookups == 0 ? 0 : index.getLookupNanos() / lookups
+            ), false);
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int reset(CommandSourceStack source)
+    {
+        RecipeIndex.getAll().forEach(RecipeIndex::resetMetrics);
+        source.sendSuccess(Helpers.translatable(RESET), true);
+        return Command.SINGLE_SUCCESS;
+    }
+}
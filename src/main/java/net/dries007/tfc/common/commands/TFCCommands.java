@@ -48,6 +48,9 @@ public final class TFCCommands
             .then(LocateCommand.create())
             .then(PropickCommand.create())
             .then(ForgeCommand.create())
+            .then(WorldTrackerCommand.create())
+            .then(RecipeIndexCommand.create())
+            .then(DeviceCommand.create())
         );
 
         // For command modifications / replacements, we register directly
@@ -0,0 +1,41 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.commands;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.server.level.ServerLevel;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.tracker.WorldTrackerCapability;
+
+public final class WorldTrackerCommand
+{
+    private static final String QUERY = "tfc.commands.tracker.query";
+
+    public static LiteralArgumentBuilder<CommandSourceStack> create()
+    {
+        return Commands.literal("tracker")
+            .requires(source -> source.hasPermission(2))
+            .executes(context -> query(context.getSource()));
+    }
+
+    private static int query(CommandSourceStack source)
+    {
+        final ServerLevel level = source.getLevel();
+        level.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(tracker -> source.sendSuccess(Helpers.translatable(QUERY,
+            tracker.getLandslideBacklog(),
+            tracker.getCollapseBacklog(),
+            tracker.getIsolatedBacklog(),
+            tracker.getLastTickProcessed(),
+            String.format("%.3f", tracker.getLastTickNanos() / 1_000_000d)
+        ), false));
+        return Command.SINGLE_SUCCESS;
+    }
+}
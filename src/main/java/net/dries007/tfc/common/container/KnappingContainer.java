@@ -107,9 +107,8 @@ public class KnappingContainer extends ItemStackContainer implements ButtonHandl
         final Slot slot = slots.get(SLOT_OUTPUT);
         if (player.level instanceof ServerLevel level)
         {
-            slot.set(level.getRecipeManager().getRecipeFor(recipeType, this, level)
-                .map(recipe -> recipe.assemble(this))
-                .orElse(ItemStack.EMPTY));
+            final KnappingRecipe recipe = KnappingRecipe.get(level, recipeType, this);
+            slot.set(recipe != null ? recipe.assemble(this) : ItemStack.EMPTY);
         }
     }
 
@@ -25,11 +25,10 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
 
-import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.blocks.rock.IFallableBlock;
 import net.dries007.tfc.common.fluids.FluidHelpers;
 import net.dries007.tfc.mixin.accessor.FallingBlockEntityAccessor;
-import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.BlockTagFlags;
 import net.dries007.tfc.util.tracker.WorldTrackerCapability;
 
 /**
@@ -87,15 +86,16 @@ public class TFCFallingBlockEntity extends FallingBlockEntity
         {
             return 4; // Fake value, useful for simulating really hard toughness checks.
         }
-        if (Helpers.isBlock(state, TFCTags.Blocks.TOUGHNESS_3))
+        final int flags = BlockTagFlags.get(state);
+        if ((flags & BlockTagFlags.TOUGHNESS_3) != 0)
         {
             return 3;
         }
-        if (Helpers.isBlock(state, TFCTags.Blocks.TOUGHNESS_2))
+        if ((flags & BlockTagFlags.TOUGHNESS_2) != 0)
         {
             return 2;
         }
-        if (Helpers.isBlock(state, TFCTags.Blocks.TOUGHNESS_1))
+        if ((flags & BlockTagFlags.TOUGHNESS_1) != 0)
         {
             return 1;
         }
@@ -271,7 +271,7 @@ public class TFCFallingBlockEntity extends FallingBlockEntity
             fallingBlock.onLand(this.level, posAt, fallingBlockState, hitBlockState, this);
         }
 
-        if (Helpers.isBlock(fallingBlockState.getBlock(), TFCTags.Blocks.CAN_LANDSLIDE))
+        if (BlockTagFlags.is(fallingBlockState, BlockTagFlags.CAN_LANDSLIDE))
         {
             level.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(cap -> cap.addLandslidePos(posAt));
         }
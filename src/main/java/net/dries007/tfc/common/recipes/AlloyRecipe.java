@@ -20,22 +20,21 @@ import com.google.gson.JsonObject;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.crafting.RecipeManager;
 import net.minecraft.world.item.crafting.RecipeSerializer;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
 
 import net.dries007.tfc.common.recipes.inventory.AlloyInventory;
+import net.dries007.tfc.util.AlloyEngine;
 import net.dries007.tfc.util.JsonHelpers;
 import net.dries007.tfc.util.Metal;
 import org.jetbrains.annotations.Nullable;
 
 public class AlloyRecipe implements ISimpleRecipe<AlloyInventory>
 {
-    @SuppressWarnings("ConstantConditions")
-    public static Optional<AlloyRecipe> get(RecipeManager recipes, AlloyInventory inventory)
+    public static Optional<AlloyRecipe> get(AlloyInventory inventory)
     {
-        return recipes.getRecipeFor(TFCRecipeTypes.ALLOY.get(), inventory, null);
+        return Optional.ofNullable(inventory.getAlloy().findRecipe(AlloyEngine.get()));
     }
 
     private final ResourceLocation id;
@@ -14,6 +14,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.world.item.crafting.RecipeSerializer;
@@ -29,10 +30,13 @@ import net.dries007.tfc.common.recipes.outputs.ItemStackProvider;
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.JsonHelpers;
+import net.dries007.tfc.util.collections.RecipeIndex;
 import org.jetbrains.annotations.Nullable;
 
 public class AnvilRecipe implements ISimpleRecipe<AnvilRecipe.Inventory>
 {
+    public static final RecipeIndex<Item, AnvilRecipe> INDEX = RecipeIndex.create("anvil", TFCRecipeTypes.ANVIL, recipe -> RecipeIndex.itemKeys(recipe.input));
+
     public static boolean hasAny(Level level, Inventory inventory)
     {
         return hasAny(level, inventory.getItem(), inventory.getTier());
@@ -40,10 +44,7 @@ public class AnvilRecipe implements ISimpleRecipe<AnvilRecipe.Inventory>
 
     public static boolean hasAny(Level level, ItemStack stack, int tier)
     {
-        return Helpers.getRecipes(level, TFCRecipeTypes.ANVIL)
-            .values()
-            .stream()
-            .anyMatch(r -> r.input.test(stack) && tier >= r.minTier); // anyMatch() should be faster than calling toList().isEmpty()
+        return INDEX.find(stack.getItem(), r -> r.input.test(stack) && tier >= r.minTier) != null;
     }
 
     public static List<AnvilRecipe> getAll(Level level, Inventory inventory)
@@ -53,11 +54,7 @@ public class AnvilRecipe implements ISimpleRecipe<AnvilRecipe.Inventory>
 
     public static List<AnvilRecipe> getAll(Level level, ItemStack stack, int tier)
     {
-        return Helpers.getRecipes(level, TFCRecipeTypes.ANVIL)
-            .values()
-            .stream()
-            .filter(r -> r.input.test(stack) && tier >= r.minTier)
-            .toList();
+        return INDEX.findAll(stack.getItem(), r -> r.input.test(stack) && tier >= r.minTier);
     }
 
     private final ResourceLocation id;
@@ -14,17 +14,20 @@ import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.world.item.crafting.RecipeSerializer;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.material.Fluid;
 import net.minecraftforge.fluids.FluidStack;
 
 import net.dries007.tfc.common.recipes.ingredients.FluidStackIngredient;
 import net.dries007.tfc.common.recipes.inventory.EmptyInventory;
 import net.dries007.tfc.common.recipes.inventory.ItemStackInventory;
-import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.JsonHelpers;
+import net.dries007.tfc.util.collections.RecipeIndex;
 import org.jetbrains.annotations.Nullable;
 
 public class BlastFurnaceRecipe implements ISimpleRecipe<BlastFurnaceRecipe.Inventory>
 {
+    public static final RecipeIndex<Fluid, BlastFurnaceRecipe> INDEX = RecipeIndex.create("blast_furnace", TFCRecipeTypes.BLAST_FURNACE, recipe -> recipe.inputFluid.ingredient().getMatchingFluids());
+
     /**
      * @return A recipe matching a primary input item stack.
      */
@@ -36,13 +39,7 @@ public class BlastFurnaceRecipe implements ISimpleRecipe<BlastFurnaceRecipe.Inve
         if (heatRecipe != null)
         {
             final FluidStack moltenFluid = heatRecipe.assembleFluid(inventory);
-            for (BlastFurnaceRecipe recipe : Helpers.getRecipes(level, TFCRecipeTypes.BLAST_FURNACE).values())
-            {
-                if (recipe.inputFluid.ingredient().test(moltenFluid.getFluid()))
-                {
-                    return recipe;
-                }
-            }
+            return INDEX.find(moltenFluid.getFluid(), recipe -> recipe.inputFluid.ingredient().test(moltenFluid.getFluid()));
         }
         return null;
     }
@@ -53,14 +50,7 @@ public class BlastFurnaceRecipe implements ISimpleRecipe<BlastFurnaceRecipe.Inve
     @Nullable
     public static BlastFurnaceRecipe get(Level level, FluidStack inputFluid)
     {
-        for (BlastFurnaceRecipe recipe : Helpers.getRecipes(level, TFCRecipeTypes.BLAST_FURNACE).values())
-        {
-            if (recipe.inputFluid.ingredient().test(inputFluid.getFluid()))
-            {
-                return recipe;
-            }
-        }
-        return null;
+        return INDEX.find(inputFluid.getFluid(), recipe -> recipe.inputFluid.ingredient().test(inputFluid.getFluid()));
     }
 
     private final ResourceLocation id;
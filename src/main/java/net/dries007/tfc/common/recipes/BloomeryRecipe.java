@@ -14,18 +14,21 @@ import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.world.item.crafting.RecipeSerializer;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.material.Fluid;
 import net.minecraftforge.fluids.FluidStack;
 
 import net.dries007.tfc.common.recipes.ingredients.FluidStackIngredient;
 import net.dries007.tfc.common.recipes.inventory.BloomeryInventory;
 import net.dries007.tfc.common.recipes.inventory.ItemStackInventory;
 import net.dries007.tfc.common.recipes.outputs.ItemStackProvider;
-import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.JsonHelpers;
+import net.dries007.tfc.util.collections.RecipeIndex;
 import org.jetbrains.annotations.Nullable;
 
 public class BloomeryRecipe implements ISimpleRecipe<BloomeryInventory>
 {
+    public static final RecipeIndex<Fluid, BloomeryRecipe> INDEX = RecipeIndex.create("bloomery", TFCRecipeTypes.BLOOMERY, recipe -> recipe.inputFluid.ingredient().getMatchingFluids());
+
     /**
      * Gets a recipe matching a primary input item stack.
      */
@@ -37,13 +40,7 @@ public class BloomeryRecipe implements ISimpleRecipe<BloomeryInventory>
         if (heatRecipe != null)
         {
             final FluidStack moltenFluid = heatRecipe.assembleFluid(inventory);
-            for (BloomeryRecipe recipe : Helpers.getRecipes(level, TFCRecipeTypes.BLOOMERY).values())
-            {
-                if (recipe.inputFluid.ingredient().test(moltenFluid.getFluid()))
-                {
-                    return recipe;
-                }
-            }
+            return INDEX.find(moltenFluid.getFluid(), recipe -> recipe.inputFluid.ingredient().test(moltenFluid.getFluid()));
         }
         return null;
     }
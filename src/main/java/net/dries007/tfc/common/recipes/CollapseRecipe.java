@@ -7,6 +7,7 @@
 package net.dries007.tfc.common.recipes;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import net.minecraft.core.BlockPos;
@@ -25,11 +26,11 @@ import org.jetbrains.annotations.Nullable;
 
 import net.dries007.tfc.TerraFirmaCraft;
 import net.dries007.tfc.client.TFCSounds;
-import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.entities.TFCFallingBlockEntity;
 import net.dries007.tfc.common.recipes.ingredients.BlockIngredient;
 import net.dries007.tfc.common.recipes.inventory.BlockInventory;
 import net.dries007.tfc.config.TFCConfig;
+import net.dries007.tfc.util.BlockTagFlags;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.Support;
 import net.dries007.tfc.util.collections.IndirectHashCollection;
@@ -79,8 +80,12 @@ public class CollapseRecipe extends SimpleBlockRecipe
                 final int radY = (random.nextInt(3) + 2) / 2;
                 final int radZ = (random.nextInt(5) + 4) / 2;
 
+                // Shuffle, as unsupported positions are found in order, and collapses should not always start from the same corner
+                final List<BlockPos> candidates = new ArrayList<>(Support.findUnsupportedPositions(level, pos.offset(-radX, -radY, -radZ), pos.offset(radX, radY, radZ))); // 9x5x9 max
+                Collections.shuffle(candidates, random);
+
                 final List<BlockPos> fakeCollapseStarts = new ArrayList<>();
-                for (BlockPos checking : Support.findUnsupportedPositions(level, pos.offset(-radX, -radY, -radZ), pos.offset(radX, radY, radZ))) // 9x5x9 max
+                for (BlockPos checking : candidates)
                 {
                     // Exclude the position being mined, as it's done before the mining is completed, which is unintuitive
                     if (!checking.equals(pos) && canStartCollapse(level, checking))
@@ -127,13 +132,13 @@ public class CollapseRecipe extends SimpleBlockRecipe
         final BlockPos posBelow = pos.below();
         final BlockState state = level.getBlockState(pos);
         final BlockState stateBelow = level.getBlockState(posBelow);
-        return Helpers.isBlock(state, TFCTags.Blocks.CAN_START_COLLAPSE)
+        return BlockTagFlags.is(state, BlockTagFlags.CAN_START_COLLAPSE)
             // If we can directly fall into this block (same as a single block collapse check), we can start a collapse
             && (TFCFallingBlockEntity.canFallThrough(level, posBelow, stateBelow, Direction.DOWN, state)
             // Or, if the block directly below isn't quite a solid block - stuff like upwards facing slabs n stairs can still cause collapses to start, since we can forcibly break them
             || !stateBelow.isCollisionShapeFullBlock(level, posBelow)
             // Finally, we want to include blocks that have a non-solid-supporting full block below them. As usually, these blocks can collapse themselves, and aren't alone enough to prevent a collapse.
-            || Helpers.isBlock(stateBelow, TFCTags.Blocks.NOT_SOLID_SUPPORTING));
+            || BlockTagFlags.is(stateBelow, BlockTagFlags.NOT_SOLID_SUPPORTING));
     }
 
     /**
@@ -165,7 +170,7 @@ public class CollapseRecipe extends SimpleBlockRecipe
             {
                 BlockPos posAt = pos.above(y);
                 BlockState stateAt = level.getBlockState(posAt);
-                if (foundEmpty && Helpers.isBlock(stateAt, TFCTags.Blocks.CAN_COLLAPSE))
+                if (foundEmpty && BlockTagFlags.is(stateAt, BlockTagFlags.CAN_COLLAPSE))
                 {
                     // Check for a possible collapse
                     if (posAt.distSqr(centerPos) < radiusSquared && random.nextFloat() < TFCConfig.SERVER.collapsePropagateChance.get())
@@ -12,12 +12,22 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.crafting.RecipeSerializer;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.material.Fluid;
 
 import net.dries007.tfc.common.blockentities.BarrelBlockEntity;
+import net.dries007.tfc.util.collections.RecipeIndex;
 import org.jetbrains.annotations.Nullable;
 
 public class InstantBarrelRecipe extends BarrelRecipe
 {
+    public static final RecipeIndex<Fluid, InstantBarrelRecipe> INDEX = RecipeIndex.create("barrel_instant", TFCRecipeTypes.BARREL_INSTANT, recipe -> recipe.getInputFluid().ingredient().getMatchingFluids());
+
+    @Nullable
+    public static InstantBarrelRecipe get(Level level, BarrelBlockEntity.BarrelInventory inventory)
+    {
+        return INDEX.find(inventory.getFluidInTank(0).getFluid(), recipe -> recipe.matches(inventory, level));
+    }
+
     public InstantBarrelRecipe(ResourceLocation id, Builder builder)
     {
         super(id, builder);
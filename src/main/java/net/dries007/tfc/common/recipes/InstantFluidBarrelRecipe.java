@@ -15,6 +15,7 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.RecipeSerializer;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.material.Fluid;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.capability.IFluidHandler;
 import net.minecraftforge.fluids.capability.IFluidHandlerItem;
@@ -29,10 +30,19 @@ import net.dries007.tfc.common.recipes.outputs.ItemStackProvider;
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.JsonHelpers;
+import net.dries007.tfc.util.collections.RecipeIndex;
 import org.jetbrains.annotations.Nullable;
 
 public class InstantFluidBarrelRecipe extends BarrelRecipe
 {
+    public static final RecipeIndex<Fluid, InstantFluidBarrelRecipe> INDEX = RecipeIndex.create("barrel_instant_fluid", TFCRecipeTypes.BARREL_INSTANT_FLUID, recipe -> recipe.getInputFluid().ingredient().getMatchingFluids());
+
+    @Nullable
+    public static InstantFluidBarrelRecipe get(Level level, BarrelBlockEntity.BarrelInventory inventory)
+    {
+        return INDEX.find(inventory.getFluidInTank(0).getFluid(), recipe -> recipe.matches(inventory, level));
+    }
+
     private final FluidStackIngredient addedFluid;
 
     public InstantFluidBarrelRecipe(ResourceLocation id, Builder builder, FluidStackIngredient addedFluid)
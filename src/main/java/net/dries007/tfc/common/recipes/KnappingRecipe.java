@@ -6,6 +6,7 @@
 
 package net.dries007.tfc.common.recipes;
 
+import java.util.List;
 import java.util.function.Supplier;
 
 import com.google.gson.JsonObject;
@@ -20,10 +21,40 @@ import net.minecraft.world.level.Level;
 
 import net.dries007.tfc.common.container.KnappingContainer;
 import net.dries007.tfc.util.KnappingPattern;
+import net.dries007.tfc.util.collections.RecipeIndex;
 import org.jetbrains.annotations.Nullable;
 
 public class KnappingRecipe implements ISimpleRecipe<KnappingContainer>
 {
+    public static final RecipeIndex<Integer, KnappingRecipe> CLAY_INDEX = createIndex("clay_knapping", TFCRecipeTypes.CLAY_KNAPPING);
+    public static final RecipeIndex<Integer, KnappingRecipe> FIRE_CLAY_INDEX = createIndex("fire_clay_knapping", TFCRecipeTypes.FIRE_CLAY_KNAPPING);
+    public static final RecipeIndex<Integer, KnappingRecipe> LEATHER_INDEX = createIndex("leather_knapping", TFCRecipeTypes.LEATHER_KNAPPING);
+    public static final RecipeIndex<Integer, KnappingRecipe> ROCK_INDEX = createIndex("rock_knapping", TFCRecipeTypes.ROCK_KNAPPING);
+
+    private static final List<RecipeIndex<Integer, KnappingRecipe>> INDEXES = List.of(CLAY_INDEX, FIRE_CLAY_INDEX, LEATHER_INDEX, ROCK_INDEX);
+
+    /**
+     * Recipes are indexed by every full size pattern which they match, so the container's pattern must be {@link KnappingPattern#MAX_WIDTH} x {@link KnappingPattern#MAX_HEIGHT}.
+     * Recipe types not added by TFC fall back to the recipe manager.
+     */
+    @Nullable
+    public static KnappingRecipe get(Level level, RecipeType<? extends KnappingRecipe> type, KnappingContainer container)
+    {
+        for (RecipeIndex<Integer, KnappingRecipe> index : INDEXES)
+        {
+            if (index.getRecipeType() == type)
+            {
+                return index.find(container.getPattern().getData(), recipe -> recipe.matches(container, level));
+            }
+        }
+        return level.getRecipeManager().getRecipeFor(type, container, level).orElse(null);
+    }
+
+    private static RecipeIndex<Integer, KnappingRecipe> createIndex(String name, Supplier<? extends RecipeType<? extends KnappingRecipe>> type)
+    {
+        return RecipeIndex.create(name, type, recipe -> recipe.getPattern().getMatchingData(KnappingPattern.MAX_WIDTH, KnappingPattern.MAX_HEIGHT));
+    }
+
     protected final ResourceLocation id;
     protected final KnappingPattern pattern;
     protected final ItemStack result;
@@ -21,12 +21,11 @@ import net.minecraft.world.level.block.state.BlockState;
 import org.jetbrains.annotations.Nullable;
 
 import net.dries007.tfc.client.TFCSounds;
-import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.entities.TFCFallingBlockEntity;
 import net.dries007.tfc.common.fluids.FluidHelpers;
 import net.dries007.tfc.common.recipes.ingredients.BlockIngredient;
 import net.dries007.tfc.config.TFCConfig;
-import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.BlockTagFlags;
 import net.dries007.tfc.util.Support;
 import net.dries007.tfc.util.collections.IndirectHashCollection;
 
@@ -153,7 +152,7 @@ public class LandslideRecipe extends SimpleBlockRecipe
     {
         BlockPos sidePos = pos.relative(side);
         BlockState sideState = world.getBlockState(sidePos);
-        return sideState.isFaceSturdy(world, sidePos, side.getOpposite()) || Helpers.isBlock(sideState, TFCTags.Blocks.SUPPORTS_LANDSLIDE);
+        return sideState.isFaceSturdy(world, sidePos, side.getOpposite()) || BlockTagFlags.is(sideState, BlockTagFlags.SUPPORTS_LANDSLIDE);
     }
 
     public LandslideRecipe(ResourceLocation id, BlockIngredient ingredient, BlockState outputState, boolean copyInputState)
@@ -25,11 +25,13 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.material.Fluid;
 
 import net.dries007.tfc.common.blockentities.PotBlockEntity;
 import net.dries007.tfc.common.fluids.TFCFluids;
 import net.dries007.tfc.common.recipes.ingredients.FluidStackIngredient;
 import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.collections.RecipeIndex;
 
 /**
  * Recipe type for all cooking pot recipes
@@ -42,6 +44,14 @@ public abstract class PotRecipe implements ISimpleRecipe<PotBlockEntity.PotInven
     private static final Output EMPTY_INSTANCE = new Output() {};
     private static final OutputType EMPTY = register(EMPTY_ID, nbt -> EMPTY_INSTANCE);
 
+    public static final RecipeIndex<Fluid, PotRecipe> INDEX = RecipeIndex.create("pot", TFCRecipeTypes.POT, recipe -> recipe.fluidIngredient.ingredient().getMatchingFluids());
+
+    @Nullable
+    public static PotRecipe get(Level level, PotBlockEntity.PotInventory inventory)
+    {
+        return INDEX.find(inventory.getFluidInTank(0).getFluid(), recipe -> recipe.matches(inventory, level));
+    }
+
     /**
      * Register a pot output type.
      * If a pot recipe uses a custom output, that must persist (and thus be serialized), it needs to be registered here.
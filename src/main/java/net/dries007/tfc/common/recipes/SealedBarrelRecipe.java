@@ -13,15 +13,25 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.RecipeSerializer;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.material.Fluid;
 import org.jetbrains.annotations.Nullable;
 
 import net.dries007.tfc.common.blockentities.BarrelBlockEntity;
 import net.dries007.tfc.common.recipes.outputs.ItemStackProvider;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.JsonHelpers;
+import net.dries007.tfc.util.collections.RecipeIndex;
 
 public class SealedBarrelRecipe extends BarrelRecipe
 {
+    public static final RecipeIndex<Fluid, SealedBarrelRecipe> INDEX = RecipeIndex.create("barrel_sealed", TFCRecipeTypes.BARREL_SEALED, recipe -> recipe.getInputFluid().ingredient().getMatchingFluids());
+
+    @Nullable
+    public static SealedBarrelRecipe get(Level level, BarrelBlockEntity.BarrelInventory inventory)
+    {
+        return INDEX.find(inventory.getFluidInTank(0).getFluid(), recipe -> recipe.matches(inventory, level));
+    }
+
     private final int duration;
 
     @Nullable private final ItemStackProvider onSeal;
@@ -9,6 +9,7 @@ package net.dries007.tfc.common.recipes;
 import com.google.gson.JsonObject;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.world.item.crafting.RecipeSerializer;
@@ -19,10 +20,24 @@ import net.dries007.tfc.common.capabilities.forge.ForgingBonus;
 import net.dries007.tfc.common.recipes.inventory.EmptyInventory;
 import net.dries007.tfc.common.recipes.outputs.ItemStackProvider;
 import net.dries007.tfc.util.JsonHelpers;
+import net.dries007.tfc.util.collections.RecipeIndex;
 import org.jetbrains.annotations.Nullable;
 
 public class WeldingRecipe implements ISimpleRecipe<WeldingRecipe.Inventory>
 {
+    public static final RecipeIndex<Item, WeldingRecipe> INDEX = RecipeIndex.create("welding", TFCRecipeTypes.WELDING, recipe -> RecipeIndex.itemKeys(recipe.firstInput, recipe.secondInput));
+
+    /**
+     * Inputs may be in either order, so recipes are indexed by the items of both inputs, and queried by whichever input is present.
+     */
+    @Nullable
+    public static WeldingRecipe get(Level level, Inventory inventory)
+    {
+        final ItemStack left = inventory.getLeft();
+        final Item key = left.isEmpty() ? inventory.getRight().getItem() : left.getItem();
+        return INDEX.find(key, recipe -> recipe.matches(inventory, level));
+    }
+
     private final ResourceLocation id;
     private final Ingredient firstInput, secondInput;
     private final int tier;
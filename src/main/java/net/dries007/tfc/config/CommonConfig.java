@@ -32,6 +32,10 @@ public class CommonConfig
     public final ForgeConfigSpec.IntValue defaultMonthLength;
     public final ForgeConfigSpec.IntValue defaultCalendarStartDay;
 
+    // World Generation
+    public final ForgeConfigSpec.BooleanValue enableChunkDataStore;
+    public final ForgeConfigSpec.BooleanValue enableParallelChunkNoise;
+
     // Debug
     private final ForgeConfigSpec.BooleanValue enableNetworkDebugging;
     private boolean hasLoggedNetworkDebugInfoMessage = false;
@@ -63,6 +67,17 @@ public class CommonConfig
             " The default is (5 * daysInMonth) = 40, which starts at June 1, 1000 (with the default daysInMonth = 8)"
         ).defineInRange("defaultCalendarStartDay", (5 * 8), -1, Integer.MAX_VALUE);
 
+        innerBuilder.pop().push("worldGeneration");
+
+        enableChunkDataStore = builder.apply("enableChunkDataStore").comment(
+            " If enabled, generated chunk data (rock layers, climate, forests) will be stored on disk, in each dimension's data/tfc_chunk_data folder, and re-used instead of generated again when chunks are re-created during world generation.",
+            " This is most useful on servers which pregenerate large areas. The store is discarded automatically if the world seed or world generation settings change."
+        ).define("enableChunkDataStore", false);
+        enableParallelChunkNoise = builder.apply("enableParallelChunkNoise").comment(
+            " If enabled, the noise (terrain shape, caves, and aquifers) of a single chunk will be filled using multiple threads, from the common fork join pool.",
+            " This only improves generation speed when there are more cores available than chunks being generated at once, such as during spawn preparation, or pregeneration with few concurrent chunks. The generated terrain is identical either way."
+        ).define("enableParallelChunkNoise", false);
+
         innerBuilder.pop().push("debug");
 
         enableNetworkDebugging = builder.apply("enableNetworkDebugging").comment(
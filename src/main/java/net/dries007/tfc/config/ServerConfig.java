@@ -193,6 +193,8 @@ public class ServerConfig
     public final ForgeConfigSpec.DoubleValue collapseExplosionPropagateChance;
     public final ForgeConfigSpec.IntValue collapseMinRadius;
     public final ForgeConfigSpec.IntValue collapseRadiusVariance;
+    public final ForgeConfigSpec.IntValue blockUpdateWorkBudget;
+    public final ForgeConfigSpec.IntValue blockUpdateTimeBudget;
     // Mechanics - Player
     public final ForgeConfigSpec.BooleanValue enablePeacefulDifficultyPassiveRegeneration;
     public final ForgeConfigSpec.DoubleValue passiveExhaustionModifier;
@@ -514,6 +516,8 @@ public class ServerConfig
         collapseExplosionPropagateChance = builder.apply("collapseExplosionPropagateChance").comment("Chance for a block to fall from an explosion triggered collapse. Higher = mor likely.").defineInRange("collapseExplosionPropagateChance", 0.3, 0, 1);
         collapseMinRadius = builder.apply("collapseMinRadius").comment("Minimum radius for a collapse").defineInRange("collapseMinRadius", 3, 1, 32);
         collapseRadiusVariance = builder.apply("collapseRadiusVariance").comment("Variance of the radius of a collapse. Total size is in [minRadius, minRadius + radiusVariance]").defineInRange("collapseRadiusVariance", 16, 1, 32);
+        blockUpdateWorkBudget = builder.apply("blockUpdateWorkBudget").comment("The maximum number of queued landslide, collapse, and isolated block checks that are processed each tick, per dimension. Any remaining checks are processed on following ticks.").defineInRange("blockUpdateWorkBudget", 4096, 1, Integer.MAX_VALUE);
+        blockUpdateTimeBudget = builder.apply("blockUpdateTimeBudget").comment("The maximum time, in microseconds, spent processing queued landslide, collapse, and isolated block checks each tick, per dimension. Any remaining checks are processed on following ticks.").defineInRange("blockUpdateTimeBudget", 5000, 1, Integer.MAX_VALUE);
 
         innerBuilder.pop().push("player");
 
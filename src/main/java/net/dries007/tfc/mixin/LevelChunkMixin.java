@@ -0,0 +1,43 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.mixin;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import net.dries007.tfc.util.tracker.HydrationCache;
+import net.dries007.tfc.util.tracker.StructureWatch;
+import net.dries007.tfc.util.tracker.SupportCache;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(LevelChunk.class)
+public abstract class LevelChunkMixin
+{
+    @Shadow @Final Level level;
+
+    /**
+     * Every block change in a loaded chunk goes through here, regardless of update flags, so this keeps the {@link HydrationCache}, {@link SupportCache} and {@link StructureWatch} exact.
+     */
+    @Inject(method = "setBlockState", at = @At("RETURN"))
+    private void updateLevelCaches(BlockPos pos, BlockState state, boolean isMoving, CallbackInfoReturnable<BlockState> cir)
+    {
+        final BlockState oldState = cir.getReturnValue();
+        if (oldState != null)
+        {
+            HydrationCache.onBlockChanged(level, pos, oldState, state);
+            SupportCache.onBlockChanged(level, pos, oldState, state);
+            StructureWatch.onBlockChanged(level, pos, oldState, state);
+        }
+    }
+}
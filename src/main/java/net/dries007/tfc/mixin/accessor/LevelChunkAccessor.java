@@ -0,0 +1,24 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.mixin.accessor;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+@Mixin(LevelChunk.class)
+public interface LevelChunkAccessor
+{
+    @Invoker("updateBlockEntityTicker")
+    <T extends BlockEntity> void invoke$updateBlockEntityTicker(T blockEntity);
+
+    @Invoker("removeBlockEntityTicker")
+    void invoke$removeBlockEntityTicker(BlockPos pos);
+}
@@ -15,6 +15,7 @@ import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraftforge.network.NetworkEvent;
 
 import net.dries007.tfc.client.ClientHelpers;
+import net.dries007.tfc.client.ClimateTintCache;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.world.chunkdata.*;
 
@@ -85,6 +86,7 @@ public class ChunkWatchPacket
                         return dataIn;
                     }).orElseGet(() -> ChunkDataCache.CLIENT.computeIfAbsent(pos, ChunkData::createClient));
                 data.onUpdatePacket(rainfallLayer, temperatureLayer, forestType, forestDensity, forestWeirdness, plateTectonicsInfo);
+                ClimateTintCache.INSTANCE.invalidate(chunkX, chunkZ);
             }
         });
     }
@@ -12,6 +12,7 @@ import net.minecraft.world.level.Level;
 import net.minecraftforge.network.NetworkEvent;
 
 import net.dries007.tfc.client.ClientHelpers;
+import net.dries007.tfc.client.ClimateTintCache;
 import net.dries007.tfc.util.climate.Climate;
 import net.dries007.tfc.util.climate.ClimateModel;
 import net.dries007.tfc.util.tracker.WorldTrackerCapability;
@@ -38,6 +39,7 @@ public record UpdateClimateModelPacket(ClimateModel model)
             if (level != null)
             {
                 level.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(c -> c.setClimateModel(model));
+                ClimateTintCache.INSTANCE.clear();
             }
         });
     }
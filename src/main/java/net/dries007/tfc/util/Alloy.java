@@ -6,18 +6,14 @@
 
 package net.dries007.tfc.util;
 
-import java.util.Map;
+import java.util.Arrays;
 
-import net.dries007.tfc.common.recipes.AlloyRecipe;
-import org.jetbrains.annotations.Nullable;
-
-import com.google.common.collect.Sets;
 import net.minecraft.nbt.CompoundTag;
-import net.minecraft.world.item.crafting.RecipeManager;
 
 import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
 import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
-import net.dries007.tfc.common.recipes.inventory.AlloyInventory;
+import net.dries007.tfc.common.recipes.AlloyRecipe;
+import org.jetbrains.annotations.Nullable;
 
 public class Alloy implements AlloyView
 {
@@ -40,12 +36,15 @@ public class Alloy implements AlloyView
         assert 1d / (1 + MAX_ALLOY) >= EPSILON;
     }
 
-    private final Object2DoubleMap<Metal> metalMap, sanitizedMetalMap;
+    private final Object2DoubleMap<Metal> sanitizedMetalMap;
+    private double[] amounts; // The exact amount of each metal, indexed by Metal#getIndex(), or zero if not present
+    private Metal[] metals; // The metal present at each index
+    private int metalCount;
     private int totalUnits;
     private int maxUnits;
 
-    @Nullable private AlloyInventory wrapper; // Lazy, initialized on demand and cached
     @Nullable private Metal cachedResult;
+    private boolean sanitizedMetalMapDirty;
 
     /**
      * Constructs a new alloy. It starts with no metal content
@@ -62,8 +61,10 @@ public class Alloy implements AlloyView
      */
     public Alloy(int maxUnits)
     {
-        this.metalMap = new Object2DoubleOpenHashMap<>();
         this.sanitizedMetalMap = new Object2DoubleOpenHashMap<>();
+        this.amounts = new double[0];
+        this.metals = new Metal[0];
+        this.metalCount = 0;
         this.totalUnits = 0;
         this.maxUnits = maxUnits;
     }
@@ -82,9 +83,12 @@ public class Alloy implements AlloyView
         }
         // Directly add the other alloy exact values. This is important as it needs to not round floating point alloy amounts
         totalUnits += other.totalUnits;
-        for (Map.Entry<Metal, Double> entry : other.metalMap.object2DoubleEntrySet())
+        for (int i = 0; i < other.amounts.length; i++)
         {
-            metalMap.mergeDouble(entry.getKey(), keepRatio * entry.getValue(), Double::sum);
+            if (other.amounts[i] > 0)
+            {
+                addExact(other.metals[i], keepRatio * other.amounts[i]);
+            }
         }
         updateCaches();
     }
@@ -109,7 +113,7 @@ public class Alloy implements AlloyView
         }
         if (!simulate)
         {
-            metalMap.mergeDouble(metal, amount, Double::sum);
+            addExact(metal, amount);
             totalUnits += amount;
             updateCaches();
         }
@@ -117,26 +121,43 @@ public class Alloy implements AlloyView
     }
 
     @Override
-    public Metal getResult(RecipeManager recipes)
+    public Metal getResult()
     {
         if (cachedResult == null)
         {
-            if (metalMap.size() == 1)
-            {
-                cachedResult = metalMap.keySet().iterator().next(); // Easy way to get the only metal in the alloy
-            }
-            else
-            {
-                cachedResult = AlloyRecipe.get(recipes, getWrapper())
-                    .map(AlloyRecipe::getResult)
-                    .orElseGet(Metal::unknown);
-            }
+            final Metal result = findResult(AlloyEngine.get());
+            cachedResult = result != null ? result : Metal.unknown();
         }
-        if (cachedResult == null)
+        return cachedResult;
+    }
+
+    /**
+     * @return The result of this alloy, or {@code null} if it contains multiple metals and does not match any recipe. Unlike {@link #getResult()}, this is not cached.
+     */
+    @Nullable
+    public Metal findResult(AlloyEngine engine)
+    {
+        if (metalCount == 1)
         {
-            return Metal.unknown();
+            for (Metal metal : metals)
+            {
+                if (metal != null)
+                {
+                    return metal; // Easy way to get the only metal in the alloy
+                }
+            }
         }
-        return cachedResult;
+        final AlloyRecipe recipe = findRecipe(engine);
+        return recipe != null ? recipe.getResult() : null;
+    }
+
+    /**
+     * @return The first recipe which matches this alloy, or {@code null} if none do.
+     */
+    @Nullable
+    public AlloyRecipe findRecipe(AlloyEngine engine)
+    {
+        return engine.find(amounts);
     }
 
     /**
@@ -161,19 +182,25 @@ public class Alloy implements AlloyView
         }
         else
         {
-            Object2DoubleMap<Metal> resultMap = new Object2DoubleOpenHashMap<>(metalMap.size());
-            for (Object2DoubleMap.Entry<Metal> entry : metalMap.object2DoubleEntrySet())
+            for (int i = 0; i < amounts.length; i++)
             {
-                // Remove the amount of metal from each component, add the remainder (if it exists) into the result map
-                double remove = removeAmount * entry.getDoubleValue() / totalUnits;
-                if (entry.getDoubleValue() > remove)
+                if (amounts[i] > 0)
                 {
-                    resultMap.put(entry.getKey(), entry.getDoubleValue() - remove);
+                    // Remove the amount of metal from each component, keeping the remainder (if it exists)
+                    final double remove = removeAmount * amounts[i] / totalUnits;
+                    if (amounts[i] > remove)
+                    {
+                        amounts[i] -= remove;
+                    }
+                    else
+                    {
+                        amounts[i] = 0;
+                        metals[i] = null;
+                        metalCount--;
+                    }
                 }
             }
             totalUnits -= removeAmount;
-            metalMap.clear();
-            metalMap.putAll(resultMap);
             updateCaches();
             return removeAmount;
         }
@@ -194,6 +221,20 @@ public class Alloy implements AlloyView
     @Override
     public Object2DoubleMap<Metal> getMetals()
     {
+        if (sanitizedMetalMapDirty)
+        {
+            // The sanitized map is kept as a read-only view of the current alloy, with values < epsilon excluded.
+            sanitizedMetalMapDirty = false;
+            sanitizedMetalMap.clear();
+            final double actualTotalAmount = getExactAmount();
+            for (int i = 0; i < amounts.length; i++)
+            {
+                if (amounts[i] > actualTotalAmount * EPSILON)
+                {
+                    sanitizedMetalMap.put(metals[i], amounts[i]);
+                }
+            }
+        }
         return sanitizedMetalMap;
     }
 
@@ -203,9 +244,12 @@ public class Alloy implements AlloyView
         nbt.putInt("maxUnits", maxUnits);
         nbt.putInt("totalUnits", totalUnits);
         CompoundTag alloys = new CompoundTag();
-        for (Object2DoubleMap.Entry<Metal> entry : this.metalMap.object2DoubleEntrySet())
+        for (int i = 0; i < amounts.length; i++)
         {
-            alloys.putDouble(entry.getKey().getId().toString(), entry.getDoubleValue());
+            if (amounts[i] > 0)
+            {
+                alloys.putDouble(metals[i].getId().toString(), amounts[i]);
+            }
         }
         nbt.put("contents", alloys);
         return nbt;
@@ -230,7 +274,7 @@ public class Alloy implements AlloyView
             String key = metal.getId().toString();
             if (contents.contains(key))
             {
-                metalMap.put(metal, contents.getDouble(key));
+                addExact(metal, contents.getDouble(key));
             }
         }
 
@@ -239,16 +283,7 @@ public class Alloy implements AlloyView
 
     public boolean matches(AlloyRecipe recipe)
     {
-        if (metalMap.containsKey(recipe.getResult()))
-        {
-            // Construct a dummy alloy to compare with. The dummy does not have an accurate total units value, this is intentional.
-            Alloy other = new Alloy();
-            other.add(this);
-            other.metalMap.removeDouble(recipe.getResult());
-            other.updateCaches();
-            return other.matchesExactly(recipe);
-        }
-        return matchesExactly(recipe);
+        return AlloyEngine.matches(amounts, recipe);
     }
 
     /**
@@ -256,57 +291,48 @@ public class Alloy implements AlloyView
      */
     private void clear()
     {
-        metalMap.clear();
-        sanitizedMetalMap.clear();
+        Arrays.fill(amounts, 0);
+        Arrays.fill(metals, null);
+        metalCount = 0;
         totalUnits = 0;
-        cachedResult = null;
+        updateCaches();
     }
 
     /**
-     * Updates all cached values.
-     * The sanitized map is kept as a read-only view of the current alloy, with values < epsilon excluded.
+     * Invalidates all cached values.
      */
     private void updateCaches()
     {
         cachedResult = null;
-
-        sanitizedMetalMap.clear();
-        double actualTotalAmount = getExactAmount();
-        metalMap.object2DoubleEntrySet().forEach(entry -> {
-            if (entry.getDoubleValue() > actualTotalAmount * EPSILON)
-            {
-                sanitizedMetalMap.put(entry.getKey(), entry.getDoubleValue());
-            }
-        });
+        sanitizedMetalMapDirty = true;
     }
 
-    private double getExactAmount()
+    private void addExact(Metal metal, double amount)
     {
-        return metalMap.values().doubleStream().sum();
-    }
-
-    private AlloyInventory getWrapper()
-    {
-        if (wrapper == null)
+        final int index = metal.getIndex();
+        if (index >= amounts.length)
         {
-            wrapper = new AlloyInventory(this);
+            amounts = Arrays.copyOf(amounts, index + 1);
+            metals = Arrays.copyOf(metals, index + 1);
+        }
+        if (amount > 0)
+        {
+            if (amounts[index] <= 0)
+            {
+                metals[index] = metal;
+                metalCount++;
+            }
+            amounts[index] += amount;
         }
-        return wrapper;
     }
 
-    private boolean matchesExactly(AlloyRecipe recipe)
+    private double getExactAmount()
     {
-        // for each metal in the alloy, it needs to satisfy an ingredient
-        // for each metal in the recipe, it needs to match with an alloy
-        Object2DoubleMap<Metal> metals = getMetals();
-        double actualTotalAmount = getExactAmount();
-        for (Metal metal : Sets.union(recipe.getRanges().keySet(), metals.keySet()))
+        double total = 0;
+        for (double amount : amounts)
         {
-            if (!metals.containsKey(metal) || !recipe.getRanges().containsKey(metal) || !recipe.getRanges().get(metal).isIn(metals.getDouble(metal) / actualTotalAmount, EPSILON))
-            {
-                return false;
-            }
+            total += amount;
         }
-        return true;
+        return total;
     }
 }
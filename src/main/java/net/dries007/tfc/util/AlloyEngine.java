@@ -0,0 +1,270 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.world.item.crafting.RecipeManager;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.dries007.tfc.common.recipes.AlloyRecipe;
+import net.dries007.tfc.common.recipes.TFCRecipeTypes;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Resolves the result of an alloy, from the amount of each metal indexed by {@link Metal#getIndex()}, against all alloy recipes compiled into a lookup by the set of metals they contain.
+ * <p>
+ * A recipe matches an alloy if either:
+ * <ul>
+ *     <li>The alloy does not contain the recipe's result, and the set of metals in the alloy (excluding those under {@link Alloy#EPSILON} of the total) is exactly the set of metals in the recipe, with each in range.</li>
+ *     <li>The alloy contains the recipe's result, and the same is true of the alloy with the result removed.</li>
+ * </ul>
+ * Sets of metals are identified by a hash, which is the xor of a hash of each metal, and so can be computed without allocation in a single pass over the alloy. Candidates for each set are then checked exactly, in recipe manager order, so the result is the first matching recipe, same as the recipe manager.
+ * <p>
+ * Recipes are compiled on first use after a reload, as the metals they refer to may not be available at the time the recipes are reloaded.
+ */
+public final class AlloyEngine
+{
+    private static final Compiled[] NONE = new Compiled[0];
+
+    private static volatile Collection<AlloyRecipe> recipes = List.of();
+    @Nullable private static volatile AlloyEngine engine;
+
+    public static void reload(RecipeManager manager)
+    {
+        recipes = List.copyOf(Helpers.getRecipes(manager, TFCRecipeTypes.ALLOY).values());
+        engine = null;
+    }
+
+    public static AlloyEngine get()
+    {
+        AlloyEngine current = engine;
+        if (current == null)
+        {
+            current = engine = compile(recipes);
+        }
+        return current;
+    }
+
+    /**
+     * @param recipes Alloy recipes, in the order they should be tested.
+     */
+    public static AlloyEngine compile(Collection<AlloyRecipe> recipes)
+    {
+        return new AlloyEngine(recipes);
+    }
+
+    /**
+     * Checks a single recipe against the metal amounts, with the same semantics as {@link #find(double[])}.
+     */
+    public static boolean matches(double[] amounts, AlloyRecipe recipe)
+    {
+        final Compiled compiled = new Compiled(recipe, 0);
+        final int excluded = amount(amounts, compiled.result) > 0 ? compiled.result : -1;
+        final double total = total(amounts, excluded);
+        return compiled.matches(amounts, total, excluded, count(amounts, total, excluded));
+    }
+
+    private static long hash(int metal)
+    {
+        return HashCommon.mix(metal + 0x9E3779B97F4A7C15L);
+    }
+
+    private static double amount(double[] amounts, int metal)
+    {
+        return metal < amounts.length ? amounts[metal] : 0;
+    }
+
+    private static double total(double[] amounts, int excluded)
+    {
+        double total = 0;
+        for (int metal = 0; metal < amounts.length; metal++)
+        {
+            if (metal != excluded)
+            {
+                total += amounts[metal];
+            }
+        }
+        return total;
+    }
+
+    private static int count(double[] amounts, double total, int excluded)
+    {
+        int count = 0;
+        for (int metal = 0; metal < amounts.length; metal++)
+        {
+            if (metal != excluded && amounts[metal] > total * Alloy.EPSILON)
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long setHash(double[] amounts, double total, int excluded)
+    {
+        long hash = 0;
+        for (int metal = 0; metal < amounts.length; metal++)
+        {
+            if (metal != excluded && amounts[metal] > total * Alloy.EPSILON)
+            {
+                hash ^= hash(metal);
+            }
+        }
+        return hash;
+    }
+
+    private final Long2ObjectMap<Compiled[]> bySet;
+    private final Int2ObjectMap<Long2ObjectMap<Compiled[]>> byResultAndSet;
+    private final int[] results;
+    private final int size;
+
+    private AlloyEngine(Collection<AlloyRecipe> recipes)
+    {
+        final Long2ObjectMap<List<Compiled>> bySet = new Long2ObjectOpenHashMap<>();
+        final Int2ObjectMap<Long2ObjectMap<List<Compiled>>> byResultAndSet = new Int2ObjectOpenHashMap<>();
+        final IntArrayList results = new IntArrayList();
+
+        int ordinal = 0;
+        for (AlloyRecipe recipe : recipes)
+        {
+            final Compiled compiled = new Compiled(recipe, ordinal++);
+            bySet.computeIfAbsent(compiled.setHash, k -> new ArrayList<>()).add(compiled);
+            byResultAndSet.computeIfAbsent(compiled.result, k -> {
+                results.add(compiled.result);
+                return new Long2ObjectOpenHashMap<>();
+            }).computeIfAbsent(compiled.setHash, k -> new ArrayList<>()).add(compiled);
+        }
+
+        this.bySet = new Long2ObjectOpenHashMap<>(bySet.size());
+        bySet.forEach((hash, list) -> this.bySet.put((long) hash, list.toArray(NONE)));
+        this.byResultAndSet = new Int2ObjectOpenHashMap<>(byResultAndSet.size());
+        byResultAndSet.forEach((result, map) -> {
+            final Long2ObjectMap<Compiled[]> compiled = new Long2ObjectOpenHashMap<>(map.size());
+            map.forEach((hash, list) -> compiled.put((long) hash, list.toArray(NONE)));
+            this.byResultAndSet.put((int) result, compiled);
+        });
+        this.results = results.toIntArray();
+        this.size = ordinal;
+    }
+
+    /**
+     * @param amounts The amount of each metal, indexed by {@link Metal#getIndex()}. Metals with no amount are not present in the alloy.
+     * @return The first recipe which matches the alloy, or {@code null} if none do.
+     */
+    @Nullable
+    public AlloyRecipe find(double[] amounts)
+    {
+        Compiled best = null;
+
+        // Recipes whose result is not present in the alloy
+        final double total = total(amounts, -1);
+        final int count = count(amounts, total, -1);
+        for (Compiled recipe : bySet.getOrDefault(setHash(amounts, total, -1), NONE))
+        {
+            if (amount(amounts, recipe.result) <= 0 && recipe.matches(amounts, total, -1, count))
+            {
+                best = recipe;
+                break;
+            }
+        }
+
+        // Recipes whose result is present in the alloy, matched against the alloy with the result removed
+        for (int result : results)
+        {
+            if (amount(amounts, result) > 0)
+            {
+                final double otherTotal = total(amounts, result);
+                final int otherCount = count(amounts, otherTotal, result);
+                for (Compiled recipe : byResultAndSet.get(result).getOrDefault(setHash(amounts, otherTotal, result), NONE))
+                {
+                    if (best != null && recipe.ordinal > best.ordinal)
+                    {
+                        break;
+                    }
+                    if (recipe.matches(amounts, otherTotal, result, otherCount))
+                    {
+                        best = recipe;
+                        break;
+                    }
+                }
+            }
+        }
+        return best == null ? null : best.recipe;
+    }
+
+    /**
+     * @return The number of compiled recipes.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    static final class Compiled
+    {
+        final AlloyRecipe recipe;
+        final int ordinal;
+        final int result;
+        final int[] metals;
+        final AlloyRecipe.Range[] ranges;
+        final long setHash;
+
+        Compiled(AlloyRecipe recipe, int ordinal)
+        {
+            final Map<Metal, AlloyRecipe.Range> ranges = recipe.getRanges();
+
+            this.recipe = recipe;
+            this.ordinal = ordinal;
+            this.result = recipe.getResult().getIndex();
+            this.metals = new int[ranges.size()];
+            this.ranges = new AlloyRecipe.Range[ranges.size()];
+
+            long setHash = 0;
+            int i = 0;
+            for (Map.Entry<Metal, AlloyRecipe.Range> entry : ranges.entrySet())
+            {
+                metals[i] = entry.getKey().getIndex();
+                this.ranges[i] = entry.getValue();
+                setHash ^= hash(metals[i]);
+                i++;
+            }
+            this.setHash = setHash;
+        }
+
+        /**
+         * @param total    The total amount of all metals, excluding {@code excluded}.
+         * @param excluded A metal index which is treated as not present, or -1.
+         * @param count    The number of metals which are present, excluding {@code excluded}, and over epsilon.
+         */
+        boolean matches(double[] amounts, double total, int excluded, int count)
+        {
+            if (count != metals.length)
+            {
+                return false;
+            }
+            for (int i = 0; i < metals.length; i++)
+            {
+                final int metal = metals[i];
+                final double amount = amount(amounts, metal);
+                if (metal == excluded || amount <= total * Alloy.EPSILON || !ranges[i].isIn(amount / total, Alloy.EPSILON))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
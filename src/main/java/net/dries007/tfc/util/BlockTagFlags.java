@@ -0,0 +1,123 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import net.minecraftforge.registries.ForgeRegistries;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.dries007.tfc.common.TFCTags;
+
+/**
+ * Precomputed membership of every block in a set of block tags which are queried in hot code, such as block updates, collapses, landslides and world generation.
+ * Each tag is assigned a single bit, and each block a flag word, so a tag check is a single identity hash lookup and a bit test, rather than the two lookups done by {@link Helpers#isBlock(Block, TagKey)}. Checking for multiple tags on the same block can reuse a single {@link #get(BlockState)}.
+ * <p>
+ * Tags are properties of blocks, not states, so flags are stored per block. This is rebuilt whenever tags are reloaded, and until the first reload, no block has any flags.
+ */
+public final class BlockTagFlags
+{
+    private static final List<TagKey<Block>> TAGS = new ArrayList<>();
+
+    public static final int CAN_TRIGGER_COLLAPSE = register(TFCTags.Blocks.CAN_TRIGGER_COLLAPSE);
+    public static final int CAN_START_COLLAPSE = register(TFCTags.Blocks.CAN_START_COLLAPSE);
+    public static final int CAN_COLLAPSE = register(TFCTags.Blocks.CAN_COLLAPSE);
+    public static final int CAN_LANDSLIDE = register(TFCTags.Blocks.CAN_LANDSLIDE);
+    public static final int SUPPORTS_LANDSLIDE = register(TFCTags.Blocks.SUPPORTS_LANDSLIDE);
+    public static final int NOT_SOLID_SUPPORTING = register(TFCTags.Blocks.NOT_SOLID_SUPPORTING);
+    public static final int TOUGHNESS_1 = register(TFCTags.Blocks.TOUGHNESS_1);
+    public static final int TOUGHNESS_2 = register(TFCTags.Blocks.TOUGHNESS_2);
+    public static final int TOUGHNESS_3 = register(TFCTags.Blocks.TOUGHNESS_3);
+    public static final int BREAKS_WHEN_ISOLATED = register(TFCTags.Blocks.BREAKS_WHEN_ISOLATED);
+    public static final int TREE_GROWS_ON = register(TFCTags.Blocks.TREE_GROWS_ON);
+    public static final int BUSH_PLANTABLE_ON = register(TFCTags.Blocks.BUSH_PLANTABLE_ON);
+    public static final int SEA_BUSH_PLANTABLE_ON = register(TFCTags.Blocks.SEA_BUSH_PLANTABLE_ON);
+    public static final int GRASS_PLANTABLE_ON = register(TFCTags.Blocks.GRASS_PLANTABLE_ON);
+    public static final int CAN_BE_SNOW_PILED = register(TFCTags.Blocks.CAN_BE_SNOW_PILED);
+    public static final int FORGE_INSULATION = register(TFCTags.Blocks.FORGE_INSULATION);
+    public static final int BLOOMERY_INSULATION = register(TFCTags.Blocks.BLOOMERY_INSULATION);
+    public static final int BLAST_FURNACE_INSULATION = register(TFCTags.Blocks.BLAST_FURNACE_INSULATION);
+
+    private static volatile Reference2IntMap<Block> flags = new Reference2IntOpenHashMap<>();
+
+    /**
+     * @return {@code true} if the block is in the tag represented by {@code flag}, or any of the tags if multiple flags are combined.
+     */
+    public static boolean is(BlockState state, int flag)
+    {
+        return (get(state.getBlock()) & flag) != 0;
+    }
+
+    public static boolean is(Block block, int flag)
+    {
+        return (get(block) & flag) != 0;
+    }
+
+    /**
+     * @return The flag word for the block, to test multiple flags with a single lookup.
+     */
+    public static int get(BlockState state)
+    {
+        return get(state.getBlock());
+    }
+
+    public static int get(Block block)
+    {
+        return flags.getInt(block);
+    }
+
+    /**
+     * @return The flag for {@code tag}, or zero if the tag does not have a flag.
+     */
+    public static int getFlag(TagKey<Block> tag)
+    {
+        final int index = TAGS.indexOf(tag);
+        return index == -1 ? 0 : 1 << index;
+    }
+
+    /**
+     * Rebuilds the flags of every block from the current tags. This must be called after tags have been reloaded.
+     */
+    public static void reload()
+    {
+        reload(ForgeRegistries.BLOCKS.getValues(), Helpers::isBlock);
+    }
+
+    public static void reload(Iterable<Block> blocks, BiPredicate<Block, TagKey<Block>> isInTag)
+    {
+        final Reference2IntMap<Block> newFlags = new Reference2IntOpenHashMap<>();
+        for (Block block : blocks)
+        {
+            int blockFlags = 0;
+            for (int i = 0; i < TAGS.size(); i++)
+            {
+                if (isInTag.test(block, TAGS.get(i)))
+                {
+                    blockFlags |= 1 << i;
+                }
+            }
+            if (blockFlags != 0)
+            {
+                newFlags.put(block, blockFlags);
+            }
+        }
+        flags = newFlags;
+    }
+
+    private static int register(TagKey<Block> tag)
+    {
+        TAGS.add(tag);
+        return 1 << (TAGS.size() - 1);
+    }
+}
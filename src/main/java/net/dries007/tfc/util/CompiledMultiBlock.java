@@ -0,0 +1,213 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+/**
+ * The compiled form of a {@link MultiBlock}. Conditions are flattened into arrays of offsets and conditions, ordered by how expensive they are to test: first tags which have a {@link BlockTagFlags} mask, then other tags and block state predicates, then custom conditions, and finally nested {@link MultiBlock#matchOneOf(BlockPos, MultiBlock)} conditions.
+ */
+public final class CompiledMultiBlock implements BiPredicate<LevelAccessor, BlockPos>
+{
+    private final int[] offsets; // The x, y, z offset of each condition, in test order
+    private final int[] flags; // A flag mask for each tag condition
+    private final Predicate<BlockState>[] states;
+    private final BiPredicate<LevelAccessor, BlockPos>[] customs;
+    private final CompiledMultiBlock[] anyOf;
+
+    @SuppressWarnings("unchecked")
+    CompiledMultiBlock(List<MultiBlock.Condition> conditions)
+    {
+        final List<MultiBlock.Condition> flagged = new ArrayList<>(), states = new ArrayList<>(), customs = new ArrayList<>(), anyOf = new ArrayList<>();
+        for (MultiBlock.Condition condition : conditions)
+        {
+            if (condition.tag() != null && BlockTagFlags.getFlag(condition.tag()) != 0)
+            {
+                flagged.add(condition);
+            }
+            else if (condition.tag() != null || condition.state() != null)
+            {
+                states.add(condition);
+            }
+            else if (condition.custom() != null)
+            {
+                customs.add(condition);
+            }
+            else
+            {
+                anyOf.add(condition);
+            }
+        }
+
+        final List<MultiBlock.Condition> ordered = new ArrayList<>(conditions.size());
+        ordered.addAll(flagged);
+        ordered.addAll(states);
+        ordered.addAll(customs);
+        ordered.addAll(anyOf);
+
+        this.offsets = new int[3 * ordered.size()];
+        for (int i = 0; i < ordered.size(); i++)
+        {
+            final BlockPos offset = ordered.get(i).offset();
+            offsets[3 * i] = offset.getX();
+            offsets[3 * i + 1] = offset.getY();
+            offsets[3 * i + 2] = offset.getZ();
+        }
+        this.flags = new int[flagged.size()];
+        for (int i = 0; i < flags.length; i++)
+        {
+            flags[i] = BlockTagFlags.getFlag(flagged.get(i).tag());
+        }
+        this.states = new Predicate[states.size()];
+        for (int i = 0; i < this.states.length; i++)
+        {
+            final MultiBlock.Condition condition = states.get(i);
+            final TagKey<Block> tag = condition.tag();
+            this.states[i] = tag != null ? state -> Helpers.isBlock(state, tag) : condition.state();
+        }
+        this.customs = new BiPredicate[customs.size()];
+        for (int i = 0; i < this.customs.length; i++)
+        {
+            this.customs[i] = customs.get(i).custom();
+        }
+        this.anyOf = new CompiledMultiBlock[anyOf.size()];
+        for (int i = 0; i < this.anyOf.length; i++)
+        {
+            this.anyOf[i] = anyOf.get(i).anyOf().compile();
+        }
+    }
+
+    /**
+     * @return {@code true} if all conditions succeed.
+     */
+    @Override
+    public boolean test(LevelAccessor level, BlockPos pos)
+    {
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        int i = 0;
+        for (int flag : flags)
+        {
+            if (!BlockTagFlags.is(level.getBlockState(move(cursor, pos, i++)), flag))
+            {
+                return false;
+            }
+        }
+        for (Predicate<BlockState> state : states)
+        {
+            if (!state.test(level.getBlockState(move(cursor, pos, i++))))
+            {
+                return false;
+            }
+        }
+        for (BiPredicate<LevelAccessor, BlockPos> custom : customs)
+        {
+            if (!custom.test(level, move(cursor, pos, i++).immutable()))
+            {
+                return false;
+            }
+        }
+        for (CompiledMultiBlock sub : anyOf)
+        {
+            if (!sub.testAny(level, move(cursor, pos, i++).immutable()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} if any condition succeeds.
+     */
+    public boolean testAny(LevelAccessor level, BlockPos pos)
+    {
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        int i = 0;
+        for (int flag : flags)
+        {
+            if (BlockTagFlags.is(level.getBlockState(move(cursor, pos, i++)), flag))
+            {
+                return true;
+            }
+        }
+        for (Predicate<BlockState> state : states)
+        {
+            if (state.test(level.getBlockState(move(cursor, pos, i++))))
+            {
+                return true;
+            }
+        }
+        for (BiPredicate<LevelAccessor, BlockPos> custom : customs)
+        {
+            if (custom.test(level, move(cursor, pos, i++).immutable()))
+            {
+                return true;
+            }
+        }
+        for (CompiledMultiBlock sub : anyOf)
+        {
+            if (sub.testAny(level, move(cursor, pos, i++).immutable()))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Every position which a condition depends on, for the multiblock at {@code origin}, packed with {@link BlockPos#asLong()}.
+     */
+    public LongSet getFootprint(BlockPos origin)
+    {
+        final LongSet footprint = new LongOpenHashSet();
+        addFootprint(origin, footprint);
+        return footprint;
+    }
+
+    public void addFootprint(BlockPos origin, LongCollection footprint)
+    {
+        final int anyOfStart = offsets.length / 3 - anyOf.length;
+        for (int i = 0; i < offsets.length / 3; i++)
+        {
+            final BlockPos pos = origin.offset(offsets[3 * i], offsets[3 * i + 1], offsets[3 * i + 2]);
+            if (i < anyOfStart)
+            {
+                footprint.add(pos.asLong());
+            }
+            else
+            {
+                anyOf[i - anyOfStart].addFootprint(pos, footprint);
+            }
+        }
+    }
+
+    /**
+     * @return The number of conditions, not including those of nested multiblocks.
+     */
+    public int size()
+    {
+        return offsets.length / 3;
+    }
+
+    private BlockPos.MutableBlockPos move(BlockPos.MutableBlockPos cursor, BlockPos pos, int i)
+    {
+        return cursor.setWithOffset(pos, offsets[3 * i], offsets[3 * i + 1], offsets[3 * i + 2]);
+    }
+}
@@ -122,7 +122,7 @@ public final class EnvironmentHelpers
 
     public static boolean canPlaceBushOn(WorldGenLevel level, BlockPos pos)
     {
-        return isWorldgenReplaceable(level, pos) && Helpers.isBlock(level.getBlockState(pos.below()), TFCTags.Blocks.BUSH_PLANTABLE_ON);
+        return isWorldgenReplaceable(level, pos) && BlockTagFlags.is(level.getBlockState(pos.below()), BlockTagFlags.BUSH_PLANTABLE_ON);
     }
 
     public static boolean isOnSturdyFace(WorldGenLevel level, BlockPos pos)
@@ -256,7 +256,7 @@ public final class EnvironmentHelpers
                 final BlockPos adjPos = pos.relative(direction);
                 final BlockState adjState = level.getBlockState(adjPos);
                 if ((isSnow(adjState) && adjState.getValue(SnowLayerBlock.LAYERS) < state.getValue(SnowLayerBlock.LAYERS)) // Adjacent snow that's lower than this one
-                    || ((adjState.isAir() || Helpers.isBlock(adjState.getBlock(), TFCTags.Blocks.CAN_BE_SNOW_PILED)) && Blocks.SNOW.defaultBlockState().canSurvive(level, adjPos))) // Or, empty space that could support snow
+                    || ((adjState.isAir() || BlockTagFlags.is(adjState, BlockTagFlags.CAN_BE_SNOW_PILED)) && Blocks.SNOW.defaultBlockState().canSurvive(level, adjPos))) // Or, empty space that could support snow
                 {
                     found++;
                     if (targetPos == null || random.nextInt(found) == 0)
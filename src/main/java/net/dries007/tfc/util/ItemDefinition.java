@@ -42,6 +42,15 @@ public class ItemDefinition
         return ingredient.test(stack);
     }
 
+    /**
+     * @return {@code true} if {@link #matches(ItemStack)} depends only on the item, and not on any other property of the stack, such as NBT or capabilities.
+     * @see Ingredient#isSimple()
+     */
+    public boolean matchesItemOnly()
+    {
+        return ingredient.isSimple();
+    }
+
     public Collection<Item> getValidItems()
     {
         return Arrays.stream(ingredient.getItems()).map(ItemStack::getItem).collect(Collectors.toSet());
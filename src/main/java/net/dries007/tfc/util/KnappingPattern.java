@@ -12,6 +12,9 @@ import com.google.gson.JsonSyntaxException;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.util.GsonHelper;
 
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+
 public class KnappingPattern
 {
     public static final int MAX_WIDTH = 5;
@@ -124,6 +127,33 @@ public class KnappingPattern
         return ((data >> index) & 0b1) == 1;
     }
 
+    /**
+     * @return The on/off state of every position, as bits indexed by {@code x + y * width}.
+     */
+    public int getData()
+    {
+        return data & ((1 << (width * height)) - 1);
+    }
+
+    /**
+     * The inverse of {@link #matches(KnappingPattern)}: every possible pattern of the given size, for which {@code pattern.matches(this)} is true.
+     *
+     * @return The {@link #getData()} of each matching pattern.
+     */
+    public IntSet getMatchingData(int width, int height)
+    {
+        final IntSet matching = new IntOpenHashSet();
+        for (int dx = 0; dx <= width - this.width; dx++)
+        {
+            for (int dy = 0; dy <= height - this.height; dy++)
+            {
+                matching.add(getMatchingData(width, height, dx, dy, false));
+                matching.add(getMatchingData(width, height, dx, dy, true));
+            }
+        }
+        return matching;
+    }
+
     public void toNetwork(FriendlyByteBuf buffer)
     {
         buffer.writeVarInt(width);
@@ -203,4 +233,30 @@ public class KnappingPattern
         }
         return true;
     }
+
+    private int getMatchingData(int width, int height, int startX, int startY, boolean mirror)
+    {
+        // Mirrors the positions checked by matches(KnappingPattern, int, int, boolean), with this as the other pattern
+        int matching = 0;
+        for (int x = 0; x < width; x++)
+        {
+            for (int y = 0; y < height; y++)
+            {
+                final boolean value;
+                if (x < startX || y < startY || x - startX >= this.width || y - startY >= this.height)
+                {
+                    value = empty;
+                }
+                else
+                {
+                    value = get((y - startY) * this.width + (mirror ? this.width - 1 - (x - startX) : x - startX));
+                }
+                if (value)
+                {
+                    matching |= 1 << (y * width + x);
+                }
+            }
+        }
+        return matching;
+    }
 }
\ No newline at end of file
@@ -46,6 +46,8 @@ import net.minecraft.world.level.material.MaterialColor;
 import net.minecraftforge.registries.ForgeRegistries;
 import org.jetbrains.annotations.Nullable;
 
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.dries007.tfc.common.TFCArmorMaterials;
 import net.dries007.tfc.common.TFCItemGroup;
 import net.dries007.tfc.common.TFCTags;
@@ -79,6 +81,7 @@ public final class Metal
     public static final DataManager<Metal> MANAGER = new DataManager<>(Helpers.identifier("metals"), "metal", Metal::new, Metal::new, Metal::encode, Packet::new);
 
     private static final Map<Fluid, Metal> METAL_FLUIDS = new HashMap<>();
+    private static final Object2IntMap<ResourceLocation> METAL_INDICES = new Object2IntOpenHashMap<>();
 
     /**
      * Reverse lookup for metals attached to fluids.
@@ -130,6 +133,18 @@ public final class Metal
         return null;
     }
 
+    /**
+     * Each metal id is assigned a dense index the first time a metal with that id is loaded. Indices are never reassigned, including across reloads, so they can be used to index arrays of metal content which outlive a reload, i.e. in an {@link Alloy}.
+     */
+    private static synchronized int getIndex(ResourceLocation id)
+    {
+        if (!METAL_INDICES.containsKey(id))
+        {
+            METAL_INDICES.put(id, METAL_INDICES.size());
+        }
+        return METAL_INDICES.getInt(id);
+    }
+
     public static void updateMetalFluidMap()
     {
         // Ensure 'unknown' metal exists
@@ -149,6 +164,7 @@ public final class Metal
     private final float specificHeatCapacity;
 
     private final ResourceLocation id;
+    private final int index;
     private final ResourceLocation textureId;
     private final String translationKey;
 
@@ -157,6 +173,7 @@ public final class Metal
     public Metal(ResourceLocation id, JsonObject json)
     {
         this.id = id;
+        this.index = getIndex(id);
         this.textureId = new ResourceLocation(id.getNamespace(), "block/metal/full/" + id.getPath());
 
         this.tier = JsonHelpers.getAsInt(json, "tier", 0);
@@ -172,6 +189,7 @@ public final class Metal
     public Metal(ResourceLocation id, FriendlyByteBuf buffer)
     {
         this.id = id;
+        this.index = getIndex(id);
         this.textureId = new ResourceLocation(id.getNamespace(), "block/metal/full/" + id.getPath());
 
         this.tier = buffer.readVarInt();
@@ -190,6 +208,7 @@ public final class Metal
     public Metal(ResourceLocation id)
     {
         this.id = id;
+        this.index = getIndex(id);
         this.textureId = new ResourceLocation(id.getNamespace(), "block/metal/full/" + id.getPath());
 
         this.tier = 0;
@@ -219,6 +238,14 @@ public final class Metal
         return id;
     }
 
+    /**
+     * @return A dense index for this metal's id, which is the same for all metals with the same id.
+     */
+    public int getIndex()
+    {
+        return index;
+    }
+
     public ResourceLocation getTextureId()
     {
         return textureId;
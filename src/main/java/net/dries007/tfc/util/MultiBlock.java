@@ -20,19 +20,24 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 
+import org.jetbrains.annotations.Nullable;
+
 /**
  * An API for programmatically checking a list of positions, returning true if all the predicates succeed.
+ * <p>
+ * Each condition is at a fixed offset, and should only depend on the block (or block entity) at that position, so the positions a multiblock depends on are known (see {@link CompiledMultiBlock#getFootprint(BlockPos)}).
  */
 public class MultiBlock implements BiPredicate<LevelAccessor, BlockPos>
 {
-    protected final List<BiPredicate<LevelAccessor, BlockPos>> conditions;
+    private final List<Condition> conditions;
+    @Nullable private CompiledMultiBlock compiled; // Lazy, initialized on demand and discarded when a condition is added
 
     public MultiBlock()
     {
         this.conditions = new ArrayList<>();
     }
 
-    MultiBlock(List<BiPredicate<LevelAccessor, BlockPos>> conditions)
+    MultiBlock(List<Condition> conditions)
     {
         this.conditions = conditions;
     }
@@ -47,12 +52,12 @@ public class MultiBlock implements BiPredicate<LevelAccessor, BlockPos>
 
     public MultiBlock match(BlockPos posOffset, TagKey<Block> tagMatch)
     {
-        return match(posOffset, (level, pos) -> Helpers.isBlock(level.getBlockState(pos), tagMatch));
+        return add(new Condition(posOffset, tagMatch, null, null, null));
     }
 
     public MultiBlock match(BlockPos posOffset, Predicate<BlockState> stateMatcher)
     {
-        return match(posOffset, (level, pos) -> stateMatcher.test(level.getBlockState(pos)));
+        return add(new Condition(posOffset, null, stateMatcher, null, null));
     }
 
     public <T extends BlockEntity> MultiBlock match(BlockPos posOffset, Predicate<T> blockEntityMatcher, BlockEntityType<T> type)
@@ -62,7 +67,15 @@ public class MultiBlock implements BiPredicate<LevelAccessor, BlockPos>
 
     public MultiBlock match(BlockPos posOffset, BiPredicate<LevelAccessor, BlockPos> condition)
     {
-        conditions.add((level, pos) -> condition.test(level, pos.offset(posOffset)));
+        return add(new Condition(posOffset, null, null, condition, null));
+    }
+
+    public MultiBlock matchEachDirection(BlockPos posOffset, TagKey<Block> tagMatch, Direction[] directions, int relativeAmount)
+    {
+        for (Direction d : directions)
+        {
+            match(posOffset.relative(d, relativeAmount), tagMatch);
+        }
         return this;
     }
 
@@ -70,7 +83,16 @@ public class MultiBlock implements BiPredicate<LevelAccessor, BlockPos>
     {
         for (Direction d : directions)
         {
-            conditions.add((level, pos) -> condition.test(level, pos.offset(posOffset).relative(d, relativeAmount)));
+            match(posOffset.relative(d, relativeAmount), condition);
+        }
+        return this;
+    }
+
+    public MultiBlock matchHorizontal(BlockPos posOffset, TagKey<Block> tagMatch, int relativeAmount)
+    {
+        for (Direction d : Direction.Plane.HORIZONTAL)
+        {
+            match(posOffset.relative(d, relativeAmount), tagMatch);
         }
         return this;
     }
@@ -79,37 +101,46 @@ public class MultiBlock implements BiPredicate<LevelAccessor, BlockPos>
     {
         for (Direction d : Direction.Plane.HORIZONTAL)
         {
-            conditions.add((level, pos) -> condition.test(level, pos.offset(posOffset).relative(d, relativeAmount)));
+            match(posOffset.relative(d, relativeAmount), condition);
         }
         return this;
     }
 
+    /**
+     * Matches if any one of the conditions of {@code subMultiBlock} succeeds, with the sub multiblock positioned at {@code baseOffset}.
+     */
     public MultiBlock matchOneOf(BlockPos baseOffset, MultiBlock subMultiBlock)
     {
-        BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
-        conditions.add((level, pos) -> {
-            for (BiPredicate<LevelAccessor, BlockPos> condition : subMultiBlock.conditions)
-            {
-                if (condition.test(level, mutable.set(pos).move(baseOffset)))
-                {
-                    return true;
-                }
-            }
-            return false;
-        });
-        return this;
+        return add(new Condition(baseOffset, null, null, null, subMultiBlock.copy()));
     }
 
-    @Override
-    public boolean test(LevelAccessor level, BlockPos pos)
+    /**
+     * @return The compiled form of this multiblock, which is cached until another condition is added.
+     */
+    public CompiledMultiBlock compile()
     {
-        for (BiPredicate<LevelAccessor, BlockPos> condition : conditions)
+        if (compiled == null)
         {
-            if (!condition.test(level, pos))
-            {
-                return false;
-            }
+            compiled = new CompiledMultiBlock(conditions);
         }
-        return true;
+        return compiled;
+    }
+
+    @Override
+    public boolean test(LevelAccessor level, BlockPos pos)
+    {
+        return compile().test(level, pos);
+    }
+
+    private MultiBlock add(Condition condition)
+    {
+        conditions.add(condition);
+        compiled = null;
+        return this;
     }
+
+    /**
+     * A single condition, at an offset from the origin of the multiblock. Exactly one of the condition fields is not {@code null}.
+     */
+    record Condition(BlockPos offset, @Nullable TagKey<Block> tag, @Nullable Predicate<BlockState> state, @Nullable BiPredicate<LevelAccessor, BlockPos> custom, @Nullable MultiBlock anyOf) {}
 }
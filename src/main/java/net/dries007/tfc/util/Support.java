@@ -6,7 +6,9 @@
 
 package net.dries007.tfc.util;
 
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
@@ -15,6 +17,7 @@ import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.GsonHelper;
 import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 import org.jetbrains.annotations.Nullable;
@@ -23,6 +26,8 @@ import net.dries007.tfc.common.recipes.ingredients.BlockIngredient;
 import net.dries007.tfc.common.recipes.ingredients.BlockIngredients;
 import net.dries007.tfc.network.DataManagerSyncPacket;
 import net.dries007.tfc.util.collections.IndirectHashCollection;
+import net.dries007.tfc.util.tracker.SupportCache;
+import net.dries007.tfc.util.tracker.WorldTrackerCapability;
 
 public final class Support
 {
@@ -36,8 +41,24 @@ public final class Support
 
     /**
      * Finds all unsupported positions in a large area. It's more efficient than checking each block individually and calling {@link Support#isSupported(BlockGetter, BlockPos)}
+     * If possible, this queries the level's {@link SupportCache}, otherwise it scans the area.
      */
-    public static Set<BlockPos> findUnsupportedPositions(BlockGetter worldIn, BlockPos from, BlockPos to)
+    public static Collection<BlockPos> findUnsupportedPositions(BlockGetter worldIn, BlockPos from, BlockPos to)
+    {
+        if (worldIn instanceof Level level)
+        {
+            final List<BlockPos> unsupported = level.getCapability(WorldTrackerCapability.CAPABILITY)
+                .map(cap -> cap.getSupportCache().findUnsupportedPositions(from, to))
+                .orElse(null);
+            if (unsupported != null)
+            {
+                return unsupported;
+            }
+        }
+        return scanUnsupportedPositions(worldIn, from, to);
+    }
+
+    public static Set<BlockPos> scanUnsupportedPositions(BlockGetter worldIn, BlockPos from, BlockPos to)
     {
         Set<BlockPos> listSupported = new HashSet<>();
         Set<BlockPos> listUnsupported = new HashSet<>();
@@ -89,6 +110,11 @@ public final class Support
         return BlockPos.betweenClosed(minPoint.offset(-RANGE.horizontal(), -RANGE.down(), -RANGE.horizontal()), maxPoint.offset(RANGE.horizontal(), RANGE.up(), RANGE.horizontal()));
     }
 
+    public static SupportRange getMaximumSupportRange()
+    {
+        return RANGE;
+    }
+
     @Nullable
     public static Support get(BlockState state)
     {
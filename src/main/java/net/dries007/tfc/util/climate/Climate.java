@@ -86,6 +86,15 @@ public final class Climate
         return getTemperature(level, pos, Calendars.get(level));
     }
 
+    /**
+     * Queries the current temperature at many positions at once. Positions in the same chunk should be grouped together.
+     */
+    public static void getTemperatures(Level level, BlockPos[] positions, float[] temperatures)
+    {
+        final ICalendar calendar = Calendars.get(level);
+        model(level).getTemperatures(level, positions, calendar.getCalendarTicks(), calendar.getCalendarDaysInMonth(), temperatures);
+    }
+
     public static float getAverageTemperature(Level level, BlockPos pos)
     {
         return model(level).getAverageTemperature(level, pos);
@@ -96,6 +105,11 @@ public final class Climate
         return model(level).getRainfall(level, pos);
     }
 
+    public static void getRainfalls(Level level, BlockPos[] positions, float[] rainfalls)
+    {
+        model(level).getRainfalls(level, positions, rainfalls);
+    }
+
     public static float getFogginess(Level level, BlockPos pos)
     {
         return model(level).getFogginess(level, pos, Calendars.get(level).getTicks());
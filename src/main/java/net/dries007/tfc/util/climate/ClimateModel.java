@@ -54,6 +54,32 @@ public interface ClimateModel
      */
     float getRainfall(LevelReader level, BlockPos pos);
 
+    /**
+     * Get the temperature at many positions, at the same timestamp. Equivalent to {@link #getTemperature(LevelReader, BlockPos, long, int)} for each position, but models may share work between positions, especially those within the same chunk.
+     *
+     * @param temperatures An array to be filled with the temperature at each position.
+     */
+    default void getTemperatures(LevelReader level, BlockPos[] positions, long calendarTicks, int daysInMonth, float[] temperatures)
+    {
+        for (int i = 0; i < positions.length; i++)
+        {
+            temperatures[i] = getTemperature(level, positions[i], calendarTicks, daysInMonth);
+        }
+    }
+
+    /**
+     * Get the average annual rainfall at many positions. Equivalent to {@link #getRainfall(LevelReader, BlockPos)} for each position.
+     *
+     * @param rainfalls An array to be filled with the rainfall at each position.
+     */
+    default void getRainfalls(LevelReader level, BlockPos[] positions, float[] rainfalls)
+    {
+        for (int i = 0; i < positions.length; i++)
+        {
+            rainfalls[i] = getRainfall(level, positions[i]);
+        }
+    }
+
     /**
      * @return A value in the range [0, 1] scaling the sky fog as a % of the render distance
      */
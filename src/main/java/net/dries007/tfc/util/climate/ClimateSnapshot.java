@@ -0,0 +1,84 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.climate;
+
+import net.minecraft.core.SectionPos;
+
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.LerpFloatLayer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The time invariant climate fields of a single chunk, as used by {@link OverworldClimateModel}: the average temperature and rainfall of each column, and the latitude temperature factor of each row.
+ * <p>
+ * These are sampled once from the chunk's {@link ChunkData}, so are exactly the values that would be queried from the chunk data directly. Snapshots are immutable, and cached by the climate model per chunk. A snapshot is valid as long as the chunk data's climate layers have not been replaced, which is checked (by identity) each time it is retrieved from the cache.
+ */
+public final class ClimateSnapshot
+{
+    private final int chunkX, chunkZ;
+    @Nullable private final LerpFloatLayer rainfallLayer, temperatureLayer;
+    private final float[] averageTemperature, rainfall, latitudeTemperatureFactor;
+
+    ClimateSnapshot(OverworldClimateModel model, ChunkData data, int chunkX, int chunkZ)
+    {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.rainfallLayer = data.getRainfallLayer();
+        this.temperatureLayer = data.getAverageTempLayer();
+        this.averageTemperature = new float[16 * 16];
+        this.rainfall = new float[16 * 16];
+        this.latitudeTemperatureFactor = new float[16];
+
+        final int minX = SectionPos.sectionToBlockCoord(chunkX), minZ = SectionPos.sectionToBlockCoord(chunkZ);
+        for (int z = 0; z < 16; z++)
+        {
+            latitudeTemperatureFactor[z] = model.calculateLatitudeTemperatureFactor(minZ + z);
+            for (int x = 0; x < 16; x++)
+            {
+                averageTemperature[x | (z << 4)] = data.getAverageTemp(minX + x, minZ + z);
+                rainfall[x | (z << 4)] = data.getRainfall(minX + x, minZ + z);
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if this snapshot was taken of the given chunk, and the chunk data has not changed since.
+     */
+    public boolean isValidFor(ChunkData data, int chunkX, int chunkZ)
+    {
+        return isInChunk(chunkX, chunkZ) && rainfallLayer == data.getRainfallLayer() && temperatureLayer == data.getAverageTempLayer();
+    }
+
+    public boolean isInChunk(int chunkX, int chunkZ)
+    {
+        return this.chunkX == chunkX && this.chunkZ == chunkZ;
+    }
+
+    /**
+     * @see ChunkData#getAverageTemp(int, int)
+     */
+    public float getAverageTemperature(int x, int z)
+    {
+        return averageTemperature[(x & 15) | ((z & 15) << 4)];
+    }
+
+    /**
+     * @see ChunkData#getRainfall(int, int)
+     */
+    public float getRainfall(int x, int z)
+    {
+        return rainfall[(x & 15) | ((z & 15) << 4)];
+    }
+
+    /**
+     * @see OverworldClimateModel#calculateLatitudeTemperatureFactor(int)
+     */
+    public float getLatitudeTemperatureFactor(int z)
+    {
+        return latitudeTemperatureFactor[z & 15];
+    }
+}
@@ -9,6 +9,7 @@ package net.dries007.tfc.util.climate;
 import java.util.Random;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.LinearCongruentialGenerator;
@@ -35,6 +36,7 @@ import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.calendar.ICalendar;
 import net.dries007.tfc.util.calendar.Month;
+import net.dries007.tfc.world.FastConcurrentCache;
 import net.dries007.tfc.world.TFCChunkGenerator;
 import net.dries007.tfc.world.chunkdata.ChunkData;
 import net.dries007.tfc.world.chunkdata.ChunkGeneratorExtension;
@@ -80,6 +82,8 @@ public class OverworldClimateModel implements WorldGenClimateModel
     public static final float FOGGY_RAINFALL_MINIMUM = 150f;
     public static final float FOGGY_RAINFALL_PEAK = 300f;
 
+    private static final int SNAPSHOT_CACHE_SIZE = 2048;
+
     @Override
     public ClimateModelType type()
     {
@@ -112,6 +116,10 @@ public class OverworldClimateModel implements WorldGenClimateModel
     private Noise2D snowPatchNoise = (x, z) -> 0;
     private Noise2D icePatchNoise = (x, z) -> 0;
 
+    // Caches, which must be reset whenever the climate settings or seed change
+    private volatile FastConcurrentCache<ClimateSnapshot> snapshots = new FastConcurrentCache<>(SNAPSHOT_CACHE_SIZE);
+    @Nullable private volatile ClimateTime lastTime = null;
+
     /**
      * Calculates the average monthly temperature for a location and given month.
      */
@@ -124,15 +132,51 @@ public class OverworldClimateModel implements WorldGenClimateModel
     @Override
     public float getTemperature(@Nullable LevelReader level, BlockPos pos, ChunkData data, long calendarTicks, int daysInMonth)
     {
-        // Month temperature
-        final Month currentMonth = ICalendar.getMonthOfYear(calendarTicks, daysInMonth);
-        final float delta = ICalendar.getFractionOfMonth(calendarTicks, daysInMonth);
-        final float monthFactor = Mth.lerp(delta, currentMonth.getTemperatureModifier(), currentMonth.next().getTemperatureModifier());
+        final ClimateSnapshot snapshot = getSnapshot(data, SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        return getTemperature(snapshot, pos, getClimateTime(calendarTicks, daysInMonth));
+    }
+
+    /**
+     * Queries the temperature at many positions at once, resolving the chunk data and snapshot once per run of consecutive positions in the same chunk.
+     */
+    @Override
+    public void getTemperatures(LevelReader level, BlockPos[] positions, long calendarTicks, int daysInMonth, float[] temperatures)
+    {
+        final ClimateTime time = getClimateTime(calendarTicks, daysInMonth);
+        ClimateSnapshot snapshot = null;
+        for (int i = 0; i < positions.length; i++)
+        {
+            final BlockPos pos = positions[i];
+            snapshot = getSnapshotForBatch(level, snapshot, pos);
+            temperatures[i] = getTemperature(snapshot, pos, time);
+        }
+    }
 
-        final float monthTemperature = calculateMonthlyTemperature(pos.getZ(), monthFactor);
-        final float dailyTemperature = calculateDailyTemperature(calendarTicks);
+    @Override
+    public void getRainfalls(LevelReader level, BlockPos[] positions, float[] rainfalls)
+    {
+        ClimateSnapshot snapshot = null;
+        for (int i = 0; i < positions.length; i++)
+        {
+            final BlockPos pos = positions[i];
+            snapshot = getSnapshotForBatch(level, snapshot, pos);
+            rainfalls[i] = snapshot.getRainfall(pos.getX(), pos.getZ());
+        }
+    }
 
-        return adjustTemperatureByElevation(pos.getY(), data.getAverageTemp(pos), monthTemperature, dailyTemperature);
+    /**
+     * @return The time invariant climate of a chunk, from the cache if present and still valid.
+     */
+    public ClimateSnapshot getSnapshot(ChunkData data, int chunkX, int chunkZ)
+    {
+        final FastConcurrentCache<ClimateSnapshot> snapshots = this.snapshots;
+        ClimateSnapshot snapshot = snapshots.getIfPresent(chunkX, chunkZ);
+        if (snapshot == null || !snapshot.isValidFor(data, chunkX, chunkZ))
+        {
+            snapshot = new ClimateSnapshot(this, data, chunkX, chunkZ);
+            snapshots.set(chunkX, chunkZ, snapshot);
+        }
+        return snapshot;
     }
 
     @Override
@@ -310,6 +354,7 @@ public class OverworldClimateModel implements WorldGenClimateModel
         climateSeed = LinearCongruentialGenerator.next(level.getSeed(), 719283741234L);
 
         updateNoise();
+        resetCaches();
     }
 
     @Override
@@ -328,6 +373,8 @@ public class OverworldClimateModel implements WorldGenClimateModel
 
         temperatureSettings = new ClimateSettings(scale, endless);
         climateSeed = buffer.readLong();
+
+        resetCaches();
     }
 
     protected void updateNoise()
@@ -336,6 +383,12 @@ public class OverworldClimateModel implements WorldGenClimateModel
         this.icePatchNoise = new OpenSimplex2D(climateSeed + 192639412341L).octaves(3).spread(0.6f);
     }
 
+    protected void resetCaches()
+    {
+        snapshots = new FastConcurrentCache<>(SNAPSHOT_CACHE_SIZE);
+        lastTime = null;
+    }
+
     /**
      * Adjusts a series of temperature factors by elevation. Returns the sum temperature after adjustment.
      */
@@ -372,7 +425,15 @@ public class OverworldClimateModel implements WorldGenClimateModel
      */
     protected float calculateMonthlyTemperature(int z, float monthTemperatureModifier)
     {
-        return monthTemperatureModifier * Helpers.triangle(LATITUDE_TEMPERATURE_VARIANCE_AMPLITUDE, LATITUDE_TEMPERATURE_VARIANCE_MEAN, 1f / (4f * temperatureSettings.scale()), z);
+        return monthTemperatureModifier * calculateLatitudeTemperatureFactor(z);
+    }
+
+    /**
+     * Calculates the time invariant part of the monthly temperature for a given latitude.
+     */
+    protected float calculateLatitudeTemperatureFactor(int z)
+    {
+        return Helpers.triangle(LATITUDE_TEMPERATURE_VARIANCE_AMPLITUDE, LATITUDE_TEMPERATURE_VARIANCE_MEAN, 1f / (4f * temperatureSettings.scale()), z);
     }
 
     /**
@@ -398,10 +459,53 @@ public class OverworldClimateModel implements WorldGenClimateModel
         return ((random.nextFloat() - random.nextFloat()) + 0.3f * hourModifier) * 3f;
     }
 
+    private float getTemperature(ClimateSnapshot snapshot, BlockPos pos, ClimateTime time)
+    {
+        // Identical to calculateMonthlyTemperature(), using the latitude factor from the snapshot
+        final float monthTemperature = time.monthFactor * snapshot.getLatitudeTemperatureFactor(pos.getZ());
+        return adjustTemperatureByElevation(pos.getY(), snapshot.getAverageTemperature(pos.getX(), pos.getZ()), monthTemperature, time.dailyTemperature);
+    }
+
+    private ClimateSnapshot getSnapshotForBatch(LevelReader level, @Nullable ClimateSnapshot previous, BlockPos pos)
+    {
+        final int chunkX = SectionPos.blockToSectionCoord(pos.getX()), chunkZ = SectionPos.blockToSectionCoord(pos.getZ());
+        if (previous != null && previous.isInChunk(chunkX, chunkZ))
+        {
+            return previous;
+        }
+        return getSnapshot(ChunkData.get(level, new ChunkPos(chunkX, chunkZ)), chunkX, chunkZ);
+    }
+
+    /**
+     * The time dependent factors of temperature, which are shared by all positions.
+     * The daily temperature only depends on the hour, so it is reused across ticks of the same hour, while the month factor varies every tick. Keying both on the calendar time means that any calendar jump is picked up on the next query.
+     */
+    private ClimateTime getClimateTime(long calendarTicks, int daysInMonth)
+    {
+        final ClimateTime last = lastTime;
+        if (last != null && last.calendarTicks == calendarTicks && last.daysInMonth == daysInMonth)
+        {
+            return last;
+        }
+
+        final Month currentMonth = ICalendar.getMonthOfYear(calendarTicks, daysInMonth);
+        final float delta = ICalendar.getFractionOfMonth(calendarTicks, daysInMonth);
+        final float monthFactor = Mth.lerp(delta, currentMonth.getTemperatureModifier(), currentMonth.next().getTemperatureModifier());
+
+        final long totalHours = ICalendar.getTotalHours(calendarTicks);
+        final float dailyTemperature = last != null && last.totalHours == totalHours ? last.dailyTemperature : calculateDailyTemperature(calendarTicks);
+
+        final ClimateTime time = new ClimateTime(calendarTicks, daysInMonth, monthFactor, totalHours, dailyTemperature);
+        lastTime = time;
+        return time;
+    }
+
     protected Random seededRandom(long day, long salt)
     {
         long seed = LinearCongruentialGenerator.next(climateSeed, day);
         seed = LinearCongruentialGenerator.next(seed, salt);
         return new Random(seed);
     }
+
+    private record ClimateTime(long calendarTicks, int daysInMonth, float monthFactor, long totalHours, float dailyTemperature) {}
 }
@@ -0,0 +1,126 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.collections;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.dries007.tfc.util.ItemDefinition;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An index of {@link ItemDefinition}s by item, for lookups which happen on every stack creation (i.e. capability attachment).
+ * <p>
+ * At reload, every item is classified as one of:
+ * <ul>
+ *     <li>Never: no definition can match this item. This is the absence of an entry, so the lookup is a single hash miss.</li>
+ *     <li>Always: the first candidate definition matches based only on the item (see {@link ItemDefinition#matchesItemOnly()}), so it is returned without testing the stack.</li>
+ *     <li>Needs test: one or more candidate definitions depend on the stack (i.e. NBT or capabilities), and are tested in order. Candidates after the first which matches based on only the item are dropped, as they can never be reached.</li>
+ * </ul>
+ * This is equivalent to iterating over every definition for the item, in the order provided by the reloadable collection, and returning the first which matches.
+ */
+public final class ItemDefinitionIndex<T extends ItemDefinition>
+{
+    private static final List<ItemDefinitionIndex<?>> INDEXES = new ArrayList<>();
+
+    public static <T extends ItemDefinition> ItemDefinitionIndex<T> create(Supplier<Collection<T>> reloadableCollection)
+    {
+        final ItemDefinitionIndex<T> index = new ItemDefinitionIndex<>(reloadableCollection);
+        INDEXES.add(index);
+        return index;
+    }
+
+    /**
+     * Rebuilds all indexes from their reloadable collections. This must be called after data managers and tags have both been reloaded.
+     */
+    public static void reloadAll()
+    {
+        INDEXES.forEach(ItemDefinitionIndex::reload);
+    }
+
+    private final Supplier<Collection<T>> reloadableCollection;
+    private volatile Reference2ObjectMap<Item, Entry<T>> entries;
+
+    private ItemDefinitionIndex(Supplier<Collection<T>> reloadableCollection)
+    {
+        this.reloadableCollection = reloadableCollection;
+        this.entries = new Reference2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * @return The first definition which matches the stack, or {@code null} if none do.
+     */
+    @Nullable
+    public T get(ItemStack stack)
+    {
+        final Entry<T> entry = entries.get(stack.getItem());
+        if (entry == null)
+        {
+            return null;
+        }
+        if (entry.always != null)
+        {
+            return entry.always;
+        }
+        for (T def : entry.candidates)
+        {
+            if (def.matches(stack))
+            {
+                return def;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The number of items which have at least one candidate definition.
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    public void reload()
+    {
+        reload(reloadableCollection.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void reload(Collection<T> values)
+    {
+        final Reference2ObjectMap<Item, List<T>> candidatesByItem = new Reference2ObjectOpenHashMap<>();
+        for (T def : values)
+        {
+            for (Item item : def.getValidItems())
+            {
+                final List<T> candidates = candidatesByItem.computeIfAbsent(item, k -> new ArrayList<>());
+                if (candidates.isEmpty() || !candidates.get(candidates.size() - 1).matchesItemOnly())
+                {
+                    candidates.add(def);
+                }
+            }
+        }
+
+        final Reference2ObjectMap<Item, Entry<T>> entries = new Reference2ObjectOpenHashMap<>(candidatesByItem.size());
+        for (Reference2ObjectMap.Entry<Item, List<T>> e : candidatesByItem.reference2ObjectEntrySet())
+        {
+            final List<T> candidates = e.getValue();
+            final T first = candidates.get(0);
+            entries.put(e.getKey(), first.matchesItemOnly() ? new Entry<>(first, null) : new Entry<>(null, (T[]) candidates.toArray(new ItemDefinition[0])));
+        }
+        this.entries = entries; // Publish the complete map at once, as lookups may happen concurrently from other threads
+    }
+
+    private record Entry<T>(@Nullable T always, @Nullable T[] candidates) {}
+}
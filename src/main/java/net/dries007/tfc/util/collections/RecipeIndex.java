@@ -0,0 +1,264 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.collections;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.item.crafting.RecipeType;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.dries007.tfc.mixin.accessor.RecipeManagerAccessor;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An index of all recipes of a single type, by a key derived from the recipe's inputs (i.e. a fluid, item, or knapping pattern), for lookups which would otherwise be a linear scan through {@link RecipeManager#getRecipeFor(RecipeType, net.minecraft.world.Container, net.minecraft.world.level.Level)}.
+ * <p>
+ * At reload, each recipe is given the set of keys it could possibly match by the key extractor, or {@code null} if that is not known, in which case the recipe is a wildcard, and a candidate for every key. A lookup tests only the candidates for the query's key, in the same order as the recipe manager, so the first match is the same recipe that the recipe manager would return.
+ * The key extractor must satisfy the same condition as {@link IndirectHashCollection}: any recipe which matches a query must contain the query's key.
+ * <p>
+ * Each index also records the number of lookups, candidates tested, and time spent, which is reported by {@code /tfc recipes}.
+ */
+public final class RecipeIndex<K, R extends Recipe<?>>
+{
+    private static final List<RecipeIndex<?, ?>> INDEXES = new ArrayList<>();
+
+    public static synchronized <K, R extends Recipe<?>> RecipeIndex<K, R> create(String name, Supplier<? extends RecipeType<? extends R>> recipeType, Function<R, Collection<? extends K>> keyExtractor)
+    {
+        final RecipeIndex<K, R> index = new RecipeIndex<>(name, recipeType, keyExtractor);
+        INDEXES.add(index);
+        return index;
+    }
+
+    /**
+     * Rebuilds all indexes. This must be called after both recipes and tags have been reloaded, as keys may be derived from tags.
+     */
+    public static void reloadAll(RecipeManager manager)
+    {
+        INDEXES.forEach(index -> index.reload(manager));
+    }
+
+    public static List<RecipeIndex<?, ?>> getAll()
+    {
+        return Collections.unmodifiableList(INDEXES);
+    }
+
+    /**
+     * @return The items which could match all the ingredients, or {@code null} if that cannot be determined. Custom ingredients may filter the stacks returned by {@link Ingredient#getItems()}, and empty ingredients match the empty stack, so only non-empty vanilla ingredients are trusted.
+     */
+    @Nullable
+    public static Collection<Item> itemKeys(Ingredient... ingredients)
+    {
+        final ReferenceOpenHashSet<Item> items = new ReferenceOpenHashSet<>();
+        for (Ingredient ingredient : ingredients)
+        {
+            if (!ingredient.isVanilla() || ingredient.isEmpty())
+            {
+                return null;
+            }
+            for (ItemStack stack : ingredient.getItems())
+            {
+                items.add(stack.getItem());
+            }
+        }
+        return items;
+    }
+
+    private final String name;
+    private final Supplier<? extends RecipeType<? extends R>> recipeType;
+    private final Function<R, Collection<? extends K>> keyExtractor;
+
+    private final LongAdder lookups;
+    private final LongAdder candidatesTested;
+    private final LongAdder lookupNanos;
+
+    private volatile Snapshot<K, R> snapshot;
+
+    private RecipeIndex(String name, Supplier<? extends RecipeType<? extends R>> recipeType, Function<R, Collection<? extends K>> keyExtractor)
+    {
+        this.name = name;
+        this.recipeType = recipeType;
+        this.keyExtractor = keyExtractor;
+        this.lookups = new LongAdder();
+        this.candidatesTested = new LongAdder();
+        this.lookupNanos = new LongAdder();
+        this.snapshot = new Snapshot<>(Collections.emptyMap(), Collections.emptyList(), 0);
+    }
+
+    /**
+     * @param key The key of the query, or {@code null} to only test wildcard recipes.
+     * @return The first recipe, in recipe manager order, with the given key, which matches the predicate, or {@code null} if none do.
+     */
+    @Nullable
+    public R find(@Nullable K key, Predicate<R> matches)
+    {
+        final long startNanos = System.nanoTime();
+        final List<R> candidates = getCandidates(key);
+        R result = null;
+        int tested = 0;
+        for (R recipe : candidates)
+        {
+            tested++;
+            if (matches.test(recipe))
+            {
+                result = recipe;
+                break;
+            }
+        }
+        record(tested, startNanos);
+        return result;
+    }
+
+    /**
+     * @return All recipes, in recipe manager order, with the given key, which match the predicate.
+     */
+    public List<R> findAll(@Nullable K key, Predicate<R> matches)
+    {
+        final long startNanos = System.nanoTime();
+        final List<R> candidates = getCandidates(key);
+        final List<R> results = new ArrayList<>();
+        for (R recipe : candidates)
+        {
+            if (matches.test(recipe))
+            {
+                results.add(recipe);
+            }
+        }
+        record(candidates.size(), startNanos);
+        return results;
+    }
+
+    /**
+     * @return Every recipe which could match the given key, including wildcards, in recipe manager order.
+     */
+    public List<R> getCandidates(@Nullable K key)
+    {
+        final Snapshot<K, R> snapshot = this.snapshot;
+        return snapshot.byKey.getOrDefault(key, snapshot.wildcards);
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public RecipeType<? extends R> getRecipeType()
+    {
+        return recipeType.get();
+    }
+
+    public int getRecipeCount()
+    {
+        return snapshot.recipes;
+    }
+
+    public int getKeyCount()
+    {
+        return snapshot.byKey.size();
+    }
+
+    public int getWildcardCount()
+    {
+        return snapshot.wildcards.size();
+    }
+
+    public long getLookups()
+    {
+        return lookups.sum();
+    }
+
+    public long getCandidatesTested()
+    {
+        return candidatesTested.sum();
+    }
+
+    public long getLookupNanos()
+    {
+        return lookupNanos.sum();
+    }
+
+    public void resetMetrics()
+    {
+        lookups.reset();
+        candidatesTested.reset();
+        lookupNanos.reset();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void reload(RecipeManager manager)
+    {
+        reload((Collection<R>) ((RecipeManagerAccessor) manager).invoke$byType((RecipeType) recipeType.get()).values());
+    }
+
+    public void reload(Collection<R> recipes)
+    {
+        // First, find the keys of every recipe, so that wildcards can be added to every key in order
+        final List<R> ordered = new ArrayList<>(recipes);
+        final List<Collection<? extends K>> keysByRecipe = new ArrayList<>(ordered.size());
+        final Map<K, List<R>> byKey = new Object2ObjectOpenHashMap<>();
+        for (R recipe : ordered)
+        {
+            final Collection<? extends K> keys = keyExtractor.apply(recipe);
+            keysByRecipe.add(keys);
+            if (keys != null)
+            {
+                for (K key : keys)
+                {
+                    byKey.computeIfAbsent(key, k -> new ArrayList<>());
+                }
+            }
+        }
+
+        final List<R> wildcards = new ArrayList<>();
+        for (int i = 0; i < ordered.size(); i++)
+        {
+            final R recipe = ordered.get(i);
+            final Collection<? extends K> keys = keysByRecipe.get(i);
+            if (keys == null)
+            {
+                wildcards.add(recipe);
+                byKey.values().forEach(candidates -> candidates.add(recipe));
+            }
+            else
+            {
+                for (K key : keys)
+                {
+                    final List<R> candidates = byKey.get(key);
+                    if (candidates.isEmpty() || candidates.get(candidates.size() - 1) != recipe)
+                    {
+                        candidates.add(recipe);
+                    }
+                }
+            }
+        }
+
+        byKey.replaceAll((key, candidates) -> List.copyOf(candidates));
+        this.snapshot = new Snapshot<>(byKey, List.copyOf(wildcards), ordered.size()); // Publish the complete snapshot at once, as lookups may happen concurrently from other threads
+    }
+
+    private void record(int tested, long startNanos)
+    {
+        lookups.increment();
+        candidatesTested.add(tested);
+        lookupNanos.add(System.nanoTime() - startNanos);
+    }
+
+    private record Snapshot<K, R>(Map<K, List<R>> byKey, List<R> wildcards, int recipes) {}
+}
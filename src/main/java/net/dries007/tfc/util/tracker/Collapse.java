@@ -7,7 +7,9 @@
 package net.dries007.tfc.util.tracker;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import net.minecraft.nbt.CompoundTag;
@@ -17,12 +19,14 @@ public class Collapse
 {
     BlockPos centerPos;
     List<BlockPos> nextPositions;
+    Set<BlockPos> updatedPositions; // Positions that will be checked next round, gathered while processing the current round
     double radiusSquared;
 
     public Collapse(BlockPos centerPos, List<BlockPos> nextPositions, double radiusSquared)
     {
         this.centerPos = centerPos;
         this.nextPositions = nextPositions;
+        this.updatedPositions = new HashSet<>();
         this.radiusSquared = radiusSquared;
     }
 
@@ -30,6 +34,7 @@ public class Collapse
     {
         centerPos = BlockPos.of(nbt.getLong("centerPos"));
         nextPositions = Arrays.stream(nbt.getLongArray("nextPositions")).mapToObj(BlockPos::of).collect(Collectors.toList());
+        updatedPositions = Arrays.stream(nbt.getLongArray("updatedPositions")).mapToObj(BlockPos::of).collect(Collectors.toSet());
         radiusSquared = nbt.getDouble("radiusSquared");
     }
 
@@ -38,6 +43,7 @@ public class Collapse
         CompoundTag nbt = new CompoundTag();
         nbt.putLong("centerPos", centerPos.asLong());
         nbt.putLongArray("nextPositions", nextPositions.stream().mapToLong(BlockPos::asLong).toArray());
+        nbt.putLongArray("updatedPositions", updatedPositions.stream().mapToLong(BlockPos::asLong).toArray());
         nbt.putDouble("radiusSquared", radiusSquared);
         return nbt;
     }
@@ -0,0 +1,223 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.tracker;
+
+import java.util.Comparator;
+import java.util.function.LongConsumer;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectHeapPriorityQueue;
+import net.dries007.tfc.common.blockentities.TickableInventoryBlockEntity;
+
+/**
+ * A per-level record of devices which are sleeping, meaning they have been removed from the level's block entity tickers until they are woken.
+ * <ul>
+ *     <li>Devices sleep either until a calendar tick (i.e. a sealed barrel, until its recipe completes), or indefinitely, until woken by an external change (see {@link TickableInventoryBlockEntity#wake()}).</li>
+ *     <li>Positions are stored as packed longs ({@link BlockPos#asLong()}), indexed by chunk, so nearby devices can be woken when an item is dropped near them.</li>
+ *     <li>Sleeping devices are not saved - they are released when removed or unloaded, and start awake when loaded.</li>
+ * </ul>
+ * This is only accessed from the level's thread.
+ */
+public final class DeviceScheduler
+{
+    /**
+     * Sleeping devices within this distance of a newly added item entity are woken, so they can gather it.
+     */
+    public static final int ITEM_WAKE_RADIUS = 8;
+
+    private static final Comparator<Wake> BY_TICK = Comparator.comparingLong(Wake::tick);
+
+    /**
+     * @param wakeTick A calendar tick, or {@link Long#MAX_VALUE} to sleep until woken.
+     * @return {@code true} if the device may sleep, or {@code false} if the level does not support sleeping devices, in which case it must keep ticking.
+     */
+    public static boolean sleep(Level level, BlockPos pos, long wakeTick)
+    {
+        if (level instanceof ServerLevel server)
+        {
+            final WorldTracker tracker = WorldTracker.get(server);
+            if (tracker != null)
+            {
+                tracker.getDeviceScheduler().sleep(pos.asLong(), wakeTick);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void release(Level level, BlockPos pos)
+    {
+        if (level instanceof ServerLevel server)
+        {
+            final WorldTracker tracker = WorldTracker.get(server);
+            if (tracker != null)
+            {
+                tracker.getDeviceScheduler().release(pos.asLong());
+            }
+        }
+    }
+
+    /**
+     * Called when an item entity is added to the level, to wake devices which may gather it.
+     */
+    public static void onItemAdded(ServerLevel level, BlockPos pos)
+    {
+        final WorldTracker tracker = WorldTracker.get(level);
+        if (tracker != null && tracker.getDeviceScheduler().size() > 0)
+        {
+            tracker.getDeviceScheduler().collectNear(pos, ITEM_WAKE_RADIUS, packedPos -> {
+                if (level.getBlockEntity(BlockPos.of(packedPos)) instanceof TickableInventoryBlockEntity<?> device && device.canGatherItems())
+                {
+                    device.wake();
+                }
+            });
+        }
+    }
+
+    private final Long2LongOpenHashMap wakeTicks; // Sleeping positions, to the tick they should be woken at
+    private final Long2ObjectOpenHashMap<LongOpenHashSet> positionsByChunk;
+    private final ObjectHeapPriorityQueue<Wake> queue; // May contain stale entries, for positions which have since been released, which are discarded when they are due
+
+    public DeviceScheduler()
+    {
+        this.wakeTicks = new Long2LongOpenHashMap();
+        this.positionsByChunk = new Long2ObjectOpenHashMap<>();
+        this.queue = new ObjectHeapPriorityQueue<>(BY_TICK);
+    }
+
+    /**
+     * @param pos      A position, packed with {@link BlockPos#asLong()}
+     * @param wakeTick A calendar tick, or {@link Long#MAX_VALUE} to sleep until released.
+     */
+    public void sleep(long pos, long wakeTick)
+    {
+        wakeTicks.put(pos, wakeTick);
+        positionsByChunk.computeIfAbsent(chunkKey(pos), key -> new LongOpenHashSet()).add(pos);
+        if (wakeTick != Long.MAX_VALUE)
+        {
+            queue.enqueue(new Wake(wakeTick, pos));
+            if (queue.size() > 2 * wakeTicks.size() + 64)
+            {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * @param pos A position, packed with {@link BlockPos#asLong()}
+     */
+    public void release(long pos)
+    {
+        if (wakeTicks.containsKey(pos))
+        {
+            wakeTicks.remove(pos);
+            final long chunk = chunkKey(pos);
+            final LongOpenHashSet positions = positionsByChunk.get(chunk);
+            if (positions != null && positions.remove(pos) && positions.isEmpty())
+            {
+                positionsByChunk.remove(chunk);
+            }
+        }
+    }
+
+    public boolean isSleeping(long pos)
+    {
+        return wakeTicks.containsKey(pos);
+    }
+
+    /**
+     * Releases every position which is due at {@code tick}, in order of their wake tick.
+     *
+     * @return The number of positions woken.
+     */
+    public int tick(long tick, LongConsumer action)
+    {
+        int woken = 0;
+        while (!queue.isEmpty() && queue.first().tick() <= tick)
+        {
+            final Wake wake = queue.dequeue();
+            if (wakeTicks.containsKey(wake.pos()) && wakeTicks.get(wake.pos()) == wake.tick())
+            {
+                release(wake.pos());
+                action.accept(wake.pos());
+                woken++;
+            }
+        }
+        return woken;
+    }
+
+    /**
+     * Visits every sleeping position within {@code radius} blocks of {@code center}. The action may release positions.
+     */
+    public void collectNear(BlockPos center, int radius, LongConsumer action)
+    {
+        final int radiusSquared = radius * radius;
+        final LongArrayList found = new LongArrayList();
+        for (int chunkX = (center.getX() - radius) >> 4; chunkX <= (center.getX() + radius) >> 4; chunkX++)
+        {
+            for (int chunkZ = (center.getZ() - radius) >> 4; chunkZ <= (center.getZ() + radius) >> 4; chunkZ++)
+            {
+                final LongOpenHashSet positions = positionsByChunk.get(ChunkPos.asLong(chunkX, chunkZ));
+                if (positions != null)
+                {
+                    for (long pos : positions)
+                    {
+                        final int dx = BlockPos.getX(pos) - center.getX(), dy = BlockPos.getY(pos) - center.getY(), dz = BlockPos.getZ(pos) - center.getZ();
+                        if (dx * dx + dy * dy + dz * dz <= radiusSquared)
+                        {
+                            found.add(pos);
+                        }
+                    }
+                }
+            }
+        }
+        found.forEach(action);
+    }
+
+    /**
+     * @return The number of sleeping positions.
+     */
+    public int size()
+    {
+        return wakeTicks.size();
+    }
+
+    /**
+     * @return The number of sleeping positions in a chunk.
+     */
+    public int size(ChunkPos chunkPos)
+    {
+        final LongOpenHashSet positions = positionsByChunk.get(chunkPos.toLong());
+        return positions == null ? 0 : positions.size();
+    }
+
+    private void compact()
+    {
+        queue.clear();
+        wakeTicks.long2LongEntrySet().fastForEach(entry -> {
+            if (entry.getLongValue() != Long.MAX_VALUE)
+            {
+                queue.enqueue(new Wake(entry.getLongValue(), entry.getLongKey()));
+            }
+        });
+    }
+
+    private static long chunkKey(long pos)
+    {
+        return ChunkPos.asLong(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4);
+    }
+
+    private record Wake(long tick, long pos) {}
+}
@@ -0,0 +1,414 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.tracker;
+
+import java.util.Arrays;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.material.FluidState;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.dries007.tfc.common.TFCTags;
+import net.dries007.tfc.common.blocks.soil.FarmlandBlock;
+import net.dries007.tfc.util.Helpers;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A per-level cache of the distance to the nearest hydrating fluid, as used by {@link FarmlandBlock#getHydration(net.minecraft.world.level.LevelAccessor, BlockPos)}.
+ * <p>
+ * For each section, this keeps a bitset of which positions contain a hydrating fluid. These are sampled from the chunk when first needed, and then kept up to date as blocks change (see {@link #onBlockChanged(Level, BlockPos, BlockState, BlockState)}). From those, a per-section field of water costs is computed lazily, and discarded whenever a source it was computed from changes. A cost field depends on the adjacent chunks, so it can only be computed when they are all loaded, otherwise callers must fall back to scanning the level.
+ * <p>
+ * This is only accessed from the level's thread.
+ */
+public final class HydrationCache
+{
+    public static final int UNKNOWN = -1;
+
+    public static final int RADIUS = 4;
+    public static final int MAX_COST = 5;
+
+    private static final long[] EMPTY = new long[0];
+    private static final byte[] DRY = filled(MAX_COST);
+
+    private static volatile int generation = 0;
+
+    /**
+     * Called when the hydrating fluid tag changes, invalidates all caches.
+     */
+    public static void invalidateAll()
+    {
+        generation++;
+    }
+
+    /**
+     * Called when a block in a loaded chunk is changed.
+     */
+    public static void onBlockChanged(Level level, BlockPos pos, BlockState oldState, BlockState newState)
+    {
+        final boolean hydrating = isHydrating(newState.getFluidState());
+        if (isHydrating(oldState.getFluidState()) != hydrating)
+        {
+            level.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(cap -> cap.getHydrationCache().onHydratingChanged(pos.getX(), pos.getY(), pos.getZ(), hydrating));
+        }
+    }
+
+    public static boolean isHydrating(FluidState state)
+    {
+        return Helpers.isFluid(state.getType(), TFCTags.Fluids.HYDRATING);
+    }
+
+    /**
+     * Samples the hydrating fluids in a section of a loaded chunk.
+     */
+    @Nullable
+    static long[] sampleLevel(Level level, int chunkX, int sectionY, int chunkZ)
+    {
+        final LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+        if (chunk == null)
+        {
+            return null;
+        }
+
+        final LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionY));
+        if (section.hasOnlyAir() || !section.getStates().maybeHas(state -> isHydrating(state.getFluidState())))
+        {
+            return EMPTY;
+        }
+
+        final long[] bits = new long[16 * 16 * 16 / 64];
+        for (int i = 0; i < 16 * 16 * 16; i++)
+        {
+            if (isHydrating(section.getFluidState(i & 15, i >> 8, (i >> 4) & 15)))
+            {
+                bits[i >> 6] |= 1L << i;
+            }
+        }
+        return bits;
+    }
+
+    private static byte[] filled(int value)
+    {
+        final byte[] array = new byte[16 * 16 * 16];
+        Arrays.fill(array, (byte) value);
+        return array;
+    }
+
+    private static boolean get(long[] bits, int x, int y, int z)
+    {
+        final int index = x | (z << 4) | (y << 8);
+        return bits.length != 0 && (bits[index >> 6] & (1L << index)) != 0;
+    }
+
+    private final LevelHeightAccessor height;
+    private final SectionSampler sampler;
+    private final Long2ObjectMap<ChunkEntry> chunks;
+    private int lastGeneration;
+
+    public HydrationCache(LevelHeightAccessor height, SectionSampler sampler)
+    {
+        this.height = height;
+        this.sampler = sampler;
+        this.chunks = new Long2ObjectOpenHashMap<>();
+        this.lastGeneration = generation;
+    }
+
+    /**
+     * @return The minimum cost of any hydrating fluid near {@code pos}, in [0, 5], or {@link #UNKNOWN} if it cannot be computed, because a nearby chunk is not loaded. This is exactly the value computed by scanning the level around the position.
+     */
+    public int getMinCostWater(int x, int y, int z)
+    {
+        if (lastGeneration != generation)
+        {
+            lastGeneration = generation;
+            clear();
+        }
+
+        final int sectionY = SectionPos.blockToSectionCoord(y);
+        final int sectionIndex = sectionY - height.getMinSection();
+        if (sectionIndex < 0 || sectionIndex >= height.getSectionsCount())
+        {
+            return UNKNOWN;
+        }
+
+        final int chunkX = SectionPos.blockToSectionCoord(x), chunkZ = SectionPos.blockToSectionCoord(z);
+        final ChunkEntry entry = chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+        byte[] costs = entry != null ? entry.costs[sectionIndex] : null;
+        if (costs == null)
+        {
+            costs = computeCosts(chunkX, sectionY, chunkZ);
+            if (costs == null)
+            {
+                return UNKNOWN; // Don't create an entry, as the chunk, or one adjacent, is not loaded
+            }
+            getOrCreateEntry(chunkX, chunkZ).costs[sectionIndex] = costs;
+        }
+        return costs[(x & 15) | ((z & 15) << 4) | ((y & 15) << 8)];
+    }
+
+    /**
+     * Called when a position has changed to, or from, containing a hydrating fluid.
+     */
+    public void onHydratingChanged(int x, int y, int z, boolean hydrating)
+    {
+        final int chunkX = SectionPos.blockToSectionCoord(x), chunkZ = SectionPos.blockToSectionCoord(z);
+        final int sectionIndex = SectionPos.blockToSectionCoord(y) - height.getMinSection();
+        final ChunkEntry entry = chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+        if (entry == null || sectionIndex < 0 || sectionIndex >= entry.sources.length)
+        {
+            return;
+        }
+
+        long[] bits = entry.sources[sectionIndex];
+        if (bits != null)
+        {
+            if (bits.length == 0)
+            {
+                if (!hydrating)
+                {
+                    return; // Already known to be empty
+                }
+                bits = entry.sources[sectionIndex] = new long[16 * 16 * 16 / 64];
+            }
+
+            final int index = (x & 15) | ((z & 15) << 4) | ((y & 15) << 8);
+            if (hydrating)
+            {
+                bits[index >> 6] |= 1L << index;
+            }
+            else
+            {
+                bits[index >> 6] &= ~(1L << index);
+            }
+        }
+
+        // Discard any cost fields which query this position: in this layer and the layer above, within the radius
+        final int localX = x & 15, localZ = z & 15;
+        for (int dx = localX < RADIUS ? -1 : 0; dx <= (localX >= 16 - RADIUS ? 1 : 0); dx++)
+        {
+            for (int dz = localZ < RADIUS ? -1 : 0; dz <= (localZ >= 16 - RADIUS ? 1 : 0); dz++)
+            {
+                final ChunkEntry adjacent = chunks.get(ChunkPos.asLong(chunkX + dx, chunkZ + dz));
+                if (adjacent != null)
+                {
+                    adjacent.costs[sectionIndex] = null;
+                    if ((y & 15) == 15 && sectionIndex + 1 < adjacent.costs.length)
+                    {
+                        adjacent.costs[sectionIndex + 1] = null;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Called when a chunk is loaded (or replaced, on client), or unloaded. Discards the chunk, and any cost fields which depend on it.
+     */
+    public void onChunkChanged(int chunkX, int chunkZ)
+    {
+        chunks.remove(ChunkPos.asLong(chunkX, chunkZ));
+        for (int dx = -1; dx <= 1; dx++)
+        {
+            for (int dz = -1; dz <= 1; dz++)
+            {
+                final ChunkEntry adjacent = chunks.get(ChunkPos.asLong(chunkX + dx, chunkZ + dz));
+                if (adjacent != null)
+                {
+                    Arrays.fill(adjacent.costs, null);
+                }
+            }
+        }
+    }
+
+    public void clear()
+    {
+        chunks.clear();
+    }
+
+    private ChunkEntry getOrCreateEntry(int chunkX, int chunkZ)
+    {
+        final long key = ChunkPos.asLong(chunkX, chunkZ);
+        ChunkEntry entry = chunks.get(key);
+        if (entry == null)
+        {
+            entry = new ChunkEntry(height.getSectionsCount());
+            chunks.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * @return The hydrating fluids in a section, or {@code null} if the chunk is not loaded.
+     */
+    @Nullable
+    private long[] getSources(int chunkX, int sectionY, int chunkZ)
+    {
+        final int sectionIndex = sectionY - height.getMinSection();
+        if (sectionIndex < 0 || sectionIndex >= height.getSectionsCount())
+        {
+            return EMPTY; // Outside the level, there are no fluids
+        }
+
+        final ChunkEntry entry = chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+        if (entry != null && entry.sources[sectionIndex] != null)
+        {
+            return entry.sources[sectionIndex];
+        }
+
+        final long[] bits = sampler.sample(chunkX, sectionY, chunkZ);
+        if (bits != null)
+        {
+            getOrCreateEntry(chunkX, chunkZ).sources[sectionIndex] = bits;
+        }
+        return bits;
+    }
+
+    /**
+     * Computes the cost field for a single section, replicating {@link FarmlandBlock}'s scan. For each position, the cost of a fluid is the horizontal (chebyshev) distance to it, within {@link #RADIUS}, in the same layer, or that distance plus two, in the layer below.
+     */
+    @Nullable
+    private byte[] computeCosts(int chunkX, int sectionY, int chunkZ)
+    {
+        // Sources, indexed by (dx + 1) + 3 * (dz + 1)
+        final long[][] here = new long[9][], below = new long[9][];
+        boolean empty = true;
+        for (int i = 0; i < 9; i++)
+        {
+            here[i] = getSources(chunkX + (i % 3) - 1, sectionY, chunkZ + (i / 3) - 1);
+            below[i] = getSources(chunkX + (i % 3) - 1, sectionY - 1, chunkZ + (i / 3) - 1);
+            if (here[i] == null || below[i] == null)
+            {
+                return null;
+            }
+            empty &= here[i].length == 0 && below[i].length == 0;
+        }
+        if (empty)
+        {
+            return DRY;
+        }
+
+        final byte[] costs = new byte[16 * 16 * 16];
+        final Layer layer = new Layer(), layerBelow = new Layer();
+
+        layerBelow.compute(below, 15);
+        for (int y = 0; y < 16; y++)
+        {
+            layer.compute(here, y);
+            for (int z = 0; z < 16; z++)
+            {
+                for (int x = 0; x < 16; x++)
+                {
+                    final int distance = layer.distance[x | (z << 4)];
+                    int cost = Math.min(MAX_COST, Math.min(distance, layerBelow.distance[x | (z << 4)] + 2));
+                    if (distance == 0 && (layer.get(x - 1, z - 1) || layer.get(x - 1, z) || layer.get(x - 1, z + 1) || layer.get(x, z - 1)))
+                    {
+                        // The scan exits early once it finds a cost of one, which happens if any of these are found before this position.
+                        cost = 1;
+                    }
+                    costs[x | (z << 4) | (y << 8)] = (byte) cost;
+                }
+            }
+
+            // Reuse this layer as the layer below the next
+            final int[] distance = layerBelow.distance;
+            layerBelow.distance = layer.distance;
+            layer.distance = distance;
+        }
+        return costs;
+    }
+
+    @FunctionalInterface
+    public interface SectionSampler
+    {
+        /**
+         * Samples the positions in a section which contain a hydrating fluid, indexed by {@code x | (z << 4) | (y << 8)}. An empty array indicates no positions do.
+         *
+         * @return The bitset, or {@code null} if the chunk is not loaded.
+         */
+        @Nullable
+        long[] sample(int chunkX, int sectionY, int chunkZ);
+    }
+
+    private static final class ChunkEntry
+    {
+        final long[][] sources;
+        final byte[][] costs;
+
+        ChunkEntry(int sections)
+        {
+            this.sources = new long[sections][];
+            this.costs = new byte[sections][];
+        }
+    }
+
+    /**
+     * A single layer of the 3x3 chunks around a section, including a {@link #RADIUS} margin, and the distance of each position in the center chunk to the nearest fluid in that layer.
+     */
+    private static final class Layer
+    {
+        static final int SIZE = 16 + 2 * RADIUS;
+
+        final boolean[] fluids = new boolean[SIZE * SIZE];
+        final int[] rows = new int[16 * SIZE];
+        int[] distance = new int[16 * 16];
+
+        boolean get(int x, int z)
+        {
+            return fluids[(x + RADIUS) + SIZE * (z + RADIUS)];
+        }
+
+        void compute(long[][] sources, int y)
+        {
+            for (int z = 0; z < SIZE; z++)
+            {
+                for (int x = 0; x < SIZE; x++)
+                {
+                    final int worldX = x - RADIUS + 16, worldZ = z - RADIUS + 16; // Offset by one chunk, to be non-negative
+                    fluids[x + SIZE * z] = HydrationCache.get(sources[(worldX >> 4) + 3 * (worldZ >> 4)], worldX & 15, y, worldZ & 15);
+                }
+            }
+
+            // Distance along x, within each row
+            for (int z = 0; z < SIZE; z++)
+            {
+                for (int x = 0; x < 16; x++)
+                {
+                    int min = MAX_COST;
+                    for (int dx = -RADIUS; dx <= RADIUS; dx++)
+                    {
+                        if (fluids[(x + RADIUS + dx) + SIZE * z])
+                        {
+                            min = Math.min(min, Math.abs(dx));
+                        }
+                    }
+                    rows[x + 16 * z] = min;
+                }
+            }
+
+            // Then the chebyshev distance, along z
+            for (int z = 0; z < 16; z++)
+            {
+                for (int x = 0; x < 16; x++)
+                {
+                    int min = MAX_COST;
+                    for (int dz = -RADIUS; dz <= RADIUS; dz++)
+                    {
+                        min = Math.min(min, Math.max(Math.abs(dz), rows[x + 16 * (z + RADIUS + dz)]));
+                    }
+                    distance[x | (z << 4)] = min;
+                }
+            }
+        }
+    }
+}
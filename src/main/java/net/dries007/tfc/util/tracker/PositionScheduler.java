@@ -0,0 +1,228 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.tracker;
+
+import java.util.function.LongConsumer;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+/**
+ * A queue of block positions, each of which is processed once, a number of ticks after it was scheduled.
+ * <ul>
+ *     <li>Positions are stored as packed longs ({@link BlockPos#asLong()}), in a FIFO queue alongside the tick they are due.</li>
+ *     <li>A position that is already waiting to be processed will not be scheduled again.</li>
+ *     <li>Each tick, at most a fixed amount of due positions are processed, and processing stops early once a deadline has passed. Anything left over stays in the queue, in order, for the next tick.</li>
+ *     <li>Due positions are grouped by chunk before being processed, so block access within a tick is mostly sequential.</li>
+ * </ul>
+ */
+public class PositionScheduler
+{
+    /**
+     * How often (in positions processed) the deadline is checked, as {@link System#nanoTime()} is not free.
+     */
+    static final int DEADLINE_CHECK_INTERVAL = 16;
+
+    private static int compareByChunk(long left, long right)
+    {
+        final int byChunk = Long.compare(chunkKey(left), chunkKey(right));
+        return byChunk != 0 ? byChunk : Long.compare(left, right);
+    }
+
+    private static long chunkKey(long pos)
+    {
+        return ChunkPos.asLong(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4);
+    }
+
+    private final int delay;
+    private final LongArrayFIFOQueue positions;
+    private final LongArrayFIFOQueue dueTicks;
+    private final LongOpenHashSet pending;
+
+    private long[] batch;
+    private long tick;
+
+    private int lastProcessed;
+    private long lastNanos;
+
+    /**
+     * @param delay The number of calls to {@link #tick(int, long, LongConsumer)} after a position is scheduled, at which it will be processed. Must be at least one.
+     */
+    public PositionScheduler(int delay)
+    {
+        this.delay = delay;
+        this.positions = new LongArrayFIFOQueue();
+        this.dueTicks = new LongArrayFIFOQueue();
+        this.pending = new LongOpenHashSet();
+        this.batch = new long[64];
+    }
+
+    /**
+     * @return {@code true} if the position was scheduled, or {@code false} if it was already waiting to be processed.
+     */
+    public boolean schedule(BlockPos pos)
+    {
+        return schedule(pos.asLong());
+    }
+
+    /**
+     * Schedules a position with this scheduler's delay.
+     *
+     * @param pos A position, packed with {@link BlockPos#asLong()}
+     * @return {@code true} if the position was scheduled, or {@code false} if it was already waiting to be processed.
+     */
+    public boolean schedule(long pos)
+    {
+        return schedule(pos, delay);
+    }
+
+    /**
+     * @param delay The number of ticks from now, at which the position will be processed. Positions are processed in the order they are scheduled, so this should not be less than the delay of any position already waiting.
+     */
+    public boolean schedule(long pos, int delay)
+    {
+        if (pending.add(pos))
+        {
+            positions.enqueue(pos);
+            dueTicks.enqueue(tick + Math.max(1, delay));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Processes positions which are due this tick.
+     *
+     * @param workBudget The maximum number of positions to process.
+     * @param deadline   A {@link System#nanoTime()} after which no more positions will be processed.
+     * @param action     Called for each position. Positions may be (re)scheduled from within the action.
+     * @return The number of positions processed.
+     */
+    public int tick(int workBudget, long deadline, LongConsumer action)
+    {
+        final long startNanos = System.nanoTime();
+
+        tick++;
+
+        // Collect all positions that are due, up to the budget
+        int size = 0;
+        while (size < workBudget && !positions.isEmpty() && dueTicks.firstLong() <= tick)
+        {
+            if (size == batch.length)
+            {
+                batch = LongArrays.grow(batch, size + 1);
+            }
+            batch[size++] = positions.dequeueLong();
+            dueTicks.dequeueLong();
+        }
+
+        LongArrays.quickSort(batch, 0, size, PositionScheduler::compareByChunk);
+
+        int processed = 0;
+        while (processed < size)
+        {
+            if (processed % DEADLINE_CHECK_INTERVAL == 0 && processed > 0 && System.nanoTime() > deadline)
+            {
+                break;
+            }
+
+            final long pos = batch[processed++];
+            pending.remove(pos); // Remove first, so the position can be re-scheduled by the action
+            action.accept(pos);
+        }
+
+        // Return anything that didn't get processed to the front of the queue, in their sorted order
+        for (int i = size - 1; i >= processed; i--)
+        {
+            positions.enqueueFirst(batch[i]);
+            dueTicks.enqueueFirst(tick);
+        }
+
+        lastProcessed = processed;
+        lastNanos = System.nanoTime() - startNanos;
+        return processed;
+    }
+
+    /**
+     * @return The number of positions waiting to be processed.
+     */
+    public int size()
+    {
+        return pending.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return pending.isEmpty();
+    }
+
+    /**
+     * @return The number of positions processed during the last tick.
+     */
+    public int getLastProcessed()
+    {
+        return lastProcessed;
+    }
+
+    /**
+     * @return The time spent processing during the last tick, in nanoseconds.
+     */
+    public long getLastNanos()
+    {
+        return lastNanos;
+    }
+
+    public void clear()
+    {
+        positions.clear();
+        dueTicks.clear();
+        pending.clear();
+    }
+
+    /**
+     * @return All scheduled positions, in order, as alternating (position, remaining ticks) pairs.
+     */
+    public long[] serialize()
+    {
+        final long[] data = new long[2 * positions.size()];
+        for (int i = 0; i < data.length; i += 2)
+        {
+            // Cycle through the queue once, leaving it unchanged
+            final long pos = positions.dequeueLong(), due = dueTicks.dequeueLong();
+            data[i] = pos;
+            data[i + 1] = Math.max(1, due - tick);
+            positions.enqueue(pos);
+            dueTicks.enqueue(due);
+        }
+        return data;
+    }
+
+    /**
+     * Restores positions from (position, remaining ticks) pairs, as returned by {@link #serialize()}. The pairs need not be in order, as they are restored ordered by when they are due.
+     */
+    public void deserialize(long[] data)
+    {
+        clear();
+
+        // The queue is only ordered if positions are scheduled in the order they are due, otherwise a due position could be stuck behind one that is not
+        final int[] order = new int[data.length / 2];
+        for (int i = 0; i < order.length; i++)
+        {
+            order[i] = i;
+        }
+        IntArrays.mergeSort(order, (left, right) -> Long.compare(data[2 * left + 1], data[2 * right + 1]));
+        for (int i : order)
+        {
+            schedule(data[2 * i], (int) data[2 * i + 1]);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.tracker;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.dries007.tfc.util.CompiledMultiBlock;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A per-level index from positions to the device structures which depend on them, so devices can cache the result of checking their multiblock structure, rather than re-checking it on a timer.
+ * <p>
+ * A device watches the footprint of its structure (see {@link CompiledMultiBlock#getFootprint(BlockPos)}), and receives a {@link Handle}. When any block in the footprint changes (see {@link #onBlockChanged(Level, BlockPos, BlockState, BlockState)}), the handle is marked as changed, and the device re-checks its structure the next time it is needed. Handles must be released when the device is removed, which includes when its chunk is unloaded.
+ * <p>
+ * Block tags are not watched either, but a tag reload marks every handle as changed (see {@link #invalidateAll()}). Block entity data is not watched, so conditions on block entities (i.e. sheet piles) are assumed to only change along with the block state. This is only accessed from the level's thread.
+ */
+public final class StructureWatch
+{
+    private static final AtomicInteger HANDLES = new AtomicInteger(); // Across all levels, so block changes can skip the capability lookup when nothing is watched
+
+    private static volatile int generation = 0;
+
+    /**
+     * Called when block tags are reloaded, marks all handles as changed, as conditions on tags may now have a different result.
+     */
+    public static void invalidateAll()
+    {
+        generation++;
+    }
+
+    /**
+     * Called when a block in a loaded chunk is changed.
+     */
+    public static void onBlockChanged(Level level, BlockPos pos, BlockState oldState, BlockState newState)
+    {
+        if (HANDLES.get() > 0)
+        {
+            level.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(cap -> cap.getStructureWatch().onBlockChanged(pos.asLong()));
+        }
+    }
+
+    /**
+     * Watches a footprint in the level, replacing a previous handle. If the footprint is the same as the previous handle's, it is reused.
+     *
+     * @return A handle, or {@code null} if the level does not support watching structures, in which case the structure must be re-checked every time.
+     */
+    @Nullable
+    public static Handle watch(Level level, @Nullable Handle previous, LongCollection footprint)
+    {
+        return level.getCapability(WorldTrackerCapability.CAPABILITY)
+            .map(cap -> cap.getStructureWatch().watch(previous, footprint))
+            .orElse(null);
+    }
+
+    public static void release(Level level, @Nullable Handle handle)
+    {
+        if (handle != null)
+        {
+            level.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(cap -> cap.getStructureWatch().release(handle));
+        }
+    }
+
+    private final Long2ObjectMap<ObjectArrayList<Handle>> handlesByPos;
+    private int handles;
+
+    public StructureWatch()
+    {
+        this.handlesByPos = new Long2ObjectOpenHashMap<>();
+        this.handles = 0;
+    }
+
+    public Handle watch(@Nullable Handle previous, LongCollection footprint)
+    {
+        final long[] positions = footprint.toLongArray();
+        Arrays.sort(positions);
+        if (previous != null && !previous.released && Arrays.equals(previous.footprint, positions))
+        {
+            previous.changed = false;
+            previous.generation = generation;
+            return previous;
+        }
+        if (previous != null)
+        {
+            release(previous);
+        }
+
+        final Handle handle = new Handle(positions);
+        for (long pos : positions)
+        {
+            handlesByPos.computeIfAbsent(pos, key -> new ObjectArrayList<>(1)).add(handle);
+        }
+        handles++;
+        HANDLES.incrementAndGet();
+        return handle;
+    }
+
+    public void release(Handle handle)
+    {
+        if (!handle.released)
+        {
+            handle.released = true;
+            handle.changed = true;
+            for (long pos : handle.footprint)
+            {
+                final ObjectArrayList<Handle> list = handlesByPos.get(pos);
+                if (list != null && list.remove(handle) && list.isEmpty())
+                {
+                    handlesByPos.remove(pos);
+                }
+            }
+            handles--;
+            HANDLES.decrementAndGet();
+        }
+    }
+
+    /**
+     * @param pos A position, packed with {@link BlockPos#asLong()}
+     */
+    public void onBlockChanged(long pos)
+    {
+        final ObjectArrayList<Handle> list = handlesByPos.get(pos);
+        if (list != null)
+        {
+            for (Handle handle : list)
+            {
+                handle.changed = true;
+            }
+        }
+    }
+
+    public int getHandles()
+    {
+        return handles;
+    }
+
+    public int getWatchedPositions()
+    {
+        return handlesByPos.size();
+    }
+
+    public static final class Handle
+    {
+        private final long[] footprint;
+        private boolean changed;
+        private boolean released;
+        private int generation;
+
+        private Handle(long[] footprint)
+        {
+            this.footprint = footprint;
+            this.changed = false;
+            this.released = false;
+            this.generation = StructureWatch.generation;
+        }
+
+        /**
+         * @return {@code true} if any block in the footprint has changed, or tags have been reloaded, since the handle was last watched, in which case the structure must be re-checked, and watched again.
+         */
+        public boolean isChanged()
+        {
+            return changed || generation != StructureWatch.generation;
+        }
+    }
+}
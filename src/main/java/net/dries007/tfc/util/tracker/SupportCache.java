@@ -0,0 +1,388 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.tracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.dries007.tfc.util.Support;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A per-level index of which positions are supported, used to find unsupported positions when checking for collapses.
+ * <p>
+ * For each section, this keeps a list of the supports within it. These are sampled from the chunk when first needed, and then kept up to date as blocks change (see {@link #onBlockChanged(Level, BlockPos, BlockState, BlockState)}). From those, a per-section bitset of supported positions is computed lazily. Placing a support sets bits in any computed bitsets within its area, breaking one discards them, to be recomputed from the (already sampled) supports nearby. A bitset depends on all supports within the maximum support range, so it can only be computed when those chunks are all loaded, otherwise callers must fall back to scanning the level.
+ * <p>
+ * A position is supported if it is within {@link Support#getSupportedArea(BlockPos)} of any support. This is only accessed from the level's thread.
+ */
+public final class SupportCache
+{
+    private static final int WORDS = 16 * 16 * 16 / 64;
+
+    private static volatile int generation = 0;
+
+    /**
+     * Called when supports, or block tags, are reloaded, invalidates all caches.
+     */
+    public static void invalidateAll()
+    {
+        generation++;
+    }
+
+    /**
+     * Called when a block in a loaded chunk is changed.
+     */
+    public static void onBlockChanged(Level level, BlockPos pos, BlockState oldState, BlockState newState)
+    {
+        final Support oldSupport = Support.get(oldState), newSupport = Support.get(newState);
+        if (oldSupport != newSupport)
+        {
+            level.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(cap -> cap.getSupportCache().onSupportChanged(pos.getX(), pos.getY(), pos.getZ(), oldSupport, newSupport));
+        }
+    }
+
+    /**
+     * Samples the supports in a section of a loaded chunk.
+     */
+    @Nullable
+    static List<Source> sampleLevel(Level level, int chunkX, int sectionY, int chunkZ)
+    {
+        final LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+        if (chunk == null)
+        {
+            return null;
+        }
+
+        final LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionY));
+        if (section.hasOnlyAir() || !section.getStates().maybeHas(state -> Support.get(state) != null))
+        {
+            return List.of();
+        }
+
+        final List<Source> sources = new ArrayList<>();
+        final int minX = SectionPos.sectionToBlockCoord(chunkX), minY = SectionPos.sectionToBlockCoord(sectionY), minZ = SectionPos.sectionToBlockCoord(chunkZ);
+        for (int i = 0; i < 16 * 16 * 16; i++)
+        {
+            final Support support = Support.get(section.getBlockState(i & 15, i >> 8, (i >> 4) & 15));
+            if (support != null)
+            {
+                sources.add(new Source(minX + (i & 15), minY + (i >> 8), minZ + ((i >> 4) & 15), support));
+            }
+        }
+        return sources;
+    }
+
+    private final LevelHeightAccessor height;
+    private final Supplier<Support.SupportRange> range;
+    private final SectionSampler sampler;
+    private final Long2ObjectMap<ChunkEntry> chunks;
+    private int lastGeneration;
+
+    public SupportCache(LevelHeightAccessor height, Supplier<Support.SupportRange> range, SectionSampler sampler)
+    {
+        this.height = height;
+        this.range = range;
+        this.sampler = sampler;
+        this.chunks = new Long2ObjectOpenHashMap<>();
+        this.lastGeneration = generation;
+    }
+
+    /**
+     * Finds all unsupported positions in a box, ordered by x, then y, then z (the same order as {@link BlockPos#betweenClosed(BlockPos, BlockPos)}).
+     *
+     * @return The unsupported positions, or {@code null} if they cannot be computed, because the box is outside the level, or a nearby chunk is not loaded.
+     */
+    @Nullable
+    public List<BlockPos> findUnsupportedPositions(BlockPos from, BlockPos to)
+    {
+        if (lastGeneration != generation)
+        {
+            lastGeneration = generation;
+            clear();
+        }
+
+        final int minX = Math.min(from.getX(), to.getX()), maxX = Math.max(from.getX(), to.getX());
+        final int minY = Math.min(from.getY(), to.getY()), maxY = Math.max(from.getY(), to.getY());
+        final int minZ = Math.min(from.getZ(), to.getZ()), maxZ = Math.max(from.getZ(), to.getZ());
+        if (height.isOutsideBuildHeight(minY) || height.isOutsideBuildHeight(maxY))
+        {
+            return null;
+        }
+
+        // Compute all sections first, so we don't create any positions if we need to fall back
+        final int minChunkX = SectionPos.blockToSectionCoord(minX), minSectionY = SectionPos.blockToSectionCoord(minY), minChunkZ = SectionPos.blockToSectionCoord(minZ);
+        final int chunksX = SectionPos.blockToSectionCoord(maxX) - minChunkX + 1, sectionsY = SectionPos.blockToSectionCoord(maxY) - minSectionY + 1, chunksZ = SectionPos.blockToSectionCoord(maxZ) - minChunkZ + 1;
+        final long[][] sections = new long[chunksX * sectionsY * chunksZ][];
+        for (int i = 0; i < sections.length; i++)
+        {
+            sections[i] = getSupported(minChunkX + (i % chunksX), minSectionY + (i / chunksX) % sectionsY, minChunkZ + (i / (chunksX * sectionsY)));
+            if (sections[i] == null)
+            {
+                return null;
+            }
+        }
+
+        final List<BlockPos> unsupported = new ArrayList<>();
+        for (int z = minZ; z <= maxZ; z++)
+        {
+            for (int y = minY; y <= maxY; y++)
+            {
+                for (int x = minX; x <= maxX; x++)
+                {
+                    final long[] bits = sections[(SectionPos.blockToSectionCoord(x) - minChunkX) + chunksX * ((SectionPos.blockToSectionCoord(y) - minSectionY) + sectionsY * (SectionPos.blockToSectionCoord(z) - minChunkZ))];
+                    final int index = (x & 15) | ((z & 15) << 4) | ((y & 15) << 8);
+                    if ((bits[index >> 6] & (1L << index)) == 0)
+                    {
+                        unsupported.add(new BlockPos(x, y, z));
+                    }
+                }
+            }
+        }
+        return unsupported;
+    }
+
+    /**
+     * Called when a position has changed support type, including to, or from, no support.
+     */
+    public void onSupportChanged(int x, int y, int z, @Nullable Support oldSupport, @Nullable Support newSupport)
+    {
+        final int sectionY = SectionPos.blockToSectionCoord(y);
+        final int sectionIndex = sectionY - height.getMinSection();
+        final ChunkEntry entry = chunks.get(ChunkPos.asLong(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z)));
+        if (entry == null || sectionIndex < 0 || sectionIndex >= entry.sources.length || entry.sources[sectionIndex] == null)
+        {
+            return; // Not sampled, so no supported bitsets depend on this section
+        }
+
+        List<Source> sources = entry.sources[sectionIndex];
+        if (!(sources instanceof ArrayList))
+        {
+            sources = entry.sources[sectionIndex] = new ArrayList<>(sources);
+        }
+        sources.removeIf(source -> source.x == x && source.y == y && source.z == z);
+
+        if (oldSupport != null)
+        {
+            // Discard every bitset this support contributed to
+            forEachSectionInArea(x, y, z, oldSupport, (adjacent, adjacentIndex, minX, minY, minZ) -> adjacent.supported[adjacentIndex] = null);
+        }
+        if (newSupport != null)
+        {
+            final Source source = new Source(x, y, z, newSupport);
+            sources.add(source);
+            forEachSectionInArea(x, y, z, newSupport, (adjacent, adjacentIndex, minX, minY, minZ) -> {
+                final long[] bits = adjacent.supported[adjacentIndex];
+                if (bits != null)
+                {
+                    source.apply(bits, minX, minY, minZ);
+                }
+            });
+        }
+    }
+
+    /**
+     * Called when a chunk is loaded or unloaded. Discards the chunk, and any bitsets which depend on it.
+     */
+    public void onChunkChanged(int chunkX, int chunkZ)
+    {
+        chunks.remove(ChunkPos.asLong(chunkX, chunkZ));
+
+        final int radius = (range.get().horizontal() + 15) >> 4;
+        for (int dx = -radius; dx <= radius; dx++)
+        {
+            for (int dz = -radius; dz <= radius; dz++)
+            {
+                final ChunkEntry adjacent = chunks.get(ChunkPos.asLong(chunkX + dx, chunkZ + dz));
+                if (adjacent != null)
+                {
+                    Arrays.fill(adjacent.supported, null);
+                }
+            }
+        }
+    }
+
+    public void clear()
+    {
+        chunks.clear();
+    }
+
+    private void forEachSectionInArea(int x, int y, int z, Support support, SectionConsumer action)
+    {
+        final int h = support.getSupportHorizontal();
+        for (int chunkX = SectionPos.blockToSectionCoord(x - h); chunkX <= SectionPos.blockToSectionCoord(x + h); chunkX++)
+        {
+            for (int chunkZ = SectionPos.blockToSectionCoord(z - h); chunkZ <= SectionPos.blockToSectionCoord(z + h); chunkZ++)
+            {
+                final ChunkEntry adjacent = chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+                if (adjacent != null)
+                {
+                    for (int sectionY = SectionPos.blockToSectionCoord(y - support.getSupportDown()); sectionY <= SectionPos.blockToSectionCoord(y + support.getSupportUp()); sectionY++)
+                    {
+                        final int sectionIndex = sectionY - height.getMinSection();
+                        if (sectionIndex >= 0 && sectionIndex < adjacent.supported.length)
+                        {
+                            action.accept(adjacent, sectionIndex, SectionPos.sectionToBlockCoord(chunkX), SectionPos.sectionToBlockCoord(sectionY), SectionPos.sectionToBlockCoord(chunkZ));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private ChunkEntry getOrCreateEntry(int chunkX, int chunkZ)
+    {
+        final long key = ChunkPos.asLong(chunkX, chunkZ);
+        ChunkEntry entry = chunks.get(key);
+        if (entry == null)
+        {
+            entry = new ChunkEntry(height.getSectionsCount());
+            chunks.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * @return The supports in a section, or {@code null} if the chunk is not loaded.
+     */
+    @Nullable
+    private List<Source> getSources(int chunkX, int sectionY, int chunkZ)
+    {
+        final int sectionIndex = sectionY - height.getMinSection();
+        if (sectionIndex < 0 || sectionIndex >= height.getSectionsCount())
+        {
+            return List.of(); // Outside the level, there are no supports
+        }
+
+        final ChunkEntry entry = chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+        if (entry != null && entry.sources[sectionIndex] != null)
+        {
+            return entry.sources[sectionIndex];
+        }
+
+        final List<Source> sources = sampler.sample(chunkX, sectionY, chunkZ);
+        if (sources != null)
+        {
+            getOrCreateEntry(chunkX, chunkZ).sources[sectionIndex] = sources;
+        }
+        return sources;
+    }
+
+    /**
+     * @return The supported bitset for a section, computing it if needed, or {@code null} if a nearby chunk is not loaded.
+     */
+    @Nullable
+    private long[] getSupported(int chunkX, int sectionY, int chunkZ)
+    {
+        final int sectionIndex = sectionY - height.getMinSection();
+        final ChunkEntry entry = chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+        if (entry != null && entry.supported[sectionIndex] != null)
+        {
+            return entry.supported[sectionIndex];
+        }
+
+        // Any support within the maximum range may contribute to this section
+        final Support.SupportRange range = this.range.get();
+        final int minX = SectionPos.sectionToBlockCoord(chunkX), minY = SectionPos.sectionToBlockCoord(sectionY), minZ = SectionPos.sectionToBlockCoord(chunkZ);
+        final long[] bits = new long[WORDS];
+        for (int x = SectionPos.blockToSectionCoord(minX - range.horizontal()); x <= SectionPos.blockToSectionCoord(minX + 15 + range.horizontal()); x++)
+        {
+            for (int z = SectionPos.blockToSectionCoord(minZ - range.horizontal()); z <= SectionPos.blockToSectionCoord(minZ + 15 + range.horizontal()); z++)
+            {
+                for (int y = SectionPos.blockToSectionCoord(minY - range.up()); y <= SectionPos.blockToSectionCoord(minY + 15 + range.down()); y++)
+                {
+                    final List<Source> sources = getSources(x, y, z);
+                    if (sources == null)
+                    {
+                        return null;
+                    }
+                    for (Source source : sources)
+                    {
+                        source.apply(bits, minX, minY, minZ);
+                    }
+                }
+            }
+        }
+
+        getOrCreateEntry(chunkX, chunkZ).supported[sectionIndex] = bits;
+        return bits;
+    }
+
+    @FunctionalInterface
+    public interface SectionSampler
+    {
+        /**
+         * Samples the supports in a section.
+         *
+         * @return The supports, or {@code null} if the chunk is not loaded.
+         */
+        @Nullable
+        List<Source> sample(int chunkX, int sectionY, int chunkZ);
+    }
+
+    @FunctionalInterface
+    private interface SectionConsumer
+    {
+        void accept(ChunkEntry entry, int sectionIndex, int minX, int minY, int minZ);
+    }
+
+    /**
+     * A single support block.
+     */
+    public record Source(int x, int y, int z, Support support)
+    {
+        /**
+         * Marks all positions in the area supported by this, and within the section starting at {@code (minX, minY, minZ)}, as supported.
+         */
+        void apply(long[] bits, int minX, int minY, int minZ)
+        {
+            final int h = support.getSupportHorizontal();
+            final int x0 = Math.max(x - h - minX, 0), x1 = Math.min(x + h - minX, 15);
+            final int y0 = Math.max(y - support.getSupportDown() - minY, 0), y1 = Math.min(y + support.getSupportUp() - minY, 15);
+            final int z0 = Math.max(z - h - minZ, 0), z1 = Math.min(z + h - minZ, 15);
+            if (x0 > x1 || y0 > y1 || z0 > z1)
+            {
+                return;
+            }
+
+            // Each word holds four rows of 16 positions along x
+            final long row = ((1L << (x1 - x0 + 1)) - 1) << x0;
+            for (int localY = y0; localY <= y1; localY++)
+            {
+                for (int localZ = z0; localZ <= z1; localZ++)
+                {
+                    bits[(localZ >> 2) | (localY << 2)] |= row << ((localZ & 3) << 4);
+                }
+            }
+        }
+    }
+
+    private static final class ChunkEntry
+    {
+        final List<Source>[] sources;
+        final long[][] supported;
+
+        @SuppressWarnings("unchecked")
+        ChunkEntry(int sections)
+        {
+            this.sources = new List[sections];
+            this.supported = new long[sections][];
+        }
+    }
+}
@@ -26,33 +26,68 @@ import net.minecraftforge.common.capabilities.ICapabilitySerializable;
 import net.minecraftforge.common.util.LazyOptional;
 import net.minecraftforge.network.PacketDistributor;
 
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.dries007.tfc.client.TFCSounds;
-import net.dries007.tfc.common.TFCTags;
+import net.dries007.tfc.common.blockentities.TickableInventoryBlockEntity;
 import net.dries007.tfc.common.entities.TFCFallingBlockEntity;
 import net.dries007.tfc.common.recipes.CollapseRecipe;
 import net.dries007.tfc.common.recipes.LandslideRecipe;
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.network.PacketHandler;
 import net.dries007.tfc.network.RainfallUpdatePacket;
+import net.dries007.tfc.util.BlockTagFlags;
 import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.Support;
 import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.climate.BiomeBasedClimateModel;
 import net.dries007.tfc.util.climate.Climate;
 import net.dries007.tfc.util.climate.ClimateModel;
-import net.dries007.tfc.util.collections.BufferedList;
 import net.dries007.tfc.util.loot.TFCLoot;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class WorldTracker implements ICapabilitySerializable<CompoundTag>
 {
+    /**
+     * Resolved trackers for each loaded server level, to avoid going through the capability lookup for high frequency events such as neighbor updates. Only accessed from the server thread.
+     */
+    private static final Map<ServerLevel, WorldTracker> SERVER_TRACKERS = new Reference2ObjectOpenHashMap<>();
+
+    /**
+     * Resolves the tracker for a server level, caching it until the level is unloaded.
+     */
+    @Nullable
+    public static WorldTracker get(ServerLevel level)
+    {
+        WorldTracker tracker = SERVER_TRACKERS.get(level);
+        if (tracker == null)
+        {
+            tracker = level.getCapability(WorldTrackerCapability.CAPABILITY).resolve().orElse(null);
+            if (tracker != null)
+            {
+                SERVER_TRACKERS.put(level, tracker);
+            }
+        }
+        return tracker;
+    }
+
+    public static void onLevelUnload(ServerLevel level)
+    {
+        SERVER_TRACKERS.remove(level);
+    }
+
     private final Level level;
     private final Random random;
     private final LazyOptional<WorldTracker> capability;
 
-    private final BufferedList<TickEntry> landslideTicks;
-    private final BufferedList<BlockPos> isolatedPositions;
+    private final PositionScheduler landslidePositions;
+    private final PositionScheduler isolatedPositions;
     private final List<Collapse> collapsesInProgress;
+    private int collapseCursor; // The index of the next collapse to process in the current round, or -1 if no round is in progress
+    private final HydrationCache hydrationCache;
+    private final SupportCache supportCache;
+    private final StructureWatch structureWatch;
+    private final DeviceScheduler deviceScheduler;
 
     private final ClimateModel defaultClimateModel = new BiomeBasedClimateModel();
     @Nullable private ClimateModel climateModel;
@@ -60,25 +95,49 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
     private long rainStartTick, rainEndTick;
     private float rainIntensity;
 
+    private int lastTickProcessed;
+    private long lastTickNanos;
+
     public WorldTracker(Level level)
     {
         this.level = level;
         this.random = new Random();
         this.capability = LazyOptional.of(() -> this);
         this.climateModel = null;
-        this.landslideTicks = new BufferedList<>();
-        this.isolatedPositions = new BufferedList<>();
+        this.landslidePositions = new PositionScheduler(2);
+        this.isolatedPositions = new PositionScheduler(1);
         this.collapsesInProgress = new ArrayList<>();
+        this.collapseCursor = -1;
+        this.hydrationCache = new HydrationCache(level, (chunkX, sectionY, chunkZ) -> HydrationCache.sampleLevel(level, chunkX, sectionY, chunkZ));
+        this.supportCache = new SupportCache(level, Support::getMaximumSupportRange, (chunkX, sectionY, chunkZ) -> SupportCache.sampleLevel(level, chunkX, sectionY, chunkZ));
+        this.structureWatch = new StructureWatch();
+        this.deviceScheduler = new DeviceScheduler();
     }
 
     public void addLandslidePos(BlockPos pos)
     {
-        landslideTicks.add(new TickEntry(pos, 2));
+        landslidePositions.schedule(pos);
+    }
+
+    /**
+     * @param pos A position, packed with {@link BlockPos#asLong()}
+     */
+    public void addLandslidePos(long pos)
+    {
+        landslidePositions.schedule(pos);
     }
 
     public void addIsolatedPos(BlockPos pos)
     {
-        isolatedPositions.add(pos);
+        isolatedPositions.schedule(pos);
+    }
+
+    /**
+     * @param pos A position, packed with {@link BlockPos#asLong()}
+     */
+    public void addIsolatedPos(long pos)
+    {
+        isolatedPositions.schedule(pos);
     }
 
     public void addCollapseData(Collapse collapse)
@@ -96,6 +155,26 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
         return climateModel == null ? defaultClimateModel : climateModel;
     }
 
+    public HydrationCache getHydrationCache()
+    {
+        return hydrationCache;
+    }
+
+    public SupportCache getSupportCache()
+    {
+        return supportCache;
+    }
+
+    public StructureWatch getStructureWatch()
+    {
+        return structureWatch;
+    }
+
+    public DeviceScheduler getDeviceScheduler()
+    {
+        return deviceScheduler;
+    }
+
     public void addCollapsePositions(BlockPos centerPos, Collection<BlockPos> positions)
     {
         List<BlockPos> collapsePositions = new ArrayList<>();
@@ -142,62 +221,84 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
         return exactRainfallIntensity(tick) > Mth.clampedMap(rainfall, ClimateModel.MINIMUM_RAINFALL, ClimateModel.MAXIMUM_RAINFALL, 1, 0);
     }
 
+    /**
+     * Wakes sleeping devices which are due, and processes queued collapses, landslides and isolated blocks. Each tick has a limited budget for the latter, both in the number of positions checked and the time spent - anything left over is processed on following ticks.
+     */
     public void tick(ServerLevel level)
     {
-        if (!collapsesInProgress.isEmpty() && random.nextInt(10) == 0)
-        {
-            for (Collapse collapse : collapsesInProgress)
+        deviceScheduler.tick(Calendars.SERVER.getTicks(), packedPos -> {
+            if (level.getBlockEntity(BlockPos.of(packedPos)) instanceof TickableInventoryBlockEntity<?> device)
             {
-                Set<BlockPos> updatedPositions = new HashSet<>();
-                for (BlockPos posAt : collapse.nextPositions)
-                {
-                    // Check the current position for collapsing
-                    BlockState stateAt = level.getBlockState(posAt);
-                    if (Helpers.isBlock(stateAt, TFCTags.Blocks.CAN_COLLAPSE) && TFCFallingBlockEntity.canFallInDirection(level, posAt, Direction.DOWN) && posAt.distSqr(collapse.centerPos) < collapse.radiusSquared && random.nextFloat() < TFCConfig.SERVER.collapsePropagateChance.get())
-                    {
-                        if (CollapseRecipe.collapseBlock(level, posAt, stateAt))
-                        {
-                            // This column has started to collapse. Mark the next block above as unstable for the "follow up"
-                            updatedPositions.add(posAt.above());
-                        }
-                    }
-                }
-                collapse.nextPositions.clear();
-                if (!updatedPositions.isEmpty())
-                {
-                    level.playSound(null, collapse.centerPos, TFCSounds.ROCK_SLIDE_SHORT.get(), SoundSource.BLOCKS, 0.6f, 1.0f);
-                    collapse.nextPositions.addAll(updatedPositions);
-                    collapse.radiusSquared *= 0.8; // lower radius each successive time
-                }
+                device.wake();
             }
-            collapsesInProgress.removeIf(collapse -> collapse.nextPositions.isEmpty());
-        }
+        });
 
-        landslideTicks.flush();
-        Iterator<TickEntry> tickIterator = landslideTicks.listIterator();
-        while (tickIterator.hasNext())
-        {
-            TickEntry entry = tickIterator.next();
-            if (entry.tick())
-            {
-                final BlockState currentState = level.getBlockState(entry.getPos());
-                LandslideRecipe.tryLandslide(level, entry.getPos(), currentState);
-                tickIterator.remove();
-            }
-        }
+        final long startNanos = System.nanoTime();
+        final long deadline = startNanos + TFCConfig.SERVER.blockUpdateTimeBudget.get() * 1000L;
+        final int workBudget = TFCConfig.SERVER.blockUpdateWorkBudget.get();
 
-        isolatedPositions.flush();
-        Iterator<BlockPos> isolatedIterator = isolatedPositions.listIterator();
-        while (isolatedIterator.hasNext())
-        {
-            final BlockPos pos = isolatedIterator.next();
+        int processed = tickCollapses(level, workBudget, deadline);
+        processed += landslidePositions.tick(workBudget - processed, deadline, packedPos -> {
+            final BlockPos pos = BlockPos.of(packedPos);
+            final BlockState currentState = level.getBlockState(pos);
+            LandslideRecipe.tryLandslide(level, pos, currentState);
+        });
+        processed += isolatedPositions.tick(workBudget - processed, deadline, packedPos -> {
+            final BlockPos pos = BlockPos.of(packedPos);
             final BlockState currentState = level.getBlockState(pos);
-            if (Helpers.isBlock(currentState.getBlock(), TFCTags.Blocks.BREAKS_WHEN_ISOLATED) && isIsolated(level, pos))
+            if (BlockTagFlags.is(currentState, BlockTagFlags.BREAKS_WHEN_ISOLATED) && isIsolated(level, pos))
             {
                 Helpers.destroyBlockAndDropBlocksManually(level, pos, ctx -> ctx.withParameter(TFCLoot.ISOLATED, true));
             }
-            isolatedIterator.remove();
+        });
+
+        lastTickProcessed = processed;
+        lastTickNanos = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * @return The number of landslide positions waiting to be processed.
+     */
+    public int getLandslideBacklog()
+    {
+        return landslidePositions.size();
+    }
+
+    /**
+     * @return The number of isolated positions waiting to be processed.
+     */
+    public int getIsolatedBacklog()
+    {
+        return isolatedPositions.size();
+    }
+
+    /**
+     * @return The number of collapse positions waiting to be processed.
+     */
+    public int getCollapseBacklog()
+    {
+        int backlog = 0;
+        for (Collapse collapse : collapsesInProgress)
+        {
+            backlog += collapse.nextPositions.size();
         }
+        return backlog;
+    }
+
+    /**
+     * @return The number of positions processed during the last tick.
+     */
+    public int getLastTickProcessed()
+    {
+        return lastTickProcessed;
+    }
+
+    /**
+     * @return The time spent processing during the last tick, in nanoseconds.
+     */
+    public long getLastTickNanos()
+    {
+        return lastTickNanos;
     }
 
     public void addDebugTooltip(List<String> tooltips)
@@ -221,19 +322,9 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
     @Override
     public CompoundTag serializeNBT()
     {
-        landslideTicks.flush();
-        isolatedPositions.flush();
-
         CompoundTag nbt = new CompoundTag();
-        ListTag landslideNbt = new ListTag();
-        for (TickEntry entry : landslideTicks)
-        {
-            landslideNbt.add(entry.serializeNBT());
-        }
-        nbt.put("landslideTicks", landslideNbt);
-
-        LongArrayTag isolatedNbt = new LongArrayTag(isolatedPositions.stream().mapToLong(BlockPos::asLong).toArray());
-        nbt.put("isolatedPositions", isolatedNbt);
+        nbt.put("landslides", new LongArrayTag(landslidePositions.serialize()));
+        nbt.put("isolated", new LongArrayTag(isolatedPositions.serialize()));
 
         ListTag collapseNbt = new ListTag();
         for (Collapse collapse : collapsesInProgress)
@@ -241,6 +332,7 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
             collapseNbt.add(collapse.serializeNBT());
         }
         nbt.put("collapsesInProgress", collapseNbt);
+        nbt.putInt("collapseCursor", collapseCursor);
 
         nbt.putLong("rainStartTick", rainStartTick);
         nbt.putLong("rainEndTick", rainEndTick);
@@ -254,24 +346,38 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
     {
         if (nbt != null)
         {
-            landslideTicks.clear();
             collapsesInProgress.clear();
-            isolatedPositions.clear();
 
-            ListTag landslideNbt = nbt.getList("landslideTicks", Tag.TAG_COMPOUND);
-            for (int i = 0; i < landslideNbt.size(); i++)
+            isolatedPositions.deserialize(nbt.getLongArray("isolated"));
+
+            // Legacy format, from before positions were stored as (position, remaining ticks) pairs. Converted, so they are restored in order of when they are due.
+            final ListTag landslideNbt = nbt.getList("landslideTicks", Tag.TAG_COMPOUND);
+            if (!landslideNbt.isEmpty())
             {
-                landslideTicks.add(new TickEntry(landslideNbt.getCompound(i)));
+                final long[] landslides = new long[2 * landslideNbt.size()];
+                for (int i = 0; i < landslideNbt.size(); i++)
+                {
+                    final CompoundTag entryNbt = landslideNbt.getCompound(i);
+                    landslides[2 * i] = entryNbt.getLong("pos");
+                    landslides[2 * i + 1] = entryNbt.getInt("ticks");
+                }
+                landslidePositions.deserialize(landslides);
+            }
+            else
+            {
+                landslidePositions.deserialize(nbt.getLongArray("landslides"));
+            }
+            for (long pos : nbt.getLongArray("isolatedPositions"))
+            {
+                isolatedPositions.schedule(pos);
             }
-
-            long[] isolatedNbt = nbt.getLongArray("isolatedPositions");
-            Arrays.stream(isolatedNbt).mapToObj(BlockPos::of).forEach(isolatedPositions::add);
 
             ListTag collapseNbt = nbt.getList("collapsesInProgress", Tag.TAG_COMPOUND);
             for (int i = 0; i < collapseNbt.size(); i++)
             {
                 collapsesInProgress.add(new Collapse(collapseNbt.getCompound(i)));
             }
+            collapseCursor = nbt.contains("collapseCursor", Tag.TAG_INT) ? nbt.getInt("collapseCursor") : -1;
 
             rainStartTick = nbt.getLong("rainStartTick");
             rainEndTick = nbt.getLong("rainEndTick");
@@ -293,6 +399,61 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
         return rainIntensity * 0.5f + progressFactor;
     }
 
+    /**
+     * Collapses are processed in rounds, each of which checks all the current positions of every collapse in progress. A round can span multiple ticks if it runs out of budget, but a new round only starts randomly.
+     *
+     * @return The number of positions processed.
+     */
+    private int tickCollapses(ServerLevel level, int workBudget, long deadline)
+    {
+        if (collapseCursor == -1)
+        {
+            if (collapsesInProgress.isEmpty() || random.nextInt(10) != 0)
+            {
+                return 0;
+            }
+            collapseCursor = 0; // Start a new round
+        }
+
+        int processed = 0;
+        while (collapseCursor < collapsesInProgress.size())
+        {
+            final Collapse collapse = collapsesInProgress.get(collapseCursor);
+            while (!collapse.nextPositions.isEmpty())
+            {
+                if (processed >= workBudget || (processed % PositionScheduler.DEADLINE_CHECK_INTERVAL == 0 && processed > 0 && System.nanoTime() > deadline))
+                {
+                    return processed; // Continue this round next tick
+                }
+
+                // Check the current position for collapsing
+                final BlockPos posAt = collapse.nextPositions.remove(collapse.nextPositions.size() - 1);
+                final BlockState stateAt = level.getBlockState(posAt);
+                processed++;
+                if (BlockTagFlags.is(stateAt, BlockTagFlags.CAN_COLLAPSE) && TFCFallingBlockEntity.canFallInDirection(level, posAt, Direction.DOWN) && posAt.distSqr(collapse.centerPos) < collapse.radiusSquared && random.nextFloat() < TFCConfig.SERVER.collapsePropagateChance.get())
+                {
+                    if (CollapseRecipe.collapseBlock(level, posAt, stateAt))
+                    {
+                        // This column has started to collapse. Mark the next block above as unstable for the "follow up"
+                        collapse.updatedPositions.add(posAt.above());
+                    }
+                }
+            }
+            if (!collapse.updatedPositions.isEmpty())
+            {
+                level.playSound(null, collapse.centerPos, TFCSounds.ROCK_SLIDE_SHORT.get(), SoundSource.BLOCKS, 0.6f, 1.0f);
+                collapse.nextPositions.addAll(collapse.updatedPositions);
+                collapse.updatedPositions.clear();
+                collapse.radiusSquared *= 0.8; // lower radius each successive time
+            }
+            collapseCursor++;
+        }
+
+        collapsesInProgress.removeIf(collapse -> collapse.nextPositions.isEmpty());
+        collapseCursor = -1;
+        return processed;
+    }
+
     private boolean isIsolated(LevelAccessor level, BlockPos pos)
     {
         for (Direction direction : Helpers.DIRECTIONS)
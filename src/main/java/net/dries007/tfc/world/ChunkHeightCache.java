@@ -0,0 +1,128 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+
+import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import net.dries007.tfc.world.biome.BiomeExtension;
+
+/**
+ * A per-generator service for answering base height queries, i.e. {@link TFCChunkGenerator#getBaseHeight(int, int, net.minecraft.world.level.levelgen.Heightmap.Types, net.minecraft.world.level.LevelHeightAccessor)}.
+ * Structures, villages, and /locate will query this many times for columns within the same chunk, so we cache the (expensive) sampled biome weights per chunk, and re-use biome noise samplers per thread.
+ * The sampled weights are never modified once computed, so they are safe to share between threads.
+ * <p>
+ * Biome noise samplers are held in a single map per thread, shared by all caches, which holds samplers for at most {@link #MAX_SAMPLERS_PER_THREAD} caches. This means samplers of a cache which is no longer used (i.e. from a previous world) are released once a thread uses other caches, rather than living as long as the thread does.
+ */
+public class ChunkHeightCache
+{
+    private static final int MAX_SAMPLERS_PER_THREAD = 4;
+    private static final ThreadLocal<Map<ChunkHeightCache, Map<BiomeExtension, BiomeNoiseSampler>>> BIOME_NOISE_SAMPLERS = ThreadLocal.withInitial(() -> new LinkedHashMap<ChunkHeightCache, Map<BiomeExtension, BiomeNoiseSampler>>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ChunkHeightCache, Map<BiomeExtension, BiomeNoiseSampler>> eldest)
+        {
+            return size() > MAX_SAMPLERS_PER_THREAD;
+        }
+    });
+
+    private final FastConcurrentCache<Object2DoubleMap<BiomeExtension>[]> biomeWeightsCache;
+    private final Function<ChunkPos, Object2DoubleMap<BiomeExtension>[]> biomeWeightsFactory;
+    private final Supplier<Map<BiomeExtension, BiomeNoiseSampler>> biomeNoiseSamplers;
+
+    /**
+     * @param size The number of chunks of biome weights to cache.
+     * @param biomeWeightsFactory A factory for sampled biome weights for a chunk, see {@link TFCChunkGenerator#sampleBiomes(ChunkPos, Sampler, Function)}.
+     * @param biomeNoiseSamplers A factory for a full set of biome noise samplers. Samplers are stateful, so one set is created per thread.
+     */
+    public ChunkHeightCache(int size, Function<ChunkPos, Object2DoubleMap<BiomeExtension>[]> biomeWeightsFactory, Supplier<Map<BiomeExtension, BiomeNoiseSampler>> biomeNoiseSamplers)
+    {
+        this.biomeWeightsCache = new FastConcurrentCache<>(size);
+        this.biomeWeightsFactory = biomeWeightsFactory;
+        this.biomeNoiseSamplers = biomeNoiseSamplers;
+    }
+
+    /**
+     * @return The sampled biome weights for the given chunk, see {@link TFCChunkGenerator#sampleBiomes(ChunkPos, Sampler, Function)}. These are shared, and <strong>must not</strong> be modified.
+     */
+    public Object2DoubleMap<BiomeExtension>[] getBiomeWeights(ChunkPos pos)
+    {
+        Object2DoubleMap<BiomeExtension>[] weights = biomeWeightsCache.getIfPresent(pos.x, pos.z);
+        if (weights == null)
+        {
+            // Two threads may race to compute the same chunk, but the result is deterministic so either value is fine to keep.
+            weights = biomeWeightsFactory.apply(pos);
+            biomeWeightsCache.set(pos.x, pos.z, weights);
+        }
+        return weights;
+    }
+
+    /**
+     * @return A new height filler for the given chunk, using cached biome weights and this thread's biome noise samplers. The filler must not be shared between threads.
+     */
+    public ChunkHeightFiller createHeightFiller(ChunkPos pos)
+    {
+        return new ChunkHeightFiller(BIOME_NOISE_SAMPLERS.get().computeIfAbsent(this, key -> biomeNoiseSamplers.get()), getBiomeWeights(pos));
+    }
+
+    /**
+     * Samples the height of a single column.
+     */
+    public double sampleHeight(int blockX, int blockZ)
+    {
+        return createHeightFiller(new ChunkPos(SectionPos.blockToSectionCoord(blockX), SectionPos.blockToSectionCoord(blockZ))).sampleHeight(blockX, blockZ);
+    }
+
+    /**
+     * Samples the height of a batch of columns. Consecutive columns which are within the same chunk share a single height filler, so callers should order queries by chunk where possible.
+     *
+     * @param blockXs The block x positions.
+     * @param blockZs The block z positions.
+     * @param heights The output heights, which must be at least {@code count} long.
+     * @param count The number of columns to sample.
+     */
+    public void sampleHeights(int[] blockXs, int[] blockZs, double[] heights, int count)
+    {
+        ChunkHeightFiller filler = null;
+        int lastChunkX = 0, lastChunkZ = 0;
+        for (int i = 0; i < count; i++)
+        {
+            final int blockX = blockXs[i], blockZ = blockZs[i];
+            final int chunkX = SectionPos.blockToSectionCoord(blockX), chunkZ = SectionPos.blockToSectionCoord(blockZ);
+            if (filler == null || chunkX != lastChunkX || chunkZ != lastChunkZ)
+            {
+                filler = createHeightFiller(new ChunkPos(chunkX, chunkZ));
+                lastChunkX = chunkX;
+                lastChunkZ = chunkZ;
+            }
+            heights[i] = filler.sampleHeight(blockX, blockZ);
+        }
+    }
+
+    /**
+     * Samples the height of every column in a chunk.
+     *
+     * @param heights The output heights, a 16x16 array indexed by {@code localX + 16 * localZ}.
+     */
+    public void sampleChunkHeights(ChunkPos pos, double[] heights)
+    {
+        final ChunkHeightFiller filler = createHeightFiller(pos);
+        final int blockX = pos.getMinBlockX(), blockZ = pos.getMinBlockZ();
+        for (int x = 0; x < 16; x++)
+        {
+            for (int z = 0; z < 16; z++)
+            {
+                heights[x + 16 * z] = filler.sampleHeight(blockX + x, blockZ + z);
+            }
+        }
+    }
+}
@@ -10,6 +10,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
 
 import net.minecraft.Util;
 import net.minecraft.core.BlockPos;
@@ -27,7 +30,9 @@ import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.level.material.FluidState;
 import net.minecraft.world.level.material.Fluids;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.dries007.tfc.common.fluids.RiverWaterFluid;
 import net.dries007.tfc.common.fluids.TFCFluids;
 import net.dries007.tfc.world.biome.BiomeExtension;
@@ -38,6 +43,7 @@ import net.dries007.tfc.world.noise.ChunkNoiseSamplingSettings;
 import net.dries007.tfc.world.noise.NoiseSampler;
 import net.dries007.tfc.world.noise.TrilinearInterpolator;
 import net.dries007.tfc.world.river.Flow;
+import org.jetbrains.annotations.Nullable;
 
 public class ChunkNoiseFiller extends ChunkHeightFiller
 {
@@ -78,6 +84,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
 
     // Noise interpolation
     private final ChunkNoiseSamplingSettings settings;
+    private final NoiseSampler sampler;
     private final List<TrilinearInterpolator> interpolators;
 
     // Noise Caves
@@ -104,6 +111,9 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
     private double cellDeltaX, cellDeltaZ; // Delta within a noise cell
     private int lastCellZ; // Last cell Z, needed due to a quick in noise interpolator
 
+    // When filling in parallel, each worker records it's writes to the chunk here, rather than writing them directly
+    @Nullable private final OutputBuffer output;
+
     public ChunkNoiseFiller(LevelAccessor level, ProtoChunk chunk, Object2DoubleMap<BiomeExtension>[] sampledBiomeWeights, RiverSource riverSource, Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers, BiomeResolver biomeResolver, NoiseSampler sampler, ChunkBaseBlockSource baseBlockSource, ChunkNoiseSamplingSettings settings, int seaLevel)
     {
         super(biomeNoiseSamplers, sampledBiomeWeights);
@@ -124,6 +134,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         this.flows = buildFlowMap();
 
         this.settings = settings;
+        this.sampler = sampler;
         this.interpolators = new ArrayList<>();
         this.baseBlockSource = baseBlockSource;
 
@@ -144,6 +155,55 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         this.surfaceHeight = new int[16 * 16];
         this.localBiomes = new Biome[16 * 16];
         this.localBiomeWeights = new double[16 * 16];
+
+        this.output = null;
+    }
+
+    /**
+     * Creates a worker for {@link #fillFromNoise(ForkJoinPool, Supplier)}.
+     * A worker shares the immutable state, and the per-column output arrays (of which each worker writes a disjoint portion) with the parent. It has it's own interpolators, aquifer, and biome noise samplers, and records writes to the chunk instead of applying them.
+     */
+    private ChunkNoiseFiller(ChunkNoiseFiller parent, Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers)
+    {
+        super(biomeNoiseSamplers, parent.sampledBiomeWeights);
+
+        this.level = parent.level;
+        this.chunk = parent.chunk;
+        this.chunkMinX = parent.chunkMinX;
+        this.chunkMinZ = parent.chunkMinZ;
+        this.quartX = parent.quartX;
+        this.quartZ = parent.quartZ;
+        this.oceanFloor = parent.oceanFloor;
+        this.worldSurface = parent.worldSurface;
+        this.airCarvingMask = parent.airCarvingMask;
+        this.seaLevel = parent.seaLevel;
+
+        this.riverSource = parent.riverSource;
+        this.riverWater = parent.riverWater;
+        this.flows = parent.flows;
+
+        this.settings = parent.settings;
+        this.sampler = parent.sampler;
+        this.interpolators = new ArrayList<>();
+        this.baseBlockSource = parent.baseBlockSource;
+
+        this.noiseCaves = addInterpolator(sampler.noiseCaves);
+        this.noodleToggle = addInterpolator(sampler.noodleToggle);
+        this.noodleThickness = addInterpolator(sampler.noodleThickness);
+        this.noodleRidgeA = addInterpolator(sampler.noodleRidgeA);
+        this.noodleRidgeB = addInterpolator(sampler.noodleRidgeB);
+
+        // The aquifer lazily computes and caches aquifer locations, which is deterministic, but not thread safe, so each worker needs it's own copy
+        this.aquifer = new TFCAquifer(chunk.getPos(), settings, baseBlockSource, seaLevel, sampler.positionalRandomFactory, sampler.barrierNoise);
+        this.aquifer.setSurfaceHeights(parent.aquifer.getSurfaceHeights());
+
+        this.biomeResolver = parent.biomeResolver;
+
+        this.surfaceHeight = parent.surfaceHeight;
+        this.localBiomes = parent.localBiomes;
+        this.localBiomeWeights = parent.localBiomeWeights;
+
+        this.output = new OutputBuffer();
     }
 
     public TFCAquifer aquifer()
@@ -246,37 +306,90 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
      */
     public void fillFromNoise()
     {
-
-        initializeForFirstCellX();
+        initializeForCellX(0);
         final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
         for (int cellX = 0; cellX < settings.cellCountXZ(); cellX++)
         {
             advanceCellX(cellX);
-            for (int cellZ = 0; cellZ < settings.cellCountXZ(); cellZ++)
+            fillCellX(mutablePos, cellX);
+            swapSlices();
+        }
+    }
+
+    /**
+     * Fills the entire chunk, using multiple threads. The result is identical to {@link #fillFromNoise()}.
+     * <p>
+     * The chunk is split into independent slices along each noise cell x. Each slice is filled by a separate worker with it's own interpolators, which samples the two noise slices it needs (rather than sharing them with the neighboring slice, as the serial filler does). Workers do not write to the chunk, as sections, heightmaps and carving masks are not thread safe. Instead, they record their writes, which are then applied in the same order the serial filler would have applied them.
+     *
+     * @param pool The pool to run slices on. The calling thread will also fill one slice, and then wait for the rest.
+     * @param biomeNoiseSamplers A factory for a full set of biome noise samplers, as they are stateful and must not be shared between workers.
+     */
+    public void fillFromNoise(ForkJoinPool pool, Supplier<Map<BiomeExtension, BiomeNoiseSampler>> biomeNoiseSamplers)
+    {
+        final int cellCount = settings.cellCountXZ();
+        final ChunkNoiseFiller[] workers = new ChunkNoiseFiller[cellCount];
+        final ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[cellCount];
+        for (int cellX = 0; cellX < cellCount; cellX++)
+        {
+            final ChunkNoiseFiller worker = workers[cellX] = new ChunkNoiseFiller(this, biomeNoiseSamplers.get());
+            final int workerCellX = cellX;
+            final Runnable task = () -> {
+                worker.initializeForCellX(workerCellX);
+                worker.advanceCellX(workerCellX);
+                worker.fillCellX(new BlockPos.MutableBlockPos(), workerCellX);
+            };
+            if (cellX > 0)
             {
-                // skip cell Y
-                for (int localCellX = 0; localCellX < settings.cellWidth(); localCellX++)
-                {
-                    blockX = chunkMinX + cellX * settings.cellWidth() + localCellX;
-                    localX = blockX & 15;
-                    cellDeltaX = (double) localCellX / settings.cellWidth();
+                tasks[cellX] = pool.submit(task);
+            }
+            else
+            {
+                tasks[0] = ForkJoinTask.adapt(task);
+            }
+        }
 
-                    // cannot update for x here because we first need to update for yz. So we do all three each time per cell
-                    for (int localCellZ = 0; localCellZ < settings.cellWidth(); localCellZ++)
-                    {
-                        blockZ = chunkMinZ + cellZ * settings.cellWidth() + localCellZ;
-                        lastCellZ = cellZ; // needed for the noise interpolator
-                        localZ = blockZ & 15;
-                        cellDeltaZ = (double) localCellZ / settings.cellWidth();
+        tasks[0].invoke(); // Fill the first slice on this thread
+        for (ForkJoinTask<?> task : tasks)
+        {
+            task.join();
+        }
 
-                        mutablePos.set(blockX, 0, blockZ);
-                        fillColumn(mutablePos, cellX, cellZ);
-                    }
+        // Apply all writes, in the same order as the serial filler
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (ChunkNoiseFiller worker : workers)
+        {
+            assert worker.output != null;
+            worker.output.apply(this, cursor);
+        }
+    }
+
+    /**
+     * Fills all columns within a single noise cell x. Requires the interpolators to have slices for {@code cellX} and {@code cellX + 1}.
+     */
+    private void fillCellX(BlockPos.MutableBlockPos mutablePos, int cellX)
+    {
+        for (int cellZ = 0; cellZ < settings.cellCountXZ(); cellZ++)
+        {
+            // skip cell Y
+            for (int localCellX = 0; localCellX < settings.cellWidth(); localCellX++)
+            {
+                blockX = chunkMinX + cellX * settings.cellWidth() + localCellX;
+                localX = blockX & 15;
+                cellDeltaX = (double) localCellX / settings.cellWidth();
+
+                // cannot update for x here because we first need to update for yz. So we do all three each time per cell
+                for (int localCellZ = 0; localCellZ < settings.cellWidth(); localCellZ++)
+                {
+                    blockZ = chunkMinZ + cellZ * settings.cellWidth() + localCellZ;
+                    lastCellZ = cellZ; // needed for the noise interpolator
+                    localZ = blockZ & 15;
+                    cellDeltaZ = (double) localCellZ / settings.cellWidth();
+
+                    mutablePos.set(blockX, 0, blockZ);
+                    fillColumn(mutablePos, cellX, cellZ);
                 }
             }
-            swapSlices();
         }
-
     }
 
     /**
@@ -410,7 +523,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
                     if (fluid.getType() == Fluids.WATER && flow != Flow.NONE && y >= Math.min(seaLevel - 4, heightNoiseValue))
                     {
                         // Place a flowing fluid block according to the river flow at this location
-                        section.setBlockState(localX, localY, localZ, debugFillColumn ? Blocks.BLUE_STAINED_GLASS.defaultBlockState() : riverWater.setValue(RiverWaterFluid.FLOW, flow).createLegacyBlock(), false);
+                        setBlockState(section, y, debugFillColumn ? Blocks.BLUE_STAINED_GLASS.defaultBlockState() : riverWater.setValue(RiverWaterFluid.FLOW, flow).createLegacyBlock());
                     }
                     else
                     {
@@ -418,27 +531,27 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
                         {
                             if (fluid.getType() == Fluids.WATER)
                             {
-                                section.setBlockState(localX, localY, localZ, Blocks.LIGHT_BLUE_STAINED_GLASS.defaultBlockState(), false);
+                                setBlockState(section, y, Blocks.LIGHT_BLUE_STAINED_GLASS.defaultBlockState());
                             }
                             else if (fluid.getType() == Fluids.LAVA)
                             {
-                                section.setBlockState(localX, localY, localZ, Blocks.ORANGE_STAINED_GLASS.defaultBlockState(), false);
+                                setBlockState(section, y, Blocks.ORANGE_STAINED_GLASS.defaultBlockState());
                             }
                         }
                         else
                         {
-                            section.setBlockState(localX, localY, localZ, state, false);
+                            setBlockState(section, y, state);
                         }
                     }
                     if (aquifer.shouldScheduleFluidUpdate() && !fluid.isEmpty())
                     {
-                        chunk.markPosForPostprocessing(cursor);
+                        markPosForPostprocessing(cursor);
                     }
 
                     // Handle lava
                     if (state.getLightEmission() != 0)
                     {
-                        chunk.addLight(cursor);
+                        addLight(cursor);
                     }
                 }
 
@@ -448,17 +561,17 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
                     if (topSolidBlockPlaced)
                     {
                         // Air under solid blocks, so mark as carved, and replace with cave air
-                        airCarvingMask.set(blockX, y, blockZ);
+                        setCarved(y);
                         if (debugFillColumn)
                         {
                             if (section.getBlockState(localX, localY, localZ).isAir())
                             {
-                                section.setBlockState(localX, localY, localZ, Blocks.LIGHT_GRAY_STAINED_GLASS.defaultBlockState(), false);
+                                setBlockState(section, y, Blocks.LIGHT_GRAY_STAINED_GLASS.defaultBlockState());
                             }
                         }
                         else
                         {
-                            section.setBlockState(localX, localY, localZ, Blocks.CAVE_AIR.defaultBlockState(), false);
+                            setBlockState(section, y, Blocks.CAVE_AIR.defaultBlockState());
                         }
                     }
                 }
@@ -468,12 +581,12 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
                     {
                         // Check carving mask
                         topBlockPlaced = true;
-                        worldSurface.update(localX, y, localZ, state);
+                        updateHeightmap(OutputBuffer.WORLD_SURFACE, y, state);
                     }
                     if (topSolidBlockPlaced)
                     {
                         // Fluids under solid blocks, so mark as carved
-                        airCarvingMask.set(blockX, y, blockZ);
+                        setCarved(y);
                     }
                 }
                 else // Solid rock
@@ -482,23 +595,85 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
                     if (!topBlockPlaced)
                     {
                         topBlockPlaced = true;
-                        worldSurface.update(localX, y, localZ, state);
+                        updateHeightmap(OutputBuffer.WORLD_SURFACE, y, state);
                     }
                     if (!topSolidBlockPlaced)
                     {
                         topSolidBlockPlaced = true;
-                        oceanFloor.update(localX, y, localZ, state);
+                        updateHeightmap(OutputBuffer.OCEAN_FLOOR, y, state);
                     }
                 }
 
                 if (debugFillColumn && y == heightNoiseValue)
                 {
-                    section.setBlockState(localX, localY, localZ, Blocks.BLACK_STAINED_GLASS.defaultBlockState(), false);
+                    setBlockState(section, y, Blocks.BLACK_STAINED_GLASS.defaultBlockState());
                 }
             }
         }
     }
 
+    // Chunk writes, which are either applied directly, or recorded by parallel workers
+
+    private void setBlockState(LevelChunkSection section, int y, BlockState state)
+    {
+        if (output != null)
+        {
+            output.add(OutputBuffer.SET_BLOCK_STATE, localX, y, localZ, state);
+        }
+        else
+        {
+            section.setBlockState(localX, y & 15, localZ, state, false);
+        }
+    }
+
+    private void markPosForPostprocessing(BlockPos pos)
+    {
+        if (output != null)
+        {
+            output.add(OutputBuffer.POST_PROCESSING, localX, pos.getY(), localZ, null);
+        }
+        else
+        {
+            chunk.markPosForPostprocessing(pos);
+        }
+    }
+
+    private void addLight(BlockPos pos)
+    {
+        if (output != null)
+        {
+            output.add(OutputBuffer.LIGHT, localX, pos.getY(), localZ, null);
+        }
+        else
+        {
+            chunk.addLight(pos);
+        }
+    }
+
+    private void setCarved(int y)
+    {
+        if (output != null)
+        {
+            output.add(OutputBuffer.CARVED, localX, y, localZ, null);
+        }
+        else
+        {
+            airCarvingMask.set(blockX, y, blockZ);
+        }
+    }
+
+    private void updateHeightmap(int type, int y, BlockState state)
+    {
+        if (output != null)
+        {
+            output.add(type, localX, y, localZ, state);
+        }
+        else
+        {
+            (type == OutputBuffer.WORLD_SURFACE ? worldSurface : oceanFloor).update(localX, y, localZ, state);
+        }
+    }
+
     private Flow[] buildFlowMap()
     {
         final Flow[] flowMap = new Flow[5 * 5];
@@ -596,9 +771,9 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         return interpolator;
     }
 
-    private void initializeForFirstCellX()
+    private void initializeForCellX(final int cellX)
     {
-        interpolators.forEach(TrilinearInterpolator::initializeForFirstCellX);
+        interpolators.forEach(i -> i.initializeForCellX(cellX));
     }
 
     private void advanceCellX(final int cellX)
@@ -625,4 +800,46 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
     {
         interpolators.forEach(TrilinearInterpolator::swapSlices);
     }
+
+    /**
+     * A record of writes to the chunk made by a parallel worker, in order.
+     */
+    private static final class OutputBuffer
+    {
+        static final int SET_BLOCK_STATE = 0;
+        static final int POST_PROCESSING = 1;
+        static final int LIGHT = 2;
+        static final int CARVED = 3;
+        static final int WORLD_SURFACE = 4;
+        static final int OCEAN_FLOOR = 5;
+
+        private final IntArrayList operations = new IntArrayList(); // Pairs of (type | localX | localZ), y
+        private final ObjectArrayList<BlockState> states = new ObjectArrayList<>();
+
+        void add(int type, int localX, int y, int localZ, @Nullable BlockState state)
+        {
+            operations.add(type | (localX << 8) | (localZ << 12));
+            operations.add(y);
+            states.add(state);
+        }
+
+        void apply(ChunkNoiseFiller filler, BlockPos.MutableBlockPos cursor)
+        {
+            for (int i = 0; i < states.size(); i++)
+            {
+                final int packed = operations.getInt(i << 1), y = operations.getInt((i << 1) | 1);
+                final int localX = (packed >> 8) & 15, localZ = (packed >> 12) & 15;
+                final BlockState state = states.get(i);
+                switch (packed & 0xFF)
+                {
+                    case SET_BLOCK_STATE -> filler.chunk.getSection(filler.chunk.getSectionIndex(y)).setBlockState(localX, y & 15, localZ, state, false);
+                    case POST_PROCESSING -> filler.chunk.markPosForPostprocessing(cursor.set(filler.chunkMinX + localX, y, filler.chunkMinZ + localZ));
+                    case LIGHT -> filler.chunk.addLight(cursor.set(filler.chunkMinX + localX, y, filler.chunkMinZ + localZ));
+                    case CARVED -> filler.airCarvingMask.set(filler.chunkMinX + localX, y, filler.chunkMinZ + localZ);
+                    case WORLD_SURFACE -> filler.worldSurface.update(localX, y, localZ, state);
+                    case OCEAN_FLOOR -> filler.oceanFloor.update(localX, y, localZ, state);
+                }
+            }
+        }
+    }
 }
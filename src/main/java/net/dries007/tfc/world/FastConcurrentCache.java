@@ -6,8 +6,8 @@
 
 package net.dries007.tfc.world;
 
-import java.util.Arrays;
-import java.util.concurrent.locks.StampedLock;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.ChunkPos;
@@ -17,53 +17,75 @@ import org.jetbrains.annotations.Nullable;
 
 /**
  * A concurrent (safe to read and write between multiple threads) positional based, lossy, cache.
+ * <p>
+ * Each slot holds an immutable key + value pair, which is read and written atomically, so no locking is required. Since the cache is lossy, a write simply replaces whatever was in the slot, and a racing read will see either the old or the new entry, both of which are consistent.
  */
 public class FastConcurrentCache<T>
 {
-    private final StampedLock lock = new StampedLock();
-
-    private final long[] keys;
-    private final T[] values;
+    private final AtomicReferenceArray<Entry<T>> entries;
     private final int mask;
 
-    @SuppressWarnings("unchecked")
+    @Nullable private final LongAdder hits, misses;
+
     public FastConcurrentCache(int size)
+    {
+        this(size, false);
+    }
+
+    /**
+     * @param size The number of slots in the cache, which will be rounded up to a power of two.
+     * @param recordStats If {@code true}, this cache will count hits and misses, see {@link #hits()} and {@link #misses()}.
+     */
+    public FastConcurrentCache(int size, boolean recordStats)
     {
         size = Mth.smallestEncompassingPowerOfTwo(size);
 
         this.mask = size - 1;
-        this.keys = new long[size];
-        this.values = (T[]) new Object[size];
-
-        Arrays.fill(this.keys, Long.MIN_VALUE);
+        this.entries = new AtomicReferenceArray<>(size);
+        this.hits = recordStats ? new LongAdder() : null;
+        this.misses = recordStats ? new LongAdder() : null;
     }
 
     @Nullable
     public T getIfPresent(int x, int z)
     {
         final long key = ChunkPos.asLong(x, z);
-        final int index = (int) HashCommon.mix(key) & mask;
-        final long stamp = lock.readLock();
-
-        T t = null;
-        if (keys[index] == key)
+        final Entry<T> entry = entries.getAcquire(index(key));
+        if (entry != null && entry.key == key)
         {
-            t = values[index];
+            if (hits != null) hits.increment();
+            return entry.value;
         }
-
-        lock.unlockRead(stamp);
-        return t;
+        if (misses != null) misses.increment();
+        return null;
     }
 
     public void set(int x, int z, T value)
     {
         final long key = ChunkPos.asLong(x, z);
-        final int index = (int) HashCommon.mix(key) & mask;
-        final long stamp = lock.writeLock();
+        entries.setRelease(index(key), new Entry<>(key, value));
+    }
+
+    /**
+     * @return The number of cache hits, or zero if this cache was not constructed to record stats.
+     */
+    public long hits()
+    {
+        return hits != null ? hits.sum() : 0;
+    }
 
-        keys[index] = key;
-        values[index] = value;
+    /**
+     * @return The number of cache misses, or zero if this cache was not constructed to record stats.
+     */
+    public long misses()
+    {
+        return misses != null ? misses.sum() : 0;
+    }
 
-        lock.unlockWrite(stamp);
+    private int index(long key)
+    {
+        return (int) HashCommon.mix(key) & mask;
     }
+
+    private record Entry<T>(long key, T value) {}
 }
@@ -9,6 +9,7 @@ package net.dries007.tfc.world;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
@@ -53,6 +54,7 @@ import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
 import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArraySet;
 import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.mixin.accessor.ChunkAccessAccessor;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.world.biome.BiomeExtension;
@@ -66,6 +68,7 @@ import net.dries007.tfc.world.noise.ChunkNoiseSamplingSettings;
 import net.dries007.tfc.world.noise.Kernel;
 import net.dries007.tfc.world.noise.NoiseSampler;
 import net.dries007.tfc.world.surface.SurfaceManager;
+import org.jetbrains.annotations.Nullable;
 
 import static net.dries007.tfc.TerraFirmaCraft.MOD_ID;
 
@@ -185,7 +188,7 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
      * @param groupFunction A function to access a {@link BiomeExtension.Group} from a {@link Biome}.
      * @return A 7x7 array of sampled biome weights, at quart pos resolution, where the (0, 0) index aligns to the (-1, -1) quart position relative to the target chunk.
      */
-    private static <T> Object2DoubleMap<T>[] sampleBiomes(ChunkPos pos, Sampler<T> biomeSampler, Function<T, BiomeExtension.Group> groupFunction)
+    public static <T> Object2DoubleMap<T>[] sampleBiomes(ChunkPos pos, Sampler<T> biomeSampler, Function<T, BiomeExtension.Group> groupFunction)
     {
         // First, sample biomes at chunk distance, in a 4x4 grid centered on the target chunk.
         // These are used to build the large-scale biome blending radius
@@ -290,6 +293,7 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
 
     private final NoiseBasedChunkGenerator stupidMojangChunkGenerator; // Mojang fix your god awful deprecated carver nonsense
     private final FastConcurrentCache<TFCAquifer> aquiferCache;
+    private final ChunkHeightCache heightCache;
 
     private final Map<BiomeExtension, Supplier<BiomeNoiseSampler>> biomeNoiseSamplers;
     private final ChunkDataProvider chunkDataProvider;
@@ -310,6 +314,7 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
 
         this.stupidMojangChunkGenerator = new NoiseBasedChunkGenerator(structures, parameters, biomeSource, seed, settings);
         this.aquiferCache = new FastConcurrentCache<>(256);
+        this.heightCache = new ChunkHeightCache(1024, this::sampleBiomeWeights, this::createBiomeSamplersForChunk);
 
         this.biomeNoiseSamplers = collectBiomeNoiseSamplers(seed);
         this.chunkDataProvider = customBiomeSource.getChunkDataProvider();
@@ -358,7 +363,12 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         // Somehow, if this is allowed to be async, in the same fashion as vanilla, this will actually load biomes incorrectly into the chunk, and/or cause the biome source to be inaccurate later. I have no idea how this happens and am at my limit for debugging this multithreading insanity.
         // The symptom of this will be chunks that appear to have generated at a different height or noise from surrounding ones.
         chunkDataProvider.get(chunk);
-        chunk.fillBiomesFromNoise((quartX, quartY, quartZ, sampler) -> customBiomeSource.getNoiseBiome(quartX, quartZ), climateSampler());
+
+        final ChunkPos chunkPos = chunk.getPos();
+        final int minQuartX = QuartPos.fromSection(chunkPos.x), minQuartZ = QuartPos.fromSection(chunkPos.z);
+        final BiomeExtension[] biomes = new BiomeExtension[4 * 4];
+        customBiomeSource.fillNoiseBiomeVariants(minQuartX, minQuartZ, 4, 4, biomes);
+        chunk.fillBiomesFromNoise((quartX, quartY, quartZ, sampler) -> customBiomeSource.getBiome(biomes[(quartX - minQuartX) + 4 * (quartZ - minQuartZ)]), climateSampler());
         return CompletableFuture.completedFuture(chunk);
     }
 
@@ -566,6 +576,14 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
 
     @Override
     public CompletableFuture<ChunkAccess> fillFromNoise(Executor mainExecutor, Blender oldTerrainBlender, StructureFeatureManager structureFeatureManager, ChunkAccess chunk)
+    {
+        return fillFromNoise(chunk, TFCConfig.COMMON.enableParallelChunkNoise.get() ? ForkJoinPool.commonPool() : null);
+    }
+
+    /**
+     * @param pool If not {@code null}, the noise within the chunk will be filled in parallel using this pool, see {@link ChunkNoiseFiller#fillFromNoise(ForkJoinPool, Supplier)}
+     */
+    public CompletableFuture<ChunkAccess> fillFromNoise(ChunkAccess chunk, @Nullable ForkJoinPool pool)
     {
         // Debug
         final boolean debugGetBaseHeight = false;
@@ -586,14 +604,21 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
             sections.add(section);
         }
 
-        final Object2DoubleMap<BiomeExtension>[] biomeWeights = sampleBiomes(chunkPos, this::sampleBiomeVariants, BiomeExtension::getGroup);
+        final Object2DoubleMap<BiomeExtension>[] biomeWeights = heightCache.getBiomeWeights(chunkPos);
         final ChunkBaseBlockSource baseBlockSource = createBaseBlockSourceForChunk(chunk);
         final ChunkNoiseFiller filler = new ChunkNoiseFiller(actualLevel, (ProtoChunk) chunk, biomeWeights, customBiomeSource, createBiomeSamplersForChunk(), customBiomeSource::getBiome, noiseSampler, baseBlockSource, settings, getSeaLevel());
 
         filler.setupAquiferSurfaceHeight(this::sampleBiomeVariants);
         chunkData.setAquiferSurfaceHeight(filler.aquifer().getSurfaceHeights()); // Record this in the chunk data so caves can query it accurately
         rockData.setSurfaceHeight(filler.getSurfaceHeight()); // Need to set this in the rock data before we can fill the chunk proper
-        filler.fillFromNoise();
+        if (pool != null)
+        {
+            filler.fillFromNoise(pool, this::createBiomeSamplersForChunk);
+        }
+        else
+        {
+            filler.fillFromNoise();
+        }
 
         aquiferCache.set(chunkPos.x, chunkPos.z, filler.aquifer());
 
@@ -633,8 +658,7 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     @Override
     public int getBaseHeight(int x, int z, Heightmap.Types type, LevelHeightAccessor level)
     {
-        final ChunkPos pos = new ChunkPos(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
-        return (int) createHeightFillerForChunk(pos).sampleHeight(x, z);
+        return (int) heightCache.sampleHeight(x, z);
     }
 
     @Override
@@ -698,10 +722,32 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         return customBiomeSource.getNoiseBiomeVariants(QuartPos.fromBlock(blockX), QuartPos.fromBlock(blockZ));
     }
 
+    /**
+     * Samples biome weights for a chunk. The quart resolution kernels in {@link #sampleBiomes(ChunkPos, Sampler, Function)} densely cover a 15x15 window of quart positions around the chunk, so that is filled in one batch, and only the sparse chunk resolution samples outside it query the biome source individually.
+     */
+    private Object2DoubleMap<BiomeExtension>[] sampleBiomeWeights(ChunkPos pos)
+    {
+        final int minQuartX = QuartPos.fromSection(pos.x) - 5, minQuartZ = QuartPos.fromSection(pos.z) - 5;
+        final BiomeExtension[] window = new BiomeExtension[15 * 15];
+        customBiomeSource.fillNoiseBiomeVariants(minQuartX, minQuartZ, 15, 15, window);
+        return sampleBiomes(pos, (blockX, blockZ) -> {
+            final int x = QuartPos.fromBlock(blockX) - minQuartX, z = QuartPos.fromBlock(blockZ) - minQuartZ;
+            if (x >= 0 && x < 15 && z >= 0 && z < 15)
+            {
+                return window[x + 15 * z];
+            }
+            return sampleBiomeVariants(blockX, blockZ);
+        }, BiomeExtension::getGroup);
+    }
+
     public ChunkHeightFiller createHeightFillerForChunk(ChunkPos pos)
     {
-        final Object2DoubleMap<BiomeExtension>[] biomeWeights = sampleBiomes(pos, this::sampleBiomeVariants, BiomeExtension::getGroup);
-        return new ChunkHeightFiller(createBiomeSamplersForChunk(), biomeWeights);
+        return heightCache.createHeightFiller(pos);
+    }
+
+    public ChunkHeightCache getHeightCache()
+    {
+        return heightCache;
     }
 
     private ChunkBaseBlockSource createBaseBlockSourceForChunk(ChunkAccess chunk)
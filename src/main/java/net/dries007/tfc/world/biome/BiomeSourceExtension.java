@@ -22,6 +22,22 @@ public interface BiomeSourceExtension
 
     BiomeExtension getNoiseBiomeVariants(int quartX, int quartZ);
 
+    /**
+     * Samples a rectangle of biomes in one batch, identical to {@link #getNoiseBiomeVariants(int, int)} for each position.
+     *
+     * @param out An array of at least {@code width * height} values, indexed by {@code (quartX - minQuartX) + width * (quartZ - minQuartZ)}.
+     */
+    default void fillNoiseBiomeVariants(int minQuartX, int minQuartZ, int width, int height, BiomeExtension[] out)
+    {
+        for (int z = 0; z < height; z++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                out[x + width * z] = getNoiseBiomeVariants(minQuartX + x, minQuartZ + z);
+            }
+        }
+    }
+
     Holder<Biome> getBiome(BiomeExtension variants);
 
     int getSpawnDistance();
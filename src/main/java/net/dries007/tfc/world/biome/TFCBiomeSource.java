@@ -8,6 +8,9 @@ package net.dries007.tfc.world.biome;
 
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -26,6 +29,7 @@ import net.minecraftforge.registries.DeferredRegister;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import net.dries007.tfc.util.IArtist;
 import net.dries007.tfc.world.FeatureCycleDetector;
 import net.dries007.tfc.world.chunkdata.ChunkDataProvider;
@@ -58,6 +62,16 @@ public class TFCBiomeSource extends BiomeSource implements BiomeSourceExtension,
     
     public static final DeferredRegister<Codec<? extends BiomeSource>> BIOME_SOURCE = DeferredRegister.create(Registry.BIOME_SOURCE_REGISTRY, MOD_ID);
 
+    /**
+     * The number of biomes sampled by each task in {@link #findBiomeHorizontal(int, int, int, int, int, Predicate, Random, boolean, Climate.Sampler)}.
+     */
+    private static final int SEARCH_TILE_SIZE = 256;
+
+    /**
+     * A bounded pool for biome searches, including {@code /tfc locate}. Searches use all the parallelism they are given, so they are run on this rather than the common pool, where they could starve chunk generation.
+     */
+    public static final ForkJoinPool SEARCH_POOL = createSearchPool();
+
     static
     {
         BIOME_SOURCE.register("overworld", () -> CODEC);
@@ -185,6 +199,12 @@ public class TFCBiomeSource extends BiomeSource implements BiomeSourceExtension,
         return biomeLayer.get(quartX, quartZ);
     }
 
+    @Override
+    public void fillNoiseBiomeVariants(int minQuartX, int minQuartZ, int width, int height, BiomeExtension[] out)
+    {
+        biomeLayer.fill(minQuartX, minQuartZ, width, height, out);
+    }
+
     @Override
     public Holder<Biome> getBiome(BiomeExtension variants)
     {
@@ -209,6 +229,21 @@ public class TFCBiomeSource extends BiomeSource implements BiomeSourceExtension,
         return customFeaturesPerStep.get();
     }
 
+    private static ForkJoinPool createSearchPool()
+    {
+        final int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new ForkJoinPool(parallelism, pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("TFC Search Worker " + thread.getPoolIndex());
+            thread.setContextClassLoader(TFCBiomeSource.class.getClassLoader());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * The same search as {@link BiomeSource#findBiomeHorizontal(int, int, int, int, int, Predicate, Random, boolean, Climate.Sampler)}, with identical results, but biomes are sampled in parallel.
+     * Each radius of the search (when {@code findClosest} is {@code true}), or the entire square, is sampled in tiles on the bounded {@link #SEARCH_POOL}, so callers on world generation threads do not compete with chunk generation for the common pool. The predicate and random are then applied serially, in the original order, so the result is the same as the serial search, and the predicate does not need to be thread safe.
+     */
     @Override
     @Nullable
     public Pair<BlockPos, Holder<Biome>> findBiomeHorizontal(int blockX, int blockY, int blockZ, int maxRadius, int step, Predicate<Holder<Biome>> biome, Random random, boolean findClosest, @Nullable Climate.Sampler sampler)
@@ -217,10 +252,14 @@ public class TFCBiomeSource extends BiomeSource implements BiomeSourceExtension,
         final int minQuartZ = QuartPos.fromBlock(blockZ);
         final int maxQuartRadius = QuartPos.fromBlock(maxRadius);
 
+        final IntArrayList xs = new IntArrayList(), zs = new IntArrayList();
         Pair<BlockPos, Holder<Biome>> pair = null;
         int count = 0;
         for (int radius = findClosest ? 0 : maxQuartRadius; radius <= maxQuartRadius; radius += step)
         {
+            // Collect all positions at this radius, in order
+            xs.clear();
+            zs.clear();
             for (int dz = -radius; dz <= radius; dz += step)
             {
                 final boolean atZEdge = Math.abs(dz) == radius;
@@ -234,25 +273,63 @@ public class TFCBiomeSource extends BiomeSource implements BiomeSourceExtension,
                             continue;
                         }
                     }
+                    xs.add(minQuartX + dx);
+                    zs.add(minQuartZ + dz);
+                }
+            }
 
-                    final int x = minQuartX + dx, z = minQuartZ + dz;
-                    Holder<Biome> found = getNoiseBiome(x, z);
-                    if (biome.test(found))
+            final BiomeExtension[] variants = sampleNoiseBiomeVariants(xs.elements(), zs.elements(), xs.size());
+            for (int i = 0; i < variants.length; i++)
+            {
+                final Holder<Biome> found = getBiome(variants[i]);
+                if (biome.test(found))
+                {
+                    if (pair == null || random.nextInt(count + 1) == 0)
                     {
-                        if (pair == null || random.nextInt(count + 1) == 0)
+                        BlockPos pos = new BlockPos(QuartPos.toBlock(xs.getInt(i)), blockY, QuartPos.toBlock(zs.getInt(i)));
+                        if (findClosest)
                         {
-                            BlockPos pos = new BlockPos(QuartPos.toBlock(x), blockY, QuartPos.toBlock(z));
-                            if (findClosest)
-                            {
-                                return Pair.of(pos, found);
-                            }
-                            pair = Pair.of(pos, found);
+                            return Pair.of(pos, found);
                         }
-                        count++;
+                        pair = Pair.of(pos, found);
                     }
+                    count++;
                 }
             }
         }
         return pair;
     }
-}
\ No newline at end of file
+
+    private BiomeExtension[] sampleNoiseBiomeVariants(int[] quartXs, int[] quartZs, int count)
+    {
+        final BiomeExtension[] variants = new BiomeExtension[count];
+        final int tileCount = (count + SEARCH_TILE_SIZE - 1) / SEARCH_TILE_SIZE;
+        if (tileCount <= 1)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                variants[i] = getNoiseBiomeVariants(quartXs[i], quartZs[i]);
+            }
+            return variants;
+        }
+
+        final ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[tileCount];
+        for (int tile = 0; tile < tileCount; tile++)
+        {
+            final int start = tile * SEARCH_TILE_SIZE, end = Math.min(count, start + SEARCH_TILE_SIZE);
+            final Runnable task = () -> {
+                for (int i = start; i < end; i++)
+                {
+                    variants[i] = getNoiseBiomeVariants(quartXs[i], quartZs[i]);
+                }
+            };
+            tasks[tile] = tile > 0 ? SEARCH_POOL.submit(task) : ForkJoinTask.adapt(task);
+        }
+        tasks[0].invoke(); // Sample the first tile on this thread
+        for (ForkJoinTask<?> task : tasks)
+        {
+            task.join();
+        }
+        return variants;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.chunkdata;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.util.Mth;
+
+/**
+ * Packs arrays of small integers into {@code long[]}s, for compact storage in NBT.
+ * Like vanilla's {@link net.minecraft.util.SimpleBitStorage}, values never straddle two longs, so each long holds {@code 64 / bits} values.
+ */
+final class BitPacking
+{
+    /**
+     * @return The number of bits required to store values in the range {@code [0, range)}, at least one.
+     */
+    static int bitsFor(int range)
+    {
+        return range <= 2 ? 1 : Mth.ceillog2(range);
+    }
+
+    static long[] pack(int[] values, int offset, int count, int minValue, int bits)
+    {
+        final int valuesPerLong = 64 / bits;
+        final long mask = (1L << bits) - 1;
+        final long[] data = new long[(count + valuesPerLong - 1) / valuesPerLong];
+        for (int i = 0; i < count; i++)
+        {
+            final int index = i / valuesPerLong, shift = (i - index * valuesPerLong) * bits;
+            data[index] |= ((long) (values[offset + i] - minValue) & mask) << shift;
+        }
+        return data;
+    }
+
+    static void unpack(long[] data, int[] values, int offset, int count, int minValue, int bits)
+    {
+        final int valuesPerLong = 64 / bits;
+        final long mask = (1L << bits) - 1;
+        for (int i = 0; i < count; i++)
+        {
+            final int index = i / valuesPerLong, shift = (i - index * valuesPerLong) * bits;
+            values[offset + i] = (int) ((data[index] >>> shift) & mask) + minValue;
+        }
+    }
+
+    /**
+     * Writes an arbitrary integer array, by packing the offset from the minimum value.
+     * This is effective for height maps, which typically span a small range of values.
+     */
+    static CompoundTag write(int[] values)
+    {
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int value : values)
+        {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        final CompoundTag nbt = new CompoundTag();
+        nbt.putInt("size", values.length);
+        if (values.length > 0)
+        {
+            final int bits = bitsFor((int) Math.min(Integer.MAX_VALUE, (long) max - min + 1));
+            nbt.putInt("min", min);
+            nbt.putByte("bits", (byte) bits);
+            nbt.putLongArray("data", pack(values, 0, values.length, min, bits));
+        }
+        return nbt;
+    }
+
+    /**
+     * Reads data written by {@link #write(int[])}
+     */
+    static int[] read(CompoundTag nbt)
+    {
+        final int[] values = new int[nbt.getInt("size")];
+        if (values.length > 0)
+        {
+            unpack(nbt.getLongArray("data"), values, 0, values.length, nbt.getInt("min"), nbt.getByte("bits"));
+        }
+        return values;
+    }
+
+    private BitPacking() {}
+}
@@ -6,6 +6,7 @@
 
 package net.dries007.tfc.world.chunkdata;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 import net.minecraft.core.BlockPos;
@@ -32,6 +33,16 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
     private static final float UNKNOWN_RAINFALL = 250;
     private static final float UNKNOWN_TEMPERATURE = 10;
 
+    /**
+     * The size, in bytes, of the data written by {@link #writeGenerated(ByteBuffer)}
+     */
+    public static final int GENERATED_SIZE = 2 * 4 * 4 + 1 + 2 * 4 + 1 + RockData.GENERATED_SIZE;
+
+    /**
+     * The version of the NBT format written by {@link #serializeNBT()}. Data without a version is assumed to be the original format, and can still be read.
+     */
+    private static final int VERSION = 2;
+
     public static ChunkData get(LevelReader level, BlockPos pos)
     {
         return get(level, new ChunkPos(pos));
@@ -152,6 +163,21 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
         this.temperatureLayer = temperatureLayer;
     }
 
+    /**
+     * The raw climate layers. These are replaced (never modified) whenever the climate of this chunk changes, so they may be compared by identity to detect changes.
+     */
+    @Nullable
+    public LerpFloatLayer getRainfallLayer()
+    {
+        return rainfallLayer;
+    }
+
+    @Nullable
+    public LerpFloatLayer getAverageTempLayer()
+    {
+        return temperatureLayer;
+    }
+
     public void setFloraData(ForestType forestType, float forestWeirdness, float forestDensity)
     {
         this.forestType = forestType;
@@ -208,6 +234,39 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
         this.status = status;
     }
 
+    /**
+     * Writes the portion of this chunk data which is set by a {@link ChunkDataGenerator}, in a compact form of exactly {@link #GENERATED_SIZE} bytes. Parts of chunk data which are set later during generation (such as the aquifer and surface heights) are not included.
+     *
+     * @return {@code false} if this data could not be represented, in which case the buffer contents are undefined.
+     * @see ChunkDataStore
+     */
+    public boolean writeGenerated(ByteBuffer buffer)
+    {
+        if (rainfallLayer == null || temperatureLayer == null || rockData == null)
+        {
+            return false;
+        }
+        rainfallLayer.write(buffer);
+        temperatureLayer.write(buffer);
+        buffer.put((byte) forestType.ordinal());
+        buffer.putFloat(forestWeirdness);
+        buffer.putFloat(forestDensity);
+        buffer.put((byte) plateTectonicsInfo.ordinal());
+        return rockData.writeGenerated(buffer, rockLayerSettings);
+    }
+
+    /**
+     * Reads data written by {@link #writeGenerated(ByteBuffer)}.
+     */
+    public void readGenerated(ByteBuffer buffer)
+    {
+        setRainfall(new LerpFloatLayer(buffer));
+        setAverageTemp(new LerpFloatLayer(buffer));
+        setFloraData(ForestType.valueOf(buffer.get()), buffer.getFloat(), buffer.getFloat());
+        setPlateTectonicsInfo(PlateTectonicsClassification.valueOf(buffer.get()));
+        setRockData(new RockData(buffer, rockLayerSettings));
+    }
+
     /**
      * Create an update packet to send to client with necessary information
      */
@@ -246,17 +305,17 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
     public CompoundTag serializeNBT()
     {
         final CompoundTag nbt = new CompoundTag();
+        nbt.putByte("version", (byte) VERSION);
         nbt.putByte("status", (byte) status.ordinal());
         if (status == Status.FULL)
         {
             nbt.putByte("plateTectonicsInfo", (byte) plateTectonicsInfo.ordinal());
-            if (rainfallLayer != null)
-            {
-                nbt.put("rainfall", rainfallLayer.write());
-            }
-            if (temperatureLayer != null)
+            if (rainfallLayer != null && temperatureLayer != null)
             {
-                nbt.put("temperature", temperatureLayer.write());
+                final ByteBuffer climate = ByteBuffer.allocate(2 * 4 * 4);
+                rainfallLayer.write(climate);
+                temperatureLayer.write(climate);
+                nbt.putByteArray("climate", climate.array());
             }
             nbt.putByte("forestType", (byte) forestType.ordinal());
             nbt.putFloat("forestWeirdness", forestWeirdness);
@@ -267,7 +326,7 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
             }
             if (aquiferSurfaceHeight != null)
             {
-                nbt.putIntArray("aquiferSurfaceHeight", aquiferSurfaceHeight);
+                nbt.put("aquiferSurfaceHeight", BitPacking.write(aquiferSurfaceHeight));
             }
         }
         return nbt;
@@ -280,10 +339,28 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
         if (status == Status.FULL)
         {
             plateTectonicsInfo = PlateTectonicsClassification.valueOf(nbt.getByte("plateTectonicsInfo"));
-            rainfallLayer = nbt.contains("rainfall") ? new LerpFloatLayer(nbt.getCompound("rainfall")) : null;
-            temperatureLayer = nbt.contains("temperature") ? new LerpFloatLayer(nbt.getCompound("temperature")) : null;
-            rockData = nbt.contains("rockData", Tag.TAG_COMPOUND) ? new RockData(nbt.getCompound("rockData"), rockLayerSettings) : null;
-            aquiferSurfaceHeight = nbt.contains("aquiferSurfaceHeight") ? nbt.getIntArray("aquiferSurfaceHeight") : null;
+            if (nbt.getByte("version") == VERSION)
+            {
+                if (nbt.contains("climate", Tag.TAG_BYTE_ARRAY))
+                {
+                    final ByteBuffer climate = ByteBuffer.wrap(nbt.getByteArray("climate"));
+                    rainfallLayer = new LerpFloatLayer(climate);
+                    temperatureLayer = new LerpFloatLayer(climate);
+                }
+                else
+                {
+                    rainfallLayer = temperatureLayer = null;
+                }
+                aquiferSurfaceHeight = nbt.contains("aquiferSurfaceHeight", Tag.TAG_COMPOUND) ? BitPacking.read(nbt.getCompound("aquiferSurfaceHeight")) : null;
+            }
+            else
+            {
+                // Legacy format, with compound tags for each climate layer, and an int[] aquifer surface height
+                rainfallLayer = nbt.contains("rainfall") ? new LerpFloatLayer(nbt.getCompound("rainfall")) : null;
+                temperatureLayer = nbt.contains("temperature") ? new LerpFloatLayer(nbt.getCompound("temperature")) : null;
+                aquiferSurfaceHeight = nbt.contains("aquiferSurfaceHeight") ? nbt.getIntArray("aquiferSurfaceHeight") : null;
+            }
+            rockData = nbt.contains("rockData", Tag.TAG_COMPOUND) ? new RockData(nbt.getCompound("rockData"), rockLayerSettings) : null; // Rock data handles it's own versioning
             forestType = ForestType.valueOf(nbt.getByte("forestType"));
             forestWeirdness = nbt.getFloat("forestWeirdness");
             forestDensity = nbt.getFloat("forestDensity");
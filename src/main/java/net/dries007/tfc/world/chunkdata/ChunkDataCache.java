@@ -6,10 +6,10 @@
 
 package net.dries007.tfc.world.chunkdata;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
 
 import net.minecraft.server.level.ServerPlayer;
@@ -17,6 +17,10 @@ import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.LevelReader;
 import net.minecraftforge.network.PacketDistributor;
 
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import net.dries007.tfc.network.PacketHandler;
 import net.dries007.tfc.util.Helpers;
 import org.jetbrains.annotations.Nullable;
@@ -25,20 +29,25 @@ import org.jetbrains.annotations.Nullable;
  * Sided cache of chunk data instances, for when a world context is unavailable.
  * Automatically synchronized on chunk watch / unwatch events, and updated on chunk load and unload.
  * This is only valid in the overworld.
+ * <p>
+ * This is safe to access from multiple threads, as it is read off-thread by world generation, tooltips, and climate queries. Entries are keyed by {@link ChunkPos#toLong()}, and split across a number of independently locked segments. Reads only take a shared lock, and never reorder a segment.
+ * The cache is bounded, evicting approximately the least recently used entries when full. The bound is far larger than any reasonable number of loaded chunks, and exists to prevent unbounded growth if an entry is never removed.
  */
 public final class ChunkDataCache
 {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
     /**
      * This is a cache of client side chunk data, used for when there is no world context available.
      * It is synced on chunk watch / unwatch
      */
-    public static final ChunkDataCache CLIENT = new ChunkDataCache("client");
+    public static final ChunkDataCache CLIENT = new ChunkDataCache("client", DEFAULT_CAPACITY);
 
     /**
      * This is a cache of server side chunk data.
      * It is not synced, it is updated on chunk load / unload
      */
-    public static final ChunkDataCache SERVER = new ChunkDataCache("server");
+    public static final ChunkDataCache SERVER = new ChunkDataCache("server", DEFAULT_CAPACITY);
 
     /**
      * This is a set of chunk positions which have been queued for chunk watch, but were not loaded or generated at the time.
@@ -46,6 +55,9 @@ public final class ChunkDataCache
      */
     public static final WatchQueue WATCH_QUEUE = new WatchQueue();
 
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+
     /**
      * Gets the normal (not world gen) cache of chunk data for the current logical side
      */
@@ -54,80 +66,282 @@ public final class ChunkDataCache
         return Helpers.isClientSide(world) ? CLIENT : SERVER;
     }
 
-    private final Map<ChunkPos, ChunkData> cache;
+    private final Segment[] segments;
+    private final int maxSegmentSize;
     private final String name;
 
-    private ChunkDataCache(String name)
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), evictions = new LongAdder();
+
+    /**
+     * @param capacity The maximum number of entries. This is split evenly across segments, so eviction may start slightly before the cache is completely full.
+     */
+    public ChunkDataCache(String name, int capacity)
     {
         this.name = name;
-        this.cache = new HashMap<>();
+        this.segments = new Segment[SEGMENTS];
+        this.maxSegmentSize = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++)
+        {
+            segments[i] = new Segment();
+        }
     }
 
     @Nullable
     public ChunkData get(ChunkPos pos)
     {
-        return cache.get(pos);
+        return get(pos.x, pos.z);
+    }
+
+    @Nullable
+    public ChunkData get(int chunkX, int chunkZ)
+    {
+        final Entry entry = lookup(ChunkPos.asLong(chunkX, chunkZ));
+        (entry != null ? hits : misses).increment();
+        return entry != null ? entry.data : null;
     }
 
     @Nullable
     public ChunkData remove(ChunkPos pos)
     {
-        return cache.remove(pos);
+        final long key = pos.toLong();
+        final Segment segment = segment(key);
+        final Entry entry;
+        segment.lock.writeLock().lock();
+        try
+        {
+            entry = segment.map.remove(key);
+        }
+        finally
+        {
+            segment.lock.writeLock().unlock();
+        }
+        return entry != null ? entry.data : null;
     }
 
     public void update(ChunkPos pos, ChunkData data)
     {
-        cache.put(pos, data);
+        final long key = pos.toLong();
+        final Segment segment = segment(key);
+        segment.lock.writeLock().lock();
+        try
+        {
+            segment.map.putAndMoveToLast(key, new Entry(data));
+            evictIfFull(segment);
+        }
+        finally
+        {
+            segment.lock.writeLock().unlock();
+        }
     }
 
     public ChunkData computeIfAbsent(ChunkPos pos, Function<ChunkPos, ChunkData> mappingFunction)
     {
-        return cache.computeIfAbsent(pos, mappingFunction);
+        final long key = pos.toLong();
+        final Entry existing = lookup(key);
+        if (existing != null)
+        {
+            return existing.data;
+        }
+
+        final Segment segment = segment(key);
+        segment.lock.writeLock().lock();
+        try
+        {
+            Entry entry = segment.map.get(key);
+            if (entry == null)
+            {
+                // Another thread may have inserted it between the lookup and acquiring the write lock
+                entry = new Entry(mappingFunction.apply(pos));
+                segment.map.putAndMoveToLast(key, entry);
+                evictIfFull(segment);
+            }
+            return entry.data;
+        }
+        finally
+        {
+            segment.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all entries, and resets all counters.
+     */
+    public void clear()
+    {
+        for (Segment segment : segments)
+        {
+            segment.lock.writeLock().lock();
+            try
+            {
+                segment.map.clear();
+            }
+            finally
+            {
+                segment.lock.writeLock().unlock();
+            }
+        }
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * @return The current number of entries. This is not an atomic snapshot if the cache is being concurrently modified.
+     */
+    public int size()
+    {
+        int size = 0;
+        for (Segment segment : segments)
+        {
+            segment.lock.readLock().lock();
+            try
+            {
+                size += segment.map.size();
+            }
+            finally
+            {
+                segment.lock.readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    public long hits()
+    {
+        return hits.sum();
+    }
+
+    public long misses()
+    {
+        return misses.sum();
+    }
+
+    public long evictions()
+    {
+        return evictions.sum();
     }
 
     @Override
     public String toString()
     {
-        return "ChunkDataCache[" + name + ']';
+        return "ChunkDataCache[" + name + ", size=" + size() + ", hits=" + hits() + ", misses=" + misses() + ", evictions=" + evictions() + ']';
+    }
+
+    private Segment segment(long key)
+    {
+        return segments[(int) HashCommon.mix(key) & (SEGMENTS - 1)];
+    }
+
+    /**
+     * Reads an entry under the shared lock, so concurrent readers never wait on each other. Rather than reordering the segment, this only marks the entry as accessed, which is consulted on eviction.
+     */
+    @Nullable
+    private Entry lookup(long key)
+    {
+        final Segment segment = segment(key);
+        final Entry entry;
+        segment.lock.readLock().lock();
+        try
+        {
+            entry = segment.map.get(key);
+        }
+        finally
+        {
+            segment.lock.readLock().unlock();
+        }
+        if (entry != null && !entry.accessed)
+        {
+            entry.accessed = true; // Only write when unset, to avoid contending on the entry between readers
+        }
+        return entry;
+    }
+
+    /**
+     * Evicts in approximate least recently used order (second chance): the eldest entry is evicted, unless it has been accessed since it was last considered, in which case it is cleared and moved to the back.
+     */
+    private void evictIfFull(Segment segment)
+    {
+        while (segment.map.size() > maxSegmentSize)
+        {
+            final long eldest = segment.map.firstLongKey();
+            final Entry entry = segment.map.get(eldest);
+            if (entry.accessed)
+            {
+                entry.accessed = false;
+                segment.map.getAndMoveToLast(eldest);
+            }
+            else
+            {
+                segment.map.removeFirst();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Segment
+    {
+        final Long2ObjectLinkedOpenHashMap<Entry> map = new Long2ObjectLinkedOpenHashMap<>();
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+    }
+
+    private static final class Entry
+    {
+        final ChunkData data;
+        volatile boolean accessed;
+
+        Entry(ChunkData data)
+        {
+            this.data = data;
+        }
     }
 
     public static class WatchQueue
     {
-        private final Map<ChunkPos, Set<ServerPlayer>> queue;
+        private final Long2ObjectOpenHashMap<Set<ServerPlayer>> queue;
 
         private WatchQueue()
         {
-            queue = new HashMap<>(256);
+            queue = new Long2ObjectOpenHashMap<>(256);
         }
 
-        public void enqueueUnloadedChunk(ChunkPos pos, ServerPlayer player)
+        public synchronized void enqueueUnloadedChunk(ChunkPos pos, ServerPlayer player)
         {
-            queue.computeIfAbsent(pos, key -> new HashSet<>()).add(player);
+            queue.computeIfAbsent(pos.toLong(), key -> new ObjectOpenHashSet<>()).add(player);
         }
 
-        public void dequeueChunk(ChunkPos pos, ServerPlayer player)
+        public synchronized void dequeueChunk(ChunkPos pos, ServerPlayer player)
         {
-            Set<ServerPlayer> players = queue.get(pos);
+            final long key = pos.toLong();
+            final Set<ServerPlayer> players = queue.get(key);
             if (players != null)
             {
                 players.remove(player);
                 if (players.isEmpty())
                 {
-                    queue.remove(pos);
+                    queue.remove(key);
                 }
             }
         }
 
         public void dequeueLoadedChunk(ChunkPos pos, ChunkData data)
         {
-            if (queue.containsKey(pos))
+            final Set<ServerPlayer> players;
+            synchronized (this)
+            {
+                players = queue.remove(pos.toLong());
+            }
+            if (players != null)
             {
-                final Set<ServerPlayer> players = queue.remove(pos);
                 for (ServerPlayer player : players)
                 {
                     PacketHandler.send(PacketDistributor.PLAYER.with(() -> player), data.getUpdatePacket());
                 }
             }
         }
+
+        public synchronized int size()
+        {
+            return queue.size();
+        }
     }
-}
\ No newline at end of file
+}
@@ -17,4 +17,12 @@ public interface ChunkDataGenerator
      * Generate the provided chunk data
      */
     void generate(ChunkData data);
+
+    /**
+     * @return A fingerprint of the seed and settings used by this generator. Chunk data generated with the same fingerprint must be identical, as it may be persisted and re-used via a {@link ChunkDataStore}. A value of zero indicates that generated data should not be persisted.
+     */
+    default long fingerprint()
+    {
+        return 0;
+    }
 }
@@ -6,6 +6,7 @@
 
 package net.dries007.tfc.world.chunkdata;
 
+import java.nio.file.Path;
 import java.util.Map;
 import org.jetbrains.annotations.Nullable;
 
@@ -45,6 +46,8 @@ public final class ChunkDataProvider
     private final Map<ProtoChunk, ChunkData> partialChunkData;
     private final Map<ChunkPos, ProtoChunk> partialChunkLookup; // Needed in order to find pos -> chunks, as when we promote partial -> full, we don't have access to the protochunk.
 
+    @Nullable private volatile ChunkDataStore store;
+
     public ChunkDataProvider(ChunkDataGenerator generator, RockLayerSettings rockLayerSettings)
     {
         this.generator = generator;
@@ -89,7 +92,15 @@ public final class ChunkDataProvider
             });
             if (data.getStatus() == ChunkData.Status.EMPTY)
             {
-                generator.generate(data);
+                final ChunkDataStore store = this.store;
+                if (store == null || !store.read(data))
+                {
+                    generator.generate(data);
+                    if (store != null)
+                    {
+                        store.writeAsync(data);
+                    }
+                }
                 data.setStatus(ChunkData.Status.FULL);
             }
             return data;
@@ -158,6 +169,33 @@ public final class ChunkDataProvider
         return new ChunkData(pos, rockLayerSettings);
     }
 
+    /**
+     * Opens a persistent store of generated chunk data in the given directory, which will be checked before generating new chunk data. Does nothing if the generator does not support persisting data.
+     */
+    public void openStore(Path directory)
+    {
+        closeStore();
+        final long fingerprint = generator.fingerprint();
+        if (fingerprint != 0)
+        {
+            store = ChunkDataStore.open(directory, fingerprint);
+        }
+    }
+
+    /**
+     * Closes the persistent store of generated chunk data, if open, waiting for any pending writes to complete.
+     * World generation threads which still hold a reference to the store may attempt to write to it after it is closed, those writes are dropped.
+     */
+    public void closeStore()
+    {
+        final ChunkDataStore store = this.store;
+        if (store != null)
+        {
+            this.store = null;
+            store.close();
+        }
+    }
+
     @Override
     public String toString()
     {
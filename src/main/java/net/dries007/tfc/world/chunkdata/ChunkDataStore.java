@@ -0,0 +1,294 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.chunkdata;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import net.minecraft.world.level.ChunkPos;
+
+import com.mojang.logging.LogUtils;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+/**
+ * A persistent, on disk, store of generated {@link ChunkData}. This allows chunk data to be re-used when proto chunks are re-created (for instance, during pregeneration, or when neighbors are decorated), rather than being generated again.
+ * <p>
+ * Data is stored in region files of 32x32 chunks, each of which is a memory mapped file of fixed size slots, in the same fashion as vanilla region files. Each slot contains the output of {@link ChunkData#writeGenerated(ByteBuffer)}.
+ * Every file is stamped with a fingerprint of the seed and settings used to generate it (see {@link ChunkDataGenerator#fingerprint()}). If the fingerprint does not match, the store is discarded.
+ * <p>
+ * Reads happen on the calling (world generation) thread, writes are encoded on the calling thread and then written asynchronously.
+ */
+public final class ChunkDataStore implements AutoCloseable
+{
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final int MAGIC = 0x54464344; // 'TFCD'
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8;
+
+    private static final int REGION_BITS = 5;
+    private static final int REGION_SIZE = 1 << REGION_BITS;
+    private static final int REGION_MASK = REGION_SIZE - 1;
+
+    private static final int SLOT_SIZE = 1 + ChunkData.GENERATED_SIZE; // Presence flag + data
+    private static final int FILE_SIZE = HEADER_SIZE + SLOT_SIZE * REGION_SIZE * REGION_SIZE;
+
+    private static final int MAX_OPEN_REGIONS = 64;
+
+    private static final String FINGERPRINT_FILE = "fingerprint";
+    private static final String REGION_EXTENSION = ".tfcd";
+
+    /**
+     * Opens a store in the given directory. If the directory contains a store with a different fingerprint, it is deleted.
+     *
+     * @return A new store, or {@code null} if the store could not be opened.
+     */
+    @Nullable
+    public static ChunkDataStore open(Path directory, long fingerprint)
+    {
+        try
+        {
+            Files.createDirectories(directory);
+
+            final Path fingerprintFile = directory.resolve(FINGERPRINT_FILE);
+            final String expected = Long.toHexString(fingerprint) + ':' + VERSION;
+            if (!Files.exists(fingerprintFile) || !expected.equals(Files.readString(fingerprintFile).trim()))
+            {
+                // Stale store - generated with a different seed, settings, or format. Throw everything away.
+                try (Stream<Path> files = Files.list(directory))
+                {
+                    for (Path file : (Iterable<Path>) files::iterator)
+                    {
+                        if (file.getFileName().toString().endsWith(REGION_EXTENSION))
+                        {
+                            Files.delete(file);
+                        }
+                    }
+                }
+                Files.writeString(fingerprintFile, expected);
+            }
+            return new ChunkDataStore(directory, fingerprint);
+        }
+        catch (IOException e)
+        {
+            LOGGER.error("Unable to open chunk data store at {}, chunk data will not be persisted", directory, e);
+            return null;
+        }
+    }
+
+    private final Path directory;
+    private final long fingerprint;
+    private final Map<Long, Region> regions;
+    private final ExecutorService writer;
+    private boolean closed; // Guarded by regions
+
+    private ChunkDataStore(Path directory, long fingerprint)
+    {
+        this.directory = directory;
+        this.fingerprint = fingerprint;
+        this.regions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Region> eldest)
+            {
+                if (size() > MAX_OPEN_REGIONS)
+                {
+                    eldest.getValue().close();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            final Thread thread = new Thread(task, "TFC Chunk Data Store");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reads the generated data for a chunk, if present.
+     *
+     * @return {@code true} if the data was present, and has been read into {@code data}.
+     */
+    public boolean read(ChunkData data)
+    {
+        final ChunkPos pos = data.getPos();
+        final Region region = getRegion(pos, false);
+        if (region != null)
+        {
+            final ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE);
+            if (region.read(pos, slot) && slot.get() == 1)
+            {
+                data.readGenerated(slot);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the generated data for a chunk, asynchronously. The data is encoded immediately, so it is safe to modify it after this method returns.
+     * If the store has been closed, which may happen concurrently with world generation threads still generating data, the write is dropped.
+     */
+    public void writeAsync(ChunkData data)
+    {
+        final ChunkPos pos = data.getPos();
+        final ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE);
+        slot.put((byte) 1);
+        if (data.writeGenerated(slot))
+        {
+            slot.flip();
+            try
+            {
+                writer.execute(() -> {
+                    final Region region = getRegion(pos, true);
+                    if (region != null)
+                    {
+                        region.write(pos, slot);
+                    }
+                });
+            }
+            catch (RejectedExecutionException e)
+            {
+                LOGGER.debug("Dropped chunk data write at {}, as the store is closed", pos);
+            }
+        }
+    }
+
+    /**
+     * Waits for pending writes to finish, and flushes and closes all open region files.
+     */
+    @Override
+    public void close()
+    {
+        writer.shutdown();
+        try
+        {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS))
+            {
+                LOGGER.warn("Timed out waiting for chunk data store writes to finish");
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (regions)
+        {
+            closed = true;
+            regions.values().forEach(Region::close);
+            regions.clear();
+        }
+    }
+
+    /**
+     * @return The region containing {@code pos}, or {@code null} if it does not exist and {@code create} is false, could not be opened, or the store has been closed.
+     */
+    @Nullable
+    private Region getRegion(ChunkPos pos, boolean create)
+    {
+        final int regionX = pos.x >> REGION_BITS, regionZ = pos.z >> REGION_BITS;
+        final long key = ChunkPos.asLong(regionX, regionZ);
+        synchronized (regions)
+        {
+            if (closed)
+            {
+                return null; // Checked under the same lock as close(), so a region can't be re-opened (and leaked) after it
+            }
+            Region region = regions.get(key);
+            if (region == null)
+            {
+                final Path path = directory.resolve("r." + regionX + "." + regionZ + REGION_EXTENSION);
+                if (!create && !Files.exists(path))
+                {
+                    return null;
+                }
+                region = Region.open(path, fingerprint);
+                if (region != null)
+                {
+                    regions.put(key, region);
+                }
+            }
+            return region;
+        }
+    }
+
+    static final class Region
+    {
+        @Nullable
+        static Region open(Path path, long fingerprint)
+        {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE))
+            {
+                final boolean isNew = channel.size() < FILE_SIZE;
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE); // A mapping remains valid after the channel is closed
+                if (isNew || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(8) != fingerprint)
+                {
+                    // New or stale region, clear all slots and write a new header
+                    for (int i = HEADER_SIZE; i < FILE_SIZE; i += SLOT_SIZE)
+                    {
+                        buffer.put(i, (byte) 0);
+                    }
+                    buffer.putInt(0, MAGIC);
+                    buffer.putInt(4, VERSION);
+                    buffer.putLong(8, fingerprint);
+                }
+                return new Region(buffer);
+            }
+            catch (IOException e)
+            {
+                LOGGER.error("Unable to open chunk data region file {}", path, e);
+                return null;
+            }
+        }
+
+        private final MappedByteBuffer buffer;
+
+        Region(MappedByteBuffer buffer)
+        {
+            this.buffer = buffer;
+        }
+
+        synchronized boolean read(ChunkPos pos, ByteBuffer slot)
+        {
+            if (buffer.get(offset(pos)) != 1)
+            {
+                return false;
+            }
+            slot.put(0, buffer, offset(pos), SLOT_SIZE);
+            return true;
+        }
+
+        synchronized void write(ChunkPos pos, ByteBuffer slot)
+        {
+            buffer.put(offset(pos), slot, 0, SLOT_SIZE);
+        }
+
+        synchronized void close()
+        {
+            buffer.force();
+        }
+
+        private int offset(ChunkPos pos)
+        {
+            return HEADER_SIZE + SLOT_SIZE * ((pos.x & REGION_MASK) | ((pos.z & REGION_MASK) << REGION_BITS));
+        }
+    }
+}
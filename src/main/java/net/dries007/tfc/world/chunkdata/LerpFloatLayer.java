@@ -6,6 +6,8 @@
 
 package net.dries007.tfc.world.chunkdata;
 
+import java.nio.ByteBuffer;
+
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
 
@@ -35,6 +37,14 @@ public class LerpFloatLayer
         valueSE = nbt.getFloat("se");
     }
 
+    public LerpFloatLayer(ByteBuffer buffer)
+    {
+        valueNW = buffer.getFloat();
+        valueNE = buffer.getFloat();
+        valueSW = buffer.getFloat();
+        valueSE = buffer.getFloat();
+    }
+
     public LerpFloatLayer(float valueNW, float valueNE, float valueSW, float valueSE)
     {
         this.valueNW = valueNW;
@@ -64,6 +74,14 @@ public class LerpFloatLayer
         return nbt;
     }
 
+    public void write(ByteBuffer buffer)
+    {
+        buffer.putFloat(valueNW);
+        buffer.putFloat(valueNE);
+        buffer.putFloat(valueSW);
+        buffer.putFloat(valueSE);
+    }
+
     public void encode(FriendlyByteBuf buffer)
     {
         buffer.writeFloat(valueNW);
@@ -6,9 +6,12 @@
 
 package net.dries007.tfc.world.chunkdata;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
 import org.jetbrains.annotations.Nullable;
 
 import net.dries007.tfc.world.settings.RockLayerSettings;
@@ -16,43 +19,120 @@ import net.dries007.tfc.world.settings.RockSettings;
 
 import static net.dries007.tfc.world.TFCChunkGenerator.*;
 
+/**
+ * Rock layers for a single chunk.
+ * <p>
+ * Rocks are stored as {@code byte} indices into a palette of the (few) distinct rocks present in this chunk, and layer heights as {@code byte}s, as this is retained for every loaded chunk.
+ * When saved, the palette indices and surface heights are bit packed, see {@link BitPacking}.
+ */
 public class RockData
 {
     private static final int SIZE = 16 * 16;
+    private static final int LAYERS = 3;
+    private static final int BOTTOM = 0, MIDDLE = SIZE, TOP = 2 * SIZE;
+
+    /**
+     * The size, in bytes, of the generated portion of rock data. Three layers of rock indices, plus the layer height.
+     */
+    public static final int GENERATED_SIZE = 4 * SIZE;
+
+    /**
+     * The version of the NBT format written by {@link #write(RockLayerSettings)}. Data without a version is assumed to be the original format, of one {@code int[]} per layer.
+     */
+    private static final int VERSION = 2;
 
     private static int index(int x, int z)
     {
         return (x & 15) | ((z & 15) << 4);
     }
 
-    private final RockSettings[] bottomLayer;
-    private final RockSettings[] middleLayer;
-    private final RockSettings[] topLayer;
-    private final int[] rockLayerHeight;
+    private final RockSettings[] palette;
+    private final byte[] rocks; // Indices into the palette, for the bottom, middle and top layers
+    private final byte[] rockLayerHeight;
 
     private int @Nullable [] surfaceHeight;
 
     public RockData(RockSettings[] bottomLayer, RockSettings[] middleLayer, RockSettings[] topLayer, int[] rockLayerHeight)
     {
-        this.bottomLayer = bottomLayer;
-        this.middleLayer = middleLayer;
-        this.topLayer = topLayer;
-        this.rockLayerHeight = rockLayerHeight;
+        final PaletteBuilder builder = new PaletteBuilder();
+
+        this.rocks = new byte[LAYERS * SIZE];
+        this.rockLayerHeight = new byte[SIZE];
         this.surfaceHeight = null;
+
+        builder.add(bottomLayer, rocks, BOTTOM);
+        builder.add(middleLayer, rocks, MIDDLE);
+        builder.add(topLayer, rocks, TOP);
+        this.palette = builder.build();
+
+        for (int i = 0; i < SIZE; i++)
+        {
+            this.rockLayerHeight[i] = (byte) rockLayerHeight[i];
+        }
     }
 
     public RockData(CompoundTag nbt, RockLayerSettings settings)
     {
-        this.bottomLayer = new RockSettings[SIZE];
-        this.middleLayer = new RockSettings[SIZE];
-        this.topLayer = new RockSettings[SIZE];
+        this.rocks = new byte[LAYERS * SIZE];
+        this.rockLayerHeight = new byte[SIZE];
+
+        final List<RockSettings> globalPalette = settings.getRocks();
+        if (nbt.getByte("version") == VERSION)
+        {
+            final int[] globalIndices = nbt.getIntArray("palette");
+            this.palette = new RockSettings[globalIndices.length];
+            for (int i = 0; i < globalIndices.length; i++)
+            {
+                palette[i] = globalPalette.get(globalIndices[i]);
+            }
+
+            final int[] indices = new int[LAYERS * SIZE];
+            BitPacking.unpack(nbt.getLongArray("rocks"), indices, 0, indices.length, 0, BitPacking.bitsFor(palette.length));
+            for (int i = 0; i < indices.length; i++)
+            {
+                rocks[i] = (byte) indices[i];
+            }
+
+            final byte[] height = nbt.getByteArray("height");
+            System.arraycopy(height, 0, rockLayerHeight, 0, SIZE);
+            surfaceHeight = nbt.contains("surfaceHeight", Tag.TAG_COMPOUND) ? BitPacking.read(nbt.getCompound("surfaceHeight")) : null;
+        }
+        else
+        {
+            // Legacy format, one int[] of global palette indices per layer
+            final PaletteBuilder builder = new PaletteBuilder();
+            builder.add(nbt.getIntArray("bottomLayer"), globalPalette, rocks, BOTTOM);
+            builder.add(nbt.getIntArray("middleLayer"), globalPalette, rocks, MIDDLE);
+            builder.add(nbt.getIntArray("topLayer"), globalPalette, rocks, TOP);
+            this.palette = builder.build();
+
+            final int[] height = nbt.getIntArray("height");
+            for (int i = 0; i < SIZE; i++)
+            {
+                rockLayerHeight[i] = (byte) height[i];
+            }
+            surfaceHeight = nbt.contains("surfaceHeight") ? nbt.getIntArray("surfaceHeight") : null;
+        }
+    }
+
+    /**
+     * Reads the generated portion of rock data, see {@link #writeGenerated(ByteBuffer, RockLayerSettings)}
+     */
+    public RockData(ByteBuffer buffer, RockLayerSettings settings)
+    {
+        final PaletteBuilder builder = new PaletteBuilder();
+        final List<RockSettings> globalPalette = settings.getRocks();
 
-        read(bottomLayer, nbt.getIntArray("bottomLayer"), settings);
-        read(middleLayer, nbt.getIntArray("middleLayer"), settings);
-        read(topLayer, nbt.getIntArray("topLayer"), settings);
+        this.rocks = new byte[LAYERS * SIZE];
+        this.rockLayerHeight = new byte[SIZE];
+        this.surfaceHeight = null;
 
-        rockLayerHeight = nbt.getIntArray("height");
-        surfaceHeight = nbt.contains("surfaceHeight") ? nbt.getIntArray("surfaceHeight") : null;
+        for (int i = 0; i < rocks.length; i++)
+        {
+            rocks[i] = builder.indexOf(globalPalette.get(buffer.get() & 0xFF));
+        }
+        buffer.get(rockLayerHeight);
+        this.palette = builder.build();
     }
 
     public RockSettings getRock(BlockPos pos)
@@ -69,21 +149,21 @@ public class RockData
         final int rh = rockLayerHeight[i];
         if (y > (int) (SEA_LEVEL_Y + 46 - 0.2 * sh + rh)) // todo: un-hardcode these, keep a sea level reference held by the rock data instance.
         {
-            return topLayer[i];
+            return palette[rocks[TOP + i] & 0xFF];
         }
         else if (y > (int) (SEA_LEVEL_Y - 34 - 0.2 * sh + rh))
         {
-            return middleLayer[i];
+            return palette[rocks[MIDDLE + i] & 0xFF];
         }
         else
         {
-            return bottomLayer[i];
+            return palette[rocks[BOTTOM + i] & 0xFF];
         }
     }
 
     public RockSettings getBottomRock(int x, int z)
     {
-        return bottomLayer[index(x, z)];
+        return palette[rocks[BOTTOM + index(x, z)] & 0xFF];
     }
 
     public void setSurfaceHeight(int[] surfaceHeightMap)
@@ -94,39 +174,113 @@ public class RockData
     public CompoundTag write(RockLayerSettings settings)
     {
         final CompoundTag nbt = new CompoundTag();
+        final List<RockSettings> globalPalette = settings.getRocks();
+        final int[] globalIndices = new int[palette.length];
+        for (int i = 0; i < palette.length; i++)
+        {
+            globalIndices[i] = globalPalette.indexOf(palette[i]); // indexOf() is O(n), but the palette is small
+        }
 
-        // Record the raw byte values
-        nbt.putIntArray("bottomLayer", write(bottomLayer, settings));
-        nbt.putIntArray("middleLayer", write(middleLayer, settings));
-        nbt.putIntArray("topLayer", write(topLayer, settings));
+        final int[] indices = new int[LAYERS * SIZE];
+        for (int i = 0; i < indices.length; i++)
+        {
+            indices[i] = rocks[i] & 0xFF;
+        }
 
-        nbt.putIntArray("height", rockLayerHeight);
+        nbt.putByte("version", (byte) VERSION);
+        nbt.putIntArray("palette", globalIndices);
+        nbt.putLongArray("rocks", BitPacking.pack(indices, 0, indices.length, 0, BitPacking.bitsFor(palette.length)));
+        nbt.putByteArray("height", rockLayerHeight);
         if (surfaceHeight != null)
         {
-            nbt.putIntArray("surfaceHeight", surfaceHeight);
+            nbt.put("surfaceHeight", BitPacking.write(surfaceHeight));
         }
         return nbt;
     }
 
-    private int[] write(RockSettings[] layer, RockLayerSettings settings)
+    /**
+     * Writes the generated portion of rock data (rock layers and layer height, but not the surface height) in a compact form, of exactly {@link #GENERATED_SIZE} bytes.
+     *
+     * @return {@code false} if this data could not be represented, for instance if there are more than 256 rocks, in which case the buffer contents are undefined.
+     */
+    public boolean writeGenerated(ByteBuffer buffer, RockLayerSettings settings)
     {
-        final int[] array = new int[SIZE];
-        final List<RockSettings> palette = settings.getRocks();
-        for (int i = 0; i < array.length; i++)
+        final List<RockSettings> globalPalette = settings.getRocks();
+        final byte[] globalIndices = new byte[palette.length];
+        for (int i = 0; i < palette.length; i++)
+        {
+            final int index = globalPalette.indexOf(palette[i]);
+            if (index < 0 || index > 0xFF)
+            {
+                return false;
+            }
+            globalIndices[i] = (byte) index;
+        }
+        for (byte rock : rocks)
         {
-            array[i] = palette.indexOf(layer[i]); // indexOf() is O(n) but should be fast enough for our purposes, this isn't called that often
+            buffer.put(globalIndices[rock & 0xFF]);
         }
-        return array;
+        buffer.put(rockLayerHeight);
+        return true;
     }
 
-    private void read(RockSettings[] layer, int[] data, RockLayerSettings settings)
+    /**
+     * Builds a palette of distinct rocks, by identity. There are typically only a handful of distinct rocks in a chunk, so a linear search is faster than hashing.
+     */
+    private static final class PaletteBuilder
     {
-        assert data.length == SIZE;
+        private RockSettings[] palette = new RockSettings[8];
+        private int size = 0;
+
+        byte indexOf(RockSettings rock)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                if (palette[i] == rock)
+                {
+                    return (byte) i;
+                }
+            }
+            if (size > 0xFF)
+            {
+                throw new IllegalStateException("More than 256 distinct rocks in a single chunk");
+            }
+            if (size == palette.length)
+            {
+                palette = Arrays.copyOf(palette, size * 2);
+            }
+            palette[size] = rock;
+            return (byte) size++;
+        }
+
+        void add(RockSettings[] layer, byte[] rocks, int offset)
+        {
+            RockSettings last = null;
+            byte lastIndex = 0;
+            for (int i = 0; i < SIZE; i++)
+            {
+                final RockSettings rock = layer[i];
+                if (rock != last)
+                {
+                    last = rock;
+                    lastIndex = indexOf(rock);
+                }
+                rocks[offset + i] = lastIndex;
+            }
+        }
+
+        void add(int[] globalIndices, List<RockSettings> globalPalette, byte[] rocks, int offset)
+        {
+            assert globalIndices.length == SIZE;
+            for (int i = 0; i < SIZE; i++)
+            {
+                rocks[offset + i] = indexOf(globalPalette.get(globalIndices[i]));
+            }
+        }
 
-        final List<RockSettings> palette = settings.getRocks();
-        for (int i = 0; i < data.length; i++)
+        RockSettings[] build()
         {
-            layer[i] = palette.get(data[i]);
+            return Arrays.copyOf(palette, size);
         }
     }
-}
\ No newline at end of file
+}
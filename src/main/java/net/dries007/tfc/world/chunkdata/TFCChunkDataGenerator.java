@@ -12,6 +12,8 @@ import java.util.Random;
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.ChunkPos;
 
+import com.mojang.serialization.JsonOps;
+import it.unimi.dsi.fastutil.HashCommon;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.IArtist;
 import net.dries007.tfc.util.climate.ClimateModel;
@@ -47,6 +49,8 @@ public class TFCChunkDataGenerator implements ChunkDataGenerator
 
     private final ConcurrentArea<PlateTectonicsClassification> plateTectonicsInfo;
 
+    private final long fingerprint;
+
     public TFCChunkDataGenerator(long worldSeed, RockLayerSettings rockLayerSettings, ClimateSettings temperatureSettings, ClimateSettings rainfallSettings)
     {
         final Random random = new Random(worldSeed);
@@ -80,6 +84,16 @@ public class TFCChunkDataGenerator implements ChunkDataGenerator
 
         // Plate Tectonics
         plateTectonicsInfo = new ConcurrentArea<>(TFCLayers.createOverworldPlateTectonicInfoLayer(worldSeed), PlateTectonicsClassification::valueOf);
+
+        // Rock layer settings are hashed via their encoded form, as the settings objects themselves don't have stable hash codes
+        final String encodedRockLayerSettings = RockLayerSettings.CODEC.encodeStart(JsonOps.INSTANCE, rockLayerSettings).result().map(Object::toString).orElse("");
+        fingerprint = HashCommon.murmurHash3(HashCommon.murmurHash3(HashCommon.murmurHash3(worldSeed) ^ encodedRockLayerSettings.hashCode()) ^ (31L * temperatureSettings.hashCode() + rainfallSettings.hashCode())) | 1;
+    }
+
+    @Override
+    public long fingerprint()
+    {
+        return fingerprint;
     }
 
     @Override
@@ -109,16 +123,15 @@ public class TFCChunkDataGenerator implements ChunkDataGenerator
         final RockSettings[] topLayer = new RockSettings[256];
         final int[] rockLayerHeight = new int[256];
 
-        for (int x = 0; x < 16; x++)
+        bottomRockLayer.fill(chunkX, chunkZ, 16, 16, bottomLayer);
+        middleRockLayer.fill(chunkX, chunkZ, 16, 16, middleLayer);
+        topRockLayer.fill(chunkX, chunkZ, 16, 16, topLayer);
+
+        final float[] layerHeight = new float[256];
+        layerHeightNoise.fill(chunkX, chunkZ, 16, 16, layerHeight);
+        for (int i = 0; i < 256; i++)
         {
-            for (int z = 0; z < 16; z++)
-            {
-                bottomLayer[x + 16 * z] = bottomRockLayer.get(chunkX + x, chunkZ + z);
-                middleLayer[x + 16 * z] = middleRockLayer.get(chunkX + x, chunkZ + z);
-                topLayer[x + 16 * z] = topRockLayer.get(chunkX + x, chunkZ + z);
-
-                rockLayerHeight[x + 16 * z] = (int) layerHeightNoise.noise(chunkX + x, chunkZ + z);
-            }
+            rockLayerHeight[i] = (int) layerHeight[i];
         }
 
         data.setRainfall(new LerpFloatLayer(rainNW, rainNE, rainSW, rainSE));
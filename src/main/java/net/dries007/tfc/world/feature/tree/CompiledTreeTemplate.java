@@ -0,0 +1,227 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.feature.tree;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.templatesystem.BlockIgnoreProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+
+import com.google.common.collect.MapMaker;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.ShortArrayList;
+import net.dries007.tfc.util.EnvironmentHelpers;
+import net.dries007.tfc.util.Helpers;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A structure template palette, pre-transformed by a mirror and rotation, and flattened for fast placement by {@link TreeHelpers#placeTemplate(StructureTemplate, net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings, LevelAccessor, BlockPos)}.
+ * <p>
+ * This is equivalent to {@link StructureTemplate#processBlockInfos(LevelAccessor, BlockPos, BlockPos, net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings, List, StructureTemplate)} with only {@link BlockIgnoreProcessor#STRUCTURE_AND_AIR}, followed by mirroring and rotating each state, except it is done once per palette and transform, rather than once per tree.
+ * Blocks are stored in the original palette order, as packed relative offsets, with an index into a palette of transformed states.
+ * <p>
+ * Compiled templates are cached by palette (weakly, by identity), and the cache is cleared on data pack reload, as templates will be reloaded by the structure manager.
+ */
+public final class CompiledTreeTemplate
+{
+    private static final Mirror[] MIRRORS = Mirror.values();
+    private static final Rotation[] ROTATIONS = Rotation.values();
+
+    private static final int BITS = 10;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int MAX_OFFSET = 1 << (BITS - 1);
+
+    private static final Map<StructureTemplate.Palette, CompiledTreeTemplate[]> CACHE = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * @return The palette compiled with the given transform, or {@code null} if the palette was too large to compile.
+     */
+    @Nullable
+    public static CompiledTreeTemplate get(StructureTemplate.Palette palette, Mirror mirror, Rotation rotation)
+    {
+        return CACHE.computeIfAbsent(palette, CompiledTreeTemplate::compileAll)[mirror.ordinal() * ROTATIONS.length + rotation.ordinal()];
+    }
+
+    public static void clearCache()
+    {
+        CACHE.clear();
+    }
+
+    private static CompiledTreeTemplate[] compileAll(StructureTemplate.Palette palette)
+    {
+        final CompiledTreeTemplate[] templates = new CompiledTreeTemplate[MIRRORS.length * ROTATIONS.length];
+        for (Mirror mirror : MIRRORS)
+        {
+            for (Rotation rotation : ROTATIONS)
+            {
+                templates[mirror.ordinal() * ROTATIONS.length + rotation.ordinal()] = compile(palette.blocks(), mirror, rotation);
+            }
+        }
+        return templates;
+    }
+
+    /**
+     * Compiles a list of blocks (i.e. from a {@link StructureTemplate.Palette}) without caching.
+     *
+     * @return The compiled template, or {@code null} if the blocks span too large an area to compile.
+     */
+    @Nullable
+    @SuppressWarnings("deprecation")
+    public static CompiledTreeTemplate compile(List<StructureTemplate.StructureBlockInfo> blocks, Mirror mirror, Rotation rotation)
+    {
+        final IntArrayList offsets = new IntArrayList(blocks.size());
+        final ShortArrayList indices = new ShortArrayList(blocks.size());
+        final ObjectArrayList<BlockState> states = new ObjectArrayList<>();
+        final Reference2IntOpenHashMap<BlockState> stateToIndex = new Reference2IntOpenHashMap<>();
+        stateToIndex.defaultReturnValue(-1);
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (StructureTemplate.StructureBlockInfo info : blocks)
+        {
+            // Equivalent to BlockIgnoreProcessor.STRUCTURE_AND_AIR
+            if (info.state.getBlock() == Blocks.STRUCTURE_BLOCK || info.state.getBlock() == Blocks.AIR)
+            {
+                continue;
+            }
+
+            final BlockPos pos = TreeHelpers.transform(info.pos, mirror, rotation);
+            if (Math.abs(pos.getX()) >= MAX_OFFSET || Math.abs(pos.getY()) >= MAX_OFFSET || Math.abs(pos.getZ()) >= MAX_OFFSET || states.size() > Short.MAX_VALUE)
+            {
+                return null;
+            }
+
+            final BlockState state = info.state.mirror(mirror).rotate(rotation);
+            int index = stateToIndex.getInt(state);
+            if (index == -1)
+            {
+                index = states.size();
+                states.add(state);
+                stateToIndex.put(state, index);
+            }
+
+            offsets.add((pos.getX() & MASK) | (pos.getY() & MASK) << BITS | (pos.getZ() & MASK) << (2 * BITS));
+            indices.add((short) index);
+
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            minZ = Math.min(minZ, pos.getZ());
+            maxX = Math.max(maxX, pos.getX());
+            maxY = Math.max(maxY, pos.getY());
+            maxZ = Math.max(maxZ, pos.getZ());
+        }
+        final BoundingBox box = offsets.isEmpty() ? new BoundingBox(0, 0, 0, 0, 0, 0) : new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+        return new CompiledTreeTemplate(offsets.toIntArray(), indices.toShortArray(), states.toArray(new BlockState[0]), box);
+    }
+
+    private static int unpack(int packed, int shift)
+    {
+        return (packed << (32 - BITS - shift)) >> (32 - BITS);
+    }
+
+    private final int[] offsets;
+    private final short[] stateIndices;
+    private final BlockState[] states;
+    private final BoundingBox bounds;
+
+    private CompiledTreeTemplate(int[] offsets, short[] stateIndices, BlockState[] states, BoundingBox bounds)
+    {
+        this.offsets = offsets;
+        this.stateIndices = stateIndices;
+        this.states = states;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Places the template, replacing only worldgen replaceable blocks and leaves.
+     *
+     * @see #forEachBlock(BlockPos, BoundingBox, Random, float, BlockConsumer)
+     */
+    public void place(LevelAccessor level, BlockPos origin, @Nullable BoundingBox box, Random random, float integrity)
+    {
+        forEachBlock(origin, box, random, integrity, (pos, state) -> {
+            final BlockState stateAt = level.getBlockState(pos);
+            if (EnvironmentHelpers.isWorldgenReplaceable(stateAt) || Helpers.isBlock(stateAt.getBlock(), BlockTags.LEAVES))
+            {
+                level.setBlock(pos, state, 2);
+            }
+        });
+    }
+
+    /**
+     * Visits each block of the template, in order, at it's absolute position.
+     *
+     * @param box If not {@code null}, only blocks within this box will be visited.
+     * @param random The placement random. This is only used if {@code integrity < 1}.
+     * @param integrity Equivalent to a {@link net.minecraft.world.level.levelgen.structure.templatesystem.BlockRotProcessor}. Blocks are skipped with probability {@code 1 - integrity}, consuming from {@code random} in the same order as the processor.
+     * @param consumer The consumer. The position is mutable, and only valid for the duration of the call.
+     */
+    public void forEachBlock(BlockPos origin, @Nullable BoundingBox box, Random random, float integrity, BlockConsumer consumer)
+    {
+        final int originX = origin.getX(), originY = origin.getY(), originZ = origin.getZ();
+        final boolean clip = box != null && !(box.isInside(originX + bounds.minX(), originY + bounds.minY(), originZ + bounds.minZ()) && box.isInside(originX + bounds.maxX(), originY + bounds.maxY(), originZ + bounds.maxZ()));
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < offsets.length; i++)
+        {
+            // The processor is applied to all blocks, before the bounding box is checked
+            if (integrity < 1 && random.nextFloat() > integrity)
+            {
+                continue;
+            }
+
+            final int packed = offsets[i];
+            cursor.set(originX + unpack(packed, 0), originY + unpack(packed, BITS), originZ + unpack(packed, 2 * BITS));
+            if (!clip || box.isInside(cursor))
+            {
+                consumer.accept(cursor, states[stateIndices[i]]);
+            }
+        }
+    }
+
+    /**
+     * @return The number of blocks in this template.
+     */
+    public int size()
+    {
+        return offsets.length;
+    }
+
+    /**
+     * @return The position of the {@code index}-th block, relative to the template origin.
+     */
+    public BlockPos getPos(int index)
+    {
+        final int packed = offsets[index];
+        return new BlockPos(unpack(packed, 0), unpack(packed, BITS), unpack(packed, 2 * BITS));
+    }
+
+    /**
+     * @return The transformed state of the {@code index}-th block.
+     */
+    public BlockState getState(int index)
+    {
+        return states[stateIndices[index]];
+    }
+
+    @FunctionalInterface
+    public interface BlockConsumer
+    {
+        void accept(BlockPos.MutableBlockPos pos, BlockState state);
+    }
+}
@@ -23,10 +23,10 @@ import net.minecraft.world.level.levelgen.feature.Feature;
 import net.minecraft.world.level.levelgen.feature.FeaturePlaceContext;
 
 import com.mojang.serialization.Codec;
-import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.blocks.TFCBlockStateProperties;
 import net.dries007.tfc.common.blocks.wood.ILeavesBlock;
 import net.dries007.tfc.common.fluids.FluidHelpers;
+import net.dries007.tfc.util.BlockTagFlags;
 import net.dries007.tfc.util.EnvironmentHelpers;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.world.chunkdata.ChunkData;
@@ -217,7 +217,7 @@ public class ForestFeature extends Feature<ForestConfig>
         mutablePos.move(Direction.DOWN);
         BlockState downState = level.getBlockState(mutablePos);
         mutablePos.move(Direction.UP);
-        if (Helpers.isBlock(downState, TFCTags.Blocks.BUSH_PLANTABLE_ON) || Helpers.isBlock(downState, TFCTags.Blocks.SEA_BUSH_PLANTABLE_ON))
+        if (BlockTagFlags.is(downState, BlockTagFlags.BUSH_PLANTABLE_ON | BlockTagFlags.SEA_BUSH_PLANTABLE_ON))
         {
             final ForestConfig.Entry entry = getTree(data, random, config, mutablePos);
             if (entry != null)
@@ -22,18 +22,20 @@ import net.minecraft.world.level.block.state.BlockBehaviour;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraft.world.level.levelgen.structure.templatesystem.BlockIgnoreProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.BlockRotProcessor;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructureManager;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessor;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
 import net.minecraft.world.level.material.Fluid;
 import net.minecraft.world.level.material.FluidState;
 import net.minecraft.world.level.material.Fluids;
 
-import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.blocks.RiverWaterBlock;
 import net.dries007.tfc.common.fluids.FluidHelpers;
 import net.dries007.tfc.common.fluids.TFCFluids;
 import net.dries007.tfc.mixin.accessor.StructureTemplateAccessor;
+import net.dries007.tfc.util.BlockTagFlags;
 import net.dries007.tfc.util.EnvironmentHelpers;
 import net.dries007.tfc.util.Helpers;
 
@@ -92,10 +94,11 @@ public final class TreeHelpers
         mutablePos.move(0, -1, 0);
 
         final BlockState stateBelow = level.getBlockState(mutablePos);
-        boolean treeGrowsOn = Helpers.isBlock(stateBelow, TFCTags.Blocks.TREE_GROWS_ON);
+        final int flagsBelow = BlockTagFlags.get(stateBelow);
+        boolean treeGrowsOn = (flagsBelow & BlockTagFlags.TREE_GROWS_ON) != 0;
         if (config.allowSubmerged() && isInWater)
         {
-            treeGrowsOn |= Helpers.isBlock(stateBelow, TFCTags.Blocks.SEA_BUSH_PLANTABLE_ON);
+            treeGrowsOn |= (flagsBelow & BlockTagFlags.SEA_BUSH_PLANTABLE_ON) != 0;
         }
         return treeGrowsOn;
     }
@@ -111,7 +114,8 @@ public final class TreeHelpers
 
         mutablePos.move(0, -1, 0);
         final BlockState stateBelow = level.getBlockState(mutablePos);
-        return Helpers.isBlock(stateBelow, TFCTags.Blocks.SEA_BUSH_PLANTABLE_ON) && Helpers.isBlock(stateBelow, TFCTags.Blocks.TREE_GROWS_ON);
+        final int flagsBelow = BlockTagFlags.get(stateBelow);
+        return (flagsBelow & BlockTagFlags.SEA_BUSH_PLANTABLE_ON) != 0 && (flagsBelow & BlockTagFlags.TREE_GROWS_ON) != 0;
     }
 
     /**
@@ -149,9 +153,37 @@ public final class TreeHelpers
      */
     public static void placeTemplate(StructureTemplate template, StructurePlaceSettings placementIn, LevelAccessor level, BlockPos pos)
     {
-        final List<StructureTemplate.StructureBlockInfo> transformedBlockInfos = placementIn.getRandomPalette(((StructureTemplateAccessor) template).accessor$getPalettes(), pos).blocks();
+        placeTemplate(template, placementIn, level, pos, 1f);
+    }
+
+    /**
+     * Places a template, using a {@link CompiledTreeTemplate} if the placement settings only use the default processors from {@link #getPlacementSettings(LevelHeightAccessor, ChunkPos, Random)}.
+     *
+     * @param integrity If less than one, blocks are randomly removed as if by a {@link BlockRotProcessor} with this integrity.
+     */
+    public static void placeTemplate(StructureTemplate template, StructurePlaceSettings placementIn, LevelAccessor level, BlockPos pos, float integrity)
+    {
+        final StructureTemplate.Palette palette = placementIn.getRandomPalette(((StructureTemplateAccessor) template).accessor$getPalettes(), pos);
+        final List<StructureProcessor> processors = placementIn.getProcessors();
+        final CompiledTreeTemplate compiled = processors.size() == 1 && processors.get(0) == BlockIgnoreProcessor.STRUCTURE_AND_AIR ? CompiledTreeTemplate.get(palette, placementIn.getMirror(), placementIn.getRotation()) : null;
+        if (compiled != null)
+        {
+            compiled.place(level, pos, placementIn.getBoundingBox(), placementIn.getRandom(pos), integrity);
+        }
+        else
+        {
+            placeProcessedTemplate(template, palette, integrity < 1 ? placementIn.copy().addProcessor(new BlockRotProcessor(integrity)) : placementIn, level, pos);
+        }
+    }
+
+    /**
+     * Places a palette of a template, applying all processors from the placement settings, for every placement.
+     * This is the general (and slow) path of {@link #placeTemplate(StructureTemplate, StructurePlaceSettings, LevelAccessor, BlockPos)}.
+     */
+    public static void placeProcessedTemplate(StructureTemplate template, StructureTemplate.Palette palette, StructurePlaceSettings placementIn, LevelAccessor level, BlockPos pos)
+    {
         BoundingBox boundingBox = placementIn.getBoundingBox();
-        for (StructureTemplate.StructureBlockInfo blockInfo : StructureTemplate.processBlockInfos(level, pos, pos, placementIn, transformedBlockInfos, template))
+        for (StructureTemplate.StructureBlockInfo blockInfo : StructureTemplate.processBlockInfos(level, pos, pos, placementIn, palette.blocks(), template))
         {
             BlockPos posAt = blockInfo.pos;
             if (boundingBox == null || boundingBox.isInside(posAt))
@@ -74,17 +74,27 @@ public abstract class VeinFeature<C extends VeinConfig, V extends Vein> extends
         return veins;
     }
 
+    /**
+     * Adds the vein originating in the given chunk, if there is one, and it can spawn in the biome at its position. Veins are cached per level in a {@link VeinIndex} before the biome check, which is applied with the caller's biome query, so callers with different biome queries do not observe each other's results.
+     */
     public final void getVeinsAtChunk(WorldGenLevel level, WorldGenerationContext context, int chunkPosX, int chunkPosZ, List<V> veins, C config, Function<BlockPos, Holder<Biome>> biomeQuery)
+    {
+        final V vein = VeinIndex.get(level).getOrCreate(config, chunkPosX, chunkPosZ, () -> createVeinAtChunk(level, context, chunkPosX, chunkPosZ, config));
+        if (vein != null && config.canSpawnInBiome(biomeQuery.apply(vein.getPos())))
+        {
+            veins.add(vein);
+        }
+    }
+
+    @Nullable
+    private V createVeinAtChunk(WorldGenLevel level, WorldGenerationContext context, int chunkPosX, int chunkPosZ, C config)
     {
         final RandomSource forkedRandom = config.random(level.getSeed(), chunkPosX, chunkPosZ);
         if (config.random(level.getSeed(), chunkPosX, chunkPosZ).nextInt(config.getRarity()) == 0)
         {
-            final V vein = createVein(context, chunkPosX << 4, chunkPosZ << 4, forkedRandom, config);
-            if (config.canSpawnInBiome(biomeQuery.apply(vein.getPos())))
-            {
-                veins.add(vein);
-            }
+            return createVein(context, chunkPosX << 4, chunkPosZ << 4, forkedRandom, config);
         }
+        return null;
     }
 
     protected void place(WorldGenLevel level, ChunkGenerator generator, Random random, int blockX, int blockZ, V vein, C config)
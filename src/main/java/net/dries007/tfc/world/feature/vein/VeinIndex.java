@@ -0,0 +1,61 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.feature.vein;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.WorldGenLevel;
+
+import com.google.common.collect.MapMaker;
+import net.dries007.tfc.world.FastConcurrentCache;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A per-level index of veins, by the chunk that they originate in.
+ * <p>
+ * Each vein is visible from every chunk within {@link VeinConfig#getChunkRadius()} of its origin, so without this, each would be rebuilt for every one of those chunks. Veins are cached before any biome check, as callers query biomes differently. They are immutable once created, and are a pure function of the level seed, config, and origin chunk, so they are safe to share between worldgen threads, and with {@link net.dries007.tfc.common.commands.LocateCommand}.
+ * <p>
+ * Levels and configs are both weakly referenced (by identity), so that unloaded levels and configs from previous data pack loads are not retained.
+ */
+public final class VeinIndex
+{
+    /**
+     * The number of origin chunks cached per config. This only needs to cover the chunks currently being decorated, plus their radius.
+     */
+    private static final int CACHE_SIZE = 4096;
+    private static final ConcurrentMap<ServerLevel, VeinIndex> INDICES = new MapMaker().weakKeys().makeMap();
+
+    public static VeinIndex get(WorldGenLevel level)
+    {
+        return INDICES.computeIfAbsent(level.getLevel(), key -> new VeinIndex());
+    }
+
+    private final ConcurrentMap<VeinConfig, FastConcurrentCache<Optional<? extends Vein>>> caches = new MapMaker().weakKeys().makeMap();
+
+    private VeinIndex() {}
+
+    /**
+     * @param factory Creates the vein originating in this chunk, if there is one. This must be deterministic, as racing threads may both compute the value for the same chunk.
+     * @return The vein originating in the chunk, or {@code null} if there is none.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    <V extends Vein> V getOrCreate(VeinConfig config, int chunkX, int chunkZ, Supplier<V> factory)
+    {
+        final FastConcurrentCache<Optional<? extends Vein>> cache = caches.computeIfAbsent(config, key -> new FastConcurrentCache<>(CACHE_SIZE));
+        Optional<? extends Vein> vein = cache.getIfPresent(chunkX, chunkZ);
+        if (vein == null)
+        {
+            vein = Optional.ofNullable(factory.get());
+            cache.set(chunkX, chunkZ, vein);
+        }
+        return (V) vein.orElse(null);
+    }
+}
@@ -24,7 +24,25 @@ public class MergeRiverLayer implements TransformLayer
     @Override
     public int apply(AreaContext context, Area area, int x, int z)
     {
-        final int value = area.get(x, z);
+        return apply(area.get(x, z), x, z);
+    }
+
+    @Override
+    public void fill(AreaContext context, Area area, int minX, int minZ, int width, int height, int[] out)
+    {
+        area.fill(minX, minZ, width, height, out);
+        for (int z = 0; z < height; z++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                final int index = x + width * z;
+                out[index] = apply(out[index], minX + x, minZ + z);
+            }
+        }
+    }
+
+    private int apply(int value, int x, int z)
+    {
         if (TFCLayers.hasRiver(value))
         {
             final float scale = 1f / (1 << 7);
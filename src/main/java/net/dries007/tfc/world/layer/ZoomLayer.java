@@ -73,5 +73,47 @@ public enum ZoomLayer implements TransformLayer
         return choose(context, northWest, area.get(parentX, parentZ + 1), area.get(parentX + 1, parentZ), area.get(parentX + 1, parentZ + 1));
     }
 
+    @Override
+    public void fill(AreaContext context, Area area, int minX, int minZ, int width, int height, int[] out)
+    {
+        // The parent tile covers every parent position, plus one extra in the positive direction for interpolation
+        final int minParentX = minX >> 1, minParentZ = minZ >> 1;
+        final int parentWidth = ((minX + width - 1) >> 1) - minParentX + 2;
+        final int parentHeight = ((minZ + height - 1) >> 1) - minParentZ + 2;
+        final int[] parent = new int[parentWidth * parentHeight];
+        area.fill(minParentX, minParentZ, parentWidth, parentHeight, parent);
+
+        for (int z = 0; z < height; z++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                final int parentX = (minX + x) >> 1, parentZ = (minZ + z) >> 1;
+                final int offsetX = (minX + x) & 1, offsetZ = (minZ + z) & 1;
+                final int index = (parentX - minParentX) + parentWidth * (parentZ - minParentZ);
+                final int northWest = parent[index];
+
+                context.setSeed(parentX, parentZ);
+                final int value;
+                if (offsetX == 0 && offsetZ == 0)
+                {
+                    value = northWest;
+                }
+                else if (offsetX == 0)
+                {
+                    value = context.choose(northWest, parent[index + parentWidth]);
+                }
+                else if (offsetZ == 0)
+                {
+                    value = context.choose(northWest, parent[index + 1]);
+                }
+                else
+                {
+                    value = choose(context, northWest, parent[index + parentWidth], parent[index + 1], parent[index + 1 + parentWidth]);
+                }
+                out[x + width * z] = value;
+            }
+        }
+    }
+
     public abstract int choose(AreaContext context, int first, int second, int third, int fourth);
 }
@@ -17,5 +17,23 @@ public interface AdjacentTransformLayer extends TransformLayer
         return apply(context, area.get(x, z - 1), area.get(x + 1, z), area.get(x, z + 1), area.get(x - 1, z), area.get(x, z));
     }
 
+    @Override
+    default void fill(AreaContext context, Area area, int minX, int minZ, int width, int height, int[] out)
+    {
+        // Fill the previous area with a one wide border, so every adjacent value is present
+        final int prevWidth = width + 2;
+        final int[] prev = new int[prevWidth * (height + 2)];
+        area.fill(minX - 1, minZ - 1, prevWidth, height + 2, prev);
+        for (int z = 0; z < height; z++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                final int center = (x + 1) + prevWidth * (z + 1);
+                context.setSeed(minX + x, minZ + z);
+                out[x + width * z] = apply(context, prev[center - prevWidth], prev[center + 1], prev[center + prevWidth], prev[center - 1], prev[center]);
+            }
+        }
+    }
+
     int apply(AreaContext context, int north, int east, int south, int west, int center);
 }
@@ -55,4 +55,42 @@ public class Area
             return value;
         }
     }
+
+    /**
+     * Computes a rectangle of values, through the cache. If any value is not cached, the whole rectangle is computed in one batch and cached. This is much faster than repeated calls to {@link #get(int, int)} when querying contiguous areas, as each layer computes a whole tile from the previous layer's tile.
+     *
+     * @param out An array of at least {@code width * height} values, indexed by {@code (x - minX) + width * (z - minZ)}.
+     */
+    public void fill(int minX, int minZ, int width, int height, int[] out)
+    {
+        for (int dz = 0; dz < height; dz++)
+        {
+            for (int dx = 0; dx < width; dx++)
+            {
+                final long key = ChunkPos.asLong(minX + dx, minZ + dz);
+                final int index = (int) HashCommon.mix(key) & mask;
+                if (keys[index] != key)
+                {
+                    fillUncached(minX, minZ, width, height, out);
+                    return;
+                }
+                out[dx + width * dz] = values[index];
+            }
+        }
+    }
+
+    private void fillUncached(int minX, int minZ, int width, int height, int[] out)
+    {
+        source.fill(minX, minZ, width, height, out);
+        for (int dz = 0; dz < height; dz++)
+        {
+            for (int dx = 0; dx < width; dx++)
+            {
+                final long key = ChunkPos.asLong(minX + dx, minZ + dz);
+                final int index = (int) HashCommon.mix(key) & mask;
+                keys[index] = key;
+                values[index] = out[dx + width * dz];
+            }
+        }
+    }
 }
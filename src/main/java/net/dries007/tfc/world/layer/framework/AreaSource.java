@@ -13,4 +13,20 @@ package net.dries007.tfc.world.layer.framework;
 public interface AreaSource
 {
     int apply(int x, int z);
+
+    /**
+     * Computes a rectangle of values in one batch. Implementations should produce identical values to {@link #apply(int, int)} for each position.
+     *
+     * @param out An array of at least {@code width * height} values, indexed by {@code (x - minX) + width * (z - minZ)}.
+     */
+    default void fill(int minX, int minZ, int width, int height, int[] out)
+    {
+        for (int z = 0; z < height; z++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                out[x + width * z] = apply(minX + x, minZ + z);
+            }
+        }
+    }
 }
@@ -17,5 +17,22 @@ public interface CenterMergeLayer extends MergeLayer
         return apply(context, first.get(x, z), second.get(x, z));
     }
 
+    @Override
+    default void fill(AreaContext context, Area first, Area second, int minX, int minZ, int width, int height, int[] out)
+    {
+        final int[] secondValues = new int[width * height];
+        first.fill(minX, minZ, width, height, out);
+        second.fill(minX, minZ, width, height, secondValues);
+        for (int z = 0; z < height; z++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                final int index = x + width * z;
+                context.setSeed(minX + x, minZ + z);
+                out[index] = apply(context, out[index], secondValues[index]);
+            }
+        }
+    }
+
     int apply(AreaContext context, int first, int second);
 }
@@ -17,5 +17,20 @@ public interface CenterTransformLayer extends TransformLayer
         return apply(context, area.get(x, z));
     }
 
+    @Override
+    default void fill(AreaContext context, Area area, int minX, int minZ, int width, int height, int[] out)
+    {
+        area.fill(minX, minZ, width, height, out);
+        for (int z = 0; z < height; z++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                final int index = x + width * z;
+                context.setSeed(minX + x, minZ + z);
+                out[index] = apply(context, out[index]);
+            }
+        }
+    }
+
     int apply(AreaContext context, int value);
 }
@@ -27,4 +27,19 @@ public class ConcurrentArea<T>
     {
         return mappingFunction.apply(area.get().get(x, z));
     }
+
+    /**
+     * @param out An array of at least {@code width * height} values, indexed by {@code (x - minX) + width * (z - minZ)}.
+     * @see Area#fill(int, int, int, int, int[])
+     */
+    public void fill(int minX, int minZ, int width, int height, T[] out)
+    {
+        final int size = width * height;
+        final int[] values = new int[size];
+        area.get().fill(minX, minZ, width, height, values);
+        for (int i = 0; i < size; i++)
+        {
+            out[i] = mappingFunction.apply(values[i]);
+        }
+    }
 }
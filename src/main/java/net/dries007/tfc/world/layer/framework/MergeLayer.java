@@ -13,16 +13,42 @@ public interface MergeLayer
 {
     default AreaFactory apply(long seed, AreaFactory first, AreaFactory second)
     {
+        final MergeLayer layer = this;
         return () -> {
             final AreaContext context = new AreaContext(seed);
             final Area firstArea = first.get();
             final Area secondArea = second.get();
-            return new Area((x, z) -> {
-                context.setSeed(x, z);
-                return apply(context, firstArea, secondArea, x, z);
+            return new Area(new AreaSource() {
+                @Override
+                public int apply(int x, int z)
+                {
+                    context.setSeed(x, z);
+                    return layer.apply(context, firstArea, secondArea, x, z);
+                }
+
+                @Override
+                public void fill(int minX, int minZ, int width, int height, int[] out)
+                {
+                    layer.fill(context, firstArea, secondArea, minX, minZ, width, height, out);
+                }
             }, 1024);
         };
     }
 
     int apply(AreaContext context, Area first, Area second, int x, int z);
+
+    /**
+     * Computes a rectangle of values, see {@link AreaSource#fill(int, int, int, int, int[])}.
+     */
+    default void fill(AreaContext context, Area first, Area second, int minX, int minZ, int width, int height, int[] out)
+    {
+        for (int z = 0; z < height; z++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                context.setSeed(minX + x, minZ + z);
+                out[x + width * z] = apply(context, first, second, minX + x, minZ + z);
+            }
+        }
+    }
 }
@@ -14,15 +14,42 @@ public interface TransformLayer
 {
     default AreaFactory apply(long seed, AreaFactory prev)
     {
+        final TransformLayer layer = this;
         return () -> {
             final AreaContext context = new AreaContext(seed);
             final Area prevArea = prev.get();
-            return new Area((x, z) -> {
-                context.setSeed(x, z);
-                return apply(context, prevArea, x, z);
+            return new Area(new AreaSource() {
+                @Override
+                public int apply(int x, int z)
+                {
+                    context.setSeed(x, z);
+                    return layer.apply(context, prevArea, x, z);
+                }
+
+                @Override
+                public void fill(int minX, int minZ, int width, int height, int[] out)
+                {
+                    layer.fill(context, prevArea, minX, minZ, width, height, out);
+                }
             }, 1024);
         };
     }
 
     int apply(AreaContext context, Area area, int x, int z);
+
+    /**
+     * Computes a rectangle of values, see {@link AreaSource#fill(int, int, int, int, int[])}.
+     * Implementations which only access a fixed neighborhood of the previous area should override this to fill the previous area in one batch.
+     */
+    default void fill(AreaContext context, Area area, int minX, int minZ, int width, int height, int[] out)
+    {
+        for (int z = 0; z < height; z++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                context.setSeed(minX + x, minZ + z);
+                out[x + width * z] = apply(context, area, minX + x, minZ + z);
+            }
+        }
+    }
 }
@@ -10,12 +10,42 @@ import net.minecraft.util.Mth;
 
 /**
  * Wrapper for a 2D noise layer
+ * <p>
+ * Noise can be sampled one point at a time with {@link #noise(float, float)}, or in batches with {@link #fill(float[], float[], float[], int)}. All combinators carry over to batches, and produce results identical to sampling each point.
+ * Batches are evaluated one combinator at a time, over the whole batch, using simple loops over {@code float[]}s (see {@link NoiseBatches}) which the JIT is able to vectorize.
  */
 @FunctionalInterface
 public interface Noise2D
 {
     float noise(float x, float z);
 
+    /**
+     * Samples a batch of points, {@code out[i] = noise(xs[i], zs[i])}.
+     *
+     * @param xs The x coordinates. Must not be modified.
+     * @param zs The z coordinates. Must not be modified.
+     * @param out The output array, which may not be the same as either of the coordinate arrays.
+     * @param count The number of points to sample.
+     */
+    default void fill(float[] xs, float[] zs, float[] out, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            out[i] = noise(xs[i], zs[i]);
+        }
+    }
+
+    /**
+     * Samples a grid of integer points, {@code out[x + width * z] = noise(minX + x, minZ + z)}.
+     */
+    default void fill(int minX, int minZ, int width, int height, float[] out)
+    {
+        final int count = width * height;
+        final float[] xs = new float[count], zs = new float[count];
+        NoiseBatches.grid(minX, minZ, width, height, xs, zs);
+        fill(xs, zs, out, count);
+    }
+
     /**
      * @param octaves The number of octaves
      */
@@ -28,13 +58,32 @@ public interface Noise2D
             frequency[i] = 1 << i;
             amplitude[i] = (float) Math.pow(0.5f, octaves - i);
         }
-        return (x, y) -> {
-            float value = 0;
-            for (int i = 0; i < octaves; i++)
+        return new Noise2D()
+        {
+            @Override
+            public float noise(float x, float z)
             {
-                value += Noise2D.this.noise(x / frequency[i], y / frequency[i]) * amplitude[i];
+                float value = 0;
+                for (int i = 0; i < octaves; i++)
+                {
+                    value += Noise2D.this.noise(x / frequency[i], z / frequency[i]) * amplitude[i];
+                }
+                return value;
+            }
+
+            @Override
+            public void fill(float[] xs, float[] zs, float[] out, int count)
+            {
+                final float[] octaveXs = new float[count], octaveZs = new float[count], octave = new float[count];
+                NoiseBatches.fill(out, count, 0);
+                for (int i = 0; i < octaves; i++)
+                {
+                    NoiseBatches.divide(xs, octaveXs, count, frequency[i]);
+                    NoiseBatches.divide(zs, octaveZs, count, frequency[i]);
+                    Noise2D.this.fill(octaveXs, octaveZs, octave, count);
+                    NoiseBatches.multiplyAdd(octave, out, count, amplitude[i]);
+                }
             }
-            return value;
         };
     }
 
@@ -45,11 +94,10 @@ public interface Noise2D
      */
     default Noise2D ridged()
     {
-        return (x, y) -> {
-            float value = Noise2D.this.noise(x, y);
+        return map(value -> {
             value = value < 0 ? -value : value;
             return 1f - 2f * value;
-        };
+        }, NoiseBatches::ridged);
     }
 
     /**
@@ -59,7 +107,7 @@ public interface Noise2D
      */
     default Noise2D abs()
     {
-        return (x, y) -> Math.abs(Noise2D.this.noise(x, y));
+        return map(Math::abs, NoiseBatches::abs);
     }
 
     /**
@@ -71,11 +119,11 @@ public interface Noise2D
      */
     default Noise2D terraces(int levels)
     {
-        return (x, y) -> {
-            float value = 0.5f * Noise2D.this.noise(x, y) + 0.5f;
+        return map(value -> {
+            value = 0.5f * value + 0.5f;
             float rounded = (int) (value * levels); // In range [0, levels)
             return (rounded * 2f) / levels - 1f;
-        };
+        }, (values, count) -> NoiseBatches.terraces(values, count, levels));
     }
 
     /**
@@ -86,7 +134,23 @@ public interface Noise2D
      */
     default Noise2D spread(float scaleFactor)
     {
-        return (x, y) -> Noise2D.this.noise(x * scaleFactor, y * scaleFactor);
+        return new Noise2D()
+        {
+            @Override
+            public float noise(float x, float z)
+            {
+                return Noise2D.this.noise(x * scaleFactor, z * scaleFactor);
+            }
+
+            @Override
+            public void fill(float[] xs, float[] zs, float[] out, int count)
+            {
+                final float[] spreadXs = new float[count], spreadZs = new float[count];
+                NoiseBatches.multiply(xs, spreadXs, count, scaleFactor);
+                NoiseBatches.multiply(zs, spreadZs, count, scaleFactor);
+                Noise2D.this.fill(spreadXs, spreadZs, out, count);
+            }
+        };
     }
 
     default Noise2D scaled(float min, float max)
@@ -112,7 +176,7 @@ public interface Noise2D
 
     default Noise2D affine(float scale, float shift)
     {
-        return (x, y) -> Noise2D.this.noise(x, y) * scale + shift;
+        return map(value -> value * scale + shift, (values, count) -> NoiseBatches.affine(values, count, scale, shift));
     }
 
     default Noise2D warped(OpenSimplex2D warp)
@@ -138,7 +202,7 @@ public interface Noise2D
      */
     default Noise2D clamped(float min, float max)
     {
-        return (x, y) -> Mth.clamp(Noise2D.this.noise(x, y), min, max);
+        return map(value -> Mth.clamp(value, min, max), (values, count) -> NoiseBatches.clamp(values, count, min, max));
     }
 
     /**
@@ -146,23 +210,89 @@ public interface Noise2D
      */
     default Noise2D add(Noise2D other)
     {
-        return (x, y) -> Noise2D.this.noise(x, y) + other.noise(x, y);
+        return new Noise2D()
+        {
+            @Override
+            public float noise(float x, float z)
+            {
+                return Noise2D.this.noise(x, z) + other.noise(x, z);
+            }
+
+            @Override
+            public void fill(float[] xs, float[] zs, float[] out, int count)
+            {
+                final float[] otherOut = new float[count];
+                Noise2D.this.fill(xs, zs, out, count);
+                other.fill(xs, zs, otherOut, count);
+                NoiseBatches.add(otherOut, out, count);
+            }
+        };
     }
 
     /**
      * Product of two noises - lazily evaluates the second if the first evaluates to zero.
+     * When evaluated as a batch, the second is only evaluated if the first is non-zero anywhere in the batch.
      */
     default Noise2D lazyProduct(Noise2D other)
     {
-        return (x, y) -> {
-            final float value = Noise2D.this.noise(x, y);
-            return value == 0 ? 0 : value * other.noise(x, y);
+        return new Noise2D()
+        {
+            @Override
+            public float noise(float x, float z)
+            {
+                final float value = Noise2D.this.noise(x, z);
+                return value == 0 ? 0 : value * other.noise(x, z);
+            }
+
+            @Override
+            public void fill(float[] xs, float[] zs, float[] out, int count)
+            {
+                Noise2D.this.fill(xs, zs, out, count);
+                if (NoiseBatches.isZero(out, count))
+                {
+                    NoiseBatches.fill(out, count, 0); // Normalizes -0
+                }
+                else
+                {
+                    final float[] otherOut = new float[count];
+                    other.fill(xs, zs, otherOut, count);
+                    NoiseBatches.lazyMultiply(otherOut, out, count);
+                }
+            }
         };
     }
 
     default Noise2D map(FloatOperator mappingFunction)
     {
-        return (x, y) -> mappingFunction.applyAsFloat(Noise2D.this.noise(x, y));
+        return map(mappingFunction, (values, count) -> {
+            for (int i = 0; i < count; i++)
+            {
+                values[i] = mappingFunction.applyAsFloat(values[i]);
+            }
+        });
+    }
+
+    /**
+     * @param mappingFunction The mapping function, applied to a single value.
+     * @param batchMappingFunction The same mapping function, applied in place to a batch of values.
+     */
+    private Noise2D map(FloatOperator mappingFunction, NoiseBatches.BatchOperator batchMappingFunction)
+    {
+        return new Noise2D()
+        {
+            @Override
+            public float noise(float x, float z)
+            {
+                return mappingFunction.applyAsFloat(Noise2D.this.noise(x, z));
+            }
+
+            @Override
+            public void fill(float[] xs, float[] zs, float[] out, int count)
+            {
+                Noise2D.this.fill(xs, zs, out, count);
+                batchMappingFunction.apply(out, count);
+            }
+        };
     }
 
     @FunctionalInterface
@@ -170,4 +300,4 @@ public interface Noise2D
     {
         float applyAsFloat(float f);
     }
-}
\ No newline at end of file
+}
@@ -8,12 +8,31 @@ package net.dries007.tfc.world.noise;
 
 /**
  * Wrapper for a 3D Noise Layer
+ * <p>
+ * As with {@link Noise2D}, noise can be sampled one point at a time, or in batches with {@link #fill(float[], float[], float[], float[], int)}, with identical results.
  */
 @FunctionalInterface
 public interface Noise3D
 {
     float noise(float x, float y, float z);
 
+    /**
+     * Samples a batch of points, {@code out[i] = noise(xs[i], ys[i], zs[i])}.
+     *
+     * @param xs The x coordinates. Must not be modified.
+     * @param ys The y coordinates. Must not be modified.
+     * @param zs The z coordinates. Must not be modified.
+     * @param out The output array, which may not be the same as any of the coordinate arrays.
+     * @param count The number of points to sample.
+     */
+    default void fill(float[] xs, float[] ys, float[] zs, float[] out, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            out[i] = noise(xs[i], ys[i], zs[i]);
+        }
+    }
+
     /**
      * @param octaves The number of octaves
      */
@@ -26,13 +45,33 @@ public interface Noise3D
             frequency[i] = 1 << i;
             amplitude[i] = (float) Math.pow(0.5f, octaves - i);
         }
-        return (x, y, z) -> {
-            float value = 0;
-            for (int i = 0; i < octaves; i++)
+        return new Noise3D()
+        {
+            @Override
+            public float noise(float x, float y, float z)
             {
-                value += Noise3D.this.noise(x / frequency[i], y / frequency[i], z / frequency[i]) * amplitude[i];
+                float value = 0;
+                for (int i = 0; i < octaves; i++)
+                {
+                    value += Noise3D.this.noise(x / frequency[i], y / frequency[i], z / frequency[i]) * amplitude[i];
+                }
+                return value;
+            }
+
+            @Override
+            public void fill(float[] xs, float[] ys, float[] zs, float[] out, int count)
+            {
+                final float[] octaveXs = new float[count], octaveYs = new float[count], octaveZs = new float[count], octave = new float[count];
+                NoiseBatches.fill(out, count, 0);
+                for (int i = 0; i < octaves; i++)
+                {
+                    NoiseBatches.divide(xs, octaveXs, count, frequency[i]);
+                    NoiseBatches.divide(ys, octaveYs, count, frequency[i]);
+                    NoiseBatches.divide(zs, octaveZs, count, frequency[i]);
+                    Noise3D.this.fill(octaveXs, octaveYs, octaveZs, octave, count);
+                    NoiseBatches.multiplyAdd(octave, out, count, amplitude[i]);
+                }
             }
-            return value;
         };
     }
 
@@ -44,7 +83,24 @@ public interface Noise3D
      */
     default Noise3D spread(float scaleFactor)
     {
-        return (x, y, z) -> Noise3D.this.noise(x * scaleFactor, y * scaleFactor, z * scaleFactor);
+        return new Noise3D()
+        {
+            @Override
+            public float noise(float x, float y, float z)
+            {
+                return Noise3D.this.noise(x * scaleFactor, y * scaleFactor, z * scaleFactor);
+            }
+
+            @Override
+            public void fill(float[] xs, float[] ys, float[] zs, float[] out, int count)
+            {
+                final float[] spreadXs = new float[count], spreadYs = new float[count], spreadZs = new float[count];
+                NoiseBatches.multiply(xs, spreadXs, count, scaleFactor);
+                NoiseBatches.multiply(ys, spreadYs, count, scaleFactor);
+                NoiseBatches.multiply(zs, spreadZs, count, scaleFactor);
+                Noise3D.this.fill(spreadXs, spreadYs, spreadZs, out, count);
+            }
+        };
     }
 
     default Noise3D scaled(float min, float max)
@@ -63,9 +119,21 @@ public interface Noise3D
      */
     default Noise3D scaled(float oldMin, float oldMax, float min, float max)
     {
-        return (x, y, z) -> {
-            float value = Noise3D.this.noise(x, y, z);
-            return (value - oldMin) / (oldMax - oldMin) * (max - min) + min;
+        return new Noise3D()
+        {
+            @Override
+            public float noise(float x, float y, float z)
+            {
+                float value = Noise3D.this.noise(x, y, z);
+                return (value - oldMin) / (oldMax - oldMin) * (max - min) + min;
+            }
+
+            @Override
+            public void fill(float[] xs, float[] ys, float[] zs, float[] out, int count)
+            {
+                Noise3D.this.fill(xs, ys, zs, out, count);
+                NoiseBatches.rescale(out, count, oldMin, oldMax, min, max);
+            }
         };
     }
 
@@ -83,4 +151,4 @@ public interface Noise3D
             return Noise3D.this.noise(cursor.x, cursor.y, cursor.z);
         };
     }
-}
\ No newline at end of file
+}
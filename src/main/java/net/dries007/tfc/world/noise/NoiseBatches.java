@@ -0,0 +1,160 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.noise;
+
+import net.minecraft.util.Mth;
+
+/**
+ * Operations over batches of noise values, used by {@link Noise2D#fill(float[], float[], float[], int)} and {@link Noise3D#fill(float[], float[], float[], float[], int)}.
+ * <p>
+ * Each is a single counted loop over {@code float[]}s without branches or calls (where possible), which is the shape that the JIT is able to auto-vectorize. Each performs exactly the same floating point operations, in the same order, as the equivalent point-wise combinator, so the results are identical.
+ */
+final class NoiseBatches
+{
+    static void grid(int minX, int minZ, int width, int height, float[] xs, float[] zs)
+    {
+        for (int z = 0; z < height; z++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                xs[x + width * z] = minX + x;
+                zs[x + width * z] = minZ + z;
+            }
+        }
+    }
+
+    static void fill(float[] values, int count, float value)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            values[i] = value;
+        }
+    }
+
+    static void multiply(float[] src, float[] dst, int count, float factor)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            dst[i] = src[i] * factor;
+        }
+    }
+
+    static void divide(float[] src, float[] dst, int count, float divisor)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            dst[i] = src[i] / divisor;
+        }
+    }
+
+    /**
+     * {@code dst += src * factor}
+     */
+    static void multiplyAdd(float[] src, float[] dst, int count, float factor)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            dst[i] += src[i] * factor;
+        }
+    }
+
+    /**
+     * {@code dst += src}
+     */
+    static void add(float[] src, float[] dst, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            dst[i] += src[i];
+        }
+    }
+
+    /**
+     * {@code dst = dst == 0 ? 0 : dst * src}
+     */
+    static void lazyMultiply(float[] src, float[] dst, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            dst[i] = dst[i] == 0 ? 0 : dst[i] * src[i];
+        }
+    }
+
+    static boolean isZero(float[] values, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            if (values[i] != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void affine(float[] values, int count, float scale, float shift)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            values[i] = values[i] * scale + shift;
+        }
+    }
+
+    /**
+     * Re-scales from {@code [oldMin, oldMax]} to {@code [min, max]}, see {@link Noise3D#scaled(float, float, float, float)}
+     */
+    static void rescale(float[] values, int count, float oldMin, float oldMax, float min, float max)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            values[i] = (values[i] - oldMin) / (oldMax - oldMin) * (max - min) + min;
+        }
+    }
+
+    static void clamp(float[] values, int count, float min, float max)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            values[i] = Mth.clamp(values[i], min, max);
+        }
+    }
+
+    static void abs(float[] values, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            values[i] = Math.abs(values[i]);
+        }
+    }
+
+    static void ridged(float[] values, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            final float value = values[i];
+            values[i] = 1f - 2f * (value < 0 ? -value : value);
+        }
+    }
+
+    static void terraces(float[] values, int count, int levels)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            final float value = 0.5f * values[i] + 0.5f;
+            final float rounded = (int) (value * levels);
+            values[i] = (rounded * 2f) / levels - 1f;
+        }
+    }
+
+    @FunctionalInterface
+    interface BatchOperator
+    {
+        void apply(float[] values, int count);
+    }
+
+    private NoiseBatches() {}
+}
@@ -35,6 +35,16 @@ public class OpenSimplex2D implements Noise2D
         return midpoint + fnl.GetNoise(x, z) * amplitude;
     }
 
+    @Override
+    public void fill(float[] xs, float[] zs, float[] out, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            out[i] = fnl.GetNoise(xs[i], zs[i]);
+        }
+        NoiseBatches.affine(out, count, amplitude, midpoint);
+    }
+
     @Override
     public OpenSimplex2D octaves(int octaves)
     {
@@ -36,6 +36,16 @@ public class OpenSimplex3D implements Noise3D
         return midpoint + fnl.GetNoise(x, y, z) * amplitude;
     }
 
+    @Override
+    public void fill(float[] xs, float[] ys, float[] zs, float[] out, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            out[i] = fnl.GetNoise(xs[i], ys[i], zs[i]);
+        }
+        NoiseBatches.affine(out, count, amplitude, midpoint);
+    }
+
     @Override
     public OpenSimplex3D octaves(int octaves)
     {
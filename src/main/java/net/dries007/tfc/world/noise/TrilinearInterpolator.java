@@ -41,7 +41,15 @@ public final class TrilinearInterpolator
 
     public void initializeForFirstCellX()
     {
-        fillSlice(slice0, settings.firstCellX());
+        initializeForCellX(0);
+    }
+
+    /**
+     * Initializes the first slice at an arbitrary cell x, allowing interpolation to start part way through the chunk. Slices are pure functions of their position, so this is identical to advancing from the first cell.
+     */
+    public void initializeForCellX(int cellX)
+    {
+        fillSlice(slice0, settings.firstCellX() + cellX);
     }
 
     public void advanceCellX(int cellX)
@@ -0,0 +1,122 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A minimal micro-benchmark harness, for comparing two implementations from within a (disabled) test.
+ * This is not a replacement for a proper harness such as JMH, but runs without any additional build setup. Each benchmark is a {@link LongSupplier} which performs a number of operations and returns a value which is consumed (to avoid dead code elimination).
+ */
+public final class Benchmark
+{
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static long sink;
+
+    /**
+     * Runs a single threaded benchmark.
+     *
+     * @param name The name to report.
+     * @param operations The number of operations one invocation of {@code body} performs.
+     * @param body The benchmark body.
+     * @return The average time per operation, in nanoseconds.
+     */
+    public static double run(String name, int operations, LongSupplier body)
+    {
+        return run(name, operations, 10, 20, body);
+    }
+
+    public static double run(String name, int operations, int warmupIterations, int iterations, LongSupplier body)
+    {
+        for (int i = 0; i < warmupIterations; i++)
+        {
+            sink += body.getAsLong();
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+        {
+            sink += body.getAsLong();
+        }
+        final long elapsed = System.nanoTime() - start;
+        final double nanosPerOp = (double) elapsed / ((long) iterations * operations);
+
+        LOGGER.info("{}: {} ns/op ({} iterations x {} ops)", name, String.format("%.2f", nanosPerOp), iterations, operations);
+        return nanosPerOp;
+    }
+
+    /**
+     * Runs a multithreaded benchmark, where each thread is given it's own body to run.
+     *
+     * @param name The name to report.
+     * @param threads The number of threads to use.
+     * @param operations The number of operations one invocation of a body performs.
+     * @param bodyFactory A factory for a benchmark body, given a thread index.
+     * @return The aggregate throughput, in operations per microsecond.
+     */
+    public static double runThreaded(String name, int threads, int operations, int iterations, IntFunction<LongSupplier> bodyFactory)
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch ready = new CountDownLatch(threads), go = new CountDownLatch(1);
+        final List<Future<Long>> futures = new ArrayList<>();
+        try
+        {
+            for (int t = 0; t < threads; t++)
+            {
+                final LongSupplier body = bodyFactory.apply(t);
+                futures.add(executor.submit(() -> {
+                    long result = 0;
+                    for (int i = 0; i < iterations; i++)
+                    {
+                        result += body.getAsLong(); // Warmup
+                    }
+                    ready.countDown();
+                    go.await();
+                    for (int i = 0; i < iterations; i++)
+                    {
+                        result += body.getAsLong();
+                    }
+                    return result;
+                }));
+            }
+
+            ready.await();
+            final long start = System.nanoTime();
+            go.countDown();
+            for (Future<Long> future : futures)
+            {
+                sink += future.get();
+            }
+            final long elapsed = System.nanoTime() - start;
+            final double opsPerMicro = (double) threads * iterations * operations / (elapsed / 1000d);
+
+            LOGGER.info("{} [{} threads]: {} ops/us", name, threads, String.format("%.2f", opsPerMicro));
+            return opsPerMicro;
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private Benchmark() {}
+}
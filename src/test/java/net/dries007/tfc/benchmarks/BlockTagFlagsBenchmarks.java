@@ -0,0 +1,97 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import net.dries007.tfc.Benchmark;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.TFCTags;
+import net.dries007.tfc.util.BlockTagFlags;
+import net.dries007.tfc.util.Helpers;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares a block tag check through {@link Helpers#isBlock(BlockState, TagKey)} and {@link BlockState#is(TagKey)}, against a bit test with {@link BlockTagFlags}.
+ * Each operation is the check done for a neighbor update: whether the state can landslide, and whether it breaks when isolated. Random vanilla blocks are bound to the hot TFC tags, and most checked states are in neither tag, like most neighbors of a block update.
+ */
+@Disabled
+public class BlockTagFlagsBenchmarks extends TestHelper
+{
+    static final int STATES = 4096;
+
+    @Test
+    public void benchmarkNeighborUpdateCheck()
+    {
+        final Random random = new Random(seed());
+        final List<Block> blocks = new ArrayList<>();
+        Registry.BLOCK.forEach(blocks::add);
+
+        // Bind a random tenth of all blocks to each of the tags
+        final Map<TagKey<Block>, List<Holder<Block>>> tags = new HashMap<>();
+        for (TagKey<Block> tag : List.of(TFCTags.Blocks.CAN_COLLAPSE, TFCTags.Blocks.CAN_LANDSLIDE, TFCTags.Blocks.BREAKS_WHEN_ISOLATED, TFCTags.Blocks.TREE_GROWS_ON, TFCTags.Blocks.TOUGHNESS_1, TFCTags.Blocks.TOUGHNESS_2))
+        {
+            final List<Holder<Block>> holders = new ArrayList<>();
+            for (Block block : blocks)
+            {
+                if (random.nextInt(10) == 0)
+                {
+                    holders.add(Registry.BLOCK.getHolderOrThrow(Registry.BLOCK.getResourceKey(block).orElseThrow()));
+                }
+            }
+            tags.put(tag, holders);
+        }
+        Registry.BLOCK.bindTags(tags);
+        BlockTagFlags.reload(blocks, (block, tag) -> block.defaultBlockState().is(tag));
+
+        final BlockState[] states = new BlockState[STATES];
+        for (int i = 0; i < STATES; i++)
+        {
+            states[i] = blocks.get(random.nextInt(blocks.size())).defaultBlockState();
+        }
+
+        Benchmark.run("Helpers.isBlock", STATES, () -> {
+            long found = 0;
+            for (BlockState state : states)
+            {
+                found += Helpers.isBlock(state, TFCTags.Blocks.CAN_LANDSLIDE) ? 1 : 0;
+                found += Helpers.isBlock(state, TFCTags.Blocks.BREAKS_WHEN_ISOLATED) ? 1 : 0;
+            }
+            return found;
+        });
+        Benchmark.run("BlockState.is", STATES, () -> {
+            long found = 0;
+            for (BlockState state : states)
+            {
+                found += state.is(TFCTags.Blocks.CAN_LANDSLIDE) ? 1 : 0;
+                found += state.is(TFCTags.Blocks.BREAKS_WHEN_ISOLATED) ? 1 : 0;
+            }
+            return found;
+        });
+        Benchmark.run("BlockTagFlags", STATES, () -> {
+            long found = 0;
+            for (BlockState state : states)
+            {
+                final int flags = BlockTagFlags.get(state);
+                found += (flags & BlockTagFlags.CAN_LANDSLIDE) != 0 ? 1 : 0;
+                found += (flags & BlockTagFlags.BREAKS_WHEN_ISOLATED) != 0 ? 1 : 0;
+            }
+            return found;
+        });
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.world.level.ChunkPos;
+
+import net.dries007.tfc.Benchmark;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.test.world.ChunkDataFormatTests;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.settings.RockLayerSettings;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the size, save, and load cost of the current (versioned, bit packed) {@link ChunkData} NBT format against the original format of an {@code int[]} per layer.
+ */
+@Disabled
+public class ChunkDataFormatBenchmarks extends TestHelper
+{
+    static final Logger LOGGER = LogManager.getLogger();
+    static final int CHUNKS = 1024;
+
+    @Test
+    public void benchmarkFormat()
+    {
+        final Random random = new Random(seed());
+        final RockLayerSettings settings = ChunkDataFormatTests.createRockSettings();
+        final ChunkData[] chunks = new ChunkData[CHUNKS];
+        final ChunkDataFormatTests.Sample[] samples = new ChunkDataFormatTests.Sample[CHUNKS];
+        final CompoundTag[] legacyTags = new CompoundTag[CHUNKS], compactTags = new CompoundTag[CHUNKS];
+        for (int i = 0; i < CHUNKS; i++)
+        {
+            samples[i] = ChunkDataFormatTests.createSample(random, settings);
+            chunks[i] = ChunkDataFormatTests.createData(new ChunkPos(i, 0), settings, samples[i]);
+            legacyTags[i] = ChunkDataFormatTests.writeLegacy(settings, samples[i]);
+            compactTags[i] = chunks[i].serializeNBT();
+        }
+
+        LOGGER.info("Legacy format: {} bytes/chunk ({} compressed)", bytesPerChunk(legacyTags, false), bytesPerChunk(legacyTags, true));
+        LOGGER.info("Compact format: {} bytes/chunk ({} compressed)", bytesPerChunk(compactTags, false), bytesPerChunk(compactTags, true));
+
+        Benchmark.run("Legacy save", CHUNKS, () -> {
+            long sum = 0;
+            for (ChunkDataFormatTests.Sample sample : samples)
+            {
+                sum += ChunkDataFormatTests.writeLegacy(settings, sample).size();
+            }
+            return sum;
+        });
+        Benchmark.run("Compact save", CHUNKS, () -> {
+            long sum = 0;
+            for (ChunkData chunk : chunks)
+            {
+                sum += chunk.serializeNBT().size();
+            }
+            return sum;
+        });
+        Benchmark.run("Legacy load", CHUNKS, () -> load(settings, legacyTags));
+        Benchmark.run("Compact load", CHUNKS, () -> load(settings, compactTags));
+    }
+
+    private long load(RockLayerSettings settings, CompoundTag[] tags)
+    {
+        long sum = 0;
+        for (int i = 0; i < tags.length; i++)
+        {
+            final ChunkData data = new ChunkData(new ChunkPos(i, 0), settings);
+            data.deserializeNBT(tags[i]);
+            sum += data.getRockData().getBottomRock(i, i).hashCode();
+        }
+        return sum;
+    }
+
+    private long bytesPerChunk(CompoundTag[] tags, boolean compressed)
+    {
+        try
+        {
+            long total = 0;
+            for (CompoundTag tag : tags)
+            {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                if (compressed)
+                {
+                    NbtIo.writeCompressed(tag, bytes);
+                }
+                else
+                {
+                    NbtIo.write(tag, new DataOutputStream(bytes));
+                }
+                total += bytes.size();
+            }
+            return total / tags.length;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
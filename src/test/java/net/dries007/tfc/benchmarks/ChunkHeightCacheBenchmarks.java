@@ -0,0 +1,119 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmarks;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import net.minecraft.core.QuartPos;
+import net.minecraft.world.level.ChunkPos;
+
+import net.dries007.tfc.Benchmark;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.IArtist;
+import net.dries007.tfc.world.BiomeNoiseSampler;
+import net.dries007.tfc.world.ChunkHeightCache;
+import net.dries007.tfc.world.ChunkHeightFiller;
+import net.dries007.tfc.world.Sampler;
+import net.dries007.tfc.world.TFCChunkGenerator;
+import net.dries007.tfc.world.biome.BiomeExtension;
+import net.dries007.tfc.world.biome.TFCBiomes;
+import net.dries007.tfc.world.layer.TFCLayers;
+import net.dries007.tfc.world.layer.framework.ConcurrentArea;
+import net.dries007.tfc.world.river.Watershed;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares {@link ChunkHeightCache} against building a new {@link ChunkHeightFiller} per query, which is what {@link TFCChunkGenerator#getBaseHeight(int, int, net.minecraft.world.level.levelgen.Heightmap.Types, net.minecraft.world.level.LevelHeightAccessor)} used to do.
+ * Queries are modeled on structure placement: the four corners of each chunk in a ring, with neighbouring rings overlapping.
+ */
+@Disabled
+public class ChunkHeightCacheBenchmarks extends TestHelper
+{
+    static final int CHUNKS = 16;
+
+    @Test
+    public void benchmarkBaseHeight()
+    {
+        final long seed = seed();
+        final Watershed.Context watersheds = new Watershed.Context(TFCLayers.createEarlyPlateLayers(seed), seed, 0.5f, 0.8f, 14, 0.2f);
+        final ConcurrentArea<BiomeExtension> biomeLayer = new ConcurrentArea<>(TFCLayers.createOverworldBiomeLayerWithRivers(seed, watersheds, IArtist.nope(), IArtist.nope()), TFCLayers::getFromLayerId);
+        final Sampler<BiomeExtension> biomeSampler = (x, z) -> biomeLayer.get(QuartPos.fromBlock(x), QuartPos.fromBlock(z));
+
+        final ChunkHeightCache cache = new ChunkHeightCache(1024, pos -> TFCChunkGenerator.sampleBiomes(pos, biomeSampler, BiomeExtension::getGroup), () -> createBiomeSamplers(seed));
+
+        // Sanity check that both paths are identical
+        for (int i = 0; i < 64; i++)
+        {
+            final int x = i * 37, z = i * -91;
+            assertEquals(uncached(biomeSampler, seed, x, z), cache.sampleHeight(x, z));
+        }
+
+        final int[] xs = new int[CHUNKS * CHUNKS * 4], zs = new int[CHUNKS * CHUNKS * 4];
+        final double[] heights = new double[xs.length];
+        int index = 0;
+        for (int cx = 0; cx < CHUNKS; cx++)
+        {
+            for (int cz = 0; cz < CHUNKS; cz++)
+            {
+                for (int corner = 0; corner < 4; corner++)
+                {
+                    xs[index] = (cx << 4) + ((corner & 1) * 15);
+                    zs[index] = (cz << 4) + ((corner >> 1) * 15);
+                    index++;
+                }
+            }
+        }
+
+        Benchmark.run("Uncached getBaseHeight", xs.length, 2, 5, () -> {
+            long sum = 0;
+            for (int i = 0; i < xs.length; i++)
+            {
+                sum += (long) uncached(biomeSampler, seed, xs[i], zs[i]);
+            }
+            return sum;
+        });
+
+        Benchmark.run("ChunkHeightCache.sampleHeight", xs.length, 2, 5, () -> {
+            long sum = 0;
+            for (int i = 0; i < xs.length; i++)
+            {
+                sum += (long) cache.sampleHeight(xs[i], zs[i]);
+            }
+            return sum;
+        });
+
+        Benchmark.run("ChunkHeightCache.sampleHeights", xs.length, 2, 5, () -> {
+            long sum = 0;
+            cache.sampleHeights(xs, zs, heights, xs.length);
+            for (double height : heights)
+            {
+                sum += (long) height;
+            }
+            return sum;
+        });
+    }
+
+    private double uncached(Sampler<BiomeExtension> biomeSampler, long seed, int x, int z)
+    {
+        final ChunkPos pos = new ChunkPos(x >> 4, z >> 4);
+        return new ChunkHeightFiller(createBiomeSamplers(seed), TFCChunkGenerator.sampleBiomes(pos, biomeSampler, BiomeExtension::getGroup)).sampleHeight(x, z);
+    }
+
+    private Map<BiomeExtension, BiomeNoiseSampler> createBiomeSamplers(long seed)
+    {
+        final Map<BiomeExtension, BiomeNoiseSampler> samplers = new IdentityHashMap<>();
+        for (BiomeExtension extension : TFCBiomes.getExtensions())
+        {
+            samplers.put(extension, extension.createNoiseSampler(seed));
+        }
+        return samplers;
+    }
+}
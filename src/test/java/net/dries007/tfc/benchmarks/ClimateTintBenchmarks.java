@@ -0,0 +1,130 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmarks;
+
+import java.util.Random;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelHeightAccessor;
+
+import net.dries007.tfc.Benchmark;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.client.ClimateTintCache;
+import net.dries007.tfc.client.TFCColors;
+import net.dries007.tfc.test.world.ChunkDataFormatTests;
+import net.dries007.tfc.util.climate.OverworldClimateModel;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.ChunkDataCache;
+import net.dries007.tfc.world.settings.RockLayerSettings;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the per-vertex cost of querying a block tint colormap index by querying the climate model directly (as {@link TFCColors} used to), against a {@link ClimateTintCache}.
+ * Both resolve chunk data through a {@link ChunkDataCache}, but exclude the level capability and calendar lookups, which only the direct query pays for.
+ */
+@Disabled
+public class ClimateTintBenchmarks extends TestHelper
+{
+    static final int CHUNKS = 4;
+    static final int SECTION_Y = 4;
+    static final long CALENDAR_TICKS = 1_234_567;
+    static final int DAYS_IN_MONTH = 8;
+
+    @Test
+    public void benchmarkTints()
+    {
+        final Random random = new Random(seed());
+        final RockLayerSettings settings = ChunkDataFormatTests.createRockSettings();
+        final ChunkDataCache chunkData = new ChunkDataCache("benchmark", 1024);
+        for (int x = 0; x < CHUNKS; x++)
+        {
+            for (int z = 0; z < CHUNKS; z++)
+            {
+                final ChunkPos pos = new ChunkPos(x, z);
+                chunkData.update(pos, ChunkDataFormatTests.createData(pos, settings, ChunkDataFormatTests.createSample(random, settings)));
+            }
+        }
+
+        final OverworldClimateModel model = new OverworldClimateModel();
+        final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        buffer.writeInt(20_000);
+        buffer.writeBoolean(false);
+        buffer.writeLong(random.nextLong());
+        model.onReceiveOnClient(buffer);
+
+        final LevelHeightAccessor height = new LevelHeightAccessor()
+        {
+            @Override
+            public int getHeight()
+            {
+                return 384;
+            }
+
+            @Override
+            public int getMinBuildHeight()
+            {
+                return -64;
+            }
+        };
+        final ClimateTintCache tints = new ClimateTintCache((chunkX, sectionY, chunkZ, temperatures, rainfalls) -> {
+            final ChunkData data = chunkData.get(chunkX, chunkZ);
+            for (int i = 0; i < 16 * 16; i++)
+            {
+                final BlockPos pos = new BlockPos(SectionPos.sectionToBlockCoord(chunkX) + (i & 15), SectionPos.sectionToBlockCoord(sectionY, 8), SectionPos.sectionToBlockCoord(chunkZ) + (i >> 4));
+                temperatures[i] = model.getTemperature(null, pos, data, CALENDAR_TICKS, DAYS_IN_MONTH);
+                rainfalls[i] = data.getRainfall(pos);
+            }
+            return true;
+        });
+
+        // Every block in one section of each chunk, as meshing would visit them
+        final BlockPos[] positions = new BlockPos[CHUNKS * CHUNKS * 16 * 16 * 16];
+        int n = 0;
+        for (int chunkX = 0; chunkX < CHUNKS; chunkX++)
+        {
+            for (int chunkZ = 0; chunkZ < CHUNKS; chunkZ++)
+            {
+                for (int i = 0; i < 16 * 16 * 16; i++)
+                {
+                    positions[n++] = new BlockPos(SectionPos.sectionToBlockCoord(chunkX) + (i & 15), SectionPos.sectionToBlockCoord(SECTION_Y) + (i >> 8), SectionPos.sectionToBlockCoord(chunkZ) + ((i >> 4) & 15));
+                }
+            }
+        }
+
+        Benchmark.run("Direct", positions.length, () -> {
+            long sum = 0;
+            for (BlockPos pos : positions)
+            {
+                final ChunkData data = chunkData.get(pos.getX() >> 4, pos.getZ() >> 4);
+                sum += TFCColors.getClimateColorIndex(model.getTemperature(null, pos, data, CALENDAR_TICKS, DAYS_IN_MONTH), data.getRainfall(pos));
+            }
+            return sum;
+        });
+        Benchmark.run("Tables", positions.length, () -> {
+            long sum = 0;
+            for (BlockPos pos : positions)
+            {
+                sum += tints.getColorIndex(height, pos);
+            }
+            return sum;
+        });
+        Benchmark.run("Tables (including rebuild)", positions.length, () -> {
+            tints.clear();
+            long sum = 0;
+            for (BlockPos pos : positions)
+            {
+                sum += tints.getColorIndex(height, pos);
+            }
+            return sum;
+        });
+    }
+}
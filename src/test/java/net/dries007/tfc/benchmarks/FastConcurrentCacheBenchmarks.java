@@ -0,0 +1,140 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import net.dries007.tfc.Benchmark;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.FastConcurrentCache;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the lock free {@link FastConcurrentCache} against the previous implementation which guarded every access with a single {@link StampedLock}, over a sweep of thread counts.
+ * The workload is a mix of 7/8 reads and 1/8 writes, over a key space of nearby chunks slightly larger than the cache, like the aquifer and watershed caches see during world generation.
+ */
+@Disabled
+public class FastConcurrentCacheBenchmarks extends TestHelper
+{
+    static final int SIZE = 256;
+    static final int OPERATIONS = 100_000;
+    static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+
+    @Test
+    public void benchmarkThreaded()
+    {
+        for (int threads : THREADS)
+        {
+            final LockedCache<Object> locked = new LockedCache<>(SIZE);
+            final FastConcurrentCache<Object> lockFree = new FastConcurrentCache<>(SIZE, true);
+
+            Benchmark.runThreaded("StampedLock cache", threads, OPERATIONS, 20, thread -> workload(thread, locked::getIfPresent, locked::set));
+            Benchmark.runThreaded("FastConcurrentCache", threads, OPERATIONS, 20, thread -> workload(thread, lockFree::getIfPresent, lockFree::set));
+        }
+    }
+
+    private LongSupplier workload(int thread, Getter getter, Setter setter)
+    {
+        final Random random = new Random(thread);
+        final int[] keys = new int[OPERATIONS];
+        for (int i = 0; i < keys.length; i++)
+        {
+            keys[i] = random.nextInt();
+        }
+        final Object value = new Object();
+        return () -> {
+            long found = 0;
+            for (int key : keys)
+            {
+                final int x = (key >> 8) & 31, z = key & 15;
+                if ((key & 7) == 0)
+                {
+                    setter.set(x, z, value);
+                }
+                else if (getter.getIfPresent(x, z) != null)
+                {
+                    found++;
+                }
+            }
+            return found;
+        };
+    }
+
+    @FunctionalInterface
+    interface Getter
+    {
+        @Nullable Object getIfPresent(int x, int z);
+    }
+
+    @FunctionalInterface
+    interface Setter
+    {
+        void set(int x, int z, Object value);
+    }
+
+    /**
+     * The previous implementation of {@link FastConcurrentCache}.
+     */
+    static class LockedCache<T>
+    {
+        private final StampedLock lock = new StampedLock();
+
+        private final long[] keys;
+        private final T[] values;
+        private final int mask;
+
+        @SuppressWarnings("unchecked")
+        LockedCache(int size)
+        {
+            size = Mth.smallestEncompassingPowerOfTwo(size);
+
+            this.mask = size - 1;
+            this.keys = new long[size];
+            this.values = (T[]) new Object[size];
+
+            Arrays.fill(this.keys, Long.MIN_VALUE);
+        }
+
+        @Nullable
+        T getIfPresent(int x, int z)
+        {
+            final long key = ChunkPos.asLong(x, z);
+            final int index = (int) HashCommon.mix(key) & mask;
+            final long stamp = lock.readLock();
+
+            T t = null;
+            if (keys[index] == key)
+            {
+                t = values[index];
+            }
+
+            lock.unlockRead(stamp);
+            return t;
+        }
+
+        void set(int x, int z, T value)
+        {
+            final long key = ChunkPos.asLong(x, z);
+            final int index = (int) HashCommon.mix(key) & mask;
+            final long stamp = lock.writeLock();
+
+            keys[index] = key;
+            values[index] = value;
+
+            lock.unlockWrite(stamp);
+        }
+    }
+}
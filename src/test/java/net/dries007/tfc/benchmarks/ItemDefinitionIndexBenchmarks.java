@@ -0,0 +1,103 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import net.dries007.tfc.Benchmark;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.test.util.ItemDefinitionIndexTests;
+import net.dries007.tfc.util.ItemDefinition;
+import net.dries007.tfc.util.collections.IndirectHashCollection;
+import net.dries007.tfc.util.collections.ItemDefinitionIndex;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the throughput of stack creation, including the definition lookups that {@link net.dries007.tfc.ForgeEventHandler#attachItemCapabilities(net.minecraftforge.event.AttachCapabilitiesEvent)} performs for heat, food and item size, with a linear search of {@link IndirectHashCollection} against an {@link ItemDefinitionIndex}.
+ * The lookups are invoked directly, as the event bus is not running here.
+ */
+@Disabled
+public class ItemDefinitionIndexBenchmarks extends TestHelper
+{
+    static final int STACKS = 4096;
+
+    @Test
+    public void benchmarkStackCreation()
+    {
+        final Random random = new Random(seed());
+        final List<Item> allItems = ItemDefinitionIndexTests.items();
+        final List<Item> definedItems = allItems.subList(0, allItems.size() / 4);
+
+        // One collection each for heat, food, and item size
+        final List<List<ItemDefinition>> defs = List.of(ItemDefinitionIndexTests.createDefinitions(random, definedItems, 400), ItemDefinitionIndexTests.createDefinitions(random, definedItems, 200), ItemDefinitionIndexTests.createDefinitions(random, definedItems, 400));
+        @SuppressWarnings("unchecked") final IndirectHashCollection<Item, ItemDefinition>[] caches = new IndirectHashCollection[defs.size()];
+        @SuppressWarnings("unchecked") final ItemDefinitionIndex<ItemDefinition>[] indexes = new ItemDefinitionIndex[defs.size()];
+        for (int i = 0; i < defs.size(); i++)
+        {
+            final List<ItemDefinition> values = defs.get(i);
+            caches[i] = new IndirectHashCollection<>(ItemDefinition::getValidItems);
+            caches[i].reload(values);
+            indexes[i] = ItemDefinitionIndex.create(() -> values);
+            indexes[i].reload();
+        }
+
+        // Most stacks created are of items without any definitions
+        final Item[] items = new Item[STACKS];
+        for (int i = 0; i < STACKS; i++)
+        {
+            items[i] = random.nextInt(4) == 0 ? definedItems.get(random.nextInt(definedItems.size())) : allItems.get(random.nextInt(allItems.size()));
+        }
+
+        Benchmark.run("Stack creation (no lookup)", STACKS, () -> {
+            long sum = 0;
+            for (Item item : items)
+            {
+                sum += new ItemStack(item).getCount();
+            }
+            return sum;
+        });
+        Benchmark.run("Stack creation (linear search)", STACKS, () -> {
+            long sum = 0;
+            for (Item item : items)
+            {
+                final ItemStack stack = new ItemStack(item);
+                for (IndirectHashCollection<Item, ItemDefinition> cache : caches)
+                {
+                    for (ItemDefinition def : cache.getAll(stack.getItem()))
+                    {
+                        if (def.matches(stack))
+                        {
+                            sum++;
+                            break;
+                        }
+                    }
+                }
+            }
+            return sum;
+        });
+        Benchmark.run("Stack creation (index)", STACKS, () -> {
+            long sum = 0;
+            for (Item item : items)
+            {
+                final ItemStack stack = new ItemStack(item);
+                for (ItemDefinitionIndex<ItemDefinition> index : indexes)
+                {
+                    if (index.get(stack) != null)
+                    {
+                        sum++;
+                    }
+                }
+            }
+            return sum;
+        });
+    }
+}
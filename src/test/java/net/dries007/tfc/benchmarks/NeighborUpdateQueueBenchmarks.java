@@ -0,0 +1,170 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.dries007.tfc.Benchmark;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.collections.BufferedList;
+import net.dries007.tfc.util.tracker.PositionScheduler;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the {@link PositionScheduler} used by the world tracker for landslide and isolated positions, against the previous {@link BufferedList} of boxed tick entries, which had no de-duplication.
+ * Each scenario is a precomputed sequence of neighbor notifications per tick, which are all queued, and then the queue is ticked once.
+ */
+@Disabled
+public class NeighborUpdateQueueBenchmarks extends TestHelper
+{
+    static final int TICKS = 40;
+
+    @Test
+    public void benchmarkRedstoneClock()
+    {
+        // A line of redstone wire toggled every tick. Each wire updates its neighbors, and each of those updates their neighbors, so most positions are notified many times.
+        final List<long[]> notifications = new ArrayList<>();
+        for (int tick = 0; tick < TICKS; tick++)
+        {
+            final LongArrayList notified = new LongArrayList();
+            for (int x = 0; x < 256; x++)
+            {
+                final BlockPos wire = new BlockPos(x, 64, 0);
+                for (Direction first : Direction.values())
+                {
+                    final BlockPos neighbor = wire.relative(first);
+                    for (Direction second : Direction.values())
+                    {
+                        notified.add(neighbor.relative(second).asLong());
+                    }
+                }
+            }
+            notifications.add(notified.toLongArray());
+        }
+        benchmark("Redstone clock", notifications);
+    }
+
+    @Test
+    public void benchmarkFluidCascade()
+    {
+        // Fluid spreading outwards across a flat plane, one block per tick. Each new fluid block notifies all its neighbors.
+        final List<long[]> notifications = new ArrayList<>();
+        for (int tick = 0; tick < TICKS; tick++)
+        {
+            final LongArrayList notified = new LongArrayList();
+            for (int dx = -tick; dx <= tick; dx++)
+            {
+                final int dz = tick - Math.abs(dx);
+                for (int z : dz == 0 ? new int[] {0} : new int[] {-dz, dz})
+                {
+                    final BlockPos fluid = new BlockPos(dx, 64, z);
+                    for (Direction direction : Direction.values())
+                    {
+                        notified.add(fluid.relative(direction).asLong());
+                    }
+                }
+            }
+            notifications.add(notified.toLongArray());
+        }
+        benchmark("Fluid cascade", notifications);
+    }
+
+    private void benchmark(String name, List<long[]> notifications)
+    {
+        final int operations = notifications.stream().mapToInt(array -> array.length).sum();
+
+        Benchmark.run(name + " (BufferedList)", operations, legacyQueue(notifications));
+        Benchmark.run(name + " (PositionScheduler)", operations, schedulerQueue(notifications));
+    }
+
+    private LongSupplier legacyQueue(List<long[]> notifications)
+    {
+        return () -> {
+            final BufferedList<LegacyTickEntry> queue = new BufferedList<>();
+            long processed = 0;
+            for (long[] tick : notifications)
+            {
+                for (long pos : tick)
+                {
+                    queue.add(new LegacyTickEntry(BlockPos.of(pos), 2));
+                }
+                processed += tickLegacy(queue);
+            }
+            while (!queue.isEmpty())
+            {
+                processed += tickLegacy(queue);
+            }
+            return processed;
+        };
+    }
+
+    private long tickLegacy(BufferedList<LegacyTickEntry> queue)
+    {
+        long processed = 0;
+        queue.flush();
+        final Iterator<LegacyTickEntry> iterator = queue.listIterator();
+        while (iterator.hasNext())
+        {
+            final LegacyTickEntry entry = iterator.next();
+            if (entry.tick())
+            {
+                processed += entry.pos.getY();
+                iterator.remove();
+            }
+        }
+        return processed;
+    }
+
+    private LongSupplier schedulerQueue(List<long[]> notifications)
+    {
+        return () -> {
+            final PositionScheduler queue = new PositionScheduler(2);
+            final long[] processed = {0};
+            for (long[] tick : notifications)
+            {
+                for (long pos : tick)
+                {
+                    queue.schedule(pos, 2);
+                }
+                queue.tick(Integer.MAX_VALUE, Long.MAX_VALUE, pos -> processed[0] += BlockPos.getY(pos));
+            }
+            while (!queue.isEmpty())
+            {
+                queue.tick(Integer.MAX_VALUE, Long.MAX_VALUE, pos -> processed[0] += BlockPos.getY(pos));
+            }
+            return processed[0];
+        };
+    }
+
+    /**
+     * The previous entry type used by the world tracker for landslides.
+     */
+    static final class LegacyTickEntry
+    {
+        final BlockPos pos;
+        int ticks;
+
+        LegacyTickEntry(BlockPos pos, int ticks)
+        {
+            this.pos = pos;
+            this.ticks = ticks;
+        }
+
+        boolean tick()
+        {
+            return --ticks == 0;
+        }
+    }
+}
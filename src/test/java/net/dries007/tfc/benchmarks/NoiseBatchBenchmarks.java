@@ -0,0 +1,73 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmarks;
+
+import net.dries007.tfc.Benchmark;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.noise.Noise2D;
+import net.dries007.tfc.world.noise.OpenSimplex2D;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares sampling a chunk's worth of noise point by point, against {@link Noise2D#fill(int, int, int, int, float[])}, for each combinator.
+ */
+@Disabled
+public class NoiseBatchBenchmarks extends TestHelper
+{
+    static final int CHUNKS = 256;
+
+    @Test
+    public void benchmarkCombinators()
+    {
+        final long seed = seed();
+        final Noise2D base = new OpenSimplex2D(seed).spread(0.03f);
+
+        benchmark("Base", base);
+        benchmark("Octaves", new OpenSimplex2D(seed).octaves(4).spread(0.03f));
+        benchmark("Scaled", base.scaled(-10, 10));
+        benchmark("Ridged", base.ridged());
+        benchmark("Terraces", base.terraces(6));
+        benchmark("Clamped", base.scaled(-2, 2).clamped(-1, 1));
+        benchmark("Add", base.add(new OpenSimplex2D(seed + 1).spread(0.1f)));
+        benchmark("Lazy product", base.clamped(0, 1).lazyProduct(new OpenSimplex2D(seed + 2).spread(0.1f)));
+
+        // As used for rock layer height in TFCChunkDataGenerator
+        benchmark("Layer height", new OpenSimplex2D(seed).octaves(2).scaled(-10, 10).spread(0.03f));
+    }
+
+    private void benchmark(String name, Noise2D noise)
+    {
+        final float[] out = new float[16 * 16];
+        Benchmark.run(name + " (point)", CHUNKS * 256, () -> {
+            float sum = 0;
+            for (int chunk = 0; chunk < CHUNKS; chunk++)
+            {
+                for (int x = 0; x < 16; x++)
+                {
+                    for (int z = 0; z < 16; z++)
+                    {
+                        sum += noise.noise(chunk * 16 + x, z);
+                    }
+                }
+            }
+            return (long) sum;
+        });
+        Benchmark.run(name + " (batch)", CHUNKS * 256, () -> {
+            float sum = 0;
+            for (int chunk = 0; chunk < CHUNKS; chunk++)
+            {
+                noise.fill(chunk * 16, 0, 16, 16, out);
+                for (float value : out)
+                {
+                    sum += value;
+                }
+            }
+            return (long) sum;
+        });
+    }
+}
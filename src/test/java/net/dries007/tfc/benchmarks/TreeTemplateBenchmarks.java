@@ -0,0 +1,101 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.templatesystem.BlockIgnoreProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+
+import net.dries007.tfc.Benchmark;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.test.world.TreeTemplateTests;
+import net.dries007.tfc.world.feature.tree.CompiledTreeTemplate;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the per-tree cost of transforming a template via {@link StructureTemplate#processBlockInfos(net.minecraft.world.level.LevelAccessor, BlockPos, BlockPos, StructurePlaceSettings, List, StructureTemplate)}, as {@link net.dries007.tfc.world.feature.tree.TreeHelpers#placeTemplate(StructureTemplate, StructurePlaceSettings, net.minecraft.world.level.LevelAccessor, BlockPos)} used to, against a {@link CompiledTreeTemplate}.
+ * Both visit every block that would be placed, including the bounding box clip, but exclude the cost of reading and writing to the level, which is the same for both.
+ */
+@Disabled
+public class TreeTemplateBenchmarks extends TestHelper
+{
+    static final int TREES = 1024;
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void benchmarkPlacement()
+    {
+        final Random random = new Random(seed());
+        final List<StructureTemplate.StructureBlockInfo> blocks = TreeTemplateTests.createTreeBlocks(random, 11);
+        final Mirror[] mirrors = new Mirror[TREES];
+        final Rotation[] rotations = new Rotation[TREES];
+        final BlockPos[] origins = new BlockPos[TREES];
+        for (int i = 0; i < TREES; i++)
+        {
+            mirrors[i] = Mirror.values()[random.nextInt(Mirror.values().length)];
+            rotations[i] = Rotation.values()[random.nextInt(Rotation.values().length)];
+            origins[i] = new BlockPos(random.nextInt(16), 64, random.nextInt(16)); // Near the edge of the box, so some clipping occurs
+        }
+
+        final ChunkPos chunkPos = new ChunkPos(0, 0);
+        final BoundingBox box = new BoundingBox(chunkPos.getMinBlockX() - 16, -64, chunkPos.getMinBlockZ() - 16, chunkPos.getMaxBlockX() + 16, 320, chunkPos.getMaxBlockZ() + 16);
+
+        Benchmark.run("Processed", TREES, () -> {
+            long sum = 0;
+            for (int i = 0; i < TREES; i++)
+            {
+                final StructurePlaceSettings settings = new StructurePlaceSettings()
+                    .setBoundingBox(box)
+                    .addProcessor(BlockIgnoreProcessor.STRUCTURE_AND_AIR)
+                    .setMirror(mirrors[i])
+                    .setRotation(rotations[i]);
+                for (StructureTemplate.StructureBlockInfo info : StructureTemplate.processBlockInfos(null, origins[i], origins[i], settings, blocks, null))
+                {
+                    if (box.isInside(info.pos))
+                    {
+                        final BlockState state = info.state.mirror(mirrors[i]).rotate(rotations[i]);
+                        sum += info.pos.asLong() ^ System.identityHashCode(state);
+                    }
+                }
+            }
+            return sum;
+        });
+
+        final CompiledTreeTemplate[][] compiled = new CompiledTreeTemplate[Mirror.values().length][Rotation.values().length];
+        Benchmark.run("Compile (once per palette)", Mirror.values().length * Rotation.values().length, () -> {
+            long sum = 0;
+            for (Mirror mirror : Mirror.values())
+            {
+                for (Rotation rotation : Rotation.values())
+                {
+                    compiled[mirror.ordinal()][rotation.ordinal()] = CompiledTreeTemplate.compile(blocks, mirror, rotation);
+                    sum += compiled[mirror.ordinal()][rotation.ordinal()].size();
+                }
+            }
+            return sum;
+        });
+
+        Benchmark.run("Compiled", TREES, () -> {
+            final long[] sum = {0};
+            for (int i = 0; i < TREES; i++)
+            {
+                compiled[mirrors[i].ordinal()][rotations[i].ordinal()].forEachBlock(origins[i], box, random, 1f, (pos, state) -> sum[0] += pos.asLong() ^ System.identityHashCode(state));
+            }
+            return sum[0];
+        });
+    }
+}
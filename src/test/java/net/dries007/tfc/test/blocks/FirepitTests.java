@@ -0,0 +1,81 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.blocks;
+
+import java.util.Collection;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestAssertException;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.items.IItemHandler;
+
+import net.dries007.tfc.MyTest;
+import net.dries007.tfc.TestAssertions;
+import net.dries007.tfc.common.blockentities.AbstractFirepitBlockEntity;
+import net.dries007.tfc.common.blocks.TFCBlocks;
+import net.dries007.tfc.common.blocks.devices.FirepitBlock;
+import net.dries007.tfc.common.blocks.wood.Wood;
+import net.dries007.tfc.common.capabilities.Capabilities;
+import net.dries007.tfc.util.calendar.Calendars;
+import net.dries007.tfc.util.calendar.ICalendar;
+
+@GameTestHolder
+public class FirepitTests
+{
+    @GameTestGenerator
+    public Collection<TestFunction> generator()
+    {
+        return TestAssertions.testGenerator();
+    }
+
+    @MyTest(timeoutTicks = 300)
+    @SuppressWarnings("deprecation")
+    public void testLightingSleepingFirepitDoesNotReplaySleep(GameTestHelper helper)
+    {
+        final BlockPos pos = new BlockPos(1, 2, 1);
+        helper.setBlock(pos.below(), Blocks.STONE);
+        helper.setBlock(pos, TFCBlocks.FIREPIT.get());
+
+        final AbstractFirepitBlockEntity<?> firepit = helper.getBlockEntity(pos);
+        final IItemHandler inventory = firepit.getCapability(Capabilities.ITEM).orElseThrow(AssertionError::new);
+        final ItemStack log = new ItemStack(TFCBlocks.WOODS.get(Wood.OAK).get(Wood.BlockType.LOG).get());
+        inventory.insertItem(AbstractFirepitBlockEntity.SLOT_FUEL_CONSUME, log.copy(), false);
+        inventory.insertItem(AbstractFirepitBlockEntity.SLOT_FUEL_CONSUME + 1, log.copy(), false);
+
+        helper.startSequence()
+            .thenWaitUntil(() -> {
+                if (!firepit.isSleeping())
+                {
+                    throw new GameTestAssertException("Expected an unlit firepit to fall asleep");
+                }
+            })
+            .thenExecute(() -> {
+                // Sleep through a day, then light it
+                firepit.setLastUpdateTick(Calendars.SERVER.getTicks() - ICalendar.TICKS_IN_DAY);
+                firepit.light(helper.getBlockState(pos));
+            })
+            .thenExecuteAfter(5, () -> {
+                helper.assertBlockProperty(pos, FirepitBlock.LIT, true);
+
+                int fuel = 0;
+                for (int slot = AbstractFirepitBlockEntity.SLOT_FUEL_CONSUME; slot <= AbstractFirepitBlockEntity.SLOT_FUEL_INPUT; slot++)
+                {
+                    fuel += inventory.getStackInSlot(slot).getCount();
+                }
+                if (fuel != 1)
+                {
+                    throw new GameTestAssertException("Expected one log left after lighting, got " + fuel);
+                }
+            })
+            .thenSucceed();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.recipes.AlloyRecipe;
+import net.dries007.tfc.util.Alloy;
+import net.dries007.tfc.util.AlloyEngine;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.Metal;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AlloyEngineTests extends TestHelper
+{
+    @Test
+    public void testEngineMatchesLinearSearch()
+    {
+        final Random random = new Random(seed());
+        final List<Metal> metals = new ArrayList<>();
+        for (int i = 0; i < 12; i++)
+        {
+            metals.add(new Metal(Helpers.identifier("test_metal_" + i)));
+        }
+
+        for (int i = 0; i < 20; i++)
+        {
+            final List<AlloyRecipe> recipes = new ArrayList<>();
+            final List<Map<Metal, Double>> compositions = new ArrayList<>();
+            for (int j = 0; j < 30; j++)
+            {
+                // Pick from a small pool of metals, so recipes frequently share the same set of metals, and overlap
+                final Metal result = metals.get(random.nextInt(metals.size()));
+                final Map<Metal, Double> composition = new HashMap<>();
+                final Map<Metal, AlloyRecipe.Range> ranges = new HashMap<>();
+                final int size = 2 + random.nextInt(3);
+                while (composition.size() < size)
+                {
+                    final Metal metal = metals.get(random.nextInt(6));
+                    if (metal != result)
+                    {
+                        composition.put(metal, 1 + random.nextDouble());
+                    }
+                }
+                final double sum = composition.values().stream().mapToDouble(Double::doubleValue).sum();
+                composition.replaceAll((metal, weight) -> weight / sum);
+                composition.forEach((metal, fraction) -> {
+                    final double delta = 0.02 + 0.08 * random.nextDouble();
+                    ranges.put(metal, new AlloyRecipe.Range(fraction - delta, fraction + delta));
+                });
+                recipes.add(new AlloyRecipe(Helpers.identifier("alloy_" + j), () -> ranges, () -> result));
+                compositions.add(composition);
+            }
+
+            final AlloyEngine engine = AlloyEngine.compile(recipes);
+            assertEquals(recipes.size(), engine.size());
+
+            for (int j = 0; j < 500; j++)
+            {
+                final Alloy alloy = new Alloy();
+                final Object2DoubleMap<Metal> legacy = new Object2DoubleOpenHashMap<>();
+                final int total = 100 + random.nextInt(10000);
+                if (random.nextInt(4) != 0)
+                {
+                    // Target a recipe, with amounts which may or may not be in range
+                    final int target = random.nextInt(recipes.size());
+                    compositions.get(target).forEach((metal, fraction) -> add(alloy, legacy, metal, (int) (total * (fraction + 0.15 * (random.nextDouble() - 0.5)))));
+                    if (random.nextBoolean())
+                    {
+                        add(alloy, legacy, recipes.get(target).getResult(), random.nextInt(total));
+                    }
+                }
+                else
+                {
+                    for (int k = 1 + random.nextInt(4); k > 0; k--)
+                    {
+                        add(alloy, legacy, metals.get(random.nextInt(metals.size())), random.nextInt(total));
+                    }
+                }
+                if (random.nextInt(3) == 0)
+                {
+                    remove(alloy, legacy, random.nextInt(alloy.getAmount() + 1));
+                }
+
+                assertSame(legacyResult(legacy, recipes), alloy.findResult(engine), "Alloy " + legacy);
+                assertEquals(sanitize(legacy), alloy.getMetals(), "Alloy " + legacy);
+            }
+        }
+    }
+
+    private static void add(Alloy alloy, Object2DoubleMap<Metal> legacy, Metal metal, int amount)
+    {
+        if (amount > 0)
+        {
+            alloy.add(metal, amount, false);
+            legacy.mergeDouble(metal, amount, Double::sum);
+        }
+    }
+
+    private static void remove(Alloy alloy, Object2DoubleMap<Metal> legacy, int amount)
+    {
+        final int total = alloy.getAmount();
+        alloy.removeAlloy(amount, false);
+        if (amount >= total)
+        {
+            legacy.clear();
+        }
+        else
+        {
+            final Object2DoubleMap<Metal> result = new Object2DoubleOpenHashMap<>();
+            legacy.forEach((metal, value) -> {
+                final double removed = amount * value / total;
+                if (value > removed)
+                {
+                    result.put(metal, value - removed);
+                }
+            });
+            legacy.clear();
+            legacy.putAll(result);
+        }
+    }
+
+    /**
+     * The previous implementation of {@link Alloy#getResult()}, which tested each recipe in order.
+     */
+    private static Metal legacyResult(Object2DoubleMap<Metal> metals, List<AlloyRecipe> recipes)
+    {
+        if (metals.size() == 1)
+        {
+            return metals.keySet().iterator().next();
+        }
+        for (AlloyRecipe recipe : recipes)
+        {
+            final Object2DoubleMap<Metal> other = new Object2DoubleOpenHashMap<>(metals);
+            other.removeDouble(recipe.getResult());
+            if (legacyMatches(other, recipe))
+            {
+                return recipe.getResult();
+            }
+        }
+        return null;
+    }
+
+    private static boolean legacyMatches(Object2DoubleMap<Metal> metals, AlloyRecipe recipe)
+    {
+        final Object2DoubleMap<Metal> sanitized = sanitize(metals);
+        final double total = total(metals);
+        for (Metal metal : Sets.union(recipe.getRanges().keySet(), sanitized.keySet()))
+        {
+            if (!sanitized.containsKey(metal) || !recipe.getRanges().containsKey(metal) || !recipe.getRanges().get(metal).isIn(sanitized.getDouble(metal) / total, Alloy.EPSILON))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object2DoubleMap<Metal> sanitize(Object2DoubleMap<Metal> metals)
+    {
+        final Object2DoubleMap<Metal> sanitized = new Object2DoubleOpenHashMap<>();
+        final double total = total(metals);
+        metals.forEach((metal, value) -> {
+            if (value > total * Alloy.EPSILON)
+            {
+                sanitized.put(metal, value);
+            }
+        });
+        return sanitized;
+    }
+
+    private static double total(Object2DoubleMap<Metal> metals)
+    {
+        return metals.values().doubleStream().sum();
+    }
+}
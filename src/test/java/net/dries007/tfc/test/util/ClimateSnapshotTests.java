@@ -0,0 +1,128 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.Random;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.test.world.ChunkDataFormatTests;
+import net.dries007.tfc.util.calendar.ICalendar;
+import net.dries007.tfc.util.calendar.Month;
+import net.dries007.tfc.util.climate.ClimateSnapshot;
+import net.dries007.tfc.util.climate.OverworldClimateModel;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.LerpFloatLayer;
+import net.dries007.tfc.world.settings.RockLayerSettings;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ensures that the cached snapshots and time factors used by {@link OverworldClimateModel} produce exactly the same temperatures as computing them directly.
+ */
+public class ClimateSnapshotTests extends TestHelper
+{
+    @Test
+    public void testTemperatureMatchesDirectCalculation()
+    {
+        final Random random = new Random(seed());
+        final RockLayerSettings settings = ChunkDataFormatTests.createRockSettings();
+        final ReferenceModel model = new ReferenceModel();
+        final int daysInMonth = 8;
+
+        long calendarTicks = random.nextInt(1_000_000);
+        for (int i = 0; i < 200; i++)
+        {
+            if (i % 50 == 0)
+            {
+                model.sync(random.nextInt(20_000) + 1_000, random.nextBoolean(), random.nextLong());
+            }
+
+            // Mostly small steps forward, with occasional jumps in either direction
+            calendarTicks = random.nextInt(10) == 0 ? Math.max(0, calendarTicks + random.nextInt(2_000_000) - 1_000_000) : calendarTicks + random.nextInt(200);
+
+            final ChunkPos chunkPos = new ChunkPos(random.nextInt(1000) - 500, random.nextInt(1000) - 500);
+            final ChunkData data = ChunkDataFormatTests.createData(chunkPos, settings, ChunkDataFormatTests.createSample(random, settings));
+            assertChunkMatches(model, data, chunkPos, calendarTicks, daysInMonth, random);
+
+            // Changing the climate of the chunk invalidates the snapshot
+            final float temperature = random.nextFloat() * 40 - 20;
+            data.setAverageTemp(new LerpFloatLayer(temperature, temperature + 3, temperature - 3, temperature));
+            assertChunkMatches(model, data, chunkPos, calendarTicks, daysInMonth, random);
+        }
+    }
+
+    @Test
+    public void testSnapshotMatchesChunkData()
+    {
+        final Random random = new Random(seed());
+        final RockLayerSettings settings = ChunkDataFormatTests.createRockSettings();
+        final OverworldClimateModel model = new OverworldClimateModel();
+        for (int i = 0; i < 20; i++)
+        {
+            final ChunkPos chunkPos = new ChunkPos(random.nextInt(1000) - 500, random.nextInt(1000) - 500);
+            final ChunkData data = ChunkDataFormatTests.createData(chunkPos, settings, ChunkDataFormatTests.createSample(random, settings));
+            final ClimateSnapshot snapshot = model.getSnapshot(data, chunkPos.x, chunkPos.z);
+
+            assertTrue(snapshot.isValidFor(data, chunkPos.x, chunkPos.z));
+            assertFalse(snapshot.isValidFor(data, chunkPos.x + 1, chunkPos.z));
+            for (int x = chunkPos.getMinBlockX(); x <= chunkPos.getMaxBlockX(); x++)
+            {
+                for (int z = chunkPos.getMinBlockZ(); z <= chunkPos.getMaxBlockZ(); z++)
+                {
+                    assertEquals(data.getAverageTemp(x, z), snapshot.getAverageTemperature(x, z));
+                    assertEquals(data.getRainfall(x, z), snapshot.getRainfall(x, z));
+                }
+            }
+
+            data.setRainfall(new LerpFloatLayer(100, 200, 300, 400));
+            assertFalse(snapshot.isValidFor(data, chunkPos.x, chunkPos.z));
+        }
+    }
+
+    private void assertChunkMatches(ReferenceModel model, ChunkData data, ChunkPos chunkPos, long calendarTicks, int daysInMonth, Random random)
+    {
+        for (int j = 0; j < 64; j++)
+        {
+            final BlockPos pos = new BlockPos(chunkPos.getBlockX(random.nextInt(16)), random.nextInt(384) - 64, chunkPos.getBlockZ(random.nextInt(16)));
+            assertEquals(model.calculateTemperatureDirectly(pos, data, calendarTicks, daysInMonth), model.getTemperature(null, pos, data, calendarTicks, daysInMonth), "Temperature at " + pos + " at " + calendarTicks);
+        }
+    }
+
+    static class ReferenceModel extends OverworldClimateModel
+    {
+        void sync(int scale, boolean endlessPoles, long seed)
+        {
+            final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+            buffer.writeInt(scale);
+            buffer.writeBoolean(endlessPoles);
+            buffer.writeLong(seed);
+            onReceiveOnClient(buffer);
+        }
+
+        /**
+         * The original implementation of {@link OverworldClimateModel#getTemperature(net.minecraft.world.level.LevelReader, BlockPos, ChunkData, long, int)}, without any caching.
+         */
+        float calculateTemperatureDirectly(BlockPos pos, ChunkData data, long calendarTicks, int daysInMonth)
+        {
+            final Month currentMonth = ICalendar.getMonthOfYear(calendarTicks, daysInMonth);
+            final float delta = ICalendar.getFractionOfMonth(calendarTicks, daysInMonth);
+            final float monthFactor = Mth.lerp(delta, currentMonth.getTemperatureModifier(), currentMonth.next().getTemperatureModifier());
+
+            final float monthTemperature = calculateMonthlyTemperature(pos.getZ(), monthFactor);
+            final float dailyTemperature = calculateDailyTemperature(calendarTicks);
+
+            return adjustTemperatureByElevation(pos.getY(), data.getAverageTemp(pos), monthTemperature, dailyTemperature);
+        }
+    }
+}
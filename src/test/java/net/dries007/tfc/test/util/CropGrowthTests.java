@@ -0,0 +1,249 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.Random;
+
+import net.minecraft.util.Mth;
+
+import it.unimi.dsi.fastutil.longs.Long2FloatFunction;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.blockentities.FarmlandBlockEntity.NutrientType;
+import net.dries007.tfc.common.blockentities.IFarmland;
+import net.dries007.tfc.common.blocks.crop.CropHelpers;
+import net.dries007.tfc.common.blocks.crop.CropHelpers.GrowthConditions;
+import net.dries007.tfc.common.blocks.crop.CropHelpers.GrowthState;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.calendar.ICalendar;
+import net.dries007.tfc.util.climate.ClimateRange;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ensures that {@link CropHelpers#simulateGrowth(GrowthConditions, GrowthState, Random, long, long, Long2FloatFunction)} produces the same growth, yield, expiry, nutrients, and outcome as the original stepped simulation, which queried the level and updated the farmland and crop each step.
+ */
+public class CropGrowthTests extends TestHelper
+{
+    static final float TOLERANCE = 1e-6f;
+
+    @Test
+    public void testGrowthMatchesSteppedSimulation()
+    {
+        final Random random = new Random(seed());
+        int died = 0;
+        for (int i = 0; i < 2000; i++)
+        {
+            final GrowthConditions conditions = new GrowthConditions(
+                ClimateRange.NOOP,
+                random.nextInt(101),
+                random.nextBoolean() ? CropHelpers.GROWTH_LIMIT : random.nextFloat(),
+                NutrientType.VALUES[random.nextInt(3)],
+                0.5f + random.nextFloat() * 2f,
+                0.5f + random.nextFloat() * 2f
+            );
+
+            // Temperatures are mostly valid, but some crops experience a deadly spike
+            final long spikeTick = random.nextInt(4) == 0 ? random.nextInt(200 * ICalendar.TICKS_IN_DAY) : Long.MIN_VALUE;
+            final float baseTemperature = random.nextFloat() * 60 - 30;
+            final Long2FloatFunction temperature = tick -> spikeTick != Long.MIN_VALUE && Math.abs(tick - spikeTick) < CropHelpers.UPDATE_INTERVAL ? 150 : baseTemperature + 20 * Mth.sin(tick * 0.0001f);
+
+            final float growth = random.nextFloat() * 0.5f, yield = random.nextFloat() * 0.2f, expiry = random.nextFloat() * 0.5f;
+            final boolean hasFarmland = random.nextInt(5) != 0;
+            final Farmland expectedFarmland = hasFarmland ? new Farmland(random.nextFloat(), random.nextFloat(), random.nextFloat()) : null;
+            final Farmland actualFarmland = hasFarmland ? new Farmland(expectedFarmland.nutrients.clone()) : null;
+
+            final long fromTick = random.nextInt(1_000_000);
+            final long toTick = fromTick + random.nextInt(random.nextBoolean() ? 10 * ICalendar.TICKS_IN_DAY : 200 * ICalendar.TICKS_IN_DAY);
+            final long randomSeed = random.nextLong();
+
+            final GrowthState expected = new GrowthState(growth, yield, expiry, null);
+            final boolean expectedSurvived = simulateStepped(conditions, expected, expectedFarmland, new Random(randomSeed), fromTick, toTick, temperature);
+
+            final boolean copyNutrients = random.nextBoolean();
+            final GrowthState actual = new GrowthState(growth, yield, expiry, actualFarmland, copyNutrients);
+            final boolean actualSurvived = CropHelpers.simulateGrowth(conditions, actual, new Random(randomSeed), fromTick, toTick, temperature);
+
+            final String message = "Crop " + i + " from " + fromTick + " to " + toTick;
+            assertEquals(expectedSurvived, actualSurvived, message);
+            assertEquals(expected.growth, actual.growth, TOLERANCE, message);
+            if (expectedSurvived)
+            {
+                assertEquals(expected.yield, actual.yield, TOLERANCE, message);
+                assertEquals(expected.expiry, actual.expiry, TOLERANCE, message);
+            }
+            else
+            {
+                died++;
+            }
+            if (hasFarmland)
+            {
+                for (NutrientType type : NutrientType.VALUES)
+                {
+                    final float actualNutrient = copyNutrients ? actual.nutrients[type.ordinal()] : actualFarmland.getNutrient(type);
+                    assertEquals(expectedFarmland.getNutrient(type), actualNutrient, TOLERANCE, message + " nutrient " + type);
+                }
+            }
+        }
+        assertTrue(died > 0 && died < 2000, "Expected some crops to die, and some to survive, got " + died);
+    }
+
+    @Test
+    public void testFarmlandOverrideIsUsed()
+    {
+        final GrowthConditions conditions = new GrowthConditions(ClimateRange.NOOP, 50, CropHelpers.GROWTH_LIMIT, NutrientType.NITROGEN, 1, 1);
+        final float[] nutrients = {1, 0, 0};
+        final IFarmland farmland = new IFarmland()
+        {
+            @Override
+            public float getNutrient(NutrientType type)
+            {
+                return nutrients[type.ordinal()];
+            }
+
+            @Override
+            public void setNutrient(NutrientType type, float value)
+            {
+                nutrients[type.ordinal()] = Mth.clamp(value, 0, 1);
+            }
+
+            @Override
+            public float consumeNutrientAndResupplyOthers(NutrientType type, float amount)
+            {
+                // Consumes without resupplying other nutrients
+                final float consumed = Math.min(getNutrient(type), amount);
+                setNutrient(type, getNutrient(type) - consumed);
+                return consumed;
+            }
+        };
+
+        final GrowthState state = new GrowthState(0, 0, 0, farmland);
+        assertNull(state.nutrients);
+        CropHelpers.simulateGrowth(conditions, state, new Random(seed()), 0, 10 * ICalendar.TICKS_IN_DAY, tick -> 15);
+
+        assertTrue(farmland.getNutrient(NutrientType.NITROGEN) < 1);
+        assertEquals(0, farmland.getNutrient(NutrientType.PHOSPHOROUS));
+        assertEquals(0, farmland.getNutrient(NutrientType.POTASSIUM));
+    }
+
+    /**
+     * The original implementation of {@link CropHelpers#growthTick(net.minecraft.world.level.Level, net.minecraft.core.BlockPos, net.minecraft.world.level.block.state.BlockState, net.dries007.tfc.common.blockentities.CropBlockEntity)}, with each step querying temperatures and consuming nutrients from the farmland directly.
+     */
+    static boolean simulateStepped(GrowthConditions conditions, GrowthState crop, Farmland farmland, Random random, long firstTick, long thisTick, Long2FloatFunction temperature)
+    {
+        long tick = firstTick + CropHelpers.UPDATE_INTERVAL, lastTick = firstTick;
+        for (; tick < thisTick; tick += CropHelpers.UPDATE_INTERVAL)
+        {
+            if (!growthTickStep(conditions, crop, farmland, random, lastTick, tick, temperature))
+            {
+                return false;
+            }
+            lastTick = tick;
+        }
+        return lastTick >= thisTick || growthTickStep(conditions, crop, farmland, random, lastTick, thisTick, temperature);
+    }
+
+    static boolean growthTickStep(GrowthConditions conditions, GrowthState crop, Farmland farmland, Random random, long fromTick, long toTick, Long2FloatFunction temperature)
+    {
+        final int hydration = conditions.hydration();
+        final float startTemperature = temperature.get(fromTick);
+        final float endTemperature = temperature.get(toTick);
+        final long tickDelta = toTick - fromTick;
+
+        final ClimateRange range = conditions.range();
+        final boolean growing = checkClimate(range, hydration, startTemperature, endTemperature, false);
+        final boolean healthy = growing || checkClimate(range, hydration, startTemperature, endTemperature, true);
+
+        final NutrientType primaryNutrient = conditions.primaryNutrient();
+        float nutrientsAvailable = 0, nutrientsRequired = CropHelpers.NUTRIENT_CONSUMPTION * tickDelta, nutrientsConsumed = 0;
+        if (farmland != null)
+        {
+            nutrientsAvailable = farmland.getNutrient(primaryNutrient);
+            nutrientsConsumed = farmland.consumeNutrientAndResupplyOthers(primaryNutrient, nutrientsRequired);
+        }
+
+        final float growthModifier = conditions.growthModifier();
+        final float expiryModifier = conditions.expiryModifier();
+        final float localExpiryLimit = CropHelpers.EXPIRY_LIMIT * expiryModifier * (1f / growthModifier);
+
+        final float totalGrowthDelta = (1f / growthModifier) * Helpers.uniform(random, 0.9f, 1.1f) * tickDelta * CropHelpers.GROWTH_FACTOR + nutrientsConsumed * CropHelpers.NUTRIENT_GROWTH_FACTOR;
+        final float initialGrowth = crop.growth;
+        float remainingGrowthDelta = totalGrowthDelta;
+        float growth = initialGrowth, expiry = crop.expiry, actualYield = crop.yield;
+
+        expiry *= localExpiryLimit / CropHelpers.EXPIRY_LIMIT;
+
+        final float growthLimit = conditions.growthLimit();
+        if (remainingGrowthDelta > 0 && growing && growth < growthLimit)
+        {
+            final float delta = Math.min(remainingGrowthDelta, growthLimit - growth);
+
+            growth += delta;
+            remainingGrowthDelta -= delta;
+        }
+        if (remainingGrowthDelta > 0)
+        {
+            final float delta = Math.min(remainingGrowthDelta, localExpiryLimit - expiry);
+
+            expiry += delta;
+        }
+
+        final float growthDelta = growth - initialGrowth;
+        final float nutrientSatisfaction;
+        if (growthDelta <= 0 || nutrientsRequired <= 0)
+        {
+            nutrientSatisfaction = 1;
+        }
+        else
+        {
+            nutrientSatisfaction = Math.min(1, (totalGrowthDelta / growthDelta) * (nutrientsAvailable / nutrientsRequired));
+        }
+
+        actualYield += growthDelta * Helpers.lerp(nutrientSatisfaction, CropHelpers.YIELD_MIN, CropHelpers.YIELD_LIMIT);
+
+        if (expiry >= localExpiryLimit || !healthy)
+        {
+            crop.growth = growth;
+            return false;
+        }
+
+        expiry *= CropHelpers.EXPIRY_LIMIT / localExpiryLimit;
+
+        crop.growth = growth;
+        crop.yield = actualYield;
+        crop.expiry = expiry;
+        return true;
+    }
+
+    static boolean checkClimate(ClimateRange range, int hydration, float firstTemperature, float secondTemperature, boolean allowWiggle)
+    {
+        return range.checkBoth(hydration, firstTemperature, allowWiggle) && range.checkTemperature(secondTemperature, allowWiggle) == ClimateRange.Result.VALID;
+    }
+
+    /**
+     * A farmland which clamps nutrients, as {@link net.dries007.tfc.common.blockentities.FarmlandBlockEntity} does.
+     */
+    record Farmland(float[] nutrients) implements IFarmland
+    {
+        Farmland(float nitrogen, float phosphorous, float potassium)
+        {
+            this(new float[] {nitrogen, phosphorous, potassium});
+        }
+
+        @Override
+        public float getNutrient(NutrientType type)
+        {
+            return nutrients[type.ordinal()];
+        }
+
+        @Override
+        public void setNutrient(NutrientType type, float value)
+        {
+            nutrients[type.ordinal()] = Mth.clamp(value, 0, 1);
+        }
+    }
+}
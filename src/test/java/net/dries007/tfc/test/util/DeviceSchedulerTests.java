@@ -0,0 +1,105 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.Random;
+
+import net.minecraft.core.BlockPos;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.tracker.DeviceScheduler;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeviceSchedulerTests extends TestHelper
+{
+    @Test
+    public void testWakesAtWakeTick()
+    {
+        final Random random = new Random(seed());
+        final DeviceScheduler scheduler = new DeviceScheduler();
+        final Long2LongMap expected = new Long2LongOpenHashMap(); // Sleeping positions, to their wake tick
+
+        for (long tick = 0; tick < 2000; tick++)
+        {
+            // Sleep, re-sleep and release random positions, which leaves stale entries behind
+            for (int i = random.nextInt(5); i > 0; i--)
+            {
+                final long pos = random.nextInt(200);
+                switch (random.nextInt(3))
+                {
+                    case 0 -> {
+                        final long wakeTick = random.nextInt(10) == 0 ? Long.MAX_VALUE : tick + random.nextInt(300);
+                        scheduler.sleep(pos, wakeTick);
+                        expected.put(pos, wakeTick);
+                    }
+                    case 1 -> {
+                        scheduler.release(pos);
+                        expected.remove(pos);
+                    }
+                    default -> assertEquals(expected.containsKey(pos), scheduler.isSleeping(pos));
+                }
+            }
+
+            final long currentTick = tick;
+            final LongArrayList woken = new LongArrayList();
+            scheduler.tick(tick, woken::add);
+            for (long pos : woken)
+            {
+                assertTrue(expected.containsKey(pos), "Woke a position which was not sleeping");
+                assertTrue(expected.get(pos) <= currentTick, "Woke a position before its wake tick");
+                assertFalse(scheduler.isSleeping(pos));
+                expected.remove(pos);
+            }
+            expected.long2LongEntrySet().forEach(entry -> assertTrue(entry.getLongValue() > currentTick, "Did not wake a position at its wake tick"));
+            assertEquals(expected.size(), scheduler.size());
+        }
+    }
+
+    @Test
+    public void testCollectNear()
+    {
+        final Random random = new Random(seed());
+        final DeviceScheduler scheduler = new DeviceScheduler();
+        final LongSet positions = new LongOpenHashSet();
+        for (int i = 0; i < 500; i++)
+        {
+            final long pos = new BlockPos(random.nextInt(64) - 32, random.nextInt(16), random.nextInt(64) - 32).asLong();
+            scheduler.sleep(pos, Long.MAX_VALUE);
+            positions.add(pos);
+        }
+
+        for (int i = 0; i < 50; i++)
+        {
+            final BlockPos center = new BlockPos(random.nextInt(64) - 32, random.nextInt(16), random.nextInt(64) - 32);
+            final LongSet expected = new LongOpenHashSet();
+            for (long pos : positions)
+            {
+                final BlockPos offset = BlockPos.of(pos).subtract(center);
+                if (offset.getX() * offset.getX() + offset.getY() * offset.getY() + offset.getZ() * offset.getZ() <= DeviceScheduler.ITEM_WAKE_RADIUS * DeviceScheduler.ITEM_WAKE_RADIUS)
+                {
+                    expected.add(pos);
+                }
+            }
+
+            final LongSet found = new LongOpenHashSet();
+            scheduler.collectNear(center, DeviceScheduler.ITEM_WAKE_RADIUS, pos -> {
+                found.add(pos);
+                scheduler.release(pos); // Positions may be released while collecting
+            });
+            assertEquals(expected, found);
+
+            found.forEach(pos -> scheduler.sleep(pos, Long.MAX_VALUE));
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.capabilities.heat.HeatCapability;
+import net.dries007.tfc.common.capabilities.heat.HeatTimeline;
+import net.dries007.tfc.common.capabilities.heat.HeatTimeline.Heating;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeatTimelineTests extends TestHelper
+{
+    private static final double EPSILON = 1e-3;
+
+    @Test
+    public void testBurnMatchesTicking()
+    {
+        final Random random = new Random(seed());
+        for (int run = 0; run < 300; run++)
+        {
+            final HeatTimeline.Rates rates = rates(random);
+            final long ticks = ticks(random);
+            final boolean lit = random.nextBoolean(), isRaining = random.nextInt(4) == 0, resetAir = random.nextBoolean();
+            final HeatTimeline.Fire fire = new HeatTimeline.Fire(random.nextFloat() * 1600, lit, lit ? random.nextInt(2000) - 5 : 0, lit ? random.nextFloat() * 1500 : 0, random.nextBoolean() ? 0 : random.nextInt(600));
+            final int burnRate = 1 + random.nextInt(4);
+            final ArrayDeque<HeatTimeline.Burn> fuels = new ArrayDeque<>();
+            for (int i = random.nextInt(6); i > 0; i--)
+            {
+                fuels.add(random.nextInt(8) == 0 ? HeatTimeline.Burn.NONE : new HeatTimeline.Burn(1 + random.nextInt(3000), random.nextFloat() * 1500));
+            }
+
+            final HeatTimeline timeline = HeatTimeline.burn(rates, ticks, fire, isRaining, burnRate, resetAir, new ArrayDeque<>(fuels)::poll);
+
+            // Step the device one tick at a time
+            final DoubleArrayList temperatures = new DoubleArrayList();
+            double temperature = fire.temperature();
+            boolean expectedLit = lit;
+            int burnTicks = fire.burnTicks(), airTicks = fire.airTicks();
+            float burnTemperature = fire.burnTemperature();
+            for (long tick = 0; tick < ticks; tick++)
+            {
+                if (expectedLit)
+                {
+                    if (burnTicks > 0)
+                    {
+                        burnTicks -= (airTicks > 0 || isRaining ? 2 : 1) * burnRate;
+                    }
+                    if (burnTicks <= 0)
+                    {
+                        final HeatTimeline.Burn next = fuels.poll();
+                        if (next != null)
+                        {
+                            burnTicks += next.duration();
+                            burnTemperature = next.temperature();
+                        }
+                        if (burnTicks <= 0)
+                        {
+                            expectedLit = false;
+                            burnTicks = 0;
+                            burnTemperature = 0;
+                            if (resetAir)
+                            {
+                                airTicks = 0;
+                            }
+                        }
+                    }
+                }
+                if (airTicks > 0)
+                {
+                    airTicks--;
+                }
+                if (temperature > 0 || burnTemperature > 0)
+                {
+                    final double target = HeatCapability.targetDeviceTemp(burnTemperature, airTicks, isRaining);
+                    temperature = airTicks > 0 ? towards(temperature, target, 2 * rates.device(), 0.5 * rates.device()) : towards(temperature, target, rates.device(), rates.device());
+                }
+                temperatures.add(temperature);
+            }
+
+            final HeatTimeline.Fire result = timeline.getFire();
+            assertEquals(expectedLit, result.lit());
+            assertEquals(burnTicks, result.burnTicks());
+            assertEquals(burnTemperature, result.burnTemperature());
+            assertEquals(airTicks, result.airTicks());
+            assertEquals(temperature, timeline.getTemperature(), EPSILON);
+
+            assertItemsMatchTicking(random, rates, timeline, temperatures, 3, 0);
+        }
+    }
+
+    @Test
+    public void testCrucibleMatchesTicking()
+    {
+        final Random random = new Random(seed());
+        for (int run = 0; run < 300; run++)
+        {
+            final HeatTimeline.Rates rates = rates(random);
+            final long ticks = ticks(random);
+            final float startTemperature = random.nextFloat() * 1600, startTarget = random.nextInt(4) == 0 ? 0 : random.nextFloat() * 1600;
+            final int stabilityTicks = random.nextInt(4) == 0 ? 0 : random.nextInt(20);
+
+            final HeatTimeline timeline = HeatTimeline.crucible(rates, ticks, startTemperature, startTarget, stabilityTicks);
+
+            final DoubleArrayList temperatures = new DoubleArrayList();
+            double temperature = startTemperature, target = startTarget;
+            int stability = stabilityTicks;
+            for (long tick = 0; tick < ticks; tick++)
+            {
+                temperature = towards(temperature, target, rates.device(), rates.device());
+                if (stability > 0)
+                {
+                    stability--;
+                }
+                if (target > 0 && stability == 0)
+                {
+                    target = towards(target, 0, rates.device(), rates.device());
+                }
+                temperatures.add(temperature);
+            }
+
+            assertEquals(temperature, timeline.getTemperature(), EPSILON);
+            assertEquals(target, timeline.getTargetTemperature(), EPSILON);
+            assertEquals(stability, timeline.getStabilityTicks());
+
+            assertItemsMatchTicking(random, rates, timeline, temperatures, 2, 0.0025f);
+        }
+    }
+
+    @Test
+    public void testLongSkipIsConstantTime()
+    {
+        final HeatTimeline.Rates rates = new HeatTimeline.Rates(1, 0.8, 1);
+        final ArrayDeque<HeatTimeline.Burn> fuels = new ArrayDeque<>();
+        for (int i = 0; i < 4; i++)
+        {
+            fuels.add(new HeatTimeline.Burn(2000, 1200));
+        }
+
+        final HeatTimeline timeline = HeatTimeline.burn(rates, 1_000_000_000L, new HeatTimeline.Fire(0, true, 0, 0, 0), false, 1, true, fuels::poll);
+
+        assertTrue(timeline.getSegments() < 20, "Expected a few segments per fuel, got " + timeline.getSegments());
+        assertFalse(timeline.getFire().lit());
+        assertEquals(0, timeline.getTemperature());
+        assertEquals(0, timeline.heat(1000, 1, Heating.WHEN_COOLER, 3, 0));
+    }
+
+    private void assertItemsMatchTicking(Random random, HeatTimeline.Rates rates, HeatTimeline timeline, DoubleArrayList temperatures, float modifier, float modifierPerDegree)
+    {
+        for (Heating heating : Heating.values())
+        {
+            final double startTemperature = random.nextInt(4) == 0 ? 0 : random.nextDouble() * 1600;
+            final float heatCapacity = 0.2f + random.nextFloat() * 3;
+            final double cooling = rates.itemCooling() / heatCapacity;
+
+            double expected = startTemperature;
+            for (int tick = 0; tick < temperatures.size(); tick++)
+            {
+                final double device = temperatures.getDouble(tick);
+                final double cooled = Math.max(expected - cooling, 0);
+                final double heated = Math.min(cooled + (rates.itemCooling() - 1 + (modifier + modifierPerDegree * device) * rates.itemHeating()) / heatCapacity, device);
+                expected = switch (heating)
+                    {
+                        case ALWAYS -> heated;
+                        case WHILE_HOT -> device > 0 ? heated : cooled;
+                        case WHEN_COOLER -> cooled < device ? heated : cooled;
+                    };
+            }
+            assertEquals(expected, timeline.heat(startTemperature, heatCapacity, heating, modifier, modifierPerDegree), EPSILON, "Heating " + heating + " from " + startTemperature + " with heat capacity " + heatCapacity);
+        }
+    }
+
+    private HeatTimeline.Rates rates(Random random)
+    {
+        return random.nextInt(4) == 0 ? new HeatTimeline.Rates(1, 0.8, 1) : new HeatTimeline.Rates(0.25 + random.nextDouble() * 2, 0.1 + random.nextDouble() * 1.5, 0.5 + random.nextDouble() * 2);
+    }
+
+    private long ticks(Random random)
+    {
+        return switch (random.nextInt(3))
+            {
+                case 0 -> random.nextInt(50);
+                case 1 -> random.nextInt(5000);
+                default -> random.nextInt(60000);
+            };
+    }
+
+    private double towards(double temperature, double target, double deltaPositive, double deltaNegative)
+    {
+        if (temperature < target)
+        {
+            return Math.min(temperature + deltaPositive, target);
+        }
+        else if (temperature > target)
+        {
+            return Math.max(temperature - deltaNegative, target);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.Random;
+
+import net.minecraft.world.level.LevelHeightAccessor;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.tracker.HydrationCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ensures that {@link HydrationCache} produces exactly the same water cost as the scan in {@link net.dries007.tfc.common.blocks.soil.FarmlandBlock}, including after blocks and chunks change.
+ */
+public class HydrationCacheTests extends TestHelper
+{
+    static final int CHUNKS = 4;
+    static final int MIN_Y = -16;
+    static final int HEIGHT = 64;
+
+    @Test
+    public void testCostMatchesScan()
+    {
+        final Random random = new Random(seed());
+        final World world = new World(random, 0.02f);
+        final HydrationCache cache = world.createCache();
+
+        assertAllMatch(world, cache);
+    }
+
+    @Test
+    public void testCostMatchesScanAfterBlockChanges()
+    {
+        final Random random = new Random(seed());
+        final World world = new World(random, 0.01f);
+        final HydrationCache cache = world.createCache();
+
+        assertAllMatch(world, cache);
+        for (int i = 0; i < 50; i++)
+        {
+            for (int j = 0; j < 20; j++)
+            {
+                final int x = random.nextInt(16 * CHUNKS), y = MIN_Y + random.nextInt(HEIGHT), z = random.nextInt(16 * CHUNKS);
+                final boolean hydrating = !world.get(x, y, z);
+                world.set(x, y, z, hydrating);
+                cache.onHydratingChanged(x, y, z, hydrating);
+            }
+            assertAllMatch(world, cache);
+        }
+    }
+
+    @Test
+    public void testCostMatchesScanAfterChunkChanges()
+    {
+        final Random random = new Random(seed());
+        final World world = new World(random, 0.01f);
+        final HydrationCache cache = world.createCache();
+
+        assertAllMatch(world, cache);
+        for (int i = 0; i < 10; i++)
+        {
+            // Replace a chunk entirely, as if it was unloaded and reloaded
+            final int chunkX = random.nextInt(CHUNKS), chunkZ = random.nextInt(CHUNKS);
+            world.fillChunk(random, chunkX, chunkZ, 0.03f);
+            cache.onChunkChanged(chunkX, chunkZ);
+            assertAllMatch(world, cache);
+        }
+    }
+
+    @Test
+    public void testUnloadedChunksAreUnknown()
+    {
+        final Random random = new Random(seed());
+        final World world = new World(random, 0.01f);
+        final HydrationCache cache = world.createCache();
+
+        assertEquals(HydrationCache.UNKNOWN, cache.getMinCostWater(3, 10, 20)); // Borders an unloaded chunk
+        assertEquals(HydrationCache.UNKNOWN, cache.getMinCostWater(20, MIN_Y - 1, 20)); // Outside the level
+        assertNotEquals(HydrationCache.UNKNOWN, cache.getMinCostWater(20, 10, 20));
+    }
+
+    private void assertAllMatch(World world, HydrationCache cache)
+    {
+        // Only the center chunks have all their neighbors loaded
+        for (int x = 16; x < 16 * (CHUNKS - 1); x++)
+        {
+            for (int z = 16; z < 16 * (CHUNKS - 1); z++)
+            {
+                for (int y = MIN_Y; y < MIN_Y + HEIGHT; y++)
+                {
+                    assertEquals(world.scanMinCostWater(x, y, z), cache.getMinCostWater(x, y, z), "Cost at " + x + ", " + y + ", " + z);
+                }
+            }
+        }
+    }
+
+    static class World implements LevelHeightAccessor
+    {
+        final boolean[] fluids = new boolean[16 * CHUNKS * 16 * CHUNKS * HEIGHT];
+
+        World(Random random, float density)
+        {
+            for (int x = 0; x < CHUNKS; x++)
+            {
+                for (int z = 0; z < CHUNKS; z++)
+                {
+                    fillChunk(random, x, z, density);
+                }
+            }
+        }
+
+        void fillChunk(Random random, int chunkX, int chunkZ, float density)
+        {
+            for (int x = 16 * chunkX; x < 16 * chunkX + 16; x++)
+            {
+                for (int z = 16 * chunkZ; z < 16 * chunkZ + 16; z++)
+                {
+                    for (int y = MIN_Y; y < MIN_Y + HEIGHT; y++)
+                    {
+                        set(x, y, z, random.nextFloat() < density);
+                    }
+                }
+            }
+        }
+
+        HydrationCache createCache()
+        {
+            return new HydrationCache(this, (chunkX, sectionY, chunkZ) -> {
+                if (chunkX < 0 || chunkX >= CHUNKS || chunkZ < 0 || chunkZ >= CHUNKS)
+                {
+                    return null; // Not loaded
+                }
+                final long[] bits = new long[16 * 16 * 16 / 64];
+                for (int i = 0; i < 16 * 16 * 16; i++)
+                {
+                    if (get(16 * chunkX + (i & 15), 16 * sectionY + (i >> 8), 16 * chunkZ + ((i >> 4) & 15)))
+                    {
+                        bits[i >> 6] |= 1L << i;
+                    }
+                }
+                return bits;
+            });
+        }
+
+        boolean get(int x, int y, int z)
+        {
+            return x >= 0 && x < 16 * CHUNKS && z >= 0 && z < 16 * CHUNKS && y >= MIN_Y && y < MIN_Y + HEIGHT && fluids[index(x, y, z)];
+        }
+
+        void set(int x, int y, int z, boolean value)
+        {
+            fluids[index(x, y, z)] = value;
+        }
+
+        /**
+         * The original implementation of {@code FarmlandBlock.findMinCostWater}, scanning the level.
+         */
+        int scanMinCostWater(int x, int y, int z)
+        {
+            int minCostWater = 5;
+            for (int dx = -4; dx <= 4; dx++)
+            {
+                for (int dz = -4; dz <= 4; dz++)
+                {
+                    for (int dy = -1; dy <= 0; dy++)
+                    {
+                        final int cost = Math.max(Math.abs(dx), Math.abs(dz)) + (-2 * dy);
+                        if (cost < minCostWater && get(x + dx, y + dy, z + dz))
+                        {
+                            minCostWater = cost;
+                            if (minCostWater == 1)
+                            {
+                                return 1;
+                            }
+                        }
+                    }
+                }
+            }
+            return minCostWater;
+        }
+
+        @Override
+        public int getHeight()
+        {
+            return HEIGHT;
+        }
+
+        @Override
+        public int getMinBuildHeight()
+        {
+            return MIN_Y;
+        }
+
+        private int index(int x, int y, int z)
+        {
+            return x + 16 * CHUNKS * (z + 16 * CHUNKS * (y - MIN_Y));
+        }
+    }
+}
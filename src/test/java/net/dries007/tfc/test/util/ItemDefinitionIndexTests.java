@@ -0,0 +1,146 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.minecraft.core.Registry;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.crafting.Ingredient;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.ItemDefinition;
+import net.dries007.tfc.util.collections.IndirectHashCollection;
+import net.dries007.tfc.util.collections.ItemDefinitionIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemDefinitionIndexTests extends TestHelper
+{
+    /**
+     * Creates definitions for a random subset of items, as would be seen in data packs: mostly single items or small groups (i.e. tags), with some definitions that require a specific NBT tag, and some overlap between definitions.
+     */
+    public static List<ItemDefinition> createDefinitions(Random random, List<Item> items, int count)
+    {
+        final List<ItemDefinition> defs = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            final Item[] group = new Item[1 + random.nextInt(4)];
+            for (int j = 0; j < group.length; j++)
+            {
+                group[j] = items.get(random.nextInt(items.size()));
+            }
+            final Ingredient ingredient = Ingredient.of(group);
+            defs.add(random.nextInt(4) == 0 ? new TaggedDefinition(i, ingredient) : new Definition(i, ingredient));
+        }
+        return defs;
+    }
+
+    public static ItemStack createStack(Random random, List<Item> items)
+    {
+        final ItemStack stack = new ItemStack(items.get(random.nextInt(items.size())));
+        if (random.nextBoolean())
+        {
+            stack.getOrCreateTag().putBoolean("tagged", true);
+        }
+        return stack;
+    }
+
+    public static List<Item> items()
+    {
+        return Registry.ITEM.stream().filter(item -> item != Items.AIR).toList();
+    }
+
+    @Test
+    public void testIndexMatchesLinearSearch()
+    {
+        final Random random = new Random(seed());
+        final List<Item> items = items().subList(0, 200);
+        for (int i = 0; i < 20; i++)
+        {
+            final List<ItemDefinition> defs = createDefinitions(random, items, 150);
+            final IndirectHashCollection<Item, ItemDefinition> expected = new IndirectHashCollection<>(ItemDefinition::getValidItems);
+            final ItemDefinitionIndex<ItemDefinition> actual = ItemDefinitionIndex.create(() -> defs);
+
+            expected.reload(defs);
+            actual.reload(defs);
+
+            for (int j = 0; j < 1000; j++)
+            {
+                final ItemStack stack = createStack(random, items);
+                assertSame(linearSearch(expected, stack), actual.get(stack), "Stack " + stack + " with tag " + stack.getTag());
+            }
+        }
+    }
+
+    @Test
+    public void testClassification()
+    {
+        final Ingredient stick = Ingredient.of(Items.STICK), apple = Ingredient.of(Items.APPLE);
+        final ItemDefinition taggedStick = new TaggedDefinition(0, stick), anyStick = new Definition(1, stick), laterStick = new Definition(2, stick), anyApple = new Definition(3, apple);
+        final ItemDefinitionIndex<ItemDefinition> index = ItemDefinitionIndex.create(List::of);
+        index.reload(List.of(taggedStick, anyStick, laterStick, anyApple));
+
+        final ItemStack tagged = new ItemStack(Items.STICK);
+        tagged.getOrCreateTag().putBoolean("tagged", true);
+
+        assertEquals(2, index.size());
+        assertSame(taggedStick, index.get(tagged));
+        assertSame(anyStick, index.get(new ItemStack(Items.STICK)));
+        assertSame(anyApple, index.get(new ItemStack(Items.APPLE)));
+        assertNull(index.get(new ItemStack(Items.DIRT)));
+    }
+
+    private static ItemDefinition linearSearch(IndirectHashCollection<Item, ItemDefinition> cache, ItemStack stack)
+    {
+        for (ItemDefinition def : cache.getAll(stack.getItem()))
+        {
+            if (def.matches(stack))
+            {
+                return def;
+            }
+        }
+        return null;
+    }
+
+    static class Definition extends ItemDefinition
+    {
+        Definition(int id, Ingredient ingredient)
+        {
+            super(Helpers.identifier("definition_" + id), ingredient);
+        }
+    }
+
+    /**
+     * A definition which only matches stacks with a specific tag, like a {@link net.minecraftforge.common.crafting.NBTIngredient}, or one of TFC's trait ingredients.
+     */
+    static class TaggedDefinition extends Definition
+    {
+        TaggedDefinition(int id, Ingredient ingredient)
+        {
+            super(id, ingredient);
+        }
+
+        @Override
+        public boolean matches(ItemStack stack)
+        {
+            return super.matches(stack) && stack.getTag() != null && stack.getTag().getBoolean("tagged");
+        }
+
+        @Override
+        public boolean matchesItemOnly()
+        {
+            return false;
+        }
+    }
+}
@@ -6,9 +6,11 @@
 
 package net.dries007.tfc.test.util;
 
+import java.util.Random;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import it.unimi.dsi.fastutil.ints.IntSet;
 import net.dries007.tfc.util.KnappingPattern;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.Test;
@@ -77,4 +79,46 @@ public class KnappingPatternTests
                                 assertTrue(p.get(x0, y0));
                 }))).flatMap(t -> t);
     }
+    @Test
+    public void testMatchingDataIsExactlyTheMatchingPatterns()
+    {
+        final Random random = new Random(71829412L);
+        for (int i = 0; i < 200; i++)
+        {
+            final KnappingPattern recipe = new KnappingPattern(1 + random.nextInt(5), 1 + random.nextInt(5), random.nextBoolean());
+            for (int j = 0; j < recipe.getWidth() * recipe.getHeight(); j++)
+            {
+                recipe.set(j, random.nextBoolean());
+            }
+
+            final IntSet matching = recipe.getMatchingData(KnappingPattern.MAX_WIDTH, KnappingPattern.MAX_HEIGHT);
+            for (int data : matching)
+            {
+                assertTrue(of(data).matches(recipe));
+
+                // Every pattern one position away from a matching one, either matches and is included, or doesn't match and isn't
+                for (int j = 0; j < 25; j++)
+                {
+                    final int other = data ^ (1 << j);
+                    assertEquals(of(other).matches(recipe), matching.contains(other));
+                }
+            }
+            for (int j = 0; j < 1000; j++)
+            {
+                final int data = random.nextInt(1 << 25);
+                assertEquals(of(data).matches(recipe), matching.contains(data));
+            }
+        }
+    }
+
+    private static KnappingPattern of(int data)
+    {
+        final KnappingPattern pattern = new KnappingPattern();
+        for (int i = 0; i < 25; i++)
+        {
+            pattern.set(i, ((data >> i) & 1) == 1);
+        }
+        assertEquals(data, pattern.getData());
+        return pattern;
+    }
 }
@@ -0,0 +1,167 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.Random;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.tracker.PositionScheduler;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionSchedulerTests extends TestHelper
+{
+    static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    @Test
+    public void testDelay()
+    {
+        final PositionScheduler scheduler = new PositionScheduler(2);
+        final LongArrayList processed = new LongArrayList();
+
+        scheduler.schedule(new BlockPos(1, 2, 3));
+        assertEquals(0, scheduler.tick(100, NO_DEADLINE, processed::add));
+        assertEquals(1, scheduler.tick(100, NO_DEADLINE, processed::add));
+        assertEquals(0, scheduler.tick(100, NO_DEADLINE, processed::add));
+        assertEquals(LongArrayList.of(new BlockPos(1, 2, 3).asLong()), processed);
+        assertTrue(scheduler.isEmpty());
+    }
+
+    @Test
+    public void testDuplicatesAreProcessedOnce()
+    {
+        final PositionScheduler scheduler = new PositionScheduler(1);
+        final LongArrayList processed = new LongArrayList();
+
+        assertTrue(scheduler.schedule(new BlockPos(1, 2, 3)));
+        assertFalse(scheduler.schedule(new BlockPos(1, 2, 3)));
+        assertTrue(scheduler.schedule(new BlockPos(1, 2, 4)));
+        assertFalse(scheduler.schedule(new BlockPos(1, 2, 3)));
+        assertEquals(2, scheduler.size());
+
+        scheduler.tick(100, NO_DEADLINE, processed::add);
+        assertEquals(2, processed.size());
+
+        // Once processed, a position can be scheduled again, including from within the action
+        assertEquals(0, scheduler.tick(100, NO_DEADLINE, processed::add));
+        scheduler.schedule(new BlockPos(1, 2, 3));
+        scheduler.tick(100, NO_DEADLINE, pos -> assertTrue(scheduler.schedule(pos, 1)));
+        assertEquals(1, scheduler.size());
+    }
+
+    @Test
+    public void testWorkBudget()
+    {
+        final Random random = new Random(seed());
+        final PositionScheduler scheduler = new PositionScheduler(1);
+        final LongSet expected = new LongOpenHashSet();
+        for (int i = 0; i < 1000; i++)
+        {
+            final long pos = new BlockPos(random.nextInt(256) - 128, random.nextInt(64), random.nextInt(256) - 128).asLong();
+            scheduler.schedule(pos, 1);
+            expected.add(pos);
+        }
+        assertEquals(expected.size(), scheduler.size());
+
+        final LongSet processed = new LongOpenHashSet();
+        int ticks = 0;
+        while (!scheduler.isEmpty())
+        {
+            final LongArrayList batch = new LongArrayList();
+            final int count = scheduler.tick(64, NO_DEADLINE, batch::add);
+            assertEquals(Math.min(64, expected.size() - processed.size()), count);
+            assertEquals(count, batch.size());
+            assertSortedByChunk(batch);
+            for (long pos : batch)
+            {
+                assertTrue(processed.add(pos), "Processed twice: " + BlockPos.of(pos));
+            }
+            ticks++;
+        }
+        assertEquals(expected, processed);
+        assertEquals((expected.size() + 63) / 64, ticks);
+    }
+
+    @Test
+    public void testDeadline()
+    {
+        final PositionScheduler scheduler = new PositionScheduler(1);
+        for (int i = 0; i < 100; i++)
+        {
+            scheduler.schedule(new BlockPos(i, 0, 0));
+        }
+
+        // Past the deadline, some positions must still be processed, so the queue always makes progress
+        final int first = scheduler.tick(100, Long.MIN_VALUE, pos -> {});
+        assertTrue(first > 0 && first < 100, "Processed " + first);
+        assertEquals(100 - first, scheduler.size());
+
+        assertEquals(100 - first, scheduler.tick(100, NO_DEADLINE, pos -> {}));
+        assertTrue(scheduler.isEmpty());
+    }
+
+    @Test
+    public void testSerialization()
+    {
+        final PositionScheduler scheduler = new PositionScheduler(2);
+        scheduler.schedule(new BlockPos(1, 2, 3));
+        scheduler.tick(100, NO_DEADLINE, pos -> {});
+        scheduler.schedule(new BlockPos(4, 5, 6));
+
+        final PositionScheduler copy = new PositionScheduler(2);
+        copy.deserialize(scheduler.serialize());
+        assertEquals(2, copy.size());
+
+        final LongArrayList processed = new LongArrayList();
+        copy.tick(100, NO_DEADLINE, processed::add);
+        assertEquals(LongArrayList.of(new BlockPos(1, 2, 3).asLong()), processed);
+        copy.tick(100, NO_DEADLINE, processed::add);
+        assertEquals(LongArrayList.of(new BlockPos(1, 2, 3).asLong(), new BlockPos(4, 5, 6).asLong()), processed);
+    }
+
+    @Test
+    public void testDeserializeOrdersByDueTick()
+    {
+        // As restored from the legacy format, where positions were not stored in order of their remaining ticks
+        final long later = new BlockPos(1, 2, 3).asLong(), sooner = new BlockPos(4, 5, 6).asLong();
+        final PositionScheduler scheduler = new PositionScheduler(2);
+        scheduler.deserialize(new long[] {later, 5, sooner, 1});
+
+        final LongArrayList processed = new LongArrayList();
+        scheduler.tick(100, NO_DEADLINE, processed::add);
+        assertEquals(LongArrayList.of(sooner), processed);
+        for (int i = 0; i < 4; i++)
+        {
+            scheduler.tick(100, NO_DEADLINE, processed::add);
+        }
+        assertEquals(LongArrayList.of(sooner, later), processed);
+        assertTrue(scheduler.isEmpty());
+    }
+
+    private void assertSortedByChunk(LongArrayList batch)
+    {
+        final LongSet finishedChunks = new LongOpenHashSet();
+        long currentChunk = Long.MIN_VALUE;
+        for (long pos : batch)
+        {
+            final long chunk = ChunkPos.asLong(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4);
+            if (chunk != currentChunk)
+            {
+                finishedChunks.add(currentChunk);
+                assertFalse(finishedChunks.contains(chunk), "Chunk " + new ChunkPos(chunk) + " is not contiguous");
+                currentChunk = chunk;
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.RecipeSerializer;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.level.Level;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.recipes.ISimpleRecipe;
+import net.dries007.tfc.common.recipes.inventory.EmptyInventory;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.collections.RecipeIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecipeIndexTests extends TestHelper
+{
+    @Test
+    public void testIndexMatchesLinearSearch()
+    {
+        final Random random = new Random(seed());
+        final List<Item> items = ItemDefinitionIndexTests.items().subList(0, 200);
+        for (int i = 0; i < 20; i++)
+        {
+            final List<TestRecipe> recipes = new ArrayList<>();
+            for (int j = 0; j < 150; j++)
+            {
+                final Item[] group = new Item[1 + random.nextInt(4)];
+                for (int k = 0; k < group.length; k++)
+                {
+                    group[k] = items.get(random.nextInt(items.size()));
+                }
+                recipes.add(new TestRecipe(j, Ingredient.of(group), random.nextInt(20) == 0, random.nextInt(3)));
+            }
+
+            final RecipeIndex<Item, TestRecipe> index = RecipeIndex.create("test", () -> null, TestRecipe::getKeys);
+            index.reload(recipes);
+
+            for (int j = 0; j < 1000; j++)
+            {
+                final ItemStack stack = new ItemStack(items.get(random.nextInt(items.size())), 1 + random.nextInt(3));
+                assertSame(recipes.stream().filter(r -> r.matches(stack)).findFirst().orElse(null), index.find(stack.getItem(), r -> r.matches(stack)), "Stack " + stack);
+                assertEquals(recipes.stream().filter(r -> r.matches(stack)).toList(), index.findAll(stack.getItem(), r -> r.matches(stack)), "Stack " + stack);
+            }
+        }
+    }
+
+    @Test
+    public void testWildcardsAreInOrder()
+    {
+        final TestRecipe wildcard = new TestRecipe(0, Ingredient.of(Items.STICK), true, 0);
+        final TestRecipe stick = new TestRecipe(1, Ingredient.of(Items.STICK, Items.STICK), false, 0);
+        final TestRecipe laterWildcard = new TestRecipe(2, Ingredient.of(Items.APPLE), true, 0);
+        final TestRecipe apple = new TestRecipe(3, Ingredient.of(Items.APPLE), false, 0);
+
+        final RecipeIndex<Item, TestRecipe> index = RecipeIndex.create("test", () -> null, TestRecipe::getKeys);
+        index.reload(List.of(wildcard, stick, laterWildcard, apple));
+
+        assertEquals(List.of(wildcard, stick, laterWildcard), index.getCandidates(Items.STICK));
+        assertEquals(List.of(wildcard, laterWildcard, apple), index.getCandidates(Items.APPLE));
+        assertEquals(List.of(wildcard, laterWildcard), index.getCandidates(Items.DIRT));
+        assertEquals(2, index.getKeyCount());
+        assertEquals(2, index.getWildcardCount());
+
+        index.resetMetrics();
+        assertSame(laterWildcard, index.find(Items.APPLE, r -> r.matches(new ItemStack(Items.APPLE))));
+        assertNull(index.find(Items.DIRT, r -> r.matches(new ItemStack(Items.DIRT))));
+        assertEquals(2, index.getLookups());
+        assertEquals(2 + 2, index.getCandidatesTested());
+    }
+
+    /**
+     * A recipe which matches an ingredient, with a minimum count. Wildcard recipes are not indexed, like a recipe with a custom ingredient.
+     */
+    record TestRecipe(int id, Ingredient ingredient, boolean wildcard, int minCount) implements ISimpleRecipe<EmptyInventory>
+    {
+        List<Item> getKeys()
+        {
+            return wildcard ? null : new ArrayList<>(RecipeIndex.itemKeys(ingredient));
+        }
+
+        boolean matches(ItemStack stack)
+        {
+            return ingredient.test(stack) && stack.getCount() >= minCount;
+        }
+
+        @Override
+        public boolean matches(EmptyInventory inventory, Level level)
+        {
+            return false;
+        }
+
+        @Override
+        public ItemStack getResultItem()
+        {
+            return ItemStack.EMPTY;
+        }
+
+        @Override
+        public ResourceLocation getId()
+        {
+            return Helpers.identifier("recipe_" + id);
+        }
+
+        @Override
+        public RecipeSerializer<?> getSerializer()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RecipeType<?> getType()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.Random;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.state.BlockState;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.TFCTags;
+import net.dries007.tfc.util.CompiledMultiBlock;
+import net.dries007.tfc.util.MultiBlock;
+import net.dries007.tfc.util.tracker.StructureWatch;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StructureWatchTests extends TestHelper
+{
+    @Test
+    public void testFootprint()
+    {
+        final CompiledMultiBlock multiBlock = new MultiBlock()
+            .match(BlockPos.ZERO, BlockState::isAir)
+            .matchHorizontal(BlockPos.ZERO.above(), TFCTags.Blocks.BLOOMERY_INSULATION, 1)
+            .match(BlockPos.ZERO.below(), (level, pos) -> true)
+            .matchOneOf(BlockPos.ZERO.above(2), new MultiBlock()
+                .match(BlockPos.ZERO, BlockState::isAir)
+                .match(BlockPos.ZERO.above(), BlockState::isAir))
+            .compile();
+
+        final BlockPos origin = new BlockPos(100, 64, -100);
+        final LongSet expected = new LongOpenHashSet();
+        expected.add(origin.asLong());
+        for (Direction direction : Direction.Plane.HORIZONTAL)
+        {
+            expected.add(origin.above().relative(direction).asLong());
+        }
+        expected.add(origin.below().asLong());
+        expected.add(origin.above(2).asLong());
+        expected.add(origin.above(3).asLong());
+
+        assertEquals(expected, multiBlock.getFootprint(origin));
+        assertEquals(7, multiBlock.size());
+    }
+
+    @Test
+    public void testHandlesAreChangedByFootprint()
+    {
+        final Random random = new Random(seed());
+        final StructureWatch watch = new StructureWatch();
+        final LongSet[] footprints = new LongSet[20];
+        final StructureWatch.Handle[] handles = new StructureWatch.Handle[footprints.length];
+        for (int i = 0; i < footprints.length; i++)
+        {
+            footprints[i] = new LongOpenHashSet();
+            for (int j = 0; j < 10; j++)
+            {
+                footprints[i].add(random.nextInt(100));
+            }
+            handles[i] = watch.watch(null, footprints[i]);
+            assertFalse(handles[i].isChanged());
+        }
+        assertEquals(footprints.length, watch.getHandles());
+
+        for (int i = 0; i < 200; i++)
+        {
+            final long pos = random.nextInt(100);
+            watch.onBlockChanged(pos);
+            for (int j = 0; j < footprints.length; j++)
+            {
+                if (footprints[j].contains(pos))
+                {
+                    assertTrue(handles[j].isChanged());
+
+                    // Re-watching the same footprint reuses the handle
+                    assertSame(handles[j], watch.watch(handles[j], footprints[j]));
+                    assertFalse(handles[j].isChanged());
+                }
+            }
+            for (int j = 0; j < footprints.length; j++)
+            {
+                assertFalse(handles[j].isChanged());
+            }
+        }
+
+        for (StructureWatch.Handle handle : handles)
+        {
+            watch.release(handle);
+            assertTrue(handle.isChanged());
+        }
+        assertEquals(0, watch.getHandles());
+        assertEquals(0, watch.getWatchedPositions());
+    }
+
+    @Test
+    public void testWatchDifferentFootprint()
+    {
+        final StructureWatch watch = new StructureWatch();
+        final StructureWatch.Handle first = watch.watch(null, LongSet.of(1, 2, 3));
+        final StructureWatch.Handle second = watch.watch(first, LongSet.of(2, 3, 4));
+
+        assertNotSame(first, second);
+        assertEquals(1, watch.getHandles());
+        assertEquals(3, watch.getWatchedPositions());
+
+        watch.onBlockChanged(1);
+        assertFalse(second.isChanged());
+        watch.onBlockChanged(4);
+        assertTrue(second.isChanged());
+    }
+
+    @Test
+    public void testTagReloadChangesHandles()
+    {
+        final StructureWatch watch = new StructureWatch();
+        final StructureWatch.Handle handle = watch.watch(null, LongSet.of(1, 2, 3));
+        assertFalse(handle.isChanged());
+
+        StructureWatch.invalidateAll();
+        assertTrue(handle.isChanged());
+
+        // Watching again re-validates the handle
+        assertSame(handle, watch.watch(handle, LongSet.of(1, 2, 3)));
+        assertFalse(handle.isChanged());
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import com.google.gson.JsonObject;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.LevelHeightAccessor;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.Support;
+import net.dries007.tfc.util.tracker.SupportCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ensures that {@link SupportCache} finds exactly the same unsupported positions as the scan in {@link Support#scanUnsupportedPositions(net.minecraft.world.level.BlockGetter, BlockPos, BlockPos)}, while large tunnels are mined and supported.
+ */
+public class SupportCacheTests extends TestHelper
+{
+    static final int CHUNKS = 4;
+    static final int MIN_Y = -16;
+    static final int HEIGHT = 64;
+    static final Support.SupportRange RANGE = new Support.SupportRange(2, 2, 4);
+
+    // Boxes centered within this range (horizontally) are far enough from the edge that all chunks within range are loaded
+    static final int INNER_MIN = 16 + 4, INNER_MAX = 16 * (CHUNKS - 1) - 4;
+
+    @Test
+    public void testMiningTunnels()
+    {
+        final Random random = new Random(seed());
+        final Support beam = createSupport("beam", 2, 2, 4), post = createSupport("post", 1, 1, 2);
+        final World world = new World();
+        world.fill(random, 0.002f, beam, post);
+
+        final SupportCache cache = world.createCache();
+        assertRandomBoxesMatch(random, world, cache);
+
+        for (int tunnel = 0; tunnel < 40; tunnel++)
+        {
+            // Mine a tunnel along x or z, placing a support every few blocks, like a player would
+            final boolean alongX = random.nextBoolean();
+            final int y = MIN_Y + 2 + random.nextInt(HEIGHT - 4);
+            final int across = INNER_MIN + random.nextInt(INNER_MAX - INNER_MIN);
+            final int spacing = 2 + random.nextInt(5);
+            for (int along = 8; along < 16 * CHUNKS - 8; along++)
+            {
+                if (along % spacing == 0)
+                {
+                    final Support support = random.nextInt(4) == 0 ? post : beam;
+                    world.setSupport(cache, alongX ? along : across, y + 1, alongX ? across : along, support);
+                }
+                if (along % 8 == 0 && along >= INNER_MIN && along < INNER_MAX)
+                {
+                    assertTunnelMatches(world, cache, alongX, y, across, along);
+                }
+            }
+
+            // Then remove (or replace) some supports, possibly re-checking an area that was just supported
+            for (int i = 0; i < 10; i++)
+            {
+                final int along = INNER_MIN + random.nextInt(INNER_MAX - INNER_MIN);
+                final int x = alongX ? along : across, z = alongX ? across : along;
+                world.setSupport(cache, x, y + 1, z, random.nextInt(3) == 0 ? post : null);
+                assertTunnelMatches(world, cache, alongX, y, across, along);
+            }
+            assertRandomBoxesMatch(random, world, cache);
+        }
+    }
+
+    @Test
+    public void testChunkChanges()
+    {
+        final Random random = new Random(seed());
+        final Support beam = createSupport("beam", 2, 2, 4), post = createSupport("post", 1, 1, 2);
+        final World world = new World();
+        world.fill(random, 0.002f, beam, post);
+
+        final SupportCache cache = world.createCache();
+        assertRandomBoxesMatch(random, world, cache);
+        for (int i = 0; i < 10; i++)
+        {
+            // Replace a chunk entirely, as if it was unloaded and reloaded
+            final int chunkX = random.nextInt(CHUNKS), chunkZ = random.nextInt(CHUNKS);
+            world.fillChunk(random, chunkX, chunkZ, 0.004f, beam, post);
+            cache.onChunkChanged(chunkX, chunkZ);
+            assertRandomBoxesMatch(random, world, cache);
+        }
+    }
+
+    @Test
+    public void testUnloadedChunksAreUnknown()
+    {
+        final World world = new World();
+        final SupportCache cache = world.createCache();
+
+        assertNull(cache.findUnsupportedPositions(new BlockPos(2, 0, 20), new BlockPos(6, 2, 24))); // Within range of an unloaded chunk
+        assertNull(cache.findUnsupportedPositions(new BlockPos(20, MIN_Y - 2, 20), new BlockPos(24, MIN_Y + 2, 24))); // Outside the level
+        assertNotNull(cache.findUnsupportedPositions(new BlockPos(20, 0, 20), new BlockPos(24, 2, 24)));
+    }
+
+    static Support createSupport(String name, int up, int down, int horizontal)
+    {
+        final JsonObject json = new JsonObject();
+        json.addProperty("ingredient", "minecraft:oak_log");
+        json.addProperty("support_up", up);
+        json.addProperty("support_down", down);
+        json.addProperty("support_horizontal", horizontal);
+        return new Support(new ResourceLocation("tfc", name), json);
+    }
+
+    private void assertTunnelMatches(World world, SupportCache cache, boolean alongX, int y, int across, int along)
+    {
+        final BlockPos pos = alongX ? new BlockPos(along, y, across) : new BlockPos(across, y, along);
+        assertBoxMatches(world, cache, pos.offset(-4, -2, -4), pos.offset(4, 2, 4));
+    }
+
+    private void assertRandomBoxesMatch(Random random, World world, SupportCache cache)
+    {
+        for (int i = 0; i < 200; i++)
+        {
+            // Collapse checks are at most 9x5x9
+            final BlockPos pos = new BlockPos(INNER_MIN + random.nextInt(INNER_MAX - INNER_MIN), MIN_Y + 2 + random.nextInt(HEIGHT - 4), INNER_MIN + random.nextInt(INNER_MAX - INNER_MIN));
+            final int radX = (random.nextInt(5) + 4) / 2, radY = (random.nextInt(3) + 2) / 2, radZ = (random.nextInt(5) + 4) / 2;
+            assertBoxMatches(world, cache, pos.offset(-radX, -radY, -radZ), pos.offset(radX, radY, radZ));
+        }
+    }
+
+    private void assertBoxMatches(World world, SupportCache cache, BlockPos from, BlockPos to)
+    {
+        final List<BlockPos> actual = cache.findUnsupportedPositions(from, to);
+        assertNotNull(actual, "Box from " + from + " to " + to);
+        assertEquals(world.scanUnsupportedPositions(from, to), new HashSet<>(actual), "Box from " + from + " to " + to);
+    }
+
+    static class World implements LevelHeightAccessor
+    {
+        final Support[] supports = new Support[16 * CHUNKS * 16 * CHUNKS * HEIGHT];
+
+        void fill(Random random, float density, Support... types)
+        {
+            for (int x = 0; x < CHUNKS; x++)
+            {
+                for (int z = 0; z < CHUNKS; z++)
+                {
+                    fillChunk(random, x, z, density, types);
+                }
+            }
+        }
+
+        void fillChunk(Random random, int chunkX, int chunkZ, float density, Support... types)
+        {
+            for (int x = 16 * chunkX; x < 16 * chunkX + 16; x++)
+            {
+                for (int z = 16 * chunkZ; z < 16 * chunkZ + 16; z++)
+                {
+                    for (int y = MIN_Y; y < MIN_Y + HEIGHT; y++)
+                    {
+                        supports[index(x, y, z)] = random.nextFloat() < density ? types[random.nextInt(types.length)] : null;
+                    }
+                }
+            }
+        }
+
+        SupportCache createCache()
+        {
+            return new SupportCache(this, () -> RANGE, (chunkX, sectionY, chunkZ) -> {
+                if (chunkX < 0 || chunkX >= CHUNKS || chunkZ < 0 || chunkZ >= CHUNKS)
+                {
+                    return null; // Not loaded
+                }
+                final List<SupportCache.Source> sources = new ArrayList<>();
+                for (int i = 0; i < 16 * 16 * 16; i++)
+                {
+                    final int x = 16 * chunkX + (i & 15), y = 16 * sectionY + (i >> 8), z = 16 * chunkZ + ((i >> 4) & 15);
+                    final Support support = get(x, y, z);
+                    if (support != null)
+                    {
+                        sources.add(new SupportCache.Source(x, y, z, support));
+                    }
+                }
+                return sources;
+            });
+        }
+
+        Support get(int x, int y, int z)
+        {
+            return x >= 0 && x < 16 * CHUNKS && z >= 0 && z < 16 * CHUNKS && y >= MIN_Y && y < MIN_Y + HEIGHT ? supports[index(x, y, z)] : null;
+        }
+
+        void setSupport(SupportCache cache, int x, int y, int z, Support support)
+        {
+            final Support oldSupport = get(x, y, z);
+            supports[index(x, y, z)] = support;
+            if (oldSupport != support)
+            {
+                cache.onSupportChanged(x, y, z, oldSupport, support);
+            }
+        }
+
+        /**
+         * The original implementation of {@link Support#scanUnsupportedPositions(net.minecraft.world.level.BlockGetter, BlockPos, BlockPos)}, querying this world.
+         */
+        Set<BlockPos> scanUnsupportedPositions(BlockPos from, BlockPos to)
+        {
+            final Set<BlockPos> listSupported = new HashSet<>();
+            final Set<BlockPos> listUnsupported = new HashSet<>();
+            final int minX = Math.min(from.getX(), to.getX());
+            final int maxX = Math.max(from.getX(), to.getX());
+            final int minY = Math.min(from.getY(), to.getY());
+            final int maxY = Math.max(from.getY(), to.getY());
+            final int minZ = Math.min(from.getZ(), to.getZ());
+            final int maxZ = Math.max(from.getZ(), to.getZ());
+            for (BlockPos searchingPoint : BlockPos.betweenClosed(new BlockPos(minX - RANGE.horizontal(), minY - RANGE.down(), minZ - RANGE.horizontal()), new BlockPos(maxX + RANGE.horizontal(), maxY + RANGE.up(), maxZ + RANGE.horizontal())))
+            {
+                if (!listSupported.contains(searchingPoint))
+                {
+                    listUnsupported.add(searchingPoint.immutable());
+                }
+                final Support support = get(searchingPoint.getX(), searchingPoint.getY(), searchingPoint.getZ());
+                if (support != null)
+                {
+                    for (BlockPos supported : support.getSupportedArea(searchingPoint))
+                    {
+                        listSupported.add(supported.immutable());
+                        listUnsupported.remove(supported);
+                    }
+                }
+            }
+            listUnsupported.removeIf(content -> content.getX() < minX || content.getX() > maxX || content.getY() < minY || content.getY() > maxY || content.getZ() < minZ || content.getZ() > maxZ);
+            return listUnsupported;
+        }
+
+        @Override
+        public int getHeight()
+        {
+            return HEIGHT;
+        }
+
+        @Override
+        public int getMinBuildHeight()
+        {
+            return MIN_Y;
+        }
+
+        private int index(int x, int y, int z)
+        {
+            return x + 16 * CHUNKS * (z + 16 * CHUNKS * (y - MIN_Y));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.world.level.ChunkPos;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.ChunkDataCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkDataCacheTests extends TestHelper
+{
+    @Test
+    public void testGetUpdateRemove()
+    {
+        final ChunkDataCache cache = new ChunkDataCache("test", 1024);
+        final ChunkPos pos = new ChunkPos(3, -7);
+        final ChunkData data = ChunkData.createClient(pos);
+
+        assertNull(cache.get(pos));
+        cache.update(pos, data);
+        assertSame(data, cache.get(pos));
+        assertSame(data, cache.get(3, -7));
+        assertSame(data, cache.computeIfAbsent(pos, ChunkData::createClient));
+        assertSame(data, cache.remove(pos));
+        assertNull(cache.get(pos));
+
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed()
+    {
+        final ChunkDataCache cache = new ChunkDataCache("test", 256);
+        final ChunkPos first = new ChunkPos(0, 0);
+        cache.update(first, ChunkData.createClient(first));
+        for (int i = 1; i < 4096; i++)
+        {
+            final ChunkPos pos = new ChunkPos(i, -i);
+            cache.update(pos, ChunkData.createClient(pos));
+            assertNotNull(cache.get(first)); // Keep touching the first entry, so it is never the eldest
+        }
+
+        assertTrue(cache.size() <= 256, "Cache exceeded capacity: " + cache.size());
+        assertEquals(4096 - cache.size(), cache.evictions());
+        assertNotNull(cache.get(first));
+    }
+
+    @Test
+    public void testConcurrentLoadAndUnload() throws Exception
+    {
+        final int threads = 8, iterations = 20_000, range = 32, capacity = 4096;
+        final ChunkDataCache cache = new ChunkDataCache("test", capacity);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch go = new CountDownLatch(1);
+        final List<Future<Long>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++)
+        {
+            final long seed = t;
+            futures.add(executor.submit(() -> {
+                final Random random = new Random(seed);
+                long gets = 0;
+                go.await();
+                for (int i = 0; i < iterations; i++)
+                {
+                    final ChunkPos pos = new ChunkPos(random.nextInt(range) - range / 2, random.nextInt(range) - range / 2);
+                    switch (random.nextInt(4))
+                    {
+                        case 0 -> cache.update(pos, ChunkData.createClient(pos)); // Chunk load
+                        case 1 -> cache.remove(pos); // Chunk unload
+                        case 2 -> assertEquals(pos, cache.computeIfAbsent(pos, ChunkData::createClient).getPos()); // Chunk watch
+                        default -> {
+                            // Off-thread reader
+                            final ChunkData data = cache.get(pos);
+                            if (data != null)
+                            {
+                                assertEquals(pos, data.getPos());
+                            }
+                            gets++;
+                        }
+                    }
+                }
+                return gets;
+            }));
+        }
+
+        go.countDown();
+        long totalGets = 0;
+        for (Future<Long> future : futures)
+        {
+            totalGets += future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(totalGets, cache.hits() + cache.misses());
+        assertTrue(cache.size() <= capacity);
+        assertEquals(0, cache.evictions()); // The working set fits within the cache, so nothing should be evicted
+
+        // Every remaining entry must be consistent with it's key
+        for (int x = -range / 2; x < range / 2; x++)
+        {
+            for (int z = -range / 2; z < range / 2; z++)
+            {
+                final ChunkData data = cache.get(x, z);
+                if (data != null)
+                {
+                    assertEquals(new ChunkPos(x, z), data.getPos());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import net.minecraft.core.Registry;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.ForestType;
+import net.dries007.tfc.world.chunkdata.LerpFloatLayer;
+import net.dries007.tfc.world.chunkdata.PlateTectonicsClassification;
+import net.dries007.tfc.world.chunkdata.RockData;
+import net.dries007.tfc.world.settings.RockLayerSettings;
+import net.dries007.tfc.world.settings.RockSettings;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkDataFormatTests extends TestHelper
+{
+    @SuppressWarnings("deprecation")
+    public static RockLayerSettings createRockSettings()
+    {
+        final Map<ResourceLocation, RockSettings> map = new HashMap<>();
+        final List<Block> blocks = Registry.BLOCK.stream().toList();
+        for (int i = 0; i < 20; i++)
+        {
+            final ResourceLocation id = Helpers.identifier("rock_" + i);
+            final Block block = blocks.get(i);
+            map.put(id, new RockSettings(id, block, block, block, block, block, block, Optional.empty(), Optional.empty(), true, true, true));
+        }
+        return new RockLayerSettings(map, 1);
+    }
+
+    /**
+     * Creates fully generated chunk data, with rock layers in patches of a few distinct rocks, as would be seen in world generation.
+     */
+    public static Sample createSample(Random random, RockLayerSettings settings)
+    {
+        final List<RockSettings> rocks = settings.getRocks();
+        final RockSettings[][] layers = new RockSettings[3][256];
+        final int[] layerHeight = new int[256], surfaceHeight = new int[256], aquiferSurfaceHeight = new int[256];
+        for (RockSettings[] layer : layers)
+        {
+            final RockSettings first = rocks.get(random.nextInt(rocks.size())), second = rocks.get(random.nextInt(rocks.size()));
+            final int boundary = random.nextInt(16);
+            for (int i = 0; i < 256; i++)
+            {
+                layer[i] = (i & 15) + (i >> 4) < boundary ? first : second;
+            }
+        }
+        final int baseHeight = 40 + random.nextInt(120);
+        for (int i = 0; i < 256; i++)
+        {
+            layerHeight[i] = random.nextInt(21) - 10;
+            surfaceHeight[i] = baseHeight + random.nextInt(12);
+            aquiferSurfaceHeight[i] = baseHeight - 10 + random.nextInt(4);
+        }
+        return new Sample(layers[0], layers[1], layers[2], layerHeight, surfaceHeight, aquiferSurfaceHeight, random.nextFloat() * 500, random.nextFloat() * 40 - 20, ForestType.valueOf(random.nextInt(ForestType.values().length)), random.nextFloat(), random.nextFloat(), PlateTectonicsClassification.valueOf(random.nextInt(PlateTectonicsClassification.values().length)));
+    }
+
+    public static ChunkData createData(ChunkPos pos, RockLayerSettings settings, Sample sample)
+    {
+        final ChunkData data = new ChunkData(pos, settings);
+        final RockData rockData = new RockData(sample.bottom, sample.middle, sample.top, sample.layerHeight);
+        rockData.setSurfaceHeight(sample.surfaceHeight);
+        data.setRockData(rockData);
+        data.setAquiferSurfaceHeight(sample.aquiferSurfaceHeight);
+        data.setRainfall(new LerpFloatLayer(sample.rainfall, sample.rainfall + 10, sample.rainfall - 10, sample.rainfall + 5));
+        data.setAverageTemp(new LerpFloatLayer(sample.temperature, sample.temperature + 1, sample.temperature - 1, sample.temperature + 2));
+        data.setFloraData(sample.forestType, sample.forestWeirdness, sample.forestDensity);
+        data.setPlateTectonicsInfo(sample.plateTectonicsInfo);
+        data.setStatus(ChunkData.Status.FULL);
+        return data;
+    }
+
+    /**
+     * Writes chunk data in the original (unversioned) NBT format.
+     */
+    public static CompoundTag writeLegacy(RockLayerSettings settings, Sample sample)
+    {
+        final CompoundTag nbt = new CompoundTag();
+        nbt.putByte("status", (byte) ChunkData.Status.FULL.ordinal());
+        nbt.putByte("plateTectonicsInfo", (byte) sample.plateTectonicsInfo.ordinal());
+        nbt.put("rainfall", new LerpFloatLayer(sample.rainfall, sample.rainfall + 10, sample.rainfall - 10, sample.rainfall + 5).write());
+        nbt.put("temperature", new LerpFloatLayer(sample.temperature, sample.temperature + 1, sample.temperature - 1, sample.temperature + 2).write());
+        nbt.putByte("forestType", (byte) sample.forestType.ordinal());
+        nbt.putFloat("forestWeirdness", sample.forestWeirdness);
+        nbt.putFloat("forestDensity", sample.forestDensity);
+
+        final CompoundTag rockData = new CompoundTag();
+        rockData.putIntArray("bottomLayer", indices(settings, sample.bottom));
+        rockData.putIntArray("middleLayer", indices(settings, sample.middle));
+        rockData.putIntArray("topLayer", indices(settings, sample.top));
+        rockData.putIntArray("height", sample.layerHeight);
+        rockData.putIntArray("surfaceHeight", sample.surfaceHeight);
+        nbt.put("rockData", rockData);
+        nbt.putIntArray("aquiferSurfaceHeight", sample.aquiferSurfaceHeight);
+        return nbt;
+    }
+
+    private static int[] indices(RockLayerSettings settings, RockSettings[] layer)
+    {
+        final int[] array = new int[layer.length];
+        for (int i = 0; i < layer.length; i++)
+        {
+            array[i] = settings.getRocks().indexOf(layer[i]);
+        }
+        return array;
+    }
+
+    @Test
+    public void testRoundTrip()
+    {
+        final Random random = new Random(seed());
+        final RockLayerSettings settings = createRockSettings();
+        for (int i = 0; i < 20; i++)
+        {
+            final ChunkPos pos = new ChunkPos(random.nextInt(1000), random.nextInt(1000));
+            final ChunkData expected = createData(pos, settings, createSample(random, settings));
+            final ChunkData actual = new ChunkData(pos, settings);
+            actual.deserializeNBT(expected.serializeNBT());
+
+            assertSameData(expected, actual);
+        }
+    }
+
+    @Test
+    public void testReadLegacyFormat()
+    {
+        final Random random = new Random(seed());
+        final RockLayerSettings settings = createRockSettings();
+        for (int i = 0; i < 20; i++)
+        {
+            final ChunkPos pos = new ChunkPos(random.nextInt(1000), random.nextInt(1000));
+            final Sample sample = createSample(random, settings);
+            final ChunkData expected = createData(pos, settings, sample);
+            final ChunkData actual = new ChunkData(pos, settings);
+            actual.deserializeNBT(writeLegacy(settings, sample));
+
+            assertSameData(expected, actual);
+        }
+    }
+
+    private void assertSameData(ChunkData expected, ChunkData actual)
+    {
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getPlateTectonicsInfo(), actual.getPlateTectonicsInfo());
+        assertEquals(expected.getForestType(), actual.getForestType());
+        assertEquals(expected.getForestWeirdness(), actual.getForestWeirdness());
+        assertEquals(expected.getForestDensity(), actual.getForestDensity());
+        assertArrayEquals(expected.getAquiferSurfaceHeight(), actual.getAquiferSurfaceHeight());
+        for (int x = 0; x < 16; x++)
+        {
+            for (int z = 0; z < 16; z++)
+            {
+                assertEquals(expected.getRainfall(x, z), actual.getRainfall(x, z));
+                assertEquals(expected.getAverageTemp(x, z), actual.getAverageTemp(x, z));
+                assertSame(expected.getRockData().getBottomRock(x, z), actual.getRockData().getBottomRock(x, z));
+                for (int y = -64; y < 320; y += 2)
+                {
+                    assertSame(expected.getRockData().getRock(x, y, z), actual.getRockData().getRock(x, y, z), "Rock at " + x + ", " + y + ", " + z);
+                }
+            }
+        }
+    }
+
+    public record Sample(RockSettings[] bottom, RockSettings[] middle, RockSettings[] top, int[] layerHeight, int[] surfaceHeight, int[] aquiferSurfaceHeight, float rainfall, float temperature, ForestType forestType, float forestWeirdness, float forestDensity, PlateTectonicsClassification plateTectonicsInfo) {}
+}
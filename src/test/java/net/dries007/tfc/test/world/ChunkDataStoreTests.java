@@ -0,0 +1,92 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import net.minecraft.world.level.ChunkPos;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.ChunkDataStore;
+import net.dries007.tfc.world.settings.RockLayerSettings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkDataStoreTests extends TestHelper
+{
+    @Test
+    public void testCloseWithWritesInFlight(@TempDir Path directory) throws Exception
+    {
+        final int threads = 8;
+        final long fingerprint = seed();
+        final RockLayerSettings settings = ChunkDataFormatTests.createRockSettings();
+        final ChunkDataStore store = ChunkDataStore.open(directory, fingerprint);
+        assertNotNull(store);
+
+        // Written before the store is closed, so must be persisted
+        final ChunkPos knownPos = new ChunkPos(3, -7);
+        final ChunkData known = ChunkDataFormatTests.createData(knownPos, settings, ChunkDataFormatTests.createSample(new Random(seed()), settings));
+        store.writeAsync(known);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch writing = new CountDownLatch(threads);
+        final AtomicBoolean stop = new AtomicBoolean();
+        final List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++)
+        {
+            final long seed = seed() + t;
+            futures.add(executor.submit(() -> {
+                // Simulates world generation threads, which may still be generating (and writing) chunks after the store was closed
+                final Random random = new Random(seed);
+                int writes = 0;
+                while (!stop.get())
+                {
+                    final ChunkPos pos = new ChunkPos(random.nextInt(128) + 64, random.nextInt(128) + 64);
+                    final ChunkData data = ChunkDataFormatTests.createData(pos, settings, ChunkDataFormatTests.createSample(random, settings));
+                    store.read(data);
+                    store.writeAsync(data);
+                    if (++writes == 10)
+                    {
+                        writing.countDown();
+                    }
+                }
+                return writes;
+            }));
+        }
+
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        store.close();
+        Thread.sleep(50); // Keep writing for a while after the close
+        stop.set(true);
+        for (Future<Integer> future : futures)
+        {
+            assertTrue(future.get() >= 10); // Rethrows any exception from a late write
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        final ChunkDataStore reopened = ChunkDataStore.open(directory, fingerprint);
+        assertNotNull(reopened);
+        final ChunkData actual = new ChunkData(knownPos, settings);
+        assertTrue(reopened.read(actual));
+        assertEquals(known.getRainfall(5, 5), actual.getRainfall(5, 5));
+        assertSame(known.getRockData().getRock(5, 20, 5), actual.getRockData().getRock(5, 20, 5));
+        reopened.close();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.Registry;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.chunk.ProtoChunk;
+import net.minecraft.world.level.chunk.UpgradeData;
+import net.minecraft.world.level.levelgen.GenerationStep;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.levelgen.NoiseGeneratorSettings;
+import net.minecraft.world.level.levelgen.blending.Blender;
+import net.minecraftforge.gametest.GameTestHolder;
+
+import net.dries007.tfc.MyTest;
+import net.dries007.tfc.TestAssertions;
+import net.dries007.tfc.world.ChunkNoiseFiller;
+import net.dries007.tfc.world.TFCChunkGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ensures that filling noise in parallel, via {@link ChunkNoiseFiller#fillFromNoise(ForkJoinPool, java.util.function.Supplier)}, produces identical chunks to the serial filler.
+ */
+@GameTestHolder
+public class ChunkNoiseFillerTests
+{
+    @GameTestGenerator
+    public Collection<TestFunction> generator()
+    {
+        return TestAssertions.testGenerator();
+    }
+
+    @MyTest(unitTest = true, timeoutTicks = 1200)
+    public void testParallelFillIsIdenticalToSerial(GameTestHelper helper)
+    {
+        final ServerLevel level = helper.getLevel();
+        final RegistryAccess registries = level.registryAccess();
+        final Registry<Biome> biomes = registries.registryOrThrow(Registry.BIOME_REGISTRY);
+        final Random random = new Random(1234);
+
+        for (int i = 0; i < 16; i++)
+        {
+            final long seed = random.nextLong();
+            final TFCChunkGenerator generator = TFCChunkGenerator.defaultChunkGenerator(registries.registryOrThrow(Registry.STRUCTURE_SET_REGISTRY), registries.registryOrThrow(Registry.NOISE_REGISTRY), registries.registryOrThrow(Registry.NOISE_GENERATOR_SETTINGS_REGISTRY).getHolderOrThrow(NoiseGeneratorSettings.OVERWORLD), biomes, seed);
+            final ChunkPos pos = new ChunkPos(random.nextInt(2000) - 1000, random.nextInt(2000) - 1000);
+
+            final ProtoChunk serial = new ProtoChunk(pos, UpgradeData.EMPTY, level, biomes, null);
+            final ProtoChunk parallel = new ProtoChunk(pos, UpgradeData.EMPTY, level, biomes, null);
+
+            generator.createBiomes(biomes, Runnable::run, Blender.empty(), null, serial).join();
+            generator.fillFromNoise(serial, null).join();
+
+            generator.createBiomes(biomes, Runnable::run, Blender.empty(), null, parallel).join();
+            generator.fillFromNoise(parallel, ForkJoinPool.commonPool()).join();
+
+            final String message = "Seed " + seed + " at " + pos;
+            for (int sectionIndex = 0; sectionIndex < serial.getSectionsCount(); sectionIndex++)
+            {
+                // Compare the serialized form of each section, which includes the palette, and so the order in which states were set
+                final FriendlyByteBuf expected = new FriendlyByteBuf(Unpooled.buffer()), actual = new FriendlyByteBuf(Unpooled.buffer());
+                serial.getSection(sectionIndex).write(expected);
+                parallel.getSection(sectionIndex).write(actual);
+                assertEquals(expected, actual, message + ", section " + sectionIndex);
+            }
+            for (Heightmap.Types type : new Heightmap.Types[] {Heightmap.Types.OCEAN_FLOOR_WG, Heightmap.Types.WORLD_SURFACE_WG})
+            {
+                assertArrayEquals(serial.getOrCreateHeightmapUnprimed(type).getRawData(), parallel.getOrCreateHeightmapUnprimed(type).getRawData(), message + ", heightmap " + type);
+            }
+            assertArrayEquals(serial.getOrCreateCarvingMask(GenerationStep.Carving.AIR).toArray(), parallel.getOrCreateCarvingMask(GenerationStep.Carving.AIR).toArray(), message + ", carving mask");
+            assertArrayEquals(serial.getPostProcessing(), parallel.getPostProcessing(), message + ", post processing");
+            assertEquals(serial.getLights().toList(), parallel.getLights().toList(), message + ", lights");
+        }
+    }
+}
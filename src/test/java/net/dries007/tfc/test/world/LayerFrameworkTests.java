@@ -15,7 +15,10 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.IArtist;
+import net.dries007.tfc.world.layer.TFCLayers;
 import net.dries007.tfc.world.layer.framework.*;
+import net.dries007.tfc.world.river.Watershed;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -103,6 +106,45 @@ public class LayerFrameworkTests extends TestHelper
         }
     }
 
+    @Test
+    public void testFillMatchesGet()
+    {
+        final long seed = seed();
+        final Watershed.Context watersheds = new Watershed.Context(TFCLayers.createEarlyPlateLayers(seed), seed, 0.5f, 0.8f, 14, 0.2f);
+
+        assertFillMatchesGet("rock", TFCLayers.createOverworldRockLayer(seed, 7, 10), seed);
+        assertFillMatchesGet("forest", TFCLayers.createOverworldForestLayer(seed, IArtist.nope()), seed);
+        assertFillMatchesGet("biomes", TFCLayers.createOverworldBiomeLayerWithRivers(seed, watersheds, IArtist.nope(), IArtist.nope()), seed);
+    }
+
+    private void assertFillMatchesGet(String name, AreaFactory factory, long seed)
+    {
+        final Random random = new Random(seed);
+        for (int i = 0; i < 20; i++)
+        {
+            // Use separate areas, so the fill cannot observe anything cached by the point queries
+            final Area pointArea = factory.get(), fillArea = factory.get();
+            final int minX = random.nextInt(20_000) - 10_000, minZ = random.nextInt(20_000) - 10_000;
+            final int width = 1 + random.nextInt(24), height = 1 + random.nextInt(24);
+            final int[] values = new int[width * height];
+
+            fillArea.fill(minX, minZ, width, height, values);
+            for (int z = 0; z < height; z++)
+            {
+                for (int x = 0; x < width; x++)
+                {
+                    final int posX = minX + x, posZ = minZ + z;
+                    assertEquals(pointArea.get(posX, posZ), values[x + width * z], () -> "Layer " + name + " fill() differs from get() at x=" + posX + ", z=" + posZ);
+                }
+            }
+
+            // A second fill is served from the values cached by the first
+            final int[] cachedValues = new int[width * height];
+            fillArea.fill(minX, minZ, width, height, cachedValues);
+            assertArrayEquals(values, cachedValues, () -> "Layer " + name + " cached fill() differs from uncached fill()");
+        }
+    }
+
     private void resolve(ExecutorService service, List<Future<Integer>> futures)
     {
         Integer result = null;
@@ -0,0 +1,103 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.core.BlockPos;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.commands.LocateSearch;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocateSearchTests extends TestHelper
+{
+    @Test
+    public void testSerialOrderMatchesRings()
+    {
+        final int radius = 12, step = 3;
+        final List<BlockPos> expected = new ArrayList<>(), actual = new ArrayList<>();
+
+        // The original nested ring search
+        for (int r = 1; r < radius; r++)
+        {
+            for (int d = 0; d < 2 * r; d++)
+            {
+                expected.add(new BlockPos(step * (d - r), 0, step * -r));
+                expected.add(new BlockPos(step * r, 0, step * (d - r)));
+                expected.add(new BlockPos(step * -r, 0, step * (d + 1 - r)));
+                expected.add(new BlockPos(step * (d + 1 - r), 0, step * r));
+            }
+        }
+
+        assertNull(LocateSearch.findSerial(0, 0, radius, step, (x, z) -> {
+            actual.add(new BlockPos(x, 0, z));
+            return null;
+        }));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testParallelMatchesSerial()
+    {
+        final Random random = new Random(seed());
+        for (int i = 0; i < 50; i++)
+        {
+            // Sparse, pseudo random hits, so most searches find one, often with several hits within the same wave
+            final long salt = random.nextLong();
+            final int rarity = 1 + random.nextInt(20_000);
+            final int centerX = random.nextInt(1000) - 500, centerZ = random.nextInt(1000) - 500;
+            final LocateSearch.SearchFunction function = (x, z) -> Math.floorMod(HashCommon.mix(salt ^ BlockPos.asLong(x, 0, z)), rarity) == 0 ? new BlockPos(x, 0, z) : null;
+
+            final BlockPos expected = LocateSearch.findSerial(centerX, centerZ, 128, 2, function);
+            final LocateSearch.Result actual = LocateSearch.start(centerX, centerZ, 128, 2, function, ForkJoinPool.commonPool(), TimeUnit.SECONDS.toNanos(30)).future().join();
+
+            assertEquals(expected == null ? LocateSearch.Status.NOT_FOUND : LocateSearch.Status.FOUND, actual.status());
+            assertEquals(expected, actual.pos());
+        }
+    }
+
+    @Test
+    public void testCancel()
+    {
+        final LocateSearch search = LocateSearch.start(0, 0, 1024, 1, (x, z) -> {
+            sleep();
+            return null;
+        }, ForkJoinPool.commonPool(), TimeUnit.SECONDS.toNanos(30));
+        search.cancel();
+        assertEquals(new LocateSearch.Result(LocateSearch.Status.CANCELLED, null), search.future().join());
+    }
+
+    @Test
+    public void testTimeBudget()
+    {
+        final LocateSearch search = LocateSearch.start(0, 0, 1024, 1, (x, z) -> {
+            sleep();
+            return null;
+        }, ForkJoinPool.commonPool(), TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(new LocateSearch.Result(LocateSearch.Status.TIMED_OUT, null), search.future().join());
+    }
+
+    private static void sleep()
+    {
+        try
+        {
+            Thread.sleep(1);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.Random;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.noise.Noise2D;
+import net.dries007.tfc.world.noise.Noise3D;
+import net.dries007.tfc.world.noise.OpenSimplex2D;
+import net.dries007.tfc.world.noise.OpenSimplex3D;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch evaluation of noise must be identical, not just close, to evaluating each point.
+ */
+public class NoiseBatchTests extends TestHelper
+{
+    static final int COUNT = 1000;
+
+    @Test
+    public void testNoise2D()
+    {
+        final long seed = seed();
+        final Noise2D base = new OpenSimplex2D(seed).octaves(4).spread(0.02f);
+
+        assertBatchEquals("base", base);
+        assertBatchEquals("ridged", base.ridged());
+        assertBatchEquals("abs", base.abs());
+        assertBatchEquals("terraces", base.terraces(5));
+        assertBatchEquals("scaled", base.scaled(-30, 50));
+        assertBatchEquals("scaled range", base.scaled(-0.5f, 0.5f, 10, 20));
+        assertBatchEquals("affine", base.affine(3.2f, -1.1f));
+        assertBatchEquals("clamped", base.scaled(-2, 2).clamped(-1, 1));
+        assertBatchEquals("map", base.map(value -> value * value));
+        assertBatchEquals("add", base.add(new OpenSimplex2D(seed + 1).spread(0.1f)));
+        assertBatchEquals("lazy product", base.clamped(0, 1).lazyProduct(new OpenSimplex2D(seed + 2).spread(0.1f)));
+        assertBatchEquals("lazy product, all zero", base.map(value -> 0).lazyProduct(new OpenSimplex2D(seed + 3)));
+        assertBatchEquals("warped", base.warped(new OpenSimplex2D(seed + 4).octaves(2).spread(0.01f).scaled(-10, 10)));
+        assertBatchEquals("lambda", (x, z) -> x * 0.1f - z);
+    }
+
+    @Test
+    public void testNoise2DGrid()
+    {
+        final Noise2D noise = new OpenSimplex2D(seed()).octaves(2).scaled(-10, 10).spread(0.03f);
+        final float[] out = new float[16 * 16];
+        for (int chunk = -5; chunk < 5; chunk++)
+        {
+            final int minX = chunk * 16, minZ = chunk * -97;
+            noise.fill(minX, minZ, 16, 16, out);
+            for (int x = 0; x < 16; x++)
+            {
+                for (int z = 0; z < 16; z++)
+                {
+                    assertEquals(noise.noise(minX + x, minZ + z), out[x + 16 * z], "At " + (minX + x) + ", " + (minZ + z));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNoise3D()
+    {
+        final long seed = seed();
+        final Noise3D base = new OpenSimplex3D(seed).octaves(3).spread(0.04f);
+
+        assertBatchEquals("base", base);
+        assertBatchEquals("scaled", base.scaled(-5, 5));
+        assertBatchEquals("scaled range", base.scaled(0, 0.3f, 1, 2));
+        assertBatchEquals("warped", base.warped(new OpenSimplex3D(seed + 1).spread(0.02f)));
+    }
+
+    private void assertBatchEquals(String name, Noise2D noise)
+    {
+        final Random random = new Random(seed());
+        final float[] xs = new float[COUNT], zs = new float[COUNT], out = new float[COUNT];
+        for (int i = 0; i < COUNT; i++)
+        {
+            xs[i] = random.nextFloat() * 10_000 - 5000;
+            zs[i] = random.nextInt(10_000) - 5000;
+        }
+        noise.fill(xs, zs, out, COUNT);
+        for (int i = 0; i < COUNT; i++)
+        {
+            assertEquals(noise.noise(xs[i], zs[i]), out[i], name + " at " + xs[i] + ", " + zs[i]);
+        }
+    }
+
+    private void assertBatchEquals(String name, Noise3D noise)
+    {
+        final Random random = new Random(seed());
+        final float[] xs = new float[COUNT], ys = new float[COUNT], zs = new float[COUNT], out = new float[COUNT];
+        for (int i = 0; i < COUNT; i++)
+        {
+            xs[i] = random.nextFloat() * 10_000 - 5000;
+            ys[i] = random.nextInt(384) - 64;
+            zs[i] = random.nextFloat() * 10_000 - 5000;
+        }
+        noise.fill(xs, ys, zs, out, COUNT);
+        for (int i = 0; i < COUNT; i++)
+        {
+            assertEquals(noise.noise(xs[i], ys[i], zs[i]), out[i], name + " at " + xs[i] + ", " + ys[i] + ", " + zs[i]);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.RotatedPillarBlock;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.StairBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.templatesystem.BlockIgnoreProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.feature.tree.CompiledTreeTemplate;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreeTemplateTests extends TestHelper
+{
+    /**
+     * Creates the blocks of a tree-like template: a trunk of rotated logs, a blob of leaves, with air and a structure block mixed in, as they would be in a saved template.
+     */
+    public static List<StructureTemplate.StructureBlockInfo> createTreeBlocks(Random random, int size)
+    {
+        final List<StructureTemplate.StructureBlockInfo> blocks = new ArrayList<>();
+        final BlockState[] leaves = {Blocks.OAK_LEAVES.defaultBlockState(), Blocks.BIRCH_LEAVES.defaultBlockState()};
+        final int center = size / 2;
+        for (int x = 0; x < size; x++)
+        {
+            for (int y = 0; y < size; y++)
+            {
+                for (int z = 0; z < size; z++)
+                {
+                    final BlockPos pos = new BlockPos(x, y, z);
+                    final BlockState state;
+                    if (x == center && z == center)
+                    {
+                        state = Blocks.OAK_LOG.defaultBlockState().setValue(RotatedPillarBlock.AXIS, Direction.Axis.Y);
+                    }
+                    else if (y == center && (x == center || z == center))
+                    {
+                        state = Blocks.OAK_LOG.defaultBlockState().setValue(RotatedPillarBlock.AXIS, x == center ? Direction.Axis.Z : Direction.Axis.X);
+                    }
+                    else if (y > center / 2 && random.nextInt(3) > 0)
+                    {
+                        state = leaves[random.nextInt(leaves.length)];
+                    }
+                    else if (random.nextInt(50) == 0)
+                    {
+                        state = Blocks.OAK_STAIRS.defaultBlockState().setValue(StairBlock.FACING, Direction.Plane.HORIZONTAL.getRandomDirection(random));
+                    }
+                    else
+                    {
+                        state = random.nextInt(100) == 0 ? Blocks.STRUCTURE_BLOCK.defaultBlockState() : Blocks.AIR.defaultBlockState();
+                    }
+                    blocks.add(new StructureTemplate.StructureBlockInfo(pos, state, null));
+                }
+            }
+        }
+        return blocks;
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testCompiledTemplateIsIdenticalToProcessed()
+    {
+        final Random random = new Random(seed());
+        final List<StructureTemplate.StructureBlockInfo> blocks = createTreeBlocks(random, 9);
+        for (Mirror mirror : Mirror.values())
+        {
+            for (Rotation rotation : Rotation.values())
+            {
+                final StructurePlaceSettings settings = new StructurePlaceSettings()
+                    .addProcessor(BlockIgnoreProcessor.STRUCTURE_AND_AIR)
+                    .setMirror(mirror)
+                    .setRotation(rotation);
+                final List<StructureTemplate.StructureBlockInfo> expected = StructureTemplate.processBlockInfos(null, BlockPos.ZERO, BlockPos.ZERO, settings, blocks, null);
+                final CompiledTreeTemplate actual = CompiledTreeTemplate.compile(blocks, mirror, rotation);
+
+                assertNotNull(actual);
+                assertEquals(expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++)
+                {
+                    final StructureTemplate.StructureBlockInfo info = expected.get(i);
+                    assertEquals(info.pos, actual.getPos(i), "Position " + i + " with " + mirror + ", " + rotation);
+                    assertSame(info.state.mirror(mirror).rotate(rotation), actual.getState(i), "State " + i + " with " + mirror + ", " + rotation);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTooLargeTemplateIsNotCompiled()
+    {
+        final List<StructureTemplate.StructureBlockInfo> blocks = List.of(
+            new StructureTemplate.StructureBlockInfo(BlockPos.ZERO, Blocks.OAK_LOG.defaultBlockState(), null),
+            new StructureTemplate.StructureBlockInfo(new BlockPos(0, 600, 0), Blocks.OAK_LEAVES.defaultBlockState(), null)
+        );
+        assertNull(CompiledTreeTemplate.compile(blocks, Mirror.NONE, Rotation.NONE));
+    }
+}